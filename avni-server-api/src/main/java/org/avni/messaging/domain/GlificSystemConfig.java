@@ -27,6 +27,10 @@ public class GlificSystemConfig {
         return get(PASSWORD);
     }
 
+    public Long getOrganisationId() {
+        return externalSystemConfig.getOrganisationId();
+    }
+
     public String getAvniSystemUser() {
         return get(AVNI_SYSTEM_USER);
     }
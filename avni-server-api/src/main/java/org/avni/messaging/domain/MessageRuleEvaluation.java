@@ -0,0 +1,55 @@
+package org.avni.messaging.domain;
+
+/**
+ * A saved entity whose message rules are yet to be evaluated, as queued in message_rule_evaluation_queue.
+ */
+public class MessageRuleEvaluation {
+    private final long id;
+    private final EntityType entityType;
+    private final Long entityTypeId;
+    private final Long entityId;
+    private final Long subjectId;
+    private final Long userId;
+    private final int attempts;
+
+    public MessageRuleEvaluation(long id, EntityType entityType, Long entityTypeId, Long entityId, Long subjectId, Long userId, int attempts) {
+        this.id = id;
+        this.entityType = entityType;
+        this.entityTypeId = entityTypeId;
+        this.entityId = entityId;
+        this.subjectId = subjectId;
+        this.userId = userId;
+        this.attempts = attempts;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityTypeId() {
+        return entityTypeId;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return attempts made so far, including the one in progress
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -1,57 +1,82 @@
 package org.avni.messaging.external;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.avni.messaging.contract.glific.*;
 import org.avni.messaging.domain.GlificSystemConfig;
 import org.avni.messaging.domain.exception.GlificConnectException;
 import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
 import org.avni.server.domain.extenalSystem.ExternalSystemConfig;
 import org.avni.server.domain.extenalSystem.SystemName;
+import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Calls the Glific API of the organisation of the user. A Glific session is kept per organisation and used until shortly
+ * before its token expires, or until Glific rejects it, rather than signing in for every call. Threads of an
+ * organisation needing a session at the same time may each sign in, the first session stored is kept. Calls of an
+ * organisation can be limited with avni.messaging.glific.maxCallsPerSecond, across the threads sending its messages; off
+ * by default, as a call waiting for its turn holds the transaction (and connection) of the messages being sent.
+ */
 @Service
 public class GlificRestClient {
     public static final String AUTH_URL = "/api/v1/session";
+    private static final long SESSION_RENEWAL_MARGIN_MILLIS = 60000;
+    private static final long DEFAULT_SESSION_MILLIS = 10 * 60000;
     private final String REQUEST_URL = "/api";
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final RestTemplate restTemplate;
+    private final double maxCallsPerSecond;
+    private final Map<Long, GlificSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
 
     private final ExternalSystemConfigRepository organisationConfigRepository;
 
     @Autowired
-    public GlificRestClient(RestTemplateBuilder builder, ExternalSystemConfigRepository organisationConfigRepository) {
+    public GlificRestClient(RestTemplateBuilder builder, ExternalSystemConfigRepository organisationConfigRepository,
+                            @Value("${avni.messaging.glific.maxCallsPerSecond}") double maxCallsPerSecond) {
         this.restTemplate = builder.build();
         this.organisationConfigRepository = organisationConfigRepository;
+        this.maxCallsPerSecond = maxCallsPerSecond;
     }
 
     public GlificAuth authenticate() {
-        HttpEntity<Object> request = new RequestObjectBuilder()
-                .withRequestObject(new GlificAuthRequest(new GlificUser(getSystemConfig())))
-                .withJsonContent()
-                .withAccept()
-                .build();
-
-        return makeCall(AUTH_URL, request,
-                new ParameterizedTypeReference<GlificResponse<GlificAuth>>() {
-                });
+        return authenticate(getSystemConfig());
     }
 
     public <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType) {
-        return callAPI(requestObject, responseType, this.authenticate());
+        GlificSystemConfig systemConfig = getSystemConfig();
+        GlificSession session = getSession(systemConfig);
+        try {
+            return callAPI(systemConfig, requestObject, responseType, session.auth);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.UNAUTHORIZED) throw e;
+            logger.info("Glific session of organisation {} was rejected, signing in again", systemConfig.getOrganisationId());
+            sessions.remove(systemConfig.getOrganisationId(), session);
+            return callAPI(systemConfig, requestObject, responseType, getSession(systemConfig).auth);
+        }
     }
 
     public <T> T callAPI(Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType, GlificAuth auth) {
+        return callAPI(getSystemConfig(), requestObject, responseType, auth);
+    }
+
+    private <T> T callAPI(GlificSystemConfig systemConfig, Object requestObject, ParameterizedTypeReference<GlificResponse<T>> responseType, GlificAuth auth) {
         HttpEntity<Object> request = new RequestObjectBuilder()
                 .withRequestObject(requestObject)
                 .withAuth(auth)
@@ -59,11 +84,38 @@ public class GlificRestClient {
                 .withAccept()
                 .build();
 
-        return makeCall(REQUEST_URL, request, responseType);
+        if (maxCallsPerSecond > 0) {
+            rateLimiters.computeIfAbsent(systemConfig.getOrganisationId(), organisationId -> RateLimiter.create(maxCallsPerSecond)).acquire();
+        }
+        return makeCall(systemConfig, REQUEST_URL, request, responseType);
     }
 
-    private <T> T makeCall(String url, HttpEntity<Object> request, ParameterizedTypeReference<GlificResponse<T>> responseType)  {
-        String fullUrl = getSystemConfig().getBaseUrl() + (StringUtils.isEmpty(url) ? "/" : url);
+    private GlificAuth authenticate(GlificSystemConfig systemConfig) {
+        HttpEntity<Object> request = new RequestObjectBuilder()
+                .withRequestObject(new GlificAuthRequest(new GlificUser(systemConfig)))
+                .withJsonContent()
+                .withAccept()
+                .build();
+
+        return makeCall(systemConfig, AUTH_URL, request,
+                new ParameterizedTypeReference<GlificResponse<GlificAuth>>() {
+                });
+    }
+
+    private GlificSession getSession(GlificSystemConfig systemConfig) {
+        Long organisationId = systemConfig.getOrganisationId();
+        GlificSession session = sessions.get(organisationId);
+        if (session != null && session.isValidFor(systemConfig)) return session;
+        if (session != null) sessions.remove(organisationId, session);
+
+        // signing in is not done inside a map operation, as it would hold up the map for the length of the call
+        GlificSession newSession = new GlificSession(systemConfig, authenticate(systemConfig));
+        GlificSession current = sessions.putIfAbsent(organisationId, newSession);
+        return current != null && current.isValidFor(systemConfig) ? current : newSession;
+    }
+
+    private <T> T makeCall(GlificSystemConfig systemConfig, String url, HttpEntity<Object> request, ParameterizedTypeReference<GlificResponse<T>> responseType)  {
+        String fullUrl = systemConfig.getBaseUrl() + (StringUtils.isEmpty(url) ? "/" : url);
         logger.info("Calling glific - {}", fullUrl);
         ResponseEntity<GlificResponse<T>> responseEntity = restTemplate.exchange(fullUrl, HttpMethod.POST, request, responseType);
 
@@ -87,6 +139,36 @@ public class GlificRestClient {
         return new GlificSystemConfig(externalSystemConfig);
     }
 
+    private static class GlificSession {
+        private final GlificAuth auth;
+        private final String account;
+        private final long renewAtMillis;
+
+        GlificSession(GlificSystemConfig systemConfig, GlificAuth auth) {
+            this.auth = auth;
+            this.account = getAccount(systemConfig);
+            this.renewAtMillis = getExpiryMillis(auth) - SESSION_RENEWAL_MARGIN_MILLIS;
+        }
+
+        boolean isValidFor(GlificSystemConfig systemConfig) {
+            return System.currentTimeMillis() < renewAtMillis && account.equals(getAccount(systemConfig));
+        }
+
+        private static String getAccount(GlificSystemConfig systemConfig) {
+            return String.format("%s|%s|%s", systemConfig.getBaseUrl(), systemConfig.getPhone(), systemConfig.getPassword());
+        }
+
+        private static long getExpiryMillis(GlificAuth auth) {
+            if (auth != null && auth.getTokenExpiryTime() != null) {
+                try {
+                    return new DateTime(auth.getTokenExpiryTime()).getMillis();
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+            return System.currentTimeMillis() + DEFAULT_SESSION_MILLIS;
+        }
+    }
+
     private class RequestObjectBuilder {
         private final HttpHeaders headers;
         private Object requestObject;
@@ -0,0 +1,133 @@
+package org.avni.messaging.repository;
+
+import org.avni.messaging.domain.EntityType;
+import org.avni.messaging.domain.MessageRuleEvaluation;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outbox of entities whose message rules are to be evaluated (message_rule_evaluation_queue). Entries are claimed for a
+ * lease, by pushing their next attempt time out, so that an entry whose evaluation was cut short (say by a restart) is
+ * picked up again once the lease is over, and so that more than one server can drain the queue (skip locked). Entries
+ * that failed all their attempts are marked failed, and are not claimed again.
+ */
+@Repository
+public class MessageRuleEvaluationQueueRepository {
+    private static final String CLAIM_QUERY = "update message_rule_evaluation_queue q " +
+            "set attempts = q.attempts + 1, next_attempt_date_time = now() + :leaseSeconds * interval '1 second' " +
+            "where q.id in (select id from message_rule_evaluation_queue " +
+            "               where organisation_id = :organisationId and failed_date_time is null and next_attempt_date_time <= now() " +
+            "               order by next_attempt_date_time, id limit :batchSize for update skip locked) " +
+            "returning q.id, q.entity_type, q.entity_type_id, q.entity_id, q.subject_id, q.user_id, q.attempts";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MessageRuleEvaluationQueueRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void enqueue(Long organisationId, EntityType entityType, Long entityTypeId, Long entityId, Long subjectId, Long userId) {
+        jdbcTemplate.update("insert into message_rule_evaluation_queue (organisation_id, entity_type, entity_type_id, entity_id, subject_id, user_id, next_attempt_date_time, created_date_time) " +
+                        "values (:organisationId, :entityType, :entityTypeId, :entityId, :subjectId, :userId, now(), now())",
+                new MapSqlParameterSource()
+                        .addValue("organisationId", organisationId)
+                        .addValue("entityType", entityType.name())
+                        .addValue("entityTypeId", entityTypeId)
+                        .addValue("entityId", entityId)
+                        .addValue("subjectId", subjectId)
+                        .addValue("userId", userId));
+    }
+
+    /**
+     * Removes evaluations not yet done for the entity, when it is voided before its message rules were evaluated
+     */
+    public void removePending(Long entityId, EntityType entityType) {
+        jdbcTemplate.update("delete from message_rule_evaluation_queue where entity_id = :entityId and entity_type = :entityType",
+                new MapSqlParameterSource()
+                        .addValue("entityId", entityId)
+                        .addValue("entityType", entityType.name()));
+    }
+
+    /**
+     * @return up to batchSize evaluations that are due and have not failed, in the order they were queued. They are not
+     * claimed again until leaseSeconds pass.
+     */
+    public List<MessageRuleEvaluation> claimDue(Long organisationId, int batchSize, int leaseSeconds) {
+        List<MessageRuleEvaluation> evaluations = jdbcTemplate.query(CLAIM_QUERY,
+                new MapSqlParameterSource()
+                        .addValue("organisationId", organisationId)
+                        .addValue("batchSize", batchSize)
+                        .addValue("leaseSeconds", leaseSeconds),
+                (rs, rowNum) -> new MessageRuleEvaluation(rs.getLong("id"), EntityType.valueOf(rs.getString("entity_type")),
+                        rs.getLong("entity_type_id"), rs.getLong("entity_id"), rs.getLong("subject_id"), rs.getLong("user_id"),
+                        rs.getInt("attempts")));
+        evaluations.sort(Comparator.comparingLong(MessageRuleEvaluation::getId));
+        return evaluations;
+    }
+
+    /**
+     * Locks the evaluation till the end of the transaction, so that the entity cannot be voided (which removes its
+     * pending evaluations) until then.
+     *
+     * @return false if the evaluation is no longer queued, i.e. the entity has been voided since it was claimed
+     */
+    public boolean lock(long id) {
+        return !jdbcTemplate.queryForList("select id from message_rule_evaluation_queue where id = :id for update",
+                new MapSqlParameterSource("id", id), Long.class).isEmpty();
+    }
+
+    public boolean isEntityVoided(EntityType entityType, Long entityId) {
+        List<Boolean> voided = jdbcTemplate.queryForList(String.format("select is_voided from %s where id = :id", getTableName(entityType)),
+                new MapSqlParameterSource("id", entityId), Boolean.class);
+        return voided.isEmpty() || voided.get(0);
+    }
+
+    public void remove(long id) {
+        jdbcTemplate.update("delete from message_rule_evaluation_queue where id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    public void retryLater(long id, int delaySeconds, String error) {
+        jdbcTemplate.update("update message_rule_evaluation_queue set next_attempt_date_time = now() + :delaySeconds * interval '1 second', last_error = :error where id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("delaySeconds", delaySeconds)
+                        .addValue("error", error));
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update("update message_rule_evaluation_queue set failed_date_time = now(), last_error = :error where id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("error", error));
+    }
+
+    /**
+     * @return the number of evaluations of the organisation removed, that failed more than retentionDays ago
+     */
+    public int purgeFailed(Long organisationId, int retentionDays) {
+        return jdbcTemplate.update("delete from message_rule_evaluation_queue where organisation_id = :organisationId " +
+                        "and failed_date_time < now() - :retentionDays * interval '1 day'",
+                new MapSqlParameterSource()
+                        .addValue("organisationId", organisationId)
+                        .addValue("retentionDays", retentionDays));
+    }
+
+    private static String getTableName(EntityType entityType) {
+        switch (entityType) {
+            case Subject:
+                return "individual";
+            case ProgramEnrolment:
+                return "program_enrolment";
+            case Encounter:
+                return "encounter";
+            case ProgramEncounter:
+                return "program_encounter";
+            default:
+                throw new IllegalArgumentException(String.format("No table for entity type %s", entityType));
+        }
+    }
+}
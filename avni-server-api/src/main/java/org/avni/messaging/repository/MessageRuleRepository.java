@@ -14,5 +14,6 @@ public interface MessageRuleRepository extends CHSRepository<MessageRule> {
     Page<MessageRule> findAll(Pageable pageable);
     List<MessageRule> findAll();
     List<MessageRule> findAllByEntityTypeAndEntityTypeIdAndIsVoidedFalse(EntityType entityType, Long entityTypeId);
+    boolean existsByEntityTypeAndEntityTypeIdAndIsVoidedFalse(EntityType entityType, Long entityTypeId);
     Page<MessageRule> findByEntityTypeAndEntityTypeId(EntityType entityType, Long entityTypeId, Pageable pageable);
 }
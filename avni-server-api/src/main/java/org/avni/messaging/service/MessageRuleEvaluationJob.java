@@ -0,0 +1,109 @@
+package org.avni.messaging.service;
+
+import com.bugsnag.Bugsnag;
+import org.avni.messaging.domain.MessageRuleEvaluation;
+import org.avni.messaging.repository.MessageRuleEvaluationQueueRepository;
+import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.service.OrganisationConfigService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * Evaluates the message rules of saved entities queued by {@link MessageRuleEvaluationService}, organisations in
+ * parallel (see {@link PerOrganisationMessagingRunner}). Each run takes at most maxBatchesPerRun batches of an
+ * organisation, so that an organisation with a large backlog (say after a big sync upload) does not hold up the others;
+ * the rest is taken in the next runs. A failed evaluation is attempted again after a delay that doubles with every
+ * attempt, up to maxAttempts attempts, after which it is marked failed with its last error. Failed evaluations are kept
+ * for failedRetentionDays, to be looked into, and then purged.
+ */
+@Component
+public class MessageRuleEvaluationJob {
+    private static final Logger logger = LoggerFactory.getLogger(MessageRuleEvaluationJob.class);
+    private static final int LEASE_SECONDS = 600;
+    private static final int FIRST_RETRY_DELAY_SECONDS = 60;
+    private static final int MAX_RETRY_DELAY_SECONDS = 3600;
+
+    private final MessageRuleEvaluationService messageRuleEvaluationService;
+    private final MessageRuleEvaluationQueueRepository messageRuleEvaluationQueueRepository;
+    private final Bugsnag bugsnag;
+    private final PerOrganisationMessagingRunner runner;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final int failedRetentionDays;
+
+    @Autowired
+    public MessageRuleEvaluationJob(MessageRuleEvaluationService messageRuleEvaluationService,
+                                    MessageRuleEvaluationQueueRepository messageRuleEvaluationQueueRepository,
+                                    OrganisationConfigService organisationConfigService,
+                                    AuthService authService,
+                                    ExternalSystemConfigRepository externalSystemConfigRepository,
+                                    Bugsnag bugsnag,
+                                    @Value("${avni.messaging.ruleEvaluation.threads}") int threads,
+                                    @Value("${avni.messaging.ruleEvaluation.batchSize}") int batchSize,
+                                    @Value("${avni.messaging.ruleEvaluation.maxBatchesPerRun}") int maxBatchesPerRun,
+                                    @Value("${avni.messaging.ruleEvaluation.maxAttempts}") int maxAttempts,
+                                    @Value("${avni.messaging.ruleEvaluation.failedRetentionDays}") int failedRetentionDays) {
+        this.messageRuleEvaluationService = messageRuleEvaluationService;
+        this.messageRuleEvaluationQueueRepository = messageRuleEvaluationQueueRepository;
+        this.bugsnag = bugsnag;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.failedRetentionDays = failedRetentionDays;
+        this.runner = new PerOrganisationMessagingRunner(organisationConfigService, authService, externalSystemConfigRepository, threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${avni.messaging.ruleEvaluation.scheduleMillis}")
+    public void evaluateMessageRules() {
+        runner.runForEachOrganisation("Message rule evaluation", this::evaluateMessageRules);
+    }
+
+    Integer evaluateMessageRules(Long organisationId) {
+        int evaluated = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<MessageRuleEvaluation> evaluations = messageRuleEvaluationQueueRepository.claimDue(organisationId, batchSize, LEASE_SECONDS);
+            evaluations.forEach(this::evaluate);
+            evaluated += evaluations.size();
+            if (evaluations.size() < batchSize) break;
+        }
+        if (evaluated > 0)
+            logger.info(String.format("Evaluated message rules of %d entities for organisation with id: %d", evaluated, organisationId));
+        int purged = messageRuleEvaluationQueueRepository.purgeFailed(organisationId, failedRetentionDays);
+        if (purged > 0)
+            logger.info(String.format("Purged %d failed message rule evaluations older than %d days for organisation with id: %d", purged, failedRetentionDays, organisationId));
+        return evaluated;
+    }
+
+    private void evaluate(MessageRuleEvaluation evaluation) {
+        try {
+            messageRuleEvaluationService.evaluate(evaluation);
+        } catch (Exception e) {
+            if (evaluation.getAttempts() >= maxAttempts) {
+                messageRuleEvaluationQueueRepository.markFailed(evaluation.getId(), e.getMessage());
+                logger.error(String.format("Giving up evaluating message rules of %s with id: %d after %d attempts", evaluation.getEntityType(), evaluation.getEntityId(), evaluation.getAttempts()), e);
+                bugsnag.notify(e);
+            } else {
+                messageRuleEvaluationQueueRepository.retryLater(evaluation.getId(), getRetryDelaySeconds(evaluation.getAttempts()), e.getMessage());
+                logger.warn(String.format("Could not evaluate message rules of %s with id: %d, will try again. %s", evaluation.getEntityType(), evaluation.getEntityId(), e.getMessage()));
+            }
+        }
+    }
+
+    static int getRetryDelaySeconds(int attempts) {
+        return (int) Math.min((long) FIRST_RETRY_DELAY_SECONDS << Math.min(attempts - 1, 16), MAX_RETRY_DELAY_SECONDS);
+    }
+}
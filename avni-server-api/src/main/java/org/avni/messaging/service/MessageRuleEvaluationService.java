@@ -0,0 +1,62 @@
+package org.avni.messaging.service;
+
+import org.avni.messaging.domain.EntityType;
+import org.avni.messaging.domain.MessageRuleEvaluation;
+import org.avni.messaging.repository.MessageRuleEvaluationQueueRepository;
+import org.avni.messaging.repository.MessageRuleRepository;
+import org.avni.server.domain.RuleExecutionException;
+import org.avni.server.framework.security.UserContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Saving an entity only queues the evaluation of its message rules, which need the rule server, and
+ * {@link MessageRuleEvaluationJob} evaluates them in the background to create the message requests.
+ */
+@Service
+public class MessageRuleEvaluationService {
+    private final MessagingService messagingService;
+    private final MessageRuleRepository messageRuleRepository;
+    private final MessageRuleEvaluationQueueRepository messageRuleEvaluationQueueRepository;
+
+    @Autowired
+    public MessageRuleEvaluationService(MessagingService messagingService, MessageRuleRepository messageRuleRepository,
+                                        MessageRuleEvaluationQueueRepository messageRuleEvaluationQueueRepository) {
+        this.messagingService = messagingService;
+        this.messageRuleRepository = messageRuleRepository;
+        this.messageRuleEvaluationQueueRepository = messageRuleEvaluationQueueRepository;
+    }
+
+    public void onEntitySave(Long entityId, Long entityTypeId, EntityType entityType, Long subjectId, Long userId) {
+        if (!messageRuleRepository.existsByEntityTypeAndEntityTypeIdAndIsVoidedFalse(entityType, entityTypeId)) {
+            return;
+        }
+        messageRuleEvaluationQueueRepository.enqueue(UserContextHolder.getUserContext().getOrganisationId(),
+                entityType, entityTypeId, entityId, subjectId, userId);
+    }
+
+    public void onEntityDelete(Long entityId, EntityType entityType, Long receiverId) {
+        messageRuleEvaluationQueueRepository.removePending(entityId, entityType);
+        messagingService.onEntityDelete(entityId, entityType, receiverId);
+    }
+
+    /**
+     * Creates the message requests of the evaluation and removes it from the queue, together. Nothing is saved if a rule
+     * fails, so that the evaluation can be attempted again as a whole. The entity can be voided while its rules run, in
+     * which case its message requests are voided again before the transaction commits. Voiding the entity waits for the
+     * lock on the evaluation taken here, so a void committed after this transaction sees (and voids) the requests
+     * created here.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void evaluate(MessageRuleEvaluation evaluation) throws RuleExecutionException {
+        messagingService.onEntitySave(evaluation.getEntityId(), evaluation.getEntityTypeId(), evaluation.getEntityType(),
+                evaluation.getSubjectId(), evaluation.getUserId());
+        if (!messageRuleEvaluationQueueRepository.lock(evaluation.getId())
+                || messageRuleEvaluationQueueRepository.isEntityVoided(evaluation.getEntityType(), evaluation.getEntityId())) {
+            messagingService.onEntityDelete(evaluation.getEntityId(), evaluation.getEntityType(), evaluation.getSubjectId());
+        }
+        messageRuleEvaluationQueueRepository.remove(evaluation.getId());
+    }
+}
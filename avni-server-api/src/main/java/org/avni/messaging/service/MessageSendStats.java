@@ -0,0 +1,50 @@
+package org.avni.messaging.service;
+
+import org.avni.messaging.domain.MessageDeliveryStatus;
+import org.avni.messaging.domain.MessageRequest;
+
+/**
+ * Counts of messages sent and not sent, and time taken to send them, in a run of {@link MessageSenderJob}.
+ */
+public class MessageSendStats {
+    private int sent;
+    private int failed;
+    private long totalMillis;
+    private long maxMillis;
+
+    public void record(MessageRequest messageRequest, long millis) {
+        if (messageRequest.getDeliveryStatus() == MessageDeliveryStatus.Sent) sent++;
+        else failed++;
+        totalMillis += millis;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    public void add(MessageSendStats other) {
+        sent += other.sent;
+        failed += other.failed;
+        totalMillis += other.totalMillis;
+        maxMillis = Math.max(maxMillis, other.maxMillis);
+    }
+
+    public int getSent() {
+        return sent;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getAverageMillis() {
+        int messages = sent + failed;
+        return messages == 0 ? 0 : totalMillis / messages;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sent: %d, not sent: %d, average time per message: %d ms, max: %d ms", sent, failed, getAverageMillis(), maxMillis);
+    }
+}
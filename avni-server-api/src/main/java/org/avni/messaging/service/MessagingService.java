@@ -135,10 +135,16 @@ public class MessagingService {
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void sendMessages() {
+    public MessageSendStats sendMessages() {
         logger.info("Sending messages for organisation " + UserContextHolder.getOrganisation().getName());
+        MessageSendStats messageSendStats = new MessageSendStats();
         Stream<MessageRequest> requests = messageRequestQueueRepository.findDueMessageRequests();
-        requests.forEach(this::sendMessage);
+        requests.forEach(messageRequest -> {
+            long start = System.currentTimeMillis();
+            MessageRequest sentMessageRequest = sendMessage(messageRequest);
+            messageSendStats.record(sentMessageRequest, System.currentTimeMillis() - start);
+        });
+        return messageSendStats;
     }
 
     @Transactional
@@ -0,0 +1,89 @@
+package org.avni.messaging.service;
+
+import org.avni.messaging.domain.GlificSystemConfig;
+import org.avni.server.application.OrganisationConfigSettingKey;
+import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
+import org.avni.server.domain.OrganisationConfig;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.OrganisationConfigService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs a messaging task for each organisation with messaging enabled, organisations in parallel on a bounded pool so
+ * that an organisation with a slow Glific account, or a lot to do, does not hold up the others. The task of an
+ * organisation runs as the Avni system user of its Glific config.
+ */
+public class PerOrganisationMessagingRunner {
+    private static final Logger logger = LoggerFactory.getLogger(PerOrganisationMessagingRunner.class);
+    private final OrganisationConfigService organisationConfigService;
+    private final AuthService authService;
+    private final ExternalSystemConfigRepository externalSystemConfigRepository;
+    private final ExecutorService executorService;
+
+    public PerOrganisationMessagingRunner(OrganisationConfigService organisationConfigService, AuthService authService,
+                                          ExternalSystemConfigRepository externalSystemConfigRepository, int threads) {
+        this.organisationConfigService = organisationConfigService;
+        this.authService = authService;
+        this.externalSystemConfigRepository = externalSystemConfigRepository;
+        this.executorService = Executors.newFixedThreadPool(threads);
+    }
+
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * @param activity what the task does, for the log
+     * @param task     called with the organisation id
+     * @return results of the organisations whose task ran to completion, failures are logged
+     */
+    public <T> List<T> runForEachOrganisation(String activity, Function<Long, T> task) {
+        authService.authenticateByUserName("admin", null);
+        List<OrganisationConfig> enabledOrganisations = organisationConfigService
+                .findAllWithFeatureEnabled(OrganisationConfigSettingKey.enableMessaging.name());
+
+        List<Future<T>> runs = new ArrayList<>();
+        for (OrganisationConfig enabledOrganisation : enabledOrganisations) {
+            runs.add(executorService.submit(() -> run(activity, enabledOrganisation.getOrganisationId(), task)));
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> run : runs) {
+            try {
+                T result = run.get();
+                if (result != null) results.add(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return results;
+            } catch (ExecutionException e) {
+                logger.error(String.format("%s failed", activity), e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private <T> T run(String activity, Long organisationId, Function<Long, T> task) {
+        try {
+            authService.authenticateByUserName("admin", null);
+            GlificSystemConfig glificConfig = externalSystemConfigRepository.getGlificSystemConfig(organisationId);
+            authService.authenticateByUserName(glificConfig.getAvniSystemUser(), null);
+            return task.apply(organisationId);
+        } catch (Exception e) {
+            logger.error(String.format("%s failed for organisation with id: %d. Ensure if right Glific config is setup for the organisation.", activity, organisationId), e);
+            return null;
+        } finally {
+            UserContextHolder.clear();
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
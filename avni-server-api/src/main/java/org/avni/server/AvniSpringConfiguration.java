@@ -1,7 +1,6 @@
 package org.avni.server;
 
 import com.google.common.cache.CacheBuilder;
-import org.avni.server.application.projections.VirtualCatchmentProjection;
 import org.avni.server.domain.User;
 import org.avni.server.framework.jpa.CHSAuditorAware;
 import org.keycloak.adapters.springboot.KeycloakSpringBootConfigResolver;
@@ -26,11 +25,14 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import javax.sql.DataSource;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT;
 import static org.avni.server.service.AddressLevelCache.ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS;
+import static org.avni.server.framework.security.UserContextCache.USER_CONTEXT_DETAILS;
+import static org.avni.server.service.accessControl.GroupPrivilegesCache.GROUP_PRIVILEGES;
+import static org.avni.server.service.EntityChangeWatermarkCache.ENTITY_CHANGE_WATERMARKS;
+import static org.avni.server.service.ConceptDictionaryCache.CONCEPT_DICTIONARIES;
 
 @Configuration
 @EnableCaching
@@ -52,6 +54,18 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
     @Value("${avni.cache.max.weight}")
     private int cacheMaxWeight;
 
+    @Value("${avni.sync.watermark.ttl.seconds}")
+    private int watermarkTimeToLiveInSeconds;
+
+    @Value("${avni.cache.userContext.max.entries}")
+    private int maxUserContextsToCache;
+
+    @Value("${avni.cache.userContext.ttl.seconds}")
+    private int userContextTimeToLiveInSeconds;
+
+    @Value("${avni.cache.conceptDictionary.ttl.seconds}")
+    private int conceptDictionaryTimeToLiveInSeconds;
+
     @Value("${avni.custom.query.timeout}")
     private int timeout;
 
@@ -109,6 +123,13 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
                     case ADDRESSES_PER_CATCHMENT:
                     case ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS:
                         return getConcurrentMapCacheWithWeightedCapacityForAddressesConfig(name);
+                    case ENTITY_CHANGE_WATERMARKS:
+                        return getConcurrentMapCacheWithShortExpiryForWatermarksConfig(name);
+                    case USER_CONTEXT_DETAILS:
+                    case GROUP_PRIVILEGES:
+                        return getConcurrentMapCacheForUserContextsConfig(name);
+                    case CONCEPT_DICTIONARIES:
+                        return getConcurrentMapCacheForConceptDictionariesConfig(name);
                     default:
                         return getConcurrentMapCacheWithMaxEntriesConfig(name);
                 }
@@ -117,10 +138,25 @@ public class AvniSpringConfiguration extends WebMvcAutoConfiguration {
             private ConcurrentMapCache getConcurrentMapCacheWithWeightedCapacityForAddressesConfig(String name) {
                 return new ConcurrentMapCache(name, CacheBuilder.newBuilder().expireAfterWrite(timeToLiveInSeconds,
                         TimeUnit.SECONDS).maximumWeight(cacheMaxWeight)
-                        .weigher((key, value) -> value == null ? 0 : (((List<VirtualCatchmentProjection>)value).size() / 100)+1)
+                        .weigher((key, value) -> value == null ? 0 : (((long[]) value).length / 100) + 1)
                         .build().asMap(), DISALLOW_NULL_VALUES);
             }
 
+            private ConcurrentMapCache getConcurrentMapCacheWithShortExpiryForWatermarksConfig(String name) {
+                return new ConcurrentMapCache(name, CacheBuilder.newBuilder().expireAfterWrite(watermarkTimeToLiveInSeconds,
+                        TimeUnit.SECONDS).build().asMap(), DISALLOW_NULL_VALUES);
+            }
+
+            private ConcurrentMapCache getConcurrentMapCacheForUserContextsConfig(String name) {
+                return new ConcurrentMapCache(name, CacheBuilder.newBuilder().expireAfterWrite(userContextTimeToLiveInSeconds,
+                        TimeUnit.SECONDS).maximumSize(maxUserContextsToCache).build().asMap(), DISALLOW_NULL_VALUES);
+            }
+
+            private ConcurrentMapCache getConcurrentMapCacheForConceptDictionariesConfig(String name) {
+                return new ConcurrentMapCache(name, CacheBuilder.newBuilder().expireAfterWrite(conceptDictionaryTimeToLiveInSeconds,
+                        TimeUnit.SECONDS).maximumSize(maxEntriesToCache).build().asMap(), DISALLOW_NULL_VALUES);
+            }
+
             private ConcurrentMapCache getConcurrentMapCacheWithMaxEntriesConfig(String name) {
                 return new ConcurrentMapCache(name, CacheBuilder.newBuilder().expireAfterWrite(timeToLiveInSeconds,
                         TimeUnit.SECONDS).maximumSize(maxEntriesToCache).build().asMap(), DISALLOW_NULL_VALUES);
@@ -0,0 +1,6 @@
+package org.avni.server.application.projections;
+
+public interface ChildUuidProjection {
+    Long getParentId();
+    String getUuid();
+}
@@ -6,7 +6,7 @@ import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.avni.messaging.domain.EntityType;
-import org.avni.messaging.service.MessagingService;
+import org.avni.messaging.service.MessageRuleEvaluationService;
 import org.avni.server.domain.MessageableEntity;
 import org.avni.server.service.OrganisationConfigService;
 import org.slf4j.Logger;
@@ -18,7 +18,7 @@ import org.springframework.stereotype.Component;
 @Aspect
 public class MessageableAnnotationAspect {
 
-    private MessagingService messagingService;
+    private MessageRuleEvaluationService messageRuleEvaluationService;
 
     private OrganisationConfigService organisationConfigService;
 
@@ -26,8 +26,8 @@ public class MessageableAnnotationAspect {
     private static Logger logger = LoggerFactory.getLogger(MessageableAnnotationAspect.class);
 
     @Autowired
-    public MessageableAnnotationAspect(MessagingService messagingService, OrganisationConfigService organisationConfigService, Bugsnag bugsnag) {
-        this.messagingService = messagingService;
+    public MessageableAnnotationAspect(MessageRuleEvaluationService messageRuleEvaluationService, OrganisationConfigService organisationConfigService, Bugsnag bugsnag) {
+        this.messageRuleEvaluationService = messageRuleEvaluationService;
         this.organisationConfigService = organisationConfigService;
         this.bugsnag = bugsnag;
     }
@@ -43,9 +43,9 @@ public class MessageableAnnotationAspect {
             EntityType entityType = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(Messageable.class).value();
 
             if (entity.isVoided()) {
-                messagingService.onEntityDelete(entity.getEntityId(), entityType, entity.getIndividual().getId());
+                messageRuleEvaluationService.onEntityDelete(entity.getEntityId(), entityType, entity.getIndividual().getId());
             } else {
-                messagingService.onEntitySave(entity.getEntityId(), entity.getEntityTypeId(), entityType, entity.getIndividual().getId(), entity.getCreatedBy().getId());
+                messageRuleEvaluationService.onEntitySave(entity.getEntityId(), entity.getEntityTypeId(), entityType, entity.getIndividual().getId(), entity.getCreatedBy().getId());
             }
 
             return entity;
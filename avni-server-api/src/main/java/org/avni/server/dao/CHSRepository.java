@@ -1,7 +1,6 @@
 package org.avni.server.dao;
 
 import org.avni.server.domain.CHSEntity;
-import org.avni.server.domain.Concept;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.repository.NoRepositoryBean;
 
@@ -54,11 +53,11 @@ public interface CHSRepository<T extends CHSEntity> extends AvniCrudRepository<T
         return spec;
     }
 
-    default Specification withConceptValues(Map<Concept, String> concepts, String observationField) {
+    default Specification withConceptValues(Map<String, String> concepts, String observationField) {
         Specification<T> spec = (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
             List<Predicate> predicates = new ArrayList<>();
-            concepts.forEach((concept, value) -> {
-                predicates.add(cb.equal(jsonExtractPathText(root.get(observationField), concept.getUuid(), cb), value));
+            concepts.forEach((conceptUuid, value) -> {
+                predicates.add(cb.equal(jsonExtractPathText(root.get(observationField), conceptUuid, cb), value));
             });
 
             return cb.and(predicates.toArray(new Predicate[predicates.size()]));
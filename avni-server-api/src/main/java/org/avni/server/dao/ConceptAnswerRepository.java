@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -32,4 +33,8 @@ public interface ConceptAnswerRepository extends ReferenceDataRepository<Concept
     List<ConceptAnswer> findByAnswerConcept(Concept answerConcept);
 
     Page<ConceptAnswer> findByConceptAndIsVoidedFalse(Concept concept, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("select ca from ConceptAnswer ca join fetch ca.concept join fetch ca.answerConcept")
+    List<ConceptAnswer> findAllWithConcepts();
 }
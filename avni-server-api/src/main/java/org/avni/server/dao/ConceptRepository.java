@@ -2,8 +2,6 @@ package org.avni.server.dao;
 
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptDataType;
-import org.hibernate.annotations.Cache;
-import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
@@ -13,7 +11,6 @@ import org.springframework.stereotype.Repository;
 
 import javax.persistence.QueryHint;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Repository
@@ -45,14 +42,6 @@ public interface ConceptRepository extends ReferenceDataRepository<Concept>, Fin
     List<Concept> getAllConceptByUuidIn(List<String> uuid);
     List<Concept> getAllConceptByNameIn(List<String> names);
 
-    @Query(value = "SELECT DISTINCT c.uuid, c.name\n" +
-            "            FROM concept c\n" +
-            "                     INNER JOIN (\n" +
-            "                SELECT unnest(ARRAY [to_jsonb(key), value]) conecpt_uuid\n" +
-            "                FROM jsonb_each(cast( :observations as jsonb))\n" +
-            "            ) obs ON obs.conecpt_uuid @> to_jsonb(c.uuid)", nativeQuery = true)
-    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
-    List<Map<String, String>> getConceptUuidToNameMapList(String observations);
 
     Page<Concept> findAllByUuidIn(String [] uuids, Pageable pageable);
     List<Concept> findAllByUuidInAndDataTypeIn(String[] uuids, String[] dataTypes);
@@ -1,19 +1,32 @@
 package org.avni.server.dao;
 
+import org.avni.server.dao.sync.SyncContinuationSlice;
+import org.avni.server.dao.sync.SyncRowFormat;
+import org.avni.server.dao.sync.SyncSlice;
 import org.avni.server.domain.CHSEntity;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.rest.core.annotation.RestResource;
 
+import javax.persistence.Tuple;
 import java.io.Serializable;
 import java.util.List;
+import java.util.stream.Stream;
 
 @NoRepositoryBean
 public interface CustomCHSJpaRepository<T extends CHSEntity, ID extends Serializable> extends JpaRepository<T, ID> {
-    Slice<T> findAllAsSlice(Specification<T> specification, Pageable pageable);
+    SyncSlice<T> findAllAsSlice(Specification<T> specification, Pageable pageable, List<String> references);
+
+    SyncContinuationSlice<T> findAllAsContinuationSlice(Specification<T> specification, Pageable pageable, boolean continued, List<String> references);
+
+    /**
+     * Rows of the columns of the format, fetched from the database as the stream is read. The stream has to be read,
+     * and closed, in a transaction.
+     */
+    Stream<Tuple> findAllAsTupleStream(Specification<T> specification, Sort sort, long offset, int maxResults, SyncRowFormat<T> format);
 
     @Override
     @RestResource(exported = false)
@@ -1,40 +1,126 @@
 package org.avni.server.dao;
 
+import org.avni.server.dao.sync.SyncContinuationSlice;
+import org.avni.server.dao.sync.SyncReferenceUuids;
+import org.avni.server.dao.sync.SyncRowFormat;
+import org.avni.server.dao.sync.SyncSlice;
 import org.avni.server.domain.CHSEntity;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
 
 public class CustomJpaRepositoryImpl<T extends CHSEntity, ID extends Serializable> extends SimpleJpaRepository<T, ID> implements CustomCHSJpaRepository<T, ID> {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
 
     public CustomJpaRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
         super(entityInformation, entityManager);
+        this.entityManager = entityManager;
     }
 
     @Override
-    public Slice<T> findAllAsSlice(Specification<T> specification, Pageable pageable) {
-        TypedQuery<T> query = getQuery(specification, pageable);
-        return pageable.isUnpaged() ? new SliceImpl<>(query.getResultList()) : readSlice(query, pageable, specification);
-    }
-
-    private Slice<T> readSlice(TypedQuery<T> query, Pageable pageable, Specification<T> specification){
-        if (pageable.isPaged()){
-            query.setFirstResult((int) pageable.getOffset());
-            query.setMaxResults(pageable.getPageSize() + 1); // We should get 1 more row to understand there is a next page or not
+    public SyncSlice<T> findAllAsSlice(Specification<T> specification, Pageable pageable, List<String> references) {
+        TypedQuery<Tuple> query = getQueryWithReferences(specification, pageable.getSort(), references);
+        SyncReferenceUuids referenceUuids = new SyncReferenceUuids();
+        if (pageable.isUnpaged()) {
+            return new SyncSlice<>(readContent(query, references, referenceUuids), pageable, false, referenceUuids);
         }
-        List<T> content = query.getResultList();
+        List<T> content = readSliceContent(query, pageable.getOffset(), pageable.getPageSize(), references, referenceUuids);
         boolean hasNextPage = content.size() > pageable.getPageSize();
         if (content.size() > pageable.getPageSize()){ // If the result set contains 1 more row than the desired page count, we normalize the result set
             content = content.subList(0, pageable.getPageSize());
         }
-        return new SliceImpl<>(content, pageable, hasNextPage);
+        return new SyncSlice<>(content, pageable, hasNextPage, referenceUuids);
+    }
+
+    @Override
+    public SyncContinuationSlice<T> findAllAsContinuationSlice(Specification<T> specification, Pageable pageable, boolean continued, List<String> references) {
+        TypedQuery<Tuple> query = getQueryWithReferences(specification, pageable.getSort(), references);
+        SyncReferenceUuids referenceUuids = new SyncReferenceUuids();
+        if (pageable.isUnpaged()) {
+            return new SyncContinuationSlice<>(readContent(query, references, referenceUuids), pageable, false, referenceUuids);
+        }
+        // A continued slice starts right after the continuation token, which the specification filters by, so no rows are skipped
+        List<T> content = readSliceContent(query, continued ? 0 : pageable.getOffset(), pageable.getPageSize(), references, referenceUuids);
+        boolean hasNextPage = content.size() > pageable.getPageSize();
+        return new SyncContinuationSlice<>(hasNextPage ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNextPage, referenceUuids);
+    }
+
+    @Override
+    public Stream<Tuple> findAllAsTupleStream(Specification<T> specification, Sort sort, long offset, int maxResults, SyncRowFormat<T> format) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(format.getSelections(root, builder));
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, builder));
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) offset);
+        typedQuery.setMaxResults(maxResults);
+        // Without a fetch size the driver reads all the rows into memory before the first is returned
+        typedQuery.setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE);
+        typedQuery.setHint("org.hibernate.readOnly", true);
+        return typedQuery.getResultStream();
+    }
+
+    /**
+     * Query of the entities along with the uuid of the entity of each reference (association), left joined so that
+     * entities without one are not left out.
+     */
+    private TypedQuery<Tuple> getQueryWithReferences(Specification<T> specification, Sort sort, List<String> references) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(getDomainClass());
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root);
+        for (String reference : references) {
+            selections.add(root.join(reference, JoinType.LEFT).get("uuid"));
+        }
+        query.multiselect(selections);
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private List<T> readSliceContent(TypedQuery<Tuple> query, long offset, int pageSize, List<String> references, SyncReferenceUuids referenceUuids) {
+        query.setFirstResult((int) offset);
+        query.setMaxResults(pageSize + 1); // We should get 1 more row to understand there is a next page or not
+        return readContent(query, references, referenceUuids);
+    }
+
+    private List<T> readContent(TypedQuery<Tuple> query, List<String> references, SyncReferenceUuids referenceUuids) {
+        List<T> content = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            T entity = tuple.get(0, getDomainClass());
+            content.add(entity);
+            for (int i = 0; i < references.size(); i++) {
+                referenceUuids.put(entity.getId(), references.get(i), tuple.get(i + 1, String.class));
+            }
+        }
+        return content;
     }
-}
\ No newline at end of file
+}
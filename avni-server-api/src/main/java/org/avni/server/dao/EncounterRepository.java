@@ -1,6 +1,6 @@
 package org.avni.server.dao;
 
-import org.avni.server.domain.Concept;
+import org.avni.server.application.projections.ChildUuidProjection;
 import org.avni.server.domain.Encounter;
 import org.avni.server.domain.EncounterType;
 import org.avni.server.domain.Individual;
@@ -15,6 +15,8 @@ import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.criteria.*;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -35,6 +37,11 @@ public interface EncounterRepository extends TransactionalDataRepository<Encount
                 cb.equal(root.get("encounterType").get("id"), typeId);
     }
 
+    @Override
+    default List<String> getSyncReferences() {
+        return Arrays.asList("encounterType", "individual");
+    }
+
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
         return count(syncEntityChangedAuditSpecification(syncParameters)
@@ -74,6 +81,9 @@ public interface EncounterRepository extends TransactionalDataRepository<Encount
     @Query("select e from Encounter e where e.legacyId = :id")
     Encounter findByLegacyId(String id);
 
+    @Query("select e.individual.id as parentId, e.uuid as uuid from Encounter e where e.individual.id in :individualIds")
+    List<ChildUuidProjection> findUuidsByIndividualIdIn(Collection<Long> individualIds);
+
     default Specification<Encounter> withIndividualId(Long id) {
         return (Root<Encounter> root, CriteriaQuery<?> query, CriteriaBuilder cb) ->
         {
@@ -123,18 +133,18 @@ public interface EncounterRepository extends TransactionalDataRepository<Encount
         };
     }
 
-    default Page<Encounter> findByConcepts(Date lastModifiedDateTime, Date now, Map<Concept, String> concepts, Pageable pageable) {
+    default Page<Encounter> findByConcepts(Date lastModifiedDateTime, Date now, Map<String, String> concepts, Pageable pageable) {
         return findAll(lastModifiedBetween(lastModifiedDateTime, now)
                 .and(withConceptValues(concepts, "observations")), pageable);
     }
 
-    default Page<Encounter> findByConceptsAndEncounterType(Date lastModifiedDateTime, Date now, Map<Concept, String> concepts, String encounterType, Pageable pageable) {
+    default Page<Encounter> findByConceptsAndEncounterType(Date lastModifiedDateTime, Date now, Map<String, String> concepts, String encounterType, Pageable pageable) {
         return findAll(lastModifiedBetween(lastModifiedDateTime, now)
                 .and(withConceptValues(concepts, "observations"))
                 .and(findByEncounterTypeSpec(encounterType)), pageable);
     }
 
-    default Page<Encounter> findByConceptsAndEncounterTypeAndSubject(Date lastModifiedDateTime, Date now, Map<Concept, String> concepts, String encounterType, String subjectUUID, Pageable pageable) {
+    default Page<Encounter> findByConceptsAndEncounterTypeAndSubject(Date lastModifiedDateTime, Date now, Map<String, String> concepts, String encounterType, String subjectUUID, Pageable pageable) {
         return findAll(lastModifiedBetween(lastModifiedDateTime, now)
                 .and(withConceptValues(concepts, "observations"))
                 .and(findByEncounterTypeSpec(encounterType))
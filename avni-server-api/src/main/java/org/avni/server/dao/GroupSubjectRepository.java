@@ -91,19 +91,8 @@ public interface GroupSubjectRepository extends TransactionalDataRepository<Grou
             Join<GroupSubject, GroupRole> groupRole = root.join("groupRole", JoinType.LEFT);
             predicates.add(cb.equal(groupRole.get("groupSubjectType").get("id"), syncParameters.getTypeId()));
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(root.get("groupSubjectAddressId"));
-                    CriteriaBuilder.In<Long> inClause2 = cb.in(root.get("memberSubjectAddressId"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                        inClause2.value(id);
-                    }
-                    predicates.add(inClause1);
-                    predicates.add(inClause2);
-                } else {
-                    predicates.add(cb.equal(root.get("id"), cb.literal(0)));
-                }
+                predicates.add(addressInCatchment(syncParameters, cb, query, root.get("groupSubjectAddressId")));
+                predicates.add(addressInCatchment(syncParameters, cb, query, root.get("memberSubjectAddressId")));
             }
             if (subjectType.isDirectlyAssignable()) {
                 User user = UserContextHolder.getUserContext().getUser();
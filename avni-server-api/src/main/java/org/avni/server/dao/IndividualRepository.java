@@ -14,11 +14,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import javax.persistence.QueryHint;
 import javax.persistence.criteria.*;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +39,11 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
                 cb.equal(root.get("subjectType").get("id"), typeId);
     }
 
+    @Override
+    default List<String> getSyncReferences() {
+        return Arrays.asList("addressLevel", "gender", "subjectType");
+    }
+
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters) {
         Specification<Individual> audit = syncEntityChangedAuditSpecification(syncParameters);
@@ -111,15 +120,64 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
             "where ind.isVoided = false " +
             "and ind.subjectType.id = :subjectTypeId " +
             "and ind.registrationDate between :startDateTime and :endDateTime " +
-            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds)")
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
     Stream<Individual> findNonVoidedIndividuals(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime);
 
     @Query("select ind from Individual ind " +
             "where ind.subjectType.id = :subjectTypeId " +
             "and ind.registrationDate between :startDateTime and :endDateTime " +
-            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds)")
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "order by ind.id")
     Stream<Individual> findAllIndividuals(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime);
 
+    @Query("select ind from Individual ind " +
+            "where ind.isVoided = false " +
+            "and ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "and mod(ind.id, :partitionCount) = :partition " +
+            "order by ind.id")
+    Stream<Individual> findNonVoidedIndividualsInPartition(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Long partitionCount, Long partition);
+
+    @Query("select ind from Individual ind " +
+            "where ind.subjectType.id = :subjectTypeId " +
+            "and ind.registrationDate between :startDateTime and :endDateTime " +
+            "and (coalesce(:locationIds,NULL) is null OR ind.addressLevel.id in :locationIds) " +
+            "and mod(ind.id, :partitionCount) = :partition " +
+            "order by ind.id")
+    Stream<Individual> findAllIndividualsInPartition(Long subjectTypeId, List<Long> locationIds, LocalDate startDateTime, LocalDate endDateTime, Long partitionCount, Long partition);
+
+    //The fetch queries below initialise the collections of the individuals already loaded, for a block of individuals at a time
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct i from Individual i " +
+            "left join fetch i.encounters enc " +
+            "left join fetch enc.encounterType " +
+            "where i.id in :ids")
+    List<Individual> fetchEncounters(List<Long> ids);
+
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct i from Individual i " +
+            "left join fetch i.programEnrolments enl " +
+            "left join fetch enl.program " +
+            "where i.id in :ids")
+    List<Individual> fetchProgramEnrolments(List<Long> ids);
+
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct i from Individual i " +
+            "left join fetch i.memberGroupSubjects gs " +
+            "left join fetch gs.groupSubject g " +
+            "left join fetch g.subjectType " +
+            "where i.id in :ids")
+    List<Individual> fetchMemberGroupSubjects(List<Long> ids);
+
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct i from Individual i " +
+            "left join fetch i.groupSubjects gs " +
+            "left join fetch gs.memberSubject " +
+            "where i.id in :ids")
+    List<Individual> fetchGroupSubjects(List<Long> ids);
+
     //group by is added for distinct ind records
     @Query("select i from Individual i " +
             "join i.encounters enc " +
@@ -149,6 +207,11 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
     @Query("select i from Individual i where (i.uuid =:id or i.legacyId = :id) and i.subjectType = :subjectType")
     Individual findByLegacyIdOrUuidAndSubjectType(String id, SubjectType subjectType);
 
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct i from Individual i left join fetch i.relationshipsFromSelfToOthers r " +
+            "left join fetch r.relationship left join fetch r.individualB where i.id in :ids")
+    List<Individual> findAllWithRelationshipsFromSelfToOthersByIdIn(Collection<Long> ids);
+
     @Query(value = "select firstname,lastname,fullname,id,uuid,title_lineage,subject_type_name,gender_name,date_of_birth,enrolments,total_elements from web_search_function(:jsonSearch, :dbUser)", nativeQuery = true)
     List<WebSearchResultProjection> getWebSearchResults(String jsonSearch, String dbUser);
 
@@ -165,13 +228,13 @@ public interface IndividualRepository extends TransactionalDataRepository<Indivi
                 addressIds.isEmpty() ? null : root.get("addressLevel").get("id").in(addressIds);
     }
 
-    default Page<Individual> findByConcepts(Date lastModifiedDateTime, Date now, Map<Concept, String> concepts, List<Long> addressIds, Pageable pageable) {
+    default Page<Individual> findByConcepts(Date lastModifiedDateTime, Date now, Map<String, String> concepts, List<Long> addressIds, Pageable pageable) {
         return findAll(lastModifiedBetween(lastModifiedDateTime, now)
                 .and(withConceptValues(concepts, "observations"))
                 .and(findInLocationSpec(addressIds)), pageable);
     }
 
-    default Page<Individual> findByConceptsAndSubjectType(Date lastModifiedDateTime, Date now, Map<Concept, String> concepts, String subjectType, List<Long> addressIds, Pageable pageable) {
+    default Page<Individual> findByConceptsAndSubjectType(Date lastModifiedDateTime, Date now, Map<String, String> concepts, String subjectType, List<Long> addressIds, Pageable pageable) {
         return findAll(lastModifiedBetween(lastModifiedDateTime, now)
                 .and(withConceptValues(concepts, "observations"))
                 .and(findBySubjectTypeSpec(subjectType))
@@ -136,6 +136,15 @@ public interface LocationRepository extends ReferenceDataRepository<AddressLevel
     @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true")})
     AddressLevel findByLegacyIdOrUuid(String id);
 
+    @RestResource(exported = false)
+    @Query("select a from AddressLevel a where a.uuid in :ids or a.legacyId in :ids")
+    List<AddressLevel> findAllByLegacyIdOrUuidIn(Collection<String> ids);
+
+    @RestResource(exported = false)
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct a from AddressLevel a left join fetch a.virtualCatchments where a.id in :ids")
+    List<AddressLevel> findAllWithVirtualCatchmentsByIdIn(Collection<Long> ids);
+
     @Query(value = "select al.*\n" +
             "from address_level al\n" +
             "         join address_level_type alt on al.type_id = alt.id\n" +
@@ -186,13 +195,13 @@ public interface LocationRepository extends ReferenceDataRepository<AddressLevel
     @Query(value = "select id from address_level where lineage ~ cast(:lquery as lquery)", nativeQuery = true)
     List<Long> getAllChildrenLocationsIds(@Param("lquery") String lquery);
 
-    @Query(value = "select * from virtual_catchment_address_mapping_table where catchment_id = :catchmentId", nativeQuery = true)
+    @Query(value = "select * from catchment_address_closure where catchment_id = :catchmentId", nativeQuery = true)
     List<VirtualCatchmentProjection> getVirtualCatchmentsForCatchmentId(@Param("catchmentId") Long catchmentId);
 
-    @Query(value = "select * from virtual_catchment_address_mapping_table where catchment_id = :catchmentId and type_id in (:typeIds)", nativeQuery = true)
+    @Query(value = "select * from catchment_address_closure where catchment_id = :catchmentId and type_id in (:typeIds)", nativeQuery = true)
     List<VirtualCatchmentProjection> getVirtualCatchmentsForCatchmentIdAndLocationTypeId(@Param("catchmentId") Long catchmentId, List<Long> typeIds);
 
-    @Query(value = "select * from virtual_catchment_address_mapping_table where addresslevel_id in (:addressLevelIds)", nativeQuery = true)
+    @Query(value = "select * from catchment_address_closure where addresslevel_id in (:addressLevelIds)", nativeQuery = true)
     List<VirtualCatchmentProjection> getVirtualCatchmentsForAddressLevelIds(@Param("addressLevelIds") List<Long> addressLevelIds);
 
     @Query(value = "select title_lineage from title_lineage_locations_function(:addressId)", nativeQuery = true)
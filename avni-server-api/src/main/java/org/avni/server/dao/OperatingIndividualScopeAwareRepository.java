@@ -1,20 +1,28 @@
 package org.avni.server.dao;
 
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncRowFormat;
 import org.avni.server.dao.sync.TransactionDataCriteriaBuilderUtil;
 import org.avni.server.domain.*;
 import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.util.JsonObjectUtil;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import javax.persistence.Tuple;
 import javax.persistence.criteria.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @SuppressWarnings("rawtypes")
 @NoRepositoryBean
@@ -35,9 +43,40 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
         return specification;
     }
 
+    /**
+     * Results ordered by the last modified date time and id of the entity are read after the continuation token when
+     * there is one, and come with the token for the next slice. Results of directly assigned subjects are ordered by
+     * their assignment and are read by the page number alone.
+     */
     default Slice<T> getSyncResultsAsSlice(SyncParameters syncParameters) {
         Specification specification = getSpecification(syncParameters);
-        return findAllAsSlice(specification, syncParameters.getPageable());
+        if (!syncParameters.isModificationCheckOnEntity()) {
+            return findAllAsSlice(specification, syncParameters.getPageable(), getSyncReferences());
+        }
+        // ordered by the specification, as the continuation token is, whatever the sort requested
+        Pageable pageable = syncParameters.getPageable();
+        Pageable unsorted = pageable.isUnpaged() ? pageable : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return findAllAsContinuationSlice(specification, unsorted, syncParameters.getContinuationToken() != null, getSyncReferences());
+    }
+
+    /**
+     * Rows of the slice of {@link #getSyncResultsAsSlice} in the format, with one more row than the size of the slice
+     * when there is a next slice.
+     */
+    default Stream<Tuple> getSyncResultsAsTupleStream(SyncParameters syncParameters, SyncRowFormat<T> format) {
+        Specification specification = getSpecification(syncParameters);
+        Pageable pageable = syncParameters.getPageable();
+        boolean continued = syncParameters.isModificationCheckOnEntity() && syncParameters.getContinuationToken() != null;
+        Sort sort = syncParameters.isModificationCheckOnEntity() ? Sort.unsorted() : pageable.getSort();
+        return findAllAsTupleStream(specification, sort, continued ? 0 : pageable.getOffset(), pageable.getPageSize() + 1, format);
+    }
+
+    /**
+     * Associations whose uuids are sent with each entity of a sync slice. Their uuids are read in the query of the slice,
+     * see {@link org.avni.server.dao.sync.SyncReferenceUuids}.
+     */
+    default List<String> getSyncReferences() {
+        return Collections.emptyList();
     }
 
     default Page<T> getSyncResults(SyncParameters syncParameters) {
@@ -54,6 +93,14 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
             List<Predicate> predicates = new ArrayList<>();
             if (syncParameters.getSubjectType() == null || !syncParameters.getSubjectType().isDirectlyAssignable())
                 predicates.add(cb.between(root.get("lastModifiedDateTime"), cb.literal(lastModifiedDateTime), cb.literal(now)));
+            SyncContinuationToken continuationToken = syncParameters.getContinuationToken();
+            if (continuationToken != null) {
+                Path<Date> lastModifiedDateTimePath = root.get("lastModifiedDateTime");
+                Date continuationLastModifiedDateTime = continuationToken.getLastModifiedDateTime();
+                predicates.add(cb.or(
+                        cb.greaterThan(lastModifiedDateTimePath, cb.literal(continuationLastModifiedDateTime)),
+                        cb.and(cb.equal(lastModifiedDateTimePath, cb.literal(continuationLastModifiedDateTime)), cb.greaterThan(root.<Long>get("id"), continuationToken.getId()))));
+            }
             query.orderBy(cb.asc(root.get("lastModifiedDateTime")), cb.asc(root.get("id")));
             return cb.and(predicates.toArray(new Predicate[0]));
         };
@@ -90,20 +137,10 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
                                                                                       From<A, B> from, CriteriaQuery<?> query) {
         SubjectType subjectType = syncParameters.getSubjectType();
         if (subjectType.isShouldSyncByLocation()) {
-            List<Long> addressLevels = syncParameters.getAddressLevels();
-            if (addressLevels.size() > 0) {
-                CriteriaBuilder.In<Long> inClause;
-                if (syncParameters.isParentOrSelfIndividual()) {
-                    inClause = cb.in(from.get("addressLevel").get("id"));
-                } else {
-                    inClause = cb.in(from.get("addressId"));
-                }
-                for (Long id : addressLevels) {
-                    inClause.value(id);
-                }
-                predicates.add(inClause);
+            if (syncParameters.isParentOrSelfIndividual()) {
+                predicates.add(addressInCatchment(syncParameters, cb, query, from.get("addressLevel").get("id")));
             } else {
-                predicates.add(cb.equal(from.get("id"), cb.literal(0)));
+                predicates.add(addressInCatchment(syncParameters, cb, query, from.get("addressId")));
             }
         }
         User user = UserContextHolder.getUserContext().getUser();
@@ -132,6 +169,27 @@ public interface OperatingIndividualScopeAwareRepository<T extends CHSEntity> ex
         addSyncAttributeConceptPredicate(cb, predicates, from, syncParameters, "syncConcept1Value", "syncConcept2Value");
     }
 
+    /**
+     * Address of the entity is one of the addresses of the user's catchment (of the registration location types of the
+     * subject type, if any). The addresses are looked up in the catchment address table by the database, rather than
+     * being bound as a parameter each, so the query is the same for all catchments and its size does not grow with the
+     * catchment.
+     */
+    default Predicate addressInCatchment(SyncParameters syncParameters, CriteriaBuilder cb, CriteriaQuery<?> query, Path<Long> addressId) {
+        List<Long> addressLevelTypeIds = syncParameters.getAddressLevelTypeIds();
+        if (addressLevelTypeIds != null && addressLevelTypeIds.isEmpty()) {
+            return cb.disjunction();
+        }
+        Subquery<Long> catchmentAddresses = query.subquery(Long.class);
+        Root<VirtualCatchment> catchmentAddress = catchmentAddresses.from(VirtualCatchment.class);
+        Predicate inCatchment = cb.equal(catchmentAddress.get("catchment").get("id"), syncParameters.getCatchment().getId());
+        if (addressLevelTypeIds != null) {
+            inCatchment = cb.and(inCatchment, catchmentAddress.get("typeId").in(addressLevelTypeIds));
+        }
+        catchmentAddresses.select(catchmentAddress.get("addressLevel").get("id")).where(inCatchment);
+        return addressId.in(catchmentAddresses);
+    }
+
     default <A extends CHSEntity, B extends CHSEntity> void addSyncAttributeConceptPredicate(CriteriaBuilder cb,
                                                                                              List<Predicate> predicates,
                                                                                              From<A, B> from,
@@ -1,6 +1,5 @@
 package org.avni.server.dao;
 
-import org.avni.server.domain.Concept;
 import org.avni.server.domain.EncounterType;
 import org.avni.server.domain.ProgramEncounter;
 import org.avni.server.domain.ProgramEnrolment;
@@ -17,6 +16,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.criteria.*;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Calendar;
 import java.util.List;
@@ -37,6 +37,11 @@ public interface ProgramEncounterRepository extends TransactionalDataRepository<
                 cb.equal(root.get("encounterType").get("id"), typeId);
     }
 
+    @Override
+    default List<String> getSyncReferences() {
+        return Arrays.asList("encounterType", "programEnrolment");
+    }
+
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
         return count(syncEntityChangedAuditSpecification(syncParameters)
@@ -157,11 +162,11 @@ public interface ProgramEncounterRepository extends TransactionalDataRepository<
     class SearchParams {
         public Date lastModifiedDateTime;
         public Date now;
-        public Map<Concept, String> concepts;
+        public Map<String, String> concepts;
         public EncounterType encounterType;
         public ProgramEnrolment programEnrolment;
 
-        public SearchParams(Date lastModifiedDateTime, Date now, Map<Concept, String> conceptsMatchingValue, EncounterType encounterType, ProgramEnrolment programEnrolment) {
+        public SearchParams(Date lastModifiedDateTime, Date now, Map<String, String> conceptsMatchingValue, EncounterType encounterType, ProgramEnrolment programEnrolment) {
 //            When the date is not specified the search should not limit results
             if (lastModifiedDateTime == null) {
                 this.lastModifiedDateTime = DateTime.parse("2000-01-01").toDate();
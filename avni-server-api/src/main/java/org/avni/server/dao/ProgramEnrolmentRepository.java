@@ -1,5 +1,6 @@
 package org.avni.server.dao;
 
+import org.avni.server.application.projections.ChildUuidProjection;
 import org.avni.server.domain.Program;
 import org.avni.server.domain.ProgramEnrolment;
 import org.avni.server.domain.UserContext;
@@ -11,6 +12,7 @@ import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -18,9 +20,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Stream;
@@ -83,12 +88,22 @@ public interface ProgramEnrolmentRepository extends TransactionalDataRepository<
             String individualUuid,
             Pageable pageable);
 
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")})
+    @Query("select distinct enl from ProgramEnrolment enl " +
+            "left join fetch enl.programEncounters enc " +
+            "left join fetch enc.encounterType " +
+            "where enl.individual.id in :individualIds")
+    List<ProgramEnrolment> fetchProgramEncounters(List<Long> individualIds);
+
     @Query("select pe from ProgramEnrolment pe where pe.uuid =:id or pe.legacyId = :id")
     ProgramEnrolment findByLegacyIdOrUuid(String id);
 
     @Query("select pe from ProgramEnrolment pe where pe.legacyId = :id")
     ProgramEnrolment findByLegacyId(String id);
 
+    @Query("select pe.individual.id as parentId, pe.uuid as uuid from ProgramEnrolment pe where pe.individual.id in :individualIds")
+    List<ChildUuidProjection> findUuidsByIndividualIdIn(Collection<Long> individualIds);
+
     Page<ProgramEnrolment> findByLastModifiedDateTimeGreaterThanAndLastModifiedDateTimeLessThanOrderByLastModifiedDateTimeAscIdAsc(
             @Param("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date lastModifiedDateTime,
             @Param("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date now,
@@ -100,6 +115,11 @@ public interface ProgramEnrolmentRepository extends TransactionalDataRepository<
                 cb.equal(root.get("program").get("id"), typeId);
     }
 
+    @Override
+    default List<String> getSyncReferences() {
+        return Arrays.asList("program", "individual", "programOutcome");
+    }
+
     @Override
     default boolean isEntityChanged(SyncParameters syncParameters){
         return count(syncEntityChangedAuditSpecification(syncParameters)
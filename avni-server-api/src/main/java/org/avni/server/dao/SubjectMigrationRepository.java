@@ -36,19 +36,8 @@ public interface SubjectMigrationRepository extends TransactionalDataRepository<
             //Address Levels
             List<Predicate> addressLevelPredicates = new ArrayList<>();
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(root.get("oldAddressLevel").get("id"));
-                    CriteriaBuilder.In<Long> inClause2 = cb.in(root.get("newAddressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                        inClause2.value(id);
-                    }
-                    addressLevelPredicates.add(inClause1);
-                    addressLevelPredicates.add(inClause2);
-                } else {
-                    addressLevelPredicates.add(cb.equal(root.get("id"), cb.literal(0)));
-                }
+                addressLevelPredicates.add(addressInCatchment(syncParameters, cb, query, root.get("oldAddressLevel").get("id")));
+                addressLevelPredicates.add(addressInCatchment(syncParameters, cb, query, root.get("newAddressLevel").get("id")));
             }
             Predicate addressLevelPredicate = cb.or(addressLevelPredicates.toArray(new Predicate[0]));
 
@@ -1,5 +1,6 @@
 package org.avni.server.dao;
 
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.Catchment;
 import org.avni.server.domain.JsonObject;
@@ -16,17 +17,18 @@ public class SyncParameters {
     private final Long typeId;
     private String entityTypeUuid;
     private final Pageable pageable;
-    private final List<Long> addressLevels;
+    private final List<Long> addressLevelTypeIds;
     private final SubjectType subjectType;
     private final JsonObject syncSettings;
     private final SyncEntityName syncEntityName;
     private final Catchment catchment;
+    private SyncContinuationToken continuationToken;
 
     public SyncParameters(DateTime lastModifiedDateTime,
                           DateTime now, Long typeId,
                           String entityTypeUuid,
                           Pageable pageable,
-                          List<Long> addressLevels,
+                          List<Long> addressLevelTypeIds,
                           SubjectType subjectType,
                           JsonObject syncSettings,
                           SyncEntityName syncEntityName,
@@ -36,7 +38,7 @@ public class SyncParameters {
         this.typeId = typeId;
         this.entityTypeUuid = entityTypeUuid;
         this.pageable = pageable;
-        this.addressLevels = addressLevels;
+        this.addressLevelTypeIds = addressLevelTypeIds;
         this.subjectType = subjectType;
         this.syncSettings = syncSettings;
         this.syncEntityName = syncEntityName;
@@ -59,8 +61,12 @@ public class SyncParameters {
         return pageable;
     }
 
-    public List<Long> getAddressLevels() {
-        return addressLevels;
+    /**
+     * Types of the addresses in the catchment that subjects are synced from, null when they are synced from all the
+     * addresses in the catchment.
+     */
+    public List<Long> getAddressLevelTypeIds() {
+        return addressLevelTypeIds;
     }
 
     public SubjectType getSubjectType() {
@@ -107,4 +113,12 @@ public class SyncParameters {
         return this.getSubjectType() == null || !this.getSubjectType().isDirectlyAssignable()
                 || (!this.isParentOrSelfIndividual() && !this.isProgramEncounter() && !this.isEncounter() && !this.isParentOrSelfEnrolment());
     }
+
+    public SyncContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(SyncContinuationToken continuationToken) {
+        this.continuationToken = continuationToken;
+    }
 }
@@ -45,4 +45,6 @@ public interface UserGroupRepository extends ReferenceDataRepository<UserGroup>
 
     List<UserGroup> findByUserAndGroupHasAllPrivilegesTrueAndIsVoidedFalse(User user);
 
+    boolean existsByUserIdAndGroupHasAllPrivilegesTrueAndIsVoidedFalse(Long userId);
+
 }
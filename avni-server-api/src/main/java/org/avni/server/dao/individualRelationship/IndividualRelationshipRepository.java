@@ -43,19 +43,8 @@ public interface IndividualRelationshipRepository extends TransactionalDataRepos
             Join<IndividualRelationship, Individual> individualBJoin = root.join("individualB");
             predicates.add(cb.equal(individualAJoin.get("subjectType").get("id"), syncParameters.getTypeId()));
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> inClause1 = cb.in(individualAJoin.get("addressLevel").get("id"));
-                    CriteriaBuilder.In<Long> inClause2 = cb.in(individualBJoin.get("addressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        inClause1.value(id);
-                        inClause2.value(id);
-                    }
-                    predicates.add(inClause1);
-                    predicates.add(inClause2);
-                } else {
-                    predicates.add(cb.equal(root.get("id"), cb.literal(0)));
-                }
+                predicates.add(addressInCatchment(syncParameters, cb, query, individualAJoin.get("addressLevel").get("id")));
+                predicates.add(addressInCatchment(syncParameters, cb, query, individualBJoin.get("addressLevel").get("id")));
             }
             if (subjectType.isDirectlyAssignable()) {
                 User user = UserContextHolder.getUserContext().getUser();
@@ -29,16 +29,7 @@ public interface SubjectProgramEligibilityRepository extends TransactionalDataRe
             Join<SubjectProgramEligibility, Individual> subjectJoin = root.join("subject");
             predicates.add(cb.equal(subjectJoin.get("subjectType").get("id"), syncParameters.getTypeId()));
             if (subjectType.isShouldSyncByLocation()) {
-                List<Long> addressLevels = syncParameters.getAddressLevels();
-                if (addressLevels.size() > 0) {
-                    CriteriaBuilder.In<Long> addressLevelFilter = cb.in(subjectJoin.get("addressLevel").get("id"));
-                    for (Long id : addressLevels) {
-                        addressLevelFilter.value(id);
-                    }
-                    predicates.add(addressLevelFilter);
-                } else {
-                    predicates.add(cb.equal(root.get("id"), cb.literal(0)));
-                }
+                predicates.add(addressInCatchment(syncParameters, cb, query, subjectJoin.get("addressLevel").get("id")));
             }
             if (subjectType.isDirectlyAssignable()) {
                 User user = UserContextHolder.getUserContext().getUser();
@@ -31,6 +31,7 @@ public class BaseSubjectSearchQueryBuilder<T> {
             "                            pe.encounter_date_time is not null and\n" +
             "                            pe.is_voided is false";
     private static final String ADDRESS_LEVEL_JOIN = "left outer join address_level al on al.id = i.address_id";
+    private static final String SEARCH_DOCUMENT_JOIN = "join subject_search_document ssd on ssd.individual_id = i.id";
 
     private String offsetLimitClause = "offset :offset limit :limit";
     private String orderByClause = "\norder by i.id desc\n";
@@ -41,6 +42,7 @@ public class BaseSubjectSearchQueryBuilder<T> {
     private Map<String, Object> parameters = new HashMap<>();
     private boolean forCount;
     private Set<String> customFields = new HashSet<>();
+    private boolean searchDocuments;
 
     public BaseSubjectSearchQueryBuilder() {
         logger = LoggerFactory.getLogger(this.getClass());
@@ -228,8 +230,40 @@ public class BaseSubjectSearchQueryBuilder<T> {
         return (T) this;
     }
 
+    /**
+     * @param complete whether every subject has a search document (see {@link SubjectSearchDocumentBackfill}), for
+     *                 {@link #withSearchAll} to search them
+     */
+    public T withSearchDocuments(boolean complete) {
+        this.searchDocuments = complete;
+        return (T) this;
+    }
+
+    /**
+     * Matches the subjects having all the words of the search string anywhere in their search document (see
+     * subject_search_document), and orders them by relevance unless a sort column is asked for. Until every subject has a
+     * document, matches the search string in the observations of the subjects and their enrolments instead.
+     */
     public T withSearchAll(String searchString) {
         if (searchString == null || searchString.isEmpty()) return (T) this;
+        if (!searchDocuments) return withSearchAllInObservations(searchString);
+        List<String> words = new ArrayList<>();
+        for (String word : searchString.split("\\s+")) {
+            if (!word.matches(".*[\\p{L}\\p{N}].*")) continue;
+            String parameter = "searchAll" + words.size();
+            addParameter(parameter, "%" + word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            words.add(String.format("ssd.document ilike :%s", parameter));
+        }
+        if (words.isEmpty()) return (T) this;
+        parameters.put("searchAll", searchString.trim());
+        joinClauses.add(SEARCH_DOCUMENT_JOIN);
+        whereClauses.add("(" + String.join(" and ", words) + ")");
+        customFields.add("word_similarity(:searchAll, ssd.document) as \"searchRank\"");
+        orderByClause = "\norder by \"searchRank\" desc, i.id desc\n";
+        return (T) this;
+    }
+
+    private T withSearchAllInObservations(String searchString) {
         String searchValue = "%" + searchString + "%";
         parameters.put("searchAll", searchValue);
         whereClauses.add("(cast(i.observations as text) ilike :searchAll\n" +
@@ -1,6 +1,5 @@
 package org.avni.server.dao.search;
 
-import org.avni.server.domain.Concept;
 import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.web.api.EncounterSearchRequest;
 import org.slf4j.Logger;
@@ -112,15 +111,15 @@ public class EncounterSearchQueryBuilder {
         return this;
     }
 
-    public EncounterSearchQueryBuilder withConceptsMap(Map<Concept, String> conceptsMap) {
+    public EncounterSearchQueryBuilder withConceptsMap(Map<String, String> conceptsMap) {
         if (conceptsMap == null) return this;
 
-        ArrayList<Map.Entry<Concept, String>> entries = new ArrayList<>(conceptsMap.entrySet());
+        ArrayList<Map.Entry<String, String>> entries = new ArrayList<>(conceptsMap.entrySet());
         for (int i = 0; i < entries.size(); i++) {
-            Map.Entry<Concept, String> entry = entries.get(i);
+            Map.Entry<String, String> entry = entries.get(i);
             String param = "codedConceptValue" + i;
             whereClauses.add(String.format("e.observations @> cast (:%s as jsonb)", param));
-            String value = String.format("{\"%s\":\"%s\"}", entry.getKey().getUuid(), entry.getValue());
+            String value = String.format("{\"%s\":\"%s\"}", entry.getKey(), entry.getValue());
             addParameter(param, value);
         }
 
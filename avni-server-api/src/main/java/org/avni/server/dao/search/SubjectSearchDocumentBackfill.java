@@ -0,0 +1,86 @@
+package org.avni.server.dao.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Adds the search documents (subject_search_document) of subjects that do not have one, which are the subjects saved
+ * before the documents were added, as triggers keep the documents of subjects saved since. Runs once after start up, in
+ * the background, in batches of subjects by id, each in its own transaction, rather than in the migration adding the
+ * documents, which would hold the individuals of all organisations in one transaction. Until it is complete "search all"
+ * of the subject search does not use the documents (see {@link BaseSubjectSearchQueryBuilder#withSearchDocuments}). A
+ * start after it is done only walks the ids.
+ */
+@Component
+public class SubjectSearchDocumentBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(SubjectSearchDocumentBackfill.class);
+    private static final String ADD_DOCUMENTS_OF_BATCH = "with batch as (select id from individual where id > :afterId order by id limit :batchSize),\n" +
+            "     added as (insert into subject_search_document (individual_id, organisation_id, document)\n" +
+            "         select i.id, i.organisation_id, subject_search_document(i.id)\n" +
+            "         from individual i\n" +
+            "                  join batch on batch.id = i.id\n" +
+            "         where not exists(select 1 from subject_search_document d where d.individual_id = i.id)\n" +
+            "         on conflict (individual_id) do nothing\n" +
+            "         returning individual_id)\n" +
+            "select max(batch.id) as last_id, (select count(*) from added) as added\n" +
+            "from batch";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private volatile boolean complete;
+
+    @Autowired
+    public SubjectSearchDocumentBackfill(NamedParameterJdbcTemplate jdbcTemplate,
+                                         @Value("${avni.subjectSearchDocument.backfillBatchSize}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (batchSize > 0) executorService.submit(this::addMissingDocuments);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * @return whether every subject has a search document, the triggers keeping them from then on
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private void addMissingDocuments() {
+        long afterId = 0;
+        long added = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                MapSqlParameterSource parameters = new MapSqlParameterSource("afterId", afterId).addValue("batchSize", batchSize);
+                Number[] batch = jdbcTemplate.queryForObject(ADD_DOCUMENTS_OF_BATCH, parameters,
+                        (rs, rowNum) -> new Number[]{(Number) rs.getObject("last_id"), rs.getLong("added")});
+                if (batch[0] == null) break;
+                afterId = batch[0].longValue();
+                added += batch[1].longValue();
+            }
+            complete = !Thread.currentThread().isInterrupted();
+            if (added > 0) logger.info(String.format("Added search documents of %d subjects", added));
+        } catch (Exception e) {
+            logger.error(String.format("Adding search documents of subjects failed after subject with id: %d, the rest are added on the next start", afterId), e);
+        }
+    }
+}
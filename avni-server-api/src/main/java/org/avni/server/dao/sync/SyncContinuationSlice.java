@@ -0,0 +1,26 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Slice of sync results with the continuation token to read the next slice with, when there is one.
+ */
+public class SyncContinuationSlice<T extends CHSEntity> extends SyncSlice<T> {
+    private final SyncContinuationToken continuationToken;
+
+    public SyncContinuationSlice(List<T> content, Pageable pageable, boolean hasNext) {
+        this(content, pageable, hasNext, new SyncReferenceUuids());
+    }
+
+    public SyncContinuationSlice(List<T> content, Pageable pageable, boolean hasNext, SyncReferenceUuids referenceUuids) {
+        super(content, pageable, hasNext, referenceUuids);
+        this.continuationToken = hasNext && !content.isEmpty() ? SyncContinuationToken.after(content.get(content.size() - 1)) : null;
+    }
+
+    public SyncContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+}
@@ -0,0 +1,53 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+import org.avni.server.util.BadRequestError;
+
+import java.util.Date;
+
+/**
+ * Position in sync results ordered by last modified date time and id - that of the last entity of a slice. The next
+ * slice is read from the entities after it, rather than by skipping the entities of all the slices before it. Last
+ * modified date time columns are timestamp(3) (V1_193), so a token of the epoch millisecond and the id is exact, and
+ * the results are ordered and compared on the plain columns, which their (last_modified_date_time, id) indexes serve
+ * (see {@link org.avni.server.dao.OperatingIndividualScopeAwareRepository#getAuditSpecification}).
+ */
+public class SyncContinuationToken {
+    private static final String SEPARATOR = "_";
+
+    private final Date lastModifiedDateTime;
+    private final Long id;
+
+    public SyncContinuationToken(Date lastModifiedDateTime, Long id) {
+        this.lastModifiedDateTime = lastModifiedDateTime;
+        this.id = id;
+    }
+
+    public static SyncContinuationToken after(CHSEntity entity) {
+        return new SyncContinuationToken(entity.getLastModifiedDateTime().toDate(), entity.getId());
+    }
+
+    public static SyncContinuationToken parse(String token) {
+        if (token == null || token.isEmpty()) return null;
+        String[] parts = token.split(SEPARATOR);
+        try {
+            if (parts.length != 2) throw new NumberFormatException();
+            return new SyncContinuationToken(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new BadRequestError("Invalid continuation token %s", token);
+        }
+    }
+
+    public Date getLastModifiedDateTime() {
+        return lastModifiedDateTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return lastModifiedDateTime.getTime() + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,118 @@
+package org.avni.server.dao.sync;
+
+import org.joda.time.DateTime;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.avni.server.dao.sync.SyncEntityName.*;
+
+/**
+ * Checks whether any of the organisation wide (non scope aware) entities have changed, in a single round trip.
+ * Organisation filtering is done by row level security on the role set on the connection, the same way as for the
+ * repository methods (existsByLastModifiedDateTimeGreaterThan) that this replaces on the sync details path.
+ */
+@Repository
+public class SyncEntityChangeRepository {
+    private static final Map<SyncEntityName, String> changeQueries = new EnumMap<>(SyncEntityName.class);
+
+    static {
+        table(ChecklistDetail, "checklist_detail");
+        table(Rule, "rule");
+        table(RuleDependency, "rule_dependency");
+        table(Form, "form");
+        table(FormMapping, "form_mapping");
+        table(EncounterType, "encounter_type");
+        table(Program, "program");
+        table(ProgramOutcome, "program_outcome");
+        table(Gender, "gender");
+        table(IndividualRelation, "individual_relation");
+        table(IndividualRelationGenderMapping, "individual_relation_gender_mapping");
+        table(IndividualRelationshipType, "individual_relationship_type");
+        table(Concept, "concept");
+        table(ProgramConfig, "program_organisation_config");
+        table(Video, "video");
+        table(SubjectType, "subject_type");
+        table(ChecklistItemDetail, "checklist_item_detail");
+        table(FormElementGroup, "form_element_group");
+        table(FormElement, "form_element");
+        table(ConceptAnswer, "concept_answer");
+        table(IdentifierSource, "identifier_source");
+        table(OrganisationConfig, "organisation_config");
+        table(Translation, "translation");
+        table(Groups, "groups");
+        table(GroupPrivileges, "group_privilege");
+        table(GroupRole, "group_role");
+        table(ReportCard, "report_card");
+        table(Dashboard, "dashboard");
+        table(DashboardSection, "dashboard_section");
+        table(DashboardFilter, "dashboard_filter");
+        table(DashboardSectionCardMapping, "dashboard_section_card_mapping");
+        table(ApprovalStatus, "approval_status");
+        table(GroupDashboard, "group_dashboard");
+        table(EntityApprovalStatus, "entity_approval_status");
+        table(Documentation, "documentation");
+        table(DocumentationItem, "documentation_item");
+        table(UserInfo, "users");
+        table(Privilege, "privilege");
+        table(StandardReportCardType, "standard_report_card_type");
+        table(TaskType, "task_type");
+        table(TaskStatus, "task_status");
+        table(MenuItem, "menu_item");
+        changeQueries.put(News, "select 1 from news where published_date is not null and last_modified_date_time > :News");
+    }
+
+    private static void table(SyncEntityName syncEntityName, String tableName) {
+        changeQueries.put(syncEntityName, String.format("select 1 from %s where last_modified_date_time > :%s", tableName, syncEntityName.name()));
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SyncEntityChangeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean supports(SyncEntityName syncEntityName) {
+        return changeQueries.containsKey(syncEntityName);
+    }
+
+    /**
+     * @param lastLoadedSince last sync time of each entity, as sent by the client. Entities not supported are ignored.
+     * @return entities that have at least one row modified after their last sync time
+     */
+    public Set<SyncEntityName> getChangedEntities(Map<SyncEntityName, DateTime> lastLoadedSince) {
+        List<SyncEntityName> entities = lastLoadedSince.keySet().stream().filter(this::supports).collect(Collectors.toList());
+        if (entities.isEmpty()) return Collections.emptySet();
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String query = entities.stream().map(syncEntityName -> {
+            DateTime loadedSince = lastLoadedSince.get(syncEntityName);
+            parameters.addValue(syncEntityName.name(), loadedSince == null ? null : loadedSince.toDate());
+            return String.format("select '%s' as entity_name where exists (%s)", syncEntityName.name(), changeQueries.get(syncEntityName));
+        }).collect(Collectors.joining(" union all "));
+
+        return jdbcTemplate.queryForList(query, parameters, String.class)
+                .stream()
+                .map(SyncEntityName::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(SyncEntityName.class)));
+    }
+
+    /**
+     * @return latest modification time of each entity, across the organisations visible to the current organisation.
+     * Maintained by the entity_change_watermark triggers.
+     */
+    public Map<SyncEntityName, DateTime> getWatermarks() {
+        Map<SyncEntityName, DateTime> watermarks = new EnumMap<>(SyncEntityName.class);
+        jdbcTemplate.query("select entity_name, max(last_modified_date_time) as last_modified_date_time from entity_change_watermark group by entity_name",
+                (RowCallbackHandler) rs -> {
+                    String entityName = rs.getString("entity_name");
+                    if (SyncEntityName.existsAsEnum(entityName))
+                        watermarks.put(SyncEntityName.valueOf(entityName), new DateTime(rs.getTimestamp("last_modified_date_time")));
+                });
+        return watermarks;
+    }
+}
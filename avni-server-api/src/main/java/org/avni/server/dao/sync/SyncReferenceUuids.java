@@ -0,0 +1,34 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSBaseEntity;
+import org.avni.server.domain.CHSEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Uuids of the entities referred to by the entities of a sync slice (like the program enrolment of a program encounter),
+ * read in the same query as the entities, so that the references sent with each entity do not load the referred
+ * entities one proxy at a time.
+ */
+public class SyncReferenceUuids {
+    private final Map<Long, Map<String, String>> uuids = new HashMap<>();
+
+    public void put(Long entityId, String reference, String uuid) {
+        uuids.computeIfAbsent(entityId, id -> new HashMap<>()).put(reference, uuid);
+    }
+
+    /**
+     * @return uuid of the entity referred to by the reference (association name), or null when there is no referred
+     * entity. Entities not read with their references, outside of sync, get it from the referred entity.
+     */
+    public <T extends CHSEntity> String getUuid(T entity, String reference, Function<T, ? extends CHSBaseEntity> referredEntity) {
+        Map<String, String> entityUuids = uuids.get(entity.getId());
+        if (entityUuids != null && entityUuids.containsKey(reference)) {
+            return entityUuids.get(reference);
+        }
+        CHSBaseEntity referred = referredEntity.apply(entity);
+        return referred == null ? null : referred.getUuid();
+    }
+}
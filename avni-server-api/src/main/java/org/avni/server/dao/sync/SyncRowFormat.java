@@ -0,0 +1,179 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+
+import javax.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.avni.server.framework.postgres.CHSPostgreSQL94Dialect.JSONB_TEXT;
+
+/**
+ * Fields of an entity as sent in a sync response, each read as a column of the sync query instead of from the loaded
+ * entity, so that a slice can be written out row by row (see
+ * {@link org.avni.server.web.response.slice.SlicedResourcesStreamWriter}). Json columns, like observations, are read
+ * as their text and written as is. Associated entities that the entity embeds, like the encounter type of an encounter,
+ * are read as the columns of their own format through a join.
+ */
+public class SyncRowFormat<T extends CHSEntity> {
+    public enum ColumnType {
+        Value, Json, Present, Username, Link, Embedded, Null
+    }
+
+    public static class Column {
+        private final String name;
+        private final ColumnType type;
+        private final String attribute;
+        private final String alias;
+        private final SyncRowFormat<?> format;
+
+        private Column(String name, ColumnType type, String attribute, int index, SyncRowFormat<?> format) {
+            this.name = name;
+            this.type = type;
+            this.attribute = attribute;
+            this.alias = "c" + index;
+            this.format = format;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        /**
+         * @param prefix alias of the embedded column this is a column of the format of, empty for a column of the entity
+         */
+        public String getAlias(String prefix) {
+            return prefix.isEmpty() ? alias : prefix + "_" + alias;
+        }
+
+        /**
+         * Format of the embedded entity, of an embedded column
+         */
+        public SyncRowFormat<?> getFormat() {
+            return format;
+        }
+    }
+
+    private final Class<T> entityClass;
+    private final List<Column> columns = new ArrayList<>();
+
+    public SyncRowFormat(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Fields every entity is sent with, including the last modified date time and id which the continuation token of
+     * the slice is made of.
+     */
+    public static <T extends CHSEntity> SyncRowFormat<T> of(Class<T> entityClass) {
+        return new SyncRowFormat<>(entityClass)
+                .value("id", "id")
+                .value("uuid", "uuid")
+                .value("voided", "isVoided")
+                .username("createdBy", "createdBy")
+                .value("createdDateTime", "createdDateTime")
+                .username("lastModifiedBy", "lastModifiedBy")
+                .value("lastModifiedDateTime", "lastModifiedDateTime")
+                .value("version", "version");
+    }
+
+    public SyncRowFormat<T> value(String name, String attribute) {
+        return add(name, ColumnType.Value, attribute);
+    }
+
+    public SyncRowFormat<T> json(String name, String attribute) {
+        return add(name, ColumnType.Json, attribute);
+    }
+
+    /**
+     * Field that is true when the attribute has a value, like completed for the encounter date time of an encounter
+     */
+    public SyncRowFormat<T> present(String name, String attribute) {
+        return add(name, ColumnType.Present, attribute);
+    }
+
+    public SyncRowFormat<T> username(String name, String association) {
+        return add(name, ColumnType.Username, association);
+    }
+
+    /**
+     * Link to the entity of the association, by its uuid, as in {@link org.avni.server.web.RestControllerResourceProcessor#process}
+     */
+    public SyncRowFormat<T> link(String rel, String association) {
+        return add(rel, ColumnType.Link, association);
+    }
+
+    /**
+     * Associated entity embedded in the entity (that is not @JsonIgnore'd), sent as an object of the fields of its format,
+     * or null when there is none
+     */
+    public SyncRowFormat<T> embedded(String name, String association, SyncRowFormat<?> format) {
+        return add(name, ColumnType.Embedded, association, format);
+    }
+
+    /**
+     * Field always sent as null, for an association that is never set, like the concept of an encounter type
+     */
+    public SyncRowFormat<T> alwaysNull(String name) {
+        return add(name, ColumnType.Null, null);
+    }
+
+    private SyncRowFormat<T> add(String name, ColumnType type, String attribute) {
+        return add(name, type, attribute, null);
+    }
+
+    private SyncRowFormat<T> add(String name, ColumnType type, String attribute, SyncRowFormat<?> format) {
+        columns.add(new Column(name, type, attribute, columns.size(), format));
+        return this;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public Column getColumn(String name) {
+        return columns.stream().filter(column -> column.name.equals(name)).findFirst()
+                .orElseThrow(() -> new IllegalStateException(String.format("Sync row format has no %s", name)));
+    }
+
+    public List<Selection<?>> getSelections(Root<T> root, CriteriaBuilder cb) {
+        List<Selection<?>> selections = new ArrayList<>();
+        addSelections(selections, root, cb, "");
+        return selections;
+    }
+
+    private void addSelections(List<Selection<?>> selections, From<?, ?> from, CriteriaBuilder cb, String prefix) {
+        for (Column column : columns) {
+            switch (column.type) {
+                case Null:
+                    break;
+                case Embedded:
+                    column.format.addSelections(selections, from.join(column.attribute, JoinType.LEFT), cb, column.getAlias(prefix));
+                    break;
+                default:
+                    selections.add(getSelection(column, from, cb).alias(column.getAlias(prefix)));
+            }
+        }
+    }
+
+    private static Selection<?> getSelection(Column column, From<?, ?> from, CriteriaBuilder cb) {
+        switch (column.type) {
+            case Json:
+                return cb.function(JSONB_TEXT, String.class, from.get(column.attribute));
+            case Username:
+                return from.join(column.attribute, JoinType.LEFT).get("username");
+            case Link:
+                return from.join(column.attribute, JoinType.LEFT).get("uuid");
+            default:
+                return from.get(column.attribute);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.CHSEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Slice of sync results with the uuids of the entities they refer to.
+ */
+public class SyncSlice<T extends CHSEntity> extends SliceImpl<T> {
+    private final SyncReferenceUuids referenceUuids;
+
+    public SyncSlice(List<T> content, Pageable pageable, boolean hasNext, SyncReferenceUuids referenceUuids) {
+        super(content, pageable, hasNext);
+        this.referenceUuids = referenceUuids;
+    }
+
+    public SyncReferenceUuids getReferenceUuids() {
+        return referenceUuids;
+    }
+}
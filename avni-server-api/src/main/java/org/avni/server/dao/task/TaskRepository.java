@@ -2,7 +2,6 @@ package org.avni.server.dao.task;
 
 import org.avni.server.dao.FindByLastModifiedDateTime;
 import org.avni.server.dao.TransactionalDataRepository;
-import org.avni.server.domain.Concept;
 import org.avni.server.domain.User;
 import org.avni.server.domain.task.Task;
 import org.avni.server.domain.task.TaskStatus;
@@ -79,7 +78,7 @@ public interface TaskRepository extends TransactionalDataRepository<Task>, FindB
         };
     }
 
-    default Page<Task> findByTaskTypeMetadataAndTaskStatus(String taskType, boolean isTerminalStatus, Map<Concept, String> concepts, Pageable pageable) {
+    default Page<Task> findByTaskTypeMetadataAndTaskStatus(String taskType, boolean isTerminalStatus, Map<String, String> concepts, Pageable pageable) {
         return findAll(withConceptValues(concepts, "metadata")
                 .and(findByTaskTypeSpec(taskType))
                 .and(findByTaskStatusIsTerminal(isTerminalStatus)), pageable);
@@ -1,6 +1,7 @@
 package org.avni.server.domain;
 
 import com.fasterxml.jackson.annotation.*;
+import org.avni.server.framework.hibernate.PooledSequenceId;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Immutable;
@@ -25,6 +26,7 @@ import java.util.stream.Collectors;
 })
 @Cacheable
 @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@PooledSequenceId
 public class AddressLevel extends OrganisationAwareEntity {
     @Column
     @NotNull
@@ -58,7 +60,7 @@ public class AddressLevel extends OrganisationAwareEntity {
 
     @ManyToMany()
     @Immutable
-    @JoinTable(name = "virtual_catchment_address_mapping_table", joinColumns = {@JoinColumn(name = "addresslevel_id")}, inverseJoinColumns = {@JoinColumn(name = "catchment_id")})
+    @JoinTable(name = "catchment_address_closure", joinColumns = {@JoinColumn(name = "addresslevel_id")}, inverseJoinColumns = {@JoinColumn(name = "catchment_id")})
     private Set<Catchment> virtualCatchments = new HashSet<>();
 
     @Column
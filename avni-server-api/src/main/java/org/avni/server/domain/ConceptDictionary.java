@@ -0,0 +1,232 @@
+package org.avni.server.domain;
+
+import org.avni.server.application.KeyValue;
+import org.avni.server.application.KeyValues;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Concepts of an organisation, with their answers, read once and kept to be looked up by uuid or name, so that mapping
+ * observations does not read a concept from the database for every observation and answer. Not to be changed once
+ * created as it is shared across requests; a changed concept gets a new dictionary (see
+ * {@link org.avni.server.service.ConceptDictionaryCache}). A concept missing from a dictionary that is out of date, say
+ * one created on another server instance or earlier in the same transaction, is read through its {@link Fallback}.
+ */
+public class ConceptDictionary {
+    private final Map<String, Entry> byUuid;
+    private final Map<String, Entry> byName;
+    private final Map<String, String> uuidToName;
+    private final Fallback fallback;
+
+    public ConceptDictionary(List<Concept> concepts, List<ConceptAnswer> conceptAnswers) {
+        Map<Long, List<Answer>> answers = new HashMap<>();
+        for (ConceptAnswer conceptAnswer : conceptAnswers) {
+            answers.computeIfAbsent(conceptAnswer.getConcept().getId(), id -> new ArrayList<>()).add(new Answer(conceptAnswer));
+        }
+        Map<String, Entry> byUuid = new HashMap<>();
+        Map<String, Entry> byName = new HashMap<>();
+        for (Concept concept : concepts) {
+            Entry entry = new Entry(concept, answers.getOrDefault(concept.getId(), Collections.emptyList()));
+            byUuid.put(entry.getUuid(), entry);
+            // Voided concepts are renamed, but in case one is not, the name is of the concept in use
+            if (!entry.isVoided() || !byName.containsKey(entry.getName())) {
+                byName.put(entry.getName(), entry);
+            }
+        }
+        this.byUuid = Collections.unmodifiableMap(byUuid);
+        this.byName = Collections.unmodifiableMap(byName);
+        this.uuidToName = Collections.unmodifiableMap(byUuid.values().stream().collect(Collectors.toMap(Entry::getUuid, Entry::getName)));
+        this.fallback = null;
+    }
+
+    private ConceptDictionary(ConceptDictionary conceptDictionary, Fallback fallback) {
+        this.byUuid = conceptDictionary.byUuid;
+        this.byName = conceptDictionary.byName;
+        this.uuidToName = conceptDictionary.uuidToName;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return this dictionary, reading the concepts missing from it through the fallback
+     */
+    public ConceptDictionary withFallback(Fallback fallback) {
+        return new ConceptDictionary(this, fallback);
+    }
+
+    /**
+     * @return null if there is no concept with the uuid
+     */
+    public Entry findByUuid(String uuid) {
+        if (uuid == null) return null;
+        Entry entry = byUuid.get(uuid);
+        return entry != null || fallback == null ? entry : fromFallback(fallback.findByUuid(uuid));
+    }
+
+    /**
+     * @return null if there is no concept with the name
+     */
+    public Entry findByName(String name) {
+        if (name == null) return null;
+        Entry entry = byName.get(name);
+        return entry != null || fallback == null ? entry : fromFallback(fallback.findByName(name));
+    }
+
+    /**
+     * @return the name of the concept with the uuid, read through the fallback if missing from the dictionary, as the keys
+     * of observations are always concepts; null if there is no concept with the uuid
+     */
+    public String getName(String uuid) {
+        Entry entry = findByUuid(uuid);
+        return entry == null ? null : entry.getName();
+    }
+
+    /**
+     * Of the concepts in the dictionary only, without the fallback, as the values of observations are looked up in it to
+     * tell whether they are concepts. Not to be used for the keys of observations, see {@link #getName}.
+     */
+    public Map<String, String> getUuidToName() {
+        return uuidToName;
+    }
+
+    private Entry fromFallback(Concept concept) {
+        if (concept == null) return null;
+        fallback.onMiss();
+        return new Entry(concept, concept.getConceptAnswers().stream().map(Answer::new).collect(Collectors.toList()));
+    }
+
+    /**
+     * Reads concepts from the database, for those missing from the dictionary.
+     */
+    public interface Fallback {
+        Concept findByUuid(String uuid);
+
+        Concept findByName(String name);
+
+        /**
+         * Called when a concept is read through the fallback, the dictionary being out of date
+         */
+        void onMiss();
+    }
+
+    public static class Entry {
+        private final Long id;
+        private final String uuid;
+        private final String name;
+        private final String dataType;
+        private final boolean voided;
+        private final Boolean active;
+        private final KeyValues keyValues;
+        private final Double lowAbsolute;
+        private final Double highAbsolute;
+        private final Double lowNormal;
+        private final Double highNormal;
+        private final List<Answer> answers;
+
+        private Entry(Concept concept, List<Answer> answers) {
+            this.id = concept.getId();
+            this.uuid = concept.getUuid();
+            this.name = concept.getName();
+            this.dataType = concept.getDataType();
+            this.voided = concept.isVoided();
+            this.active = concept.getActive();
+            this.keyValues = copy(concept.getKeyValues());
+            this.lowAbsolute = concept.getLowAbsolute();
+            this.highAbsolute = concept.getHighAbsolute();
+            this.lowNormal = concept.getLowNormal();
+            this.highNormal = concept.getHighNormal();
+            this.answers = Collections.unmodifiableList(answers.stream()
+                    .sorted(Comparator.comparingDouble(Answer::getOrder))
+                    .collect(Collectors.toList()));
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDataType() {
+            return dataType;
+        }
+
+        public boolean isVoided() {
+            return voided;
+        }
+
+        public Boolean getActive() {
+            return active;
+        }
+
+        public KeyValues getKeyValues() {
+            return keyValues;
+        }
+
+        public Double getLowAbsolute() {
+            return lowAbsolute;
+        }
+
+        public Double getHighAbsolute() {
+            return highAbsolute;
+        }
+
+        public Double getLowNormal() {
+            return lowNormal;
+        }
+
+        public Double getHighNormal() {
+            return highNormal;
+        }
+
+        public List<Answer> getAnswers() {
+            return answers;
+        }
+
+        public boolean isDataType(ConceptDataType conceptDataType) {
+            return conceptDataType.toString().equals(dataType);
+        }
+
+        private static KeyValues copy(KeyValues keyValues) {
+            if (keyValues == null) return null;
+            KeyValues copy = new KeyValues();
+            keyValues.forEach(keyValue -> copy.add(new KeyValue(keyValue.getKey(), keyValue.getValue())));
+            return copy;
+        }
+    }
+
+    public static class Answer {
+        private final String answerConceptUuid;
+        private final double order;
+        private final boolean abnormal;
+        private final boolean unique;
+
+        private Answer(ConceptAnswer conceptAnswer) {
+            this.answerConceptUuid = conceptAnswer.getAnswerConcept().getUuid();
+            this.order = conceptAnswer.getOrder();
+            this.abnormal = conceptAnswer.isAbnormal();
+            this.unique = conceptAnswer.isUnique();
+        }
+
+        public String getAnswerConceptUuid() {
+            return answerConceptUuid;
+        }
+
+        public double getOrder() {
+            return order;
+        }
+
+        public boolean isAbnormal() {
+            return abnormal;
+        }
+
+        public boolean isUnique() {
+            return unique;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.avni.server.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.avni.server.framework.hibernate.PooledSequenceId;
 import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
@@ -10,6 +11,7 @@ import javax.validation.constraints.NotNull;
 @Table(name = "identifier_assignment")
 @JsonIgnoreProperties({"identifierSource", "assignedTo", "individual", "programEnrolment"})
 @BatchSize(size = 100)
+@PooledSequenceId
 public class IdentifierAssignment extends OrganisationAwareEntity {
     @NotNull
     @ManyToOne(fetch= FetchType.LAZY)
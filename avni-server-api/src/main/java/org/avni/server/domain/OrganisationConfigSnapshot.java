@@ -0,0 +1,63 @@
+package org.avni.server.domain;
+
+import org.avni.server.application.OrganisationConfigSettingKey;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the organisation config of an organisation, read once and kept as they are to be looked up, so that
+ * checking a feature or finding the registration locations of a subject type does not read and convert the settings
+ * every time. Not to be changed once created as it is shared across requests.
+ */
+public class OrganisationConfigSnapshot {
+    private final Map<String, Object> settings;
+    private final Map<String, List<Long>> registrationAddressLevelTypeIds;
+    private final boolean commentEnabled;
+    private final boolean messagingEnabled;
+    private final boolean failOnValidationErrorEnabled;
+
+    /**
+     * @param registrationAddressLevelTypeIds ids of the custom registration location types, by subject type uuid
+     */
+    public OrganisationConfigSnapshot(Map<String, Object> settings, Map<String, List<Long>> registrationAddressLevelTypeIds) {
+        this.settings = Collections.unmodifiableMap(new HashMap<>(settings));
+        this.registrationAddressLevelTypeIds = Collections.unmodifiableMap(new HashMap<>(registrationAddressLevelTypeIds));
+        this.commentEnabled = isFeatureEnabled(settings, OrganisationConfigSettingKey.enableComments);
+        this.messagingEnabled = isFeatureEnabled(settings, OrganisationConfigSettingKey.enableMessaging);
+        this.failOnValidationErrorEnabled = isFeatureEnabled(settings, OrganisationConfigSettingKey.failOnValidationError);
+    }
+
+    public OrganisationConfigSnapshot() {
+        this(Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    public Object getSetting(String key) {
+        return settings.getOrDefault(key, Collections.EMPTY_LIST);
+    }
+
+    /**
+     * @return null if subjects of the subject type can be registered in any address
+     */
+    public List<Long> getRegistrationAddressLevelTypeIds(String subjectTypeUuid) {
+        return registrationAddressLevelTypeIds.get(subjectTypeUuid);
+    }
+
+    public boolean isCommentEnabled() {
+        return commentEnabled;
+    }
+
+    public boolean isMessagingEnabled() {
+        return messagingEnabled;
+    }
+
+    public boolean isFailOnValidationErrorEnabled() {
+        return failOnValidationErrorEnabled;
+    }
+
+    private static boolean isFeatureEnabled(Map<String, Object> settings, OrganisationConfigSettingKey key) {
+        return Boolean.TRUE.equals(settings.get(key.name()));
+    }
+}
@@ -3,6 +3,7 @@ package org.avni.server.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.avni.server.common.dbSchema.TableNames;
+import org.avni.server.framework.hibernate.PooledSequenceId;
 import org.hibernate.annotations.BatchSize;
 import org.joda.time.DateTime;
 import org.avni.server.application.projections.BaseProjection;
@@ -16,6 +17,7 @@ import javax.validation.constraints.NotNull;
 @Table(name = TableNames.ProgramEncounter)
 @JsonIgnoreProperties({"programEnrolment", "individual"})
 @BatchSize(size = 100)
+@PooledSequenceId
 public class ProgramEncounter extends AbstractEncounter implements MessageableEntity {
 
     @NotNull
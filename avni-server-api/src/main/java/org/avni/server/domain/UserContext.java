@@ -10,6 +10,7 @@ public class UserContext {
     private User user;
     private String organisationUUID;
     private String authToken;
+    private Long catchmentId;
 
     public String getOrganisationUUID() {
         return organisationUUID;
@@ -78,4 +79,12 @@ public class UserContext {
     public void setAuthToken(String authToken) {
         this.authToken = authToken;
     }
+
+    public Long getCatchmentId() {
+        return catchmentId;
+    }
+
+    public void setCatchmentId(Long catchmentId) {
+        this.catchmentId = catchmentId;
+    }
 }
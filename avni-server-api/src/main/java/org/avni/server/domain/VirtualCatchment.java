@@ -8,7 +8,7 @@ import javax.validation.constraints.NotNull;
 import java.util.Objects;
 
 @Entity
-@Table(name = "virtual_catchment_address_mapping_table")
+@Table(name = "catchment_address_closure")
 @BatchSize(size = 100)
 @Cacheable
 @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
@@ -27,6 +27,9 @@ public class VirtualCatchment {
     @JoinColumn(name = "addresslevel_id")
     private AddressLevel addressLevel;
 
+    @Column(name = "type_id")
+    private Long typeId;
+
     public Long getId() {
         return id;
     }
@@ -51,6 +54,14 @@ public class VirtualCatchment {
         this.addressLevel = addressLevel;
     }
 
+    public Long getTypeId() {
+        return typeId;
+    }
+
+    public void setTypeId(Long typeId) {
+        this.typeId = typeId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,31 +3,35 @@ package org.avni.server.domain.accessControl;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.GroupPrivilege;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
+/**
+ * Allowed privileges of a user. The privileges are indexed by their type and the ids of the entities they are for, once
+ * when created, so that checking a privilege does not go over all the privileges of the user.
+ */
 public class GroupPrivileges {
     private final boolean hasAllPrivileges;
     private final List<GroupPrivilege> privileges;
+    private final Map<PrivilegeType, Set<PrivilegeKey>> privilegeIndex;
 
     public GroupPrivileges(boolean hasAllPrivileges, List<GroupPrivilege> privileges) {
         this.hasAllPrivileges = hasAllPrivileges;
         this.privileges = privileges;
+        this.privilegeIndex = buildIndex(privileges);
     }
 
     public GroupPrivileges(boolean hasAllPrivileges, GroupPrivilege ... privileges) {
-        this.hasAllPrivileges = hasAllPrivileges;
-        this.privileges = Arrays.asList(privileges);
+        this(hasAllPrivileges, Arrays.asList(privileges));
     }
 
     public GroupPrivileges() {
-        this.hasAllPrivileges = true;
-        this.privileges = new ArrayList<>();
+        this(true, new ArrayList<>());
     }
 
     public boolean hasPrivilege(PrivilegeType privilegeType, SubjectType subjectType, Program program, EncounterType encounterType, ChecklistDetail checklistDetail) {
-        return this.hasAllPrivileges || privileges.stream().anyMatch(groupPrivilege -> groupPrivilege.matches(privilegeType, subjectType, program, encounterType, checklistDetail));
+        if (this.hasAllPrivileges) return true;
+        Set<PrivilegeKey> privilegesOfType = privilegeIndex.get(privilegeType);
+        return privilegesOfType != null && privilegesOfType.contains(new PrivilegeKey(id(subjectType), id(program), id(encounterType), id(checklistDetail)));
     }
 
     public boolean hasViewPrivilege(ChecklistItem checklistItem) {
@@ -72,4 +76,56 @@ public class GroupPrivileges {
     public List<GroupPrivilege> getPrivileges() {
         return privileges;
     }
+
+    // A privilege for an encounter type or a program encounter type (usually only one of them) matches either
+    private static Map<PrivilegeType, Set<PrivilegeKey>> buildIndex(List<GroupPrivilege> privileges) {
+        Map<PrivilegeType, Set<PrivilegeKey>> index = new EnumMap<>(PrivilegeType.class);
+        for (GroupPrivilege privilege : privileges) {
+            Set<PrivilegeKey> privilegesOfType = index.computeIfAbsent(privilege.getPrivilege().getType(), type -> new HashSet<>());
+            long subjectTypeId = id(privilege.getSubjectType());
+            long programId = id(privilege.getProgram());
+            long checklistDetailId = id(privilege.getChecklistDetail());
+            privilegesOfType.add(new PrivilegeKey(subjectTypeId, programId, id(privilege.getEncounterType()), checklistDetailId));
+            privilegesOfType.add(new PrivilegeKey(subjectTypeId, programId, id(privilege.getProgramEncounterType()), checklistDetailId));
+        }
+        index.replaceAll((type, privilegesOfType) -> Collections.unmodifiableSet(privilegesOfType));
+        return Collections.unmodifiableMap(index);
+    }
+
+    // Ids are compared by value. No entity matches only no entity, and an entity not saved yet (without id) only another
+    // not saved yet, as when their null ids were compared.
+    private static long id(CHSBaseEntity entity) {
+        if (entity == null) return 0;
+        return entity.getId() == null ? -1 : entity.getId();
+    }
+
+    private static final class PrivilegeKey {
+        private final long subjectTypeId;
+        private final long programId;
+        private final long encounterTypeId;
+        private final long checklistDetailId;
+        private final int hashCode;
+
+        private PrivilegeKey(long subjectTypeId, long programId, long encounterTypeId, long checklistDetailId) {
+            this.subjectTypeId = subjectTypeId;
+            this.programId = programId;
+            this.encounterTypeId = encounterTypeId;
+            this.checklistDetailId = checklistDetailId;
+            this.hashCode = Objects.hash(subjectTypeId, programId, encounterTypeId, checklistDetailId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PrivilegeKey)) return false;
+            PrivilegeKey that = (PrivilegeKey) o;
+            return subjectTypeId == that.subjectTypeId && programId == that.programId
+                    && encounterTypeId == that.encounterTypeId && checklistDetailId == that.checklistDetailId;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
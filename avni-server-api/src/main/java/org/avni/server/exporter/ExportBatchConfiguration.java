@@ -2,9 +2,7 @@ package org.avni.server.exporter;
 
 import org.avni.server.dao.*;
 import org.avni.server.domain.*;
-import org.avni.server.exporter.v2.ExportV2CSVFieldExtractor;
-import org.avni.server.exporter.v2.ExportV2Processor;
-import org.avni.server.exporter.v2.LongitudinalExportV2TaskletImpl;
+import org.avni.server.exporter.v2.*;
 import org.avni.server.framework.security.AuthService;
 import org.avni.server.service.ExportS3Service;
 import org.avni.server.web.external.request.export.ExportFilters;
@@ -19,13 +17,20 @@ import org.springframework.batch.core.configuration.annotation.EnableBatchProces
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.launch.support.SimpleJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.persistence.EntityManager;
 import java.util.*;
@@ -37,6 +42,8 @@ import static java.lang.String.format;
 @Configuration
 @EnableBatchProcessing
 public class ExportBatchConfiguration {
+    private static final String PARTITION = "partition";
+    private static final String PARTITION_COUNT = "partitionCount";
     private final int CHUNK_SIZE = 100;
     private final EntityManager entityManager;
     private final JobBuilderFactory jobBuilderFactory;
@@ -50,6 +57,9 @@ public class ExportBatchConfiguration {
     private final SubjectTypeRepository subjectTypeRepository;
     private final EncounterTypeRepository encounterTypeRepository;
     private final ProgramRepository programRepository;
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final int partitions;
 
     @Autowired
     public ExportBatchConfiguration(JobBuilderFactory jobBuilderFactory,
@@ -63,7 +73,10 @@ public class ExportBatchConfiguration {
                                     SubjectTypeRepository subjectTypeRepository,
                                     EncounterTypeRepository encounterTypeRepository,
                                     ProgramRepository programRepository,
-                                    EntityManager entityManager) {
+                                    EntityManager entityManager,
+                                    JobRepository jobRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${avni.export.partitions}") int partitions) {
         this.jobBuilderFactory = jobBuilderFactory;
         this.stepBuilderFactory = stepBuilderFactory;
         this.programEnrolmentRepository = programEnrolmentRepository;
@@ -76,6 +89,27 @@ public class ExportBatchConfiguration {
         this.encounterTypeRepository = encounterTypeRepository;
         this.programRepository = programRepository;
         this.entityManager = entityManager;
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Exports run on a launcher of their own, apart from the bulk upload jobs of {@code bgJobLauncher}, so that neither
+     * waits for nor fills the queue of the other.
+     */
+    @Bean
+    public JobLauncher exportJobLauncher() {
+        return new SimpleJobLauncher() {{
+            setJobRepository(jobRepository);
+            setTaskExecutor(new ThreadPoolTaskExecutor() {{
+                setCorePoolSize(1);
+                setMaxPoolSize(1);
+                setQueueCapacity(100);
+                setThreadNamePrefix("export-job-");
+                initialize();
+            }});
+        }};
     }
 
     @Bean
@@ -89,15 +123,73 @@ public class ExportBatchConfiguration {
     }
 
     @Bean
-    public Job exportV2Job(JobCompletionNotificationListener listener, Step exportV2Step) {
+    public Job exportV2Job(JobCompletionNotificationListener listener, Step exportV2Step, Step exportV2PartitionedStep) {
         return jobBuilderFactory
                 .get("exportVisitJob")
                 .incrementer(new RunIdIncrementer())
                 .listener(listener)
-                .start(exportV2Step)
+                .start(partitions > 1 ? exportV2PartitionedStep : exportV2Step)
+                .build();
+    }
+
+    @Bean
+    public Step exportV2PartitionedStep(Step exportV2PartitionStep, CompressedExportUploadListener compressedExportUploadListener) {
+        return stepBuilderFactory.get("exportV2PartitionedStep")
+                .partitioner("exportV2PartitionStep", gridSize -> {
+                    Map<String, ExecutionContext> partitionContexts = new HashMap<>();
+                    for (int i = 0; i < gridSize; i++) {
+                        ExecutionContext executionContext = new ExecutionContext();
+                        executionContext.putLong(PARTITION, i);
+                        executionContext.putLong(PARTITION_COUNT, gridSize);
+                        partitionContexts.put(PARTITION + i, executionContext);
+                    }
+                    return partitionContexts;
+                })
+                .step(exportV2PartitionStep)
+                .gridSize(partitions)
+                .taskExecutor(new SimpleAsyncTaskExecutor("export-partition-"))
+                .listener(compressedExportUploadListener)
+                .build();
+    }
+
+    @Bean
+    public Step exportV2PartitionStep(Tasklet exportV2PartitionTasklet,
+                                      LongitudinalExportJobStepListener listener) {
+        return stepBuilderFactory.get("exportV2PartitionStep")
+                .tasklet(exportV2PartitionTasklet)
+                .listener(listener)
                 .build();
     }
 
+    @Bean
+    @StepScope
+    public Tasklet exportV2PartitionTasklet(@Value("#{jobParameters['uuid']}") String uuid,
+                                            @Value("#{jobParameters['userId']}") Long userId,
+                                            @Value("#{jobParameters['organisationUUID']}") String organisationUUID,
+                                            @Value("#{stepExecutionContext['partition']}") Long partition,
+                                            @Value("#{stepExecutionContext['partitionCount']}") Long partitionCount,
+                                            LongitudinalExportJobStepListener listener,
+                                            ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
+                                            ExportV2Processor exportV2Processor,
+                                            LongitudinalExportBlockLoader longitudinalExportBlockLoader,
+                                            CompressedExportUploadListener compressedExportUploadListener) {
+        authService.authenticateByUserId(userId, organisationUUID);
+        ExportOutput exportOutput = exportV2CSVFieldExtractor.getExportOutput();
+        ExportFilters subjectFilters = exportOutput.getFilters();
+        List<Long> selectedAddressIds = getLocations(subjectFilters.getAddressLevelIds());
+        List<Long> addressParam = selectedAddressIds.isEmpty() ? null : selectedAddressIds;
+        SubjectType subjectType = subjectTypeRepository.findByUuid(exportOutput.getUuid());
+        LocalDate startDate = subjectFilters.getDate().getFrom().toLocalDate();
+        LocalDate endDate = subjectFilters.getDate().getTo().toLocalDate();
+        Stream stream = subjectFilters.includeVoided() ?
+                individualRepository.findAllIndividualsInPartition(subjectType.getId(), addressParam, startDate, endDate, partitionCount, partition) :
+                individualRepository.findNonVoidedIndividualsInPartition(subjectType.getId(), addressParam, startDate, endDate, partitionCount, partition);
+        LongitudinalExportTasklet partitionTasklet = new LongitudinalExportV2PartitionTasklet(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor,
+                exportV2Processor, longitudinalExportBlockLoader, compressedExportUploadListener.getUpload(uuid), jobRepository, transactionManager, stream);
+        listener.setItemReaderCleaner(partitionTasklet);
+        return partitionTasklet;
+    }
+
     @Bean
     public Step exportV2Step(Tasklet exportV2Tasklet,
                              LongitudinalExportJobStepListener listener) {
@@ -115,7 +207,8 @@ public class ExportBatchConfiguration {
                                    @Value("#{jobParameters['exportJobParamsUUID']}") String exportJobParamsUUID,
                                    LongitudinalExportJobStepListener listener,
                                    ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                   ExportV2Processor exportV2Processor) {
+                                   ExportV2Processor exportV2Processor,
+                                   LongitudinalExportBlockLoader longitudinalExportBlockLoader) {
         authService.authenticateByUserId(userId, organisationUUID);
         ExportOutput exportOutput = exportV2CSVFieldExtractor.getExportOutput();
         ExportFilters subjectFilters = exportOutput.getFilters();
@@ -123,7 +216,7 @@ public class ExportBatchConfiguration {
         List<Long> selectedAddressIds = getLocations(addressLevelIds);
         List<Long> addressParam = selectedAddressIds.isEmpty() ? null : selectedAddressIds;
         Stream stream = getRegistrationStream(exportOutput.getUuid(), addressParam, subjectFilters.getDate().getFrom().toLocalDate(), subjectFilters.getDate().getTo().toLocalDate(), subjectFilters.includeVoided());
-        LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor, exportV2Processor, exportS3Service, uuid, stream);
+        LongitudinalExportTasklet encounterTasklet = new LongitudinalExportV2TaskletImpl(CHUNK_SIZE, entityManager, exportV2CSVFieldExtractor, exportV2Processor, longitudinalExportBlockLoader, exportS3Service, uuid, stream);
         listener.setItemReaderCleaner(encounterTasklet);
         return encounterTasklet;
     }
@@ -27,6 +27,7 @@ import org.springframework.batch.core.repository.JobExecutionAlreadyRunningExcep
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -46,19 +47,22 @@ public class ExportJobService {
     private final Job exportVisitJob;
     private final Job exportV2Job;
 
-    private final JobLauncher bgJobLauncher;
+    private final JobLauncher exportJobLauncher;
     private final ExportJobParametersRepository exportJobParametersRepository;
     private final ErrorBodyBuilder errorBodyBuilder;
+    private final int exportPartitions;
 
     @Autowired
-    public ExportJobService(Job exportVisitJob, JobLauncher bgJobLauncher, AvniJobRepository avniJobRepository,
-                            Job exportV2Job, ExportJobParametersRepository exportJobParametersRepository, ErrorBodyBuilder errorBodyBuilder) {
+    public ExportJobService(Job exportVisitJob, JobLauncher exportJobLauncher, AvniJobRepository avniJobRepository,
+                            Job exportV2Job, ExportJobParametersRepository exportJobParametersRepository, ErrorBodyBuilder errorBodyBuilder,
+                            @Value("${avni.export.partitions}") int exportPartitions) {
+        this.exportPartitions = exportPartitions;
         this.avniJobRepository = avniJobRepository;
         this.exportV2Job = exportV2Job;
         this.exportJobParametersRepository = exportJobParametersRepository;
         this.errorBodyBuilder = errorBodyBuilder;
         logger = LoggerFactory.getLogger(getClass());
-        this.bgJobLauncher = bgJobLauncher;
+        this.exportJobLauncher = exportJobLauncher;
         this.exportVisitJob = exportVisitJob;
     }
 
@@ -102,7 +106,12 @@ public class ExportJobService {
         exportJobParametersRepository.save(exportJobParameters);
         String subjectTypeUUID = ObjectMapperSingleton.getObjectMapper()
                 .convertValue(exportJobParameters.getReportFormat(), new TypeReference<ExportOutput>() {}).getUuid();
-        JobParameters jobParameters = getCommonJobParams(UserContextHolder.getUserContext())
+        JobParametersBuilder jobParametersBuilder = getCommonJobParams(UserContextHolder.getUserContext());
+        if (exportPartitions > 1) {
+            //partitioned exports are uploaded compressed, as they are written
+            jobParametersBuilder.addString("fileName", jobParametersBuilder.toJobParameters().getString("uuid").concat(ExportS3Service.COMPRESSED_FILE_NAME_EXTENSION));
+        }
+        JobParameters jobParameters = jobParametersBuilder
                 .addString("subjectTypeUUID", subjectTypeUUID, false)
                 .addString("reportType", "Custom")
                 .addString("exportJobParamsUUID", exportJobParameters.getUuid()).toJobParameters();
@@ -111,7 +120,7 @@ public class ExportJobService {
 
     private ResponseEntity<?> launchJob(JobParameters jobParameters, Job job) {
         try {
-            bgJobLauncher.run(job, jobParameters);
+            exportJobLauncher.run(job, jobParameters);
         } catch (JobParametersInvalidException | JobExecutionAlreadyRunningException | JobInstanceAlreadyCompleteException | JobRestartException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorBodyBuilder.getErrorBody(e));
         }
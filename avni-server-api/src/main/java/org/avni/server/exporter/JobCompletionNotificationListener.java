@@ -30,6 +30,9 @@ public class JobCompletionNotificationListener extends JobExecutionListenerSuppo
     @Value("#{jobParameters['organisationUUID']}")
     private String organisationUUID;
 
+    @Value("#{jobParameters['fileName']}")
+    private String fileName;
+
     private final ExportS3Service exportS3Service;
     private final AuthService authService;
 
@@ -43,6 +46,10 @@ public class JobCompletionNotificationListener extends JobExecutionListenerSuppo
     public void afterJob(JobExecution jobExecution) {
         if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
             logger.info("Export Job with uuid {} finished", jobExecution.getJobParameters().getString("uuid"));
+            if (ExportS3Service.isCompressed(fileName)) {
+                logger.info("Export Job file {} was uploaded to s3 as it was written", fileName);
+                return;
+            }
             File file = exportS3Service.getLocalExportFile(uuid);
             try {
                 exportS3Service.uploadFile(file, uuid);
@@ -0,0 +1,106 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.service.MultipartObjectUpload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Collects blocks of export lines from the partitions of an export and uploads them as the parts of one gzip file.
+ * Every block is compressed on its own into a gzip member; gzip members one after another make a valid gzip file, so
+ * blocks are appended to the current part as they come and a part is uploaded once it reaches the part size. The
+ * header is written first, and the rest of the blocks are in no particular order across partitions.
+ */
+public class CompressedExportUpload {
+    private final MultipartObjectUpload multipartObjectUpload;
+    private final int partSize;
+    private final AtomicLong lines = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicInteger uploadedParts = new AtomicInteger();
+    private ByteArrayOutputStream currentPart;
+    private int lastPartNumber;
+    private String header;
+
+    public CompressedExportUpload(MultipartObjectUpload multipartObjectUpload, int partSize) {
+        this.multipartObjectUpload = multipartObjectUpload;
+        this.partSize = Math.max(partSize, MultipartObjectUpload.MIN_PART_SIZE);
+        this.currentPart = new ByteArrayOutputStream(this.partSize);
+    }
+
+    public void writeHeader(String header) {
+        this.header = header;
+        append(compress(header), 0);
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void write(List<String> blockLines) {
+        if (blockLines.isEmpty()) return;
+        append(compress(String.join("\n", blockLines)), blockLines.size());
+    }
+
+    public synchronized String complete() {
+        if (currentPart.size() > 0 || lastPartNumber == 0) {
+            upload(++lastPartNumber, currentPart.toByteArray());
+        }
+        return multipartObjectUpload.complete();
+    }
+
+    public void abort() {
+        multipartObjectUpload.abort();
+    }
+
+    public long getLines() {
+        return lines.get();
+    }
+
+    public long getUploadedBytes() {
+        return uploadedBytes.get();
+    }
+
+    public int getUploadedParts() {
+        return uploadedParts.get();
+    }
+
+    private void append(byte[] compressedLines, int lineCount) {
+        byte[] part = null;
+        int partNumber = 0;
+        synchronized (this) {
+            currentPart.write(compressedLines, 0, compressedLines.length);
+            if (currentPart.size() >= partSize) {
+                part = currentPart.toByteArray();
+                partNumber = ++lastPartNumber;
+                currentPart = new ByteArrayOutputStream(partSize);
+            }
+        }
+        if (part != null) upload(partNumber, part);
+        lines.addAndGet(lineCount);
+    }
+
+    private void upload(int partNumber, byte[] part) {
+        multipartObjectUpload.uploadPart(partNumber, part);
+        uploadedParts.incrementAndGet();
+        uploadedBytes.addAndGet(part.length);
+    }
+
+    private static byte[] compress(String lines) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(compressed), StandardCharsets.UTF_8)) {
+            writer.write(lines);
+            writer.write("\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
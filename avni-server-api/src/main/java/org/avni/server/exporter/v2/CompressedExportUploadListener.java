@@ -0,0 +1,96 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.service.ExportS3Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listens to the step that runs the partitions of an export. Starts the compressed upload of the export, with its
+ * header, before the partitions run and completes it (or aborts it, if a partition failed) after they are done. The
+ * partitions find the upload by the uuid of the export job. The header is created in a transaction of its own as the
+ * step has none open when its listeners are called.
+ */
+@Component
+public class CompressedExportUploadListener implements StepExecutionListener {
+    private static final Logger logger = LoggerFactory.getLogger(CompressedExportUploadListener.class);
+    private final ExportS3Service exportS3Service;
+    private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
+    private final int partSize;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, CompressedExportUpload> uploads = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CompressedExportUploadListener(ExportS3Service exportS3Service,
+                                          ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${avni.export.uploadPartSizeInMB}") int partSizeInMB) {
+        this.exportS3Service = exportS3Service;
+        this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partSize = partSizeInMB * 1024 * 1024;
+    }
+
+    public CompressedExportUpload getUpload(String uuid) {
+        return uploads.get(uuid);
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        String uuid = getUuid(stepExecution);
+        String header = transactionTemplate.execute(status -> getHeader());
+        CompressedExportUpload upload = new CompressedExportUpload(exportS3Service.startCompressedUpload(uuid), partSize);
+        upload.writeHeader(header);
+        uploads.put(uuid, upload);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        String uuid = getUuid(stepExecution);
+        CompressedExportUpload upload = uploads.remove(uuid);
+        if (upload == null) return null;
+        if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+            logger.info(String.format("Export %s did not complete, aborting its upload", uuid));
+            upload.abort();
+            return null;
+        }
+        try {
+            String key = upload.complete();
+            LongitudinalExportV2PartitionTasklet.putProgress(stepExecution.getJobExecution().getExecutionContext(), upload);
+            logger.info(String.format("Uploaded %d records of export %s in %d parts to %s", upload.getLines(), uuid, upload.getUploadedParts(), key));
+            return null;
+        } catch (RuntimeException e) {
+            logger.error(String.format("Error completing upload of export %s", uuid), e);
+            upload.abort();
+            return ExitStatus.FAILED;
+        }
+    }
+
+    private String getHeader() {
+        StringWriter header = new StringWriter();
+        try {
+            exportV2CSVFieldExtractor.writeHeader(header);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return header.toString();
+    }
+
+    private static String getUuid(StepExecution stepExecution) {
+        return stepExecution.getJobParameters().getString("uuid");
+    }
+}
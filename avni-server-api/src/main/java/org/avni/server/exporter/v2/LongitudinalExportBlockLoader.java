@@ -0,0 +1,59 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.domain.CHSEntity;
+import org.avni.server.domain.GroupSubject;
+import org.avni.server.domain.Individual;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Loads everything ExportV2Processor and ExportV2CSVFieldExtractor read from a block of individuals with a few IN
+ * queries, in place of the lazy loading of encounters, enrolments and group subjects for every individual. The queries
+ * initialise the collections of the individuals in the persistence context, so the block must be processed before the
+ * entity manager is cleared.
+ */
+@Component
+public class LongitudinalExportBlockLoader {
+    private final IndividualRepository individualRepository;
+    private final ProgramEnrolmentRepository programEnrolmentRepository;
+
+    @Autowired
+    public LongitudinalExportBlockLoader(IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository) {
+        this.individualRepository = individualRepository;
+        this.programEnrolmentRepository = programEnrolmentRepository;
+    }
+
+    public void load(List<Individual> individuals) {
+        if (individuals.isEmpty()) return;
+        List<Long> individualIds = getIds(individuals);
+        individualRepository.fetchEncounters(individualIds);
+        individualRepository.fetchProgramEnrolments(individualIds);
+        programEnrolmentRepository.fetchProgramEncounters(individualIds);
+        individualRepository.fetchMemberGroupSubjects(individualIds);
+
+        List<Individual> groupSubjects = individuals.stream()
+                .flatMap(individual -> individual.getMemberGroupSubjects().stream())
+                .map(GroupSubject::getGroupSubject)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        List<Long> groupSubjectIds = getIds(groupSubjects);
+        if (!groupSubjectIds.isEmpty()) {
+            individualRepository.fetchEncounters(groupSubjectIds);
+            individualRepository.fetchGroupSubjects(groupSubjectIds);
+        }
+        if (individuals.get(0).getSubjectType().isGroup()) {
+            individualRepository.fetchGroupSubjects(individualIds);
+        }
+    }
+
+    private static List<Long> getIds(List<? extends CHSEntity> entities) {
+        return entities.stream().map(CHSEntity::getId).distinct().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,143 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.domain.Individual;
+import org.avni.server.exporter.LongitudinalExportTasklet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports one partition of the subjects of a longitudinal export into the shared compressed upload. Progress (lines
+ * exported by the partition, and lines, parts and bytes uploaded by the export) is saved in the step and job execution
+ * contexts at an interval, in a transaction of its own as the step's transaction is open until the partition is done.
+ */
+public class LongitudinalExportV2PartitionTasklet implements LongitudinalExportTasklet {
+    public static final String EXPORTED_LINES = "exportedLines";
+    public static final String UPLOADED_PARTS = "uploadedParts";
+    public static final String UPLOADED_BYTES = "uploadedBytes";
+    private static final long PROGRESS_UPDATE_INTERVAL_MILLIS = 30000;
+    private static final Logger logger = LoggerFactory.getLogger(LongitudinalExportV2PartitionTasklet.class);
+
+    private final int blockSize;
+    private final EntityManager entityManager;
+    private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
+    private final ExportV2Processor exportV2Processor;
+    private final LongitudinalExportBlockLoader blockLoader;
+    private final CompressedExportUpload compressedExportUpload;
+    private final JobRepository jobRepository;
+    private final TransactionTemplate progressTransactionTemplate;
+    private final Iterator iterator;
+    private final Stream stream;
+    private final DelimitedLineAggregator<LongitudinalExportItemRow> lineAggregator;
+
+    public LongitudinalExportV2PartitionTasklet(int blockSize, EntityManager entityManager, ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
+                                                ExportV2Processor exportV2Processor, LongitudinalExportBlockLoader blockLoader,
+                                                CompressedExportUpload compressedExportUpload, JobRepository jobRepository,
+                                                PlatformTransactionManager transactionManager, Stream stream) {
+        this.blockSize = blockSize;
+        this.entityManager = entityManager;
+        this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
+        this.exportV2Processor = exportV2Processor;
+        this.blockLoader = blockLoader;
+        this.compressedExportUpload = compressedExportUpload;
+        this.jobRepository = jobRepository;
+        this.progressTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.progressTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stream = stream;
+        this.exportV2Processor.setExportOutput(exportV2CSVFieldExtractor.getExportOutput());
+        this.lineAggregator = new DelimitedLineAggregator<>();
+        this.lineAggregator.setDelimiter(",");
+        this.lineAggregator.setFieldExtractor(exportV2CSVFieldExtractor);
+        this.iterator = stream.iterator();
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
+        StepExecution stepExecution = chunkContext.getStepContext().getStepExecution();
+        checkHeader();
+        List<Individual> individuals = new ArrayList<>(blockSize);
+        List<String> lines = new ArrayList<>(blockSize);
+        long exportedLines = 0;
+        long lastProgressUpdate = System.currentTimeMillis();
+        while (iterator.hasNext()) {
+            individuals.add((Individual) iterator.next());
+            if (individuals.size() == blockSize || !iterator.hasNext()) {
+                blockLoader.load(individuals);
+                for (Individual individual : individuals) {
+                    lines.add(lineAggregator.aggregate(exportV2Processor.process(individual)));
+                }
+                compressedExportUpload.write(lines);
+                exportedLines += lines.size();
+                lines.clear();
+                individuals.clear();
+                entityManager.flush();
+                entityManager.clear();
+                if (System.currentTimeMillis() - lastProgressUpdate > PROGRESS_UPDATE_INTERVAL_MILLIS) {
+                    updateProgress(stepExecution, exportedLines);
+                    lastProgressUpdate = System.currentTimeMillis();
+                }
+            }
+        }
+        setProgress(stepExecution, exportedLines);
+        logger.info(String.format("Completed exporting %d records of %s", exportedLines, stepExecution.getStepName()));
+        return RepeatStatus.FINISHED;
+    }
+
+    private void checkHeader() throws Exception {
+        StringWriter header = new StringWriter();
+        exportV2CSVFieldExtractor.writeHeader(header);
+        if (!header.toString().equals(compressedExportUpload.getHeader())) {
+            throw new IllegalStateException("Columns of the export changed while it was running as data changed, export again");
+        }
+    }
+
+    private void updateProgress(StepExecution stepExecution, long exportedLines) {
+        setProgress(stepExecution, exportedLines);
+        progressTransactionTemplate.execute(status -> {
+            jobRepository.update(stepExecution);
+            jobRepository.updateExecutionContext(stepExecution);
+            jobRepository.updateExecutionContext(stepExecution.getJobExecution());
+            return null;
+        });
+        logger.info(String.format("Exported %d records of %s, %d records of the export in all", exportedLines, stepExecution.getStepName(), compressedExportUpload.getLines()));
+    }
+
+    private void setProgress(StepExecution stepExecution, long exportedLines) {
+        stepExecution.setReadCount((int) exportedLines);
+        stepExecution.setWriteCount((int) exportedLines);
+        stepExecution.getExecutionContext().putLong(EXPORTED_LINES, exportedLines);
+        putProgress(stepExecution.getJobExecution().getExecutionContext(), compressedExportUpload);
+    }
+
+    public static void putProgress(ExecutionContext executionContext, CompressedExportUpload compressedExportUpload) {
+        executionContext.putLong(EXPORTED_LINES, compressedExportUpload.getLines());
+        executionContext.putInt(UPLOADED_PARTS, compressedExportUpload.getUploadedParts());
+        executionContext.putLong(UPLOADED_BYTES, compressedExportUpload.getUploadedBytes());
+    }
+
+    @Override
+    public void clean() {
+        logger.info("Closing the result set stream");
+        try {
+            stream.close();
+        } catch (Exception e) {
+            logger.error("Error closing data stream", e);
+        }
+    }
+}
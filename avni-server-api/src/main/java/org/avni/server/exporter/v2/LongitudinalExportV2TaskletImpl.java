@@ -1,5 +1,6 @@
 package org.avni.server.exporter.v2;
 
+import org.avni.server.domain.Individual;
 import org.avni.server.exporter.LongitudinalExportTasklet;
 import org.avni.server.service.ExportS3Service;
 import org.slf4j.Logger;
@@ -26,21 +27,22 @@ public class LongitudinalExportV2TaskletImpl implements LongitudinalExportTaskle
     private final EntityManager entityManager;
     private final ExportV2CSVFieldExtractor exportV2CSVFieldExtractor;
     private final ExportV2Processor exportV2Processor;
+    private final LongitudinalExportBlockLoader blockLoader;
     private final ExportS3Service exportS3Service;
     private final String jobUuid;
     private final Iterator iterator;
     private final Stream stream;
 
-    private int read;
     private FlatFileItemWriter<LongitudinalExportItemRow> writer;
 
 
     public LongitudinalExportV2TaskletImpl(int cacheClearSize, EntityManager entityManager, ExportV2CSVFieldExtractor exportV2CSVFieldExtractor,
-                                           ExportV2Processor exportV2Processor, ExportS3Service exportS3Service, String jobUuid, Stream stream) {
+                                           ExportV2Processor exportV2Processor, LongitudinalExportBlockLoader blockLoader, ExportS3Service exportS3Service, String jobUuid, Stream stream) {
         this.cacheClearSize = cacheClearSize;
         this.entityManager = entityManager;
         this.exportV2CSVFieldExtractor = exportV2CSVFieldExtractor;
         this.exportV2Processor = exportV2Processor;
+        this.blockLoader = blockLoader;
         this.exportS3Service = exportS3Service;
         this.jobUuid = jobUuid;
         this.stream = stream;
@@ -51,25 +53,21 @@ public class LongitudinalExportV2TaskletImpl implements LongitudinalExportTaskle
     @Override
     public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
         createFileWriter(jobUuid, chunkContext.getStepContext().getStepExecution().getExecutionContext());
-        List<LongitudinalExportItemRow> itemRows = new ArrayList<>();
-        while (true) {
-            if (!iterator.hasNext()) {
-                logger.info("All records processed, writing last set to file");
-                writeToFile(itemRows);
-                break;
-            }
-            read++;
-            Object individual = iterator.next();
-            LongitudinalExportItemRow itemRow = exportV2Processor.process(individual);
-            itemRows.add(itemRow);
-
-            if (cacheClearSize == read) {
-                logger.info(String.format("Read %d records which is equal to cache clear size of %d. Clearing entity manager", read, cacheClearSize));
+        List<Individual> individuals = new ArrayList<>(cacheClearSize);
+        List<LongitudinalExportItemRow> itemRows = new ArrayList<>(cacheClearSize);
+        while (iterator.hasNext()) {
+            individuals.add((Individual) iterator.next());
+            if (individuals.size() == cacheClearSize || !iterator.hasNext()) {
+                blockLoader.load(individuals);
+                for (Individual individual : individuals) {
+                    itemRows.add(exportV2Processor.process(individual));
+                }
+                logger.info(String.format("Read %d records, writing them to file and clearing entity manager", individuals.size()));
                 writeToFile(itemRows);
                 itemRows.clear();
+                individuals.clear();
                 entityManager.flush();
                 entityManager.clear();
-                read = 0;
             }
         }
 
@@ -0,0 +1,117 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.application.KeyValue;
+import org.avni.server.application.KeyValues;
+import org.avni.server.domain.DeclarativeRule;
+import org.avni.server.domain.JsonObject;
+import org.avni.server.domain.ObservationCollection;
+import org.avni.server.domain.RuleData;
+import org.hibernate.HibernateException;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Deep copies the values held by the custom hibernate types. Json trees (maps, lists and scalars as produced by jackson)
+ * are copied structurally, as hibernate copies them on every load, snapshot, merge and cache put. Anything else falls back
+ * to a copy via java serialization.
+ *
+ * Map and list types are matched on their exact class, so that a subclass with its own state is not copied partially.
+ */
+final class JsonStructureCopier {
+    private JsonStructureCopier() {
+    }
+
+    static Object copy(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        Class<?> type = value.getClass();
+        if (type == ObservationCollection.class) {
+            return copyEntries((Map<?, ?>) value, new ObservationCollection());
+        }
+        if (type == JsonObject.class) {
+            return copyEntries((Map<?, ?>) value, new JsonObject());
+        }
+        if (type == RuleData.class) {
+            return copyEntries((Map<?, ?>) value, new RuleData());
+        }
+        if (type == LinkedHashMap.class) {
+            return copyEntries((Map<?, ?>) value, new LinkedHashMap<>(capacity(((Map<?, ?>) value).size())));
+        }
+        if (type == HashMap.class) {
+            return copyEntries((Map<?, ?>) value, new HashMap<>(capacity(((Map<?, ?>) value).size())));
+        }
+        if (type == ArrayList.class) {
+            return copyElements((List<?>) value, new ArrayList<>(((List<?>) value).size()));
+        }
+        if (type == DeclarativeRule.class) {
+            return copyElements((List<?>) value, new DeclarativeRule());
+        }
+        if (type == KeyValues.class) {
+            return copyElements((List<?>) value, new KeyValues());
+        }
+        if (type == KeyValue.class) {
+            KeyValue keyValue = (KeyValue) value;
+            return new KeyValue(keyValue.getKey(), copy(keyValue.getValue()));
+        }
+        if (type == String[].class) {
+            return ((String[]) value).clone();
+        }
+        if (type == Date.class) {
+            return new Date(((Date) value).getTime());
+        }
+        return serializationCopy(value);
+    }
+
+    static Object serializationCopy(Object value) {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(value);
+            oos.flush();
+            oos.close();
+            bos.close();
+
+            ByteArrayInputStream bais = new ByteArrayInputStream(bos.toByteArray());
+            return new ObjectInputStream(bais).readObject();
+        } catch (ClassNotFoundException | IOException ex) {
+            throw new HibernateException(ex);
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String
+                || value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Boolean
+                || value instanceof Float || value instanceof Short || value instanceof Byte || value instanceof Character
+                || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof Enum
+                || value instanceof UUID
+                || value instanceof DateTime || value instanceof LocalDate || value instanceof LocalDateTime;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M extends Map> M copyEntries(Map<?, ?> source, M target) {
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            target.put(entry.getKey(), copy(entry.getValue()));
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <L extends List> L copyElements(List<?> source, L target) {
+        for (Object element : source) {
+            target.add(copy(element));
+        }
+        return target;
+    }
+
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,17 @@
+package org.avni.server.framework.hibernate;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a high volume entity whose id is taken from its table's id sequence (&lt;table&gt;_id_seq) a block at a time,
+ * instead of from the identity column of {@link org.avni.server.domain.CHSBaseEntity}, so that its inserts can be
+ * batched. The sequence must be incremented by allocationSize in the database. See {@link PooledSequenceIdIntegrator}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PooledSequenceId {
+    int allocationSize() default 50;
+}
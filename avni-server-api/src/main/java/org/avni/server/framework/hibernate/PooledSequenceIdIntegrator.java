@@ -0,0 +1,53 @@
+package org.avni.server.framework.hibernate;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.SimpleValue;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.Properties;
+
+/**
+ * The id mapping of CHSBaseEntity is inherited by every entity and cannot be overridden by one of them, and an identity
+ * id makes Hibernate insert the row as soon as it is saved, one statement at a time. This switches the id of entities
+ * annotated with {@link PooledSequenceId} to a pooled-lo sequence before the id generators are created. With pooled-lo
+ * the value from the sequence is the first id of the block, so the rows inserted by sql (default nextval) and the
+ * setval(max(id) + 1) done when deleting organisation data do not run into ids handed out here. Rows of these entities
+ * are inserted when the session is flushed, rather than when they are saved. Setting avni.pooledSequenceIds to false
+ * leaves them on identity ids.
+ * <p>
+ * This relies on Hibernate (5.2) running integrators before it creates the id generators of the session factory, which
+ * PooledSequenceIdIntegratorTest checks.
+ *
+ * Registered in META-INF/services/org.hibernate.integrator.spi.Integrator
+ */
+public class PooledSequenceIdIntegrator implements Integrator {
+    public static final String ENABLED = "avni.pooledSequenceIds";
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        if (!serviceRegistry.getService(ConfigurationService.class).getSetting(ENABLED, StandardConverters.BOOLEAN, true)) return;
+        for (PersistentClass persistentClass : metadata.getEntityBindings()) {
+            Class<?> mappedClass = persistentClass.getMappedClass();
+            PooledSequenceId pooledSequenceId = mappedClass == null ? null : mappedClass.getAnnotation(PooledSequenceId.class);
+            if (pooledSequenceId == null) continue;
+
+            SimpleValue identifier = (SimpleValue) persistentClass.getIdentifier();
+            Properties properties = new Properties();
+            properties.setProperty(SequenceStyleGenerator.SEQUENCE_PARAM, String.format("%s_id_seq", persistentClass.getTable().getName()));
+            properties.setProperty(SequenceStyleGenerator.INCREMENT_PARAM, String.valueOf(pooledSequenceId.allocationSize()));
+            properties.setProperty(SequenceStyleGenerator.OPT_PARAM, "pooled-lo");
+            identifier.setIdentifierGeneratorStrategy(SequenceStyleGenerator.class.getName());
+            identifier.setIdentifierGeneratorProperties(properties);
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,126 @@
+package org.avni.server.framework.hibernate;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Evicts entries of a cache once a change to an entity it is built from is committed - the entries of the keys the
+ * entity is part of where they can be told from the entity, else the whole cache. Evicting after commit (rather than at
+ * flush) ensures a concurrent request cannot put the old state back into the cache. Only this server instance is
+ * evicted, the others see the change after the expiry of the cache.
+ * <p>
+ * Only changes Hibernate raises entity events for are seen. Bulk JPQL updates and deletes (like deleteAllInBatch) and
+ * native SQL are not, and code making such changes to the entities of a cache is to clear it itself (see {@link
+ * PostCommitCacheEvictors#clearAfterCommit}).
+ */
+public class PostCommitCacheEvictor implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(PostCommitCacheEvictor.class);
+
+    private final CacheManager cacheManager;
+    private final String cacheName;
+    private final Map<Class<?>, Function<Object, Predicate<Object>>> keyMatchers = new LinkedHashMap<>();
+
+    public PostCommitCacheEvictor(CacheManager cacheManager, String cacheName) {
+        this.cacheManager = cacheManager;
+        this.cacheName = cacheName;
+    }
+
+    /**
+     * @param keysOf gives, for a changed entity of the class (or a subclass), which keys of the cache to evict, or null
+     *               to clear the whole cache when they cannot be told
+     */
+    public <T> PostCommitCacheEvictor evictKeysOn(Class<T> entityClass, Function<T, Predicate<Object>> keysOf) {
+        keyMatchers.put(entityClass, entity -> keysOf.apply(entityClass.cast(entity)));
+        return this;
+    }
+
+    public PostCommitCacheEvictor clearOn(Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            keyMatchers.put(entityClass, entity -> null);
+        }
+        return this;
+    }
+
+    public void register(EventListenerRegistry registry) {
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictFor(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictFor(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictFor(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass != null && getKeyMatcher(entityClass) != null;
+    }
+
+    private void evictFor(Object entity) {
+        if (entity == null) return;
+        Function<Object, Predicate<Object>> keyMatcher = getKeyMatcher(entity.getClass());
+        if (keyMatcher == null) return;
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) return;
+
+        Predicate<Object> keys = getKeys(keyMatcher, entity);
+        Object nativeCache = cache.getNativeCache();
+        if (keys == null || !(nativeCache instanceof ConcurrentMap)) {
+            cache.clear();
+        } else {
+            ((ConcurrentMap<?, ?>) nativeCache).keySet().removeIf(keys);
+        }
+    }
+
+    private Predicate<Object> getKeys(Function<Object, Predicate<Object>> keyMatcher, Object entity) {
+        try {
+            return keyMatcher.apply(entity);
+        } catch (RuntimeException e) {
+            logger.warn(String.format("Could not tell the %s keys of %s, clearing the cache", cacheName, entity.getClass().getSimpleName()), e);
+            return null;
+        }
+    }
+
+    private Function<Object, Predicate<Object>> getKeyMatcher(Class<?> entityClass) {
+        return keyMatchers.entrySet().stream()
+                .filter(entry -> entry.getKey().isAssignableFrom(entityClass))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+}
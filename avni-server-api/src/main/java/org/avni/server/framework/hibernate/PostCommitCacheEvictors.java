@@ -0,0 +1,124 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.*;
+import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.avni.server.framework.security.UserContextCache.USER_CONTEXT_DETAILS;
+import static org.avni.server.service.ConceptDictionaryCache.CONCEPT_DICTIONARIES;
+import static org.avni.server.service.OrganisationConfigCache.ORGANISATION_CONFIG_SNAPSHOTS;
+import static org.avni.server.service.accessControl.GroupPrivilegesCache.GROUP_PRIVILEGES;
+
+/**
+ * Registers a {@link PostCommitCacheEvictor} for each cache of entity state, with the entities it is built from and the
+ * keys each evicts.
+ */
+@Component
+public class PostCommitCacheEvictors {
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public PostCommitCacheEvictors(EntityManagerFactory entityManagerFactory, CacheManager cacheManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        // keyed by user id, organisation id of the user and uuid of the organisation of the request
+        new PostCommitCacheEvictor(cacheManager, USER_CONTEXT_DETAILS)
+                .evictKeysOn(User.class, user -> keysWith(0, user.getId()))
+                .evictKeysOn(AccountAdmin.class, accountAdmin -> keysWith(0, idOf(accountAdmin.getUser())))
+                .evictKeysOn(Organisation.class, organisation -> anyOf(keysWith(1, organisation.getId()), keysWith(2, organisation.getUuid())))
+                .register(registry);
+        // keyed by user id and organisation id
+        new PostCommitCacheEvictor(cacheManager, GROUP_PRIVILEGES)
+                .evictKeysOn(UserGroup.class, userGroup -> keysWith(0, idOf(userGroup.getUser())))
+                .evictKeysOn(GroupPrivilege.class, groupPrivilege -> keysWith(1, groupPrivilege.getOrganisationId()))
+                .evictKeysOn(Group.class, group -> keysWith(1, group.getOrganisationId()))
+                .register(registry);
+        // keyed by organisation id, address level types of a parent organisation are resolved to by its children too
+        new PostCommitCacheEvictor(cacheManager, ORGANISATION_CONFIG_SNAPSHOTS)
+                .evictKeysOn(OrganisationConfig.class, organisationConfig -> keyEqualTo(organisationConfig.getOrganisationId()))
+                .clearOn(AddressLevelType.class)
+                .register(registry);
+        // keyed by organisation id, the concepts of a parent organisation are in the dictionaries of its children too
+        new PostCommitCacheEvictor(cacheManager, CONCEPT_DICTIONARIES)
+                .clearOn(Concept.class, ConceptAnswer.class)
+                .register(registry);
+    }
+
+    /**
+     * Clears the caches once the transaction commits (at once if there is none), for changes made without entity events
+     * (see {@link PostCommitCacheEvictor}).
+     */
+    public void clearAfterCommit(String... cacheNames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clear(cacheNames);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                clear(cacheNames);
+            }
+        });
+    }
+
+    private void clear(String... cacheNames) {
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) cache.clear();
+        }
+    }
+
+    /**
+     * @return keys (lists of values) with the value at the index, or null (all keys) if the value is not known
+     */
+    private static Predicate<Object> keysWith(int index, Object value) {
+        if (value == null) return null;
+        return key -> key instanceof List && ((List<?>) key).size() > index && value.equals(((List<?>) key).get(index));
+    }
+
+    /**
+     * @return the key, or null (all keys) if it is not known
+     */
+    private static Predicate<Object> keyEqualTo(Object value) {
+        return value == null ? null : value::equals;
+    }
+
+    /**
+     * @return null (all keys) if either is null
+     */
+    private static Predicate<Object> anyOf(Predicate<Object> keys, Predicate<Object> otherKeys) {
+        return keys == null || otherKeys == null ? null : keys.or(otherKeys);
+    }
+
+    /**
+     * Id of the user, without loading it if it is not loaded, as the session may be closed by the time of the commit
+     * events.
+     */
+    private static Long idOf(User user) {
+        if (user instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) user).getHibernateLazyInitializer().getIdentifier();
+        }
+        return user == null ? null : user.getId();
+    }
+}
@@ -1,6 +1,8 @@
 package org.avni.server.framework.postgres;
 
 import org.hibernate.dialect.PostgreSQL94Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
 
 import java.sql.Types;
 
@@ -9,9 +11,13 @@ public class CHSPostgreSQL94Dialect extends PostgreSQL94Dialect {
     private static final String JSONB = "jsonb";
     private static final String JSON = "json";
 
+    public static final String JSONB_TEXT = "jsonb_text";
+
     public CHSPostgreSQL94Dialect() {
         super();
         this.registerColumnType(Types.JAVA_OBJECT, JSONB);
         this.registerColumnType(Types.JAVA_OBJECT, JSON);
+        // Text of a json column as is, for writing it out without reading it into objects
+        this.registerFunction(JSONB_TEXT, new SQLFunctionTemplate(StandardBasicTypes.STRING, "cast(?1 as text)"));
     }
 }
@@ -2,11 +2,7 @@ package org.avni.server.framework.security;
 
 import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
-import org.avni.server.dao.AccountAdminRepository;
-import org.avni.server.dao.OrganisationRepository;
 import org.avni.server.dao.UserRepository;
-import org.avni.server.domain.AccountAdmin;
-import org.avni.server.domain.Organisation;
 import org.avni.server.domain.User;
 import org.avni.server.domain.UserContext;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
@@ -27,16 +23,14 @@ public class AuthService {
     public final static SimpleGrantedAuthority USER_AUTHORITY = new SimpleGrantedAuthority(User.USER);
     public final static List<SimpleGrantedAuthority> ALL_AUTHORITIES = Collections.singletonList(USER_AUTHORITY);
     private final UserRepository userRepository;
-    private final OrganisationRepository organisationRepository;
-    private final AccountAdminRepository accountAdminRepository;
+    private final UserContextCache userContextCache;
     private final IdpServiceFactory idpServiceFactory;
 
     @Autowired
-    public AuthService(UserRepository userRepository, OrganisationRepository organisationRepository, AccountAdminRepository accountAdminRepository, IdpServiceFactory idpServiceFactory) {
+    public AuthService(UserRepository userRepository, UserContextCache userContextCache, IdpServiceFactory idpServiceFactory) {
         this.idpServiceFactory = idpServiceFactory;
         this.userRepository = userRepository;
-        this.organisationRepository = organisationRepository;
-        this.accountAdminRepository = accountAdminRepository;
+        this.userContextCache = userContextCache;
     }
 
     public UserContext authenticateByUserName(String username, String organisationUUID) {
@@ -81,16 +75,11 @@ public class AuthService {
         if (user == null) {
             return null;
         }
-        List<AccountAdmin> accountAdmins = accountAdminRepository.findByUser_Id(user.getId());
-        user.setAdmin(accountAdmins.size() > 0);
-        Organisation organisation = null;
-        if (organisationUUID != null) {
-            organisation = organisationRepository.findByUuid(organisationUUID);
-        } else if (user.getOrganisationId() != null) {
-            organisation = organisationRepository.findOne(user.getOrganisationId());
-        }
+        UserContextCache.UserContextDetails userContextDetails = userContextCache.getUserContextDetails(user, organisationUUID);
+        user.setAdmin(userContextDetails.isAdmin());
         userContext.setUser(user);
-        userContext.setOrganisation(organisation);
+        userContext.setCatchmentId(userContextDetails.getCatchmentId());
+        userContext.setOrganisation(userContextDetails.getOrganisation());
         userContext.setOrganisationUUID(organisationUUID);
 
         List<SimpleGrantedAuthority> authorities = ALL_AUTHORITIES.stream()
@@ -0,0 +1,102 @@
+package org.avni.server.framework.security;
+
+import org.avni.server.dao.AccountAdminRepository;
+import org.avni.server.dao.OrganisationRepository;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * What goes into the user context of a request apart from the user itself - whether the user is an account admin, the
+ * catchment of the user and the organisation the request is made for. Only values are cached, not entities, as a cached
+ * entry is shared by requests on all threads; each request gets an organisation of its own built from them. On commit
+ * of a change to a user or an account admin the entries of the user are evicted, and of a change to an organisation
+ * those for the organisation (see {@link org.avni.server.framework.hibernate.PostCommitCacheEvictors}). Changes made
+ * through other server instances are seen after the expiry configured by avni.cache.userContext.ttl.seconds.
+ */
+@Component
+public class UserContextCache {
+    public static final String USER_CONTEXT_DETAILS = "userContextDetails";
+
+    private final AccountAdminRepository accountAdminRepository;
+    private final OrganisationRepository organisationRepository;
+
+    @Autowired
+    public UserContextCache(AccountAdminRepository accountAdminRepository, OrganisationRepository organisationRepository) {
+        this.accountAdminRepository = accountAdminRepository;
+        this.organisationRepository = organisationRepository;
+    }
+
+    @Cacheable(value = USER_CONTEXT_DETAILS, key = "{#p0.id, #p0.organisationId, #p1}")
+    public UserContextDetails getUserContextDetails(User user, String organisationUUID) {
+        boolean admin = accountAdminRepository.findByUser_Id(user.getId()).size() > 0;
+        Organisation organisation = null;
+        if (organisationUUID != null) {
+            organisation = organisationRepository.findByUuid(organisationUUID);
+        } else if (user.getOrganisationId() != null) {
+            organisation = organisationRepository.findOne(user.getOrganisationId());
+        }
+        return new UserContextDetails(admin, user.getCatchmentId().orElse(null),
+                organisation == null ? null : new OrganisationDetails(organisation));
+    }
+
+    public static class UserContextDetails {
+        private final boolean admin;
+        private final Long catchmentId;
+        private final OrganisationDetails organisation;
+
+        public UserContextDetails(boolean admin, Long catchmentId, OrganisationDetails organisation) {
+            this.admin = admin;
+            this.catchmentId = catchmentId;
+            this.organisation = organisation;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        public Long getCatchmentId() {
+            return catchmentId;
+        }
+
+        public Organisation getOrganisation() {
+            return organisation == null ? null : organisation.toOrganisation();
+        }
+    }
+
+    public static class OrganisationDetails {
+        private final Long id;
+        private final String uuid;
+        private final String name;
+        private final String dbUser;
+        private final String schemaName;
+        private final String mediaDirectory;
+        private final Long parentOrganisationId;
+        private final String usernameSuffix;
+
+        public OrganisationDetails(Organisation organisation) {
+            this.id = organisation.getId();
+            this.uuid = organisation.getUuid();
+            this.name = organisation.getName();
+            this.dbUser = organisation.getDbUser();
+            this.schemaName = organisation.getSchemaName();
+            this.mediaDirectory = organisation.getMediaDirectory();
+            this.parentOrganisationId = organisation.getParentOrganisationId();
+            this.usernameSuffix = organisation.getUsernameSuffix();
+        }
+
+        public Organisation toOrganisation() {
+            Organisation organisation = new Organisation(name);
+            organisation.setId(id);
+            organisation.setUuid(uuid);
+            organisation.setDbUser(dbUser);
+            organisation.setSchemaName(schemaName);
+            organisation.setMediaDirectory(mediaDirectory);
+            organisation.setParentOrganisationId(parentOrganisationId);
+            organisation.setUsernameSuffix(usernameSuffix);
+            return organisation;
+        }
+    }
+}
@@ -2,10 +2,13 @@ package org.avni.server.framework.sync;
 
 import org.avni.server.framework.hibernate.DummyInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 import org.springframework.web.servlet.handler.MappedInterceptor;
@@ -18,6 +21,9 @@ public class SyncConfiguration extends WebMvcConfigurerAdapter {
     private final TransactionalResourceInterceptor transactionalResourceInterceptor;
     private final MetadataResourceInterceptor metadataResourceInterceptor;
     private DummyInterceptor dummyInterceptor;
+    private final int asyncThreads;
+    private final int asyncQueueSize;
+    private final long asyncTimeoutInMillis;
 
     private final String[] transactionalPathList = Stream.of(
             "checklist",
@@ -91,10 +97,40 @@ public class SyncConfiguration extends WebMvcConfigurerAdapter {
     ).map(path-> "/" + path + "/**").toArray(String[]::new);
 
     @Autowired
-    public SyncConfiguration(TransactionalResourceInterceptor transactionalResourceInterceptor, MetadataResourceInterceptor metadataResourceInterceptor, DummyInterceptor dummyInterceptor) {
+    public SyncConfiguration(TransactionalResourceInterceptor transactionalResourceInterceptor, MetadataResourceInterceptor metadataResourceInterceptor, DummyInterceptor dummyInterceptor,
+                             @Value("${avni.web.async.threads}") int asyncThreads,
+                             @Value("${avni.web.async.queueSize}") int asyncQueueSize,
+                             @Value("${avni.web.async.timeoutMillis}") long asyncTimeoutInMillis) {
         this.transactionalResourceInterceptor = transactionalResourceInterceptor;
         this.metadataResourceInterceptor = metadataResourceInterceptor;
         this.dummyInterceptor = dummyInterceptor;
+        this.asyncThreads = asyncThreads;
+        this.asyncQueueSize = asyncQueueSize;
+        this.asyncTimeoutInMillis = asyncTimeoutInMillis;
+    }
+
+    /**
+     * Writes the responses handled asynchronously, like the streamed sync slices, each of which holds a database
+     * connection until written. Requests beyond the threads and the queue are rejected rather than given a thread each.
+     */
+    @Bean("mvcAsyncTaskExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncThreads);
+        executor.setMaxPoolSize(asyncThreads);
+        executor.setQueueCapacity(asyncQueueSize);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    /**
+     * Set here rather than through spring.mvc.async, which is not applied as web mvc is configured by the application
+     * (see {@link org.avni.server.StaticResourceConfiguration})
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncTaskExecutor());
+        configurer.setDefaultTimeout(asyncTimeoutInMillis);
     }
 
     @Bean("mappedTransactionalResourceInterceptor")
@@ -0,0 +1,21 @@
+package org.avni.server.framework.tomcat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs how often connections taken from the pool needed their organisation role set, see
+ * {@link SetOrganisationJdbcInterceptor}.
+ */
+@Component
+public class OrganisationRoleStatsLogger {
+    private static final Logger logger = LoggerFactory.getLogger(OrganisationRoleStatsLogger.class);
+
+    @Scheduled(fixedDelayString = "${avni.db.roleStatsLogIntervalMillis}", initialDelayString = "${avni.db.roleStatsLogIntervalMillis}")
+    public void logRoleStats() {
+        String summary = SetOrganisationJdbcInterceptor.summariseAndReset();
+        if (summary != null) logger.info(String.format("Organisation roles of connections taken from the pool: %s", summary));
+    }
+}
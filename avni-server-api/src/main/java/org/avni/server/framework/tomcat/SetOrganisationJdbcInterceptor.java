@@ -12,30 +12,62 @@ import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
 
-
+/**
+ * Sets the role (and application name) of the organisation of the user context on a connection when it is taken from
+ * the pool. An interceptor is created for each pooled connection and reused every time the connection is taken, so it
+ * keeps the role it last set on the connection and sets it again only when the organisation is a different one. The
+ * role is reset when there is no organisation, rather than every time the connection is returned.
+ * <p>
+ * Code that sets or resets the role itself while it holds the connection (like {@link
+ * org.avni.server.dao.EncounterSearchRepository}) leaves the kept role out of date, so the role is taken as not known
+ * once a statement setting it is prepared on the connection, or a plain statement (whose SQL is not seen here) is created,
+ * and is set again the next time the connection is taken.
+ */
 public class SetOrganisationJdbcInterceptor extends JdbcInterceptor {
+    private static final LongAdder roleSwitches = new LongAdder();
+    private static final LongAdder roleResets = new LongAdder();
+    private static final LongAdder roleUnchanged = new LongAdder();
+    private static final Pattern SETS_ROLE = Pattern.compile("^\\s*(re)?set\\s+(session\\s+|local\\s+)?(role|session\\s+authorization)\\b", Pattern.CASE_INSENSITIVE);
+
+    private Connection connection;
+    private String role;
+    private boolean roleKnown;
 
     @Override
     public void reset(ConnectionPool connectionPool, PooledConnection pooledConnection) {
-        UserContext userContext = UserContextHolder.getUserContext();
-        if (userContext == null) {
+        if (pooledConnection == null) {
+            connection = null;
             return;
         }
-        Organisation organisation = userContext.getOrganisation();
-        if (userContext.getUser() != null && userContext.getUser().isAdmin() && userContext.getOrganisationUUID() == null) {
+        Connection physicalConnection = pooledConnection.getConnection();
+        if (physicalConnection != connection) {
+            // a new (or reconnected) connection has no role set
+            connection = physicalConnection;
+            role = null;
+            roleKnown = true;
+        }
+        String requiredRole = getRole(UserContextHolder.getUserContext());
+        if (roleKnown && Objects.equals(role, requiredRole)) {
+            roleUnchanged.increment();
             return;
         }
-        if (organisation == null) return;
 
-        String dbUser = organisation.getDbUser();
-        if (Strings.isNullOrEmpty(dbUser)) return;
-
-        try {
-            Statement statement = pooledConnection.getConnection().createStatement();
-            statement.execute("set role \"" + dbUser + "\";");
-            statement.execute("set application_name to \"" + dbUser + "\";");
-            statement.close();
+        try (Statement statement = physicalConnection.createStatement()) {
+            roleKnown = false;
+            if (requiredRole == null) {
+                statement.execute("reset role; reset application_name;");
+                roleResets.increment();
+            } else {
+                statement.execute("set role \"" + requiredRole + "\"; set application_name to \"" + requiredRole + "\";");
+                roleSwitches.increment();
+            }
+            role = requiredRole;
+            // a role set in a transaction is undone by its rollback, so it is set again the next time
+            roleKnown = physicalConnection.getAutoCommit();
         } catch (SQLException exp) {
             throw new RuntimeException(exp);
         }
@@ -43,13 +75,42 @@ public class SetOrganisationJdbcInterceptor extends JdbcInterceptor {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (roleKnown && mayChangeRole(method, args)) roleKnown = false;
+        return super.invoke(proxy, method, args);
+    }
 
-        if ("close".equals(method.getName())) {
-            Statement statement = ((Connection) proxy).createStatement();
-            statement.execute("RESET ROLE");
-            statement.close();
+    private static boolean mayChangeRole(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "createStatement":
+                return true;
+            case "prepareStatement":
+            case "prepareCall":
+                return args != null && args.length > 0 && args[0] instanceof String && SETS_ROLE.matcher((String) args[0]).find();
+            default:
+                return false;
         }
+    }
 
-        return super.invoke(proxy, method, args);
+    private static String getRole(UserContext userContext) {
+        if (userContext == null) return null;
+        if (userContext.getUser() != null && userContext.getUser().isAdmin() && userContext.getOrganisationUUID() == null) {
+            return null;
+        }
+        Organisation organisation = userContext.getOrganisation();
+        if (organisation == null) return null;
+
+        String dbUser = organisation.getDbUser();
+        return Strings.isNullOrEmpty(dbUser) ? null : dbUser;
+    }
+
+    /**
+     * @return role switches, role resets and connections taken with the role already set, since the last call
+     */
+    public static String summariseAndReset() {
+        long switches = roleSwitches.sumThenReset();
+        long resets = roleResets.sumThenReset();
+        long unchanged = roleUnchanged.sumThenReset();
+        if (switches + resets + unchanged == 0) return null;
+        return String.format("switched=%d, reset=%d, unchanged=%d", switches, resets, unchanged);
     }
 }
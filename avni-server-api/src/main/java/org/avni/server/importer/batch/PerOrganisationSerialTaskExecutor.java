@@ -0,0 +1,64 @@
+package org.avni.server.importer.batch;
+
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks of different organisations concurrently on the delegate, and tasks of the same organisation one after
+ * another in the order submitted (so that, for example, an encounter upload does not run before the subject upload it
+ * depends on). The organisation is that of the user context of the submitting thread.
+ * <p>
+ * A task waiting for an earlier one is handed to the delegate only when the earlier one finishes, which is too late to
+ * reject it to the submitter. So the number of tasks not yet finished is limited here instead, and tasks beyond it are
+ * rejected on submission (which fails the job). The delegate should not reject tasks itself, i.e. have no queue limit.
+ */
+public class PerOrganisationSerialTaskExecutor implements TaskExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(PerOrganisationSerialTaskExecutor.class);
+    private final TaskExecutor delegate;
+    private final int maxPendingTasks;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final Map<String, CompletableFuture<Void>> lastTaskPerOrganisation = new ConcurrentHashMap<>();
+
+    public PerOrganisationSerialTaskExecutor(TaskExecutor delegate, int maxPendingTasks) {
+        this.delegate = delegate;
+        this.maxPendingTasks = maxPendingTasks;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+            pendingTasks.decrementAndGet();
+            throw new TaskRejectedException(String.format("%d tasks are already pending", maxPendingTasks));
+        }
+        String organisationKey = getOrganisationKey();
+        CompletableFuture<Void> lastTask;
+        try {
+            lastTask = lastTaskPerOrganisation.compute(organisationKey, (key, previousTask) -> previousTask == null
+                    ? CompletableFuture.runAsync(task, delegate)
+                    : previousTask.exceptionally(throwable -> null).thenRunAsync(task, delegate));
+        } catch (RuntimeException e) {
+            pendingTasks.decrementAndGet();
+            throw new TaskRejectedException("Task could not be submitted", e);
+        }
+        lastTask.whenComplete((result, throwable) -> {
+            pendingTasks.decrementAndGet();
+            lastTaskPerOrganisation.remove(organisationKey, lastTask);
+            if (throwable != null) logger.error(String.format("Task of organisation '%s' did not run to completion", organisationKey), throwable);
+        });
+    }
+
+    private static String getOrganisationKey() {
+        UserContext userContext = UserContextHolder.getUserContext();
+        if (userContext == null || userContext.getOrganisationId() == null) return "";
+        return String.valueOf(userContext.getOrganisationId());
+    }
+}
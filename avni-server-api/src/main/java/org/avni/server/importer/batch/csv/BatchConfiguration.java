@@ -1,9 +1,9 @@
 package org.avni.server.importer.batch.csv;
 
-import org.apache.commons.io.IOUtils;
+import org.avni.server.importer.batch.PerOrganisationSerialTaskExecutor;
 import org.avni.server.importer.batch.csv.writer.CsvFileItemWriter;
 import org.avni.server.importer.batch.model.Row;
-import org.avni.server.service.S3Service;
+import org.avni.server.service.BulkUploadS3Service;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
@@ -21,15 +21,16 @@ import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.batch.item.file.transform.FlatFileFormatException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,51 +41,82 @@ public class BatchConfiguration {
     private final JobBuilderFactory jobBuilderFactory;
     private final StepBuilderFactory stepBuilderFactory;
     private final JobRepository jobRepository;
-    private final S3Service s3Service;
+    private final BulkUploadS3Service bulkUploadS3Service;
+    private final int partitions;
+    private final int concurrentJobs;
 
     @Autowired
     public BatchConfiguration(JobBuilderFactory jobBuilderFactory, StepBuilderFactory stepBuilderFactory, JobRepository jobRepository,
-                              @Qualifier("BatchS3Service")  S3Service s3Service) {
+                              BulkUploadS3Service bulkUploadS3Service,
+                              @Value("${avni.bulkUpload.partitions}") int partitions,
+                              @Value("${avni.bulkUpload.concurrentJobs}") int concurrentJobs) {
         this.jobBuilderFactory = jobBuilderFactory;
         this.stepBuilderFactory = stepBuilderFactory;
         this.jobRepository = jobRepository;
-        this.s3Service = s3Service;
+        this.bulkUploadS3Service = bulkUploadS3Service;
+        this.partitions = partitions;
+        this.concurrentJobs = concurrentJobs;
     }
 
+    /**
+     * Reads the copy of the uploaded file downloaded by {@link ErrorFileCreatorListener} before the job, so that each
+     * partition of the job streams a local file rather than the file in S3.
+     */
     @Bean
     @StepScope
-    public FlatFileItemReader<Row> csvFileItemReader(@Value("#{jobParameters['s3Key']}") String s3Key) throws IOException {
-        byte[] bytes = IOUtils.toByteArray(s3Service.getObjectContent(s3Key));
-        String[] headers = this.getHeaders(new StringReader(new String(bytes)));
+    public FlatFileItemReader<Row> csvFileItemReader(@Value("#{jobParameters['uuid']}") String uuid) throws IOException {
+        File uploadFile = bulkUploadS3Service.getLocalUploadFile(uuid);
+        String[] headers;
+        try (Reader reader = Files.newBufferedReader(uploadFile.toPath(), StandardCharsets.UTF_8)) {
+            headers = this.getHeaders(reader);
+        }
         DefaultLineMapper<Row> lineMapper = new DefaultLineMapper<>();
         lineMapper.setLineTokenizer(new DelimitedLineTokenizer());
         lineMapper.setFieldSetMapper(fieldSet -> new Row(headers, fieldSet.getValues()));
 
         return new FlatFileItemReaderBuilder<Row>()
                 .name("csvFileItemReader")
-                .resource(new ByteArrayResource(bytes))
+                .resource(new FileSystemResource(uploadFile))
+                .encoding(StandardCharsets.UTF_8.name())
                 .linesToSkip(1)
                 .lineMapper(lineMapper)
                 .build();
     }
 
     @Bean
-    public Job importJob(ErrorFileCreatorListener listener, Step importStep) {
+    public Job importJob(ErrorFileCreatorListener listener, Step importStep, Step partitionedImportStep) {
         return jobBuilderFactory.get("importJob")
                 .incrementer(new RunIdIncrementer())
                 .listener(listener)
-                .flow(importStep)
+                .flow(partitions > 1 ? partitionedImportStep : importStep)
                 .end()
                 .build();
     }
 
+    @Bean
+    public Step partitionedImportStep(Step importStep) {
+        return stepBuilderFactory.get("partitionedImportStep")
+                .partitioner("importStep", ImportRowPartitionFilter.partitioner())
+                .step(importStep)
+                .gridSize(partitions)
+                .taskExecutor(new ThreadPoolTaskExecutor() {{
+                    setCorePoolSize(partitions * concurrentJobs);
+                    setMaxPoolSize(partitions * concurrentJobs);
+                    setThreadNamePrefix("import-partition-");
+                    initialize();
+                }})
+                .build();
+    }
+
     @Bean
     public Step importStep(FlatFileItemReader<Row> csvFileItemReader,
+                           ImportRowPartitionFilter importRowPartitionFilter,
                            CsvFileItemWriter csvFileItemWriter,
                            ErrorFileWriterListener errorFileWriterListener) {
         return stepBuilderFactory.get("importStep")
                 .<Row, Row>chunk(1)
                 .reader(csvFileItemReader)
+                .processor(importRowPartitionFilter)
                 .writer(csvFileItemWriter)
                 .faultTolerant()
                 .skip(Exception.class)
@@ -100,12 +132,12 @@ public class BatchConfiguration {
     public JobLauncher bgJobLauncher() {
         return new SimpleJobLauncher() {{
             setJobRepository(jobRepository);
-            setTaskExecutor(new ThreadPoolTaskExecutor() {{
-                setCorePoolSize(1);
-                setMaxPoolSize(1);
-                setQueueCapacity(100);
+            setTaskExecutor(new PerOrganisationSerialTaskExecutor(new ThreadPoolTaskExecutor() {{
+                setCorePoolSize(concurrentJobs);
+                setMaxPoolSize(concurrentJobs);
+                setThreadNamePrefix("import-job-");
                 initialize();
-            }});
+            }}, 100));
         }};
     }
 
@@ -16,6 +16,9 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import static java.lang.String.format;
 
@@ -37,7 +40,10 @@ public class ErrorFileCreatorListener implements JobExecutionListener {
     private Long userId;
     @Value("#{jobParameters['organisationUUID']}")
     private String organisationUUID;
+    @Value("${avni.bulkUpload.partitions}")
+    private int partitions;
     private File errorFile;
+    private File uploadFile;
     private String jobInfo;
     private BulkUploadS3Service bulkUploadS3Service;
     private AuthService authService;
@@ -53,15 +59,18 @@ public class ErrorFileCreatorListener implements JobExecutionListener {
     public void init() {
         jobInfo = format("Job{type='%s',uuid='%s',fileName='%s'}", type, uuid, originalFileName);
         errorFile = bulkUploadS3Service.getLocalErrorFile(uuid);
+        uploadFile = bulkUploadS3Service.getLocalUploadFile(uuid);
     }
 
     @Override
     public void beforeJob(JobExecution jobExecution) {
         authService.authenticateByUserId(userId, organisationUUID);
         try {
-            BufferedReader csvReader = new BufferedReader(new InputStreamReader(s3Service.getObjectContent(s3Key)));
-            String headerRow = csvReader.readLine();
-            csvReader.close();
+            downloadUploadFile();
+            String headerRow;
+            try (BufferedReader csvReader = Files.newBufferedReader(uploadFile.toPath(), StandardCharsets.UTF_8)) {
+                headerRow = csvReader.readLine();
+            }
 
             FileWriter writer = new FileWriter(errorFile, true);
             writer.append(headerRow);
@@ -79,10 +88,33 @@ public class ErrorFileCreatorListener implements JobExecutionListener {
     public void afterJob(JobExecution jobExecution) {
         logger.info(format("Bulkupload '%s'! %s", jobExecution.getStatus(), jobInfo));
         try {
+            mergePartitionErrorFiles();
+            Files.deleteIfExists(uploadFile.toPath());
             ObjectInfo metadata = bulkUploadS3Service.uploadErrorFile(errorFile, uuid);
             logger.info(format("Bulkupload '%s'! Check for errors at '%s'", jobExecution.getStatus(), metadata.getKey()));
         } catch (IOException e) {
             logger.error("Unable to create error files in S3 {}", e);
         }
     }
+
+    /**
+     * The file is read from S3 once, by the job, rather than by each partition of it. The partitions read the local copy
+     * (see {@link BatchConfiguration#csvFileItemReader}).
+     */
+    private void downloadUploadFile() throws IOException {
+        try (InputStream inputStream = s3Service.getObjectContent(s3Key)) {
+            Files.copy(inputStream, uploadFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void mergePartitionErrorFiles() throws IOException {
+        for (int partition = 0; partition < partitions; partition++) {
+            File partitionErrorFile = bulkUploadS3Service.getLocalErrorFile(uuid, partition);
+            if (!partitionErrorFile.exists()) continue;
+            try (OutputStream outputStream = new FileOutputStream(errorFile, true)) {
+                Files.copy(partitionErrorFile.toPath(), outputStream);
+            }
+            Files.delete(partitionErrorFile.toPath());
+        }
+    }
 }
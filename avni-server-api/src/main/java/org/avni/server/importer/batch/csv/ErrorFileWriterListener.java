@@ -10,6 +10,7 @@ import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 
@@ -24,6 +25,8 @@ public class ErrorFileWriterListener {
     private BugsnagReporter bugsnagReporter;
     @Value("#{jobParameters['uuid']}")
     private String uuid;
+    @Value("#{stepExecutionContext['partition']}")
+    private Integer partition;
 
     public ErrorFileWriterListener(BulkUploadS3Service bulkUploadS3Service, BugsnagReporter bugsnagReporter) {
         this.bulkUploadS3Service = bulkUploadS3Service;
@@ -38,7 +41,8 @@ public class ErrorFileWriterListener {
     public void appendToErrorFile(Row item, Throwable t) {
         try {
             bugsnagReporter.logAndReportToBugsnag(t);
-            FileWriter fileWriter = new FileWriter(bulkUploadS3Service.getLocalErrorFile(uuid), true);
+            File errorFile = partition == null ? bulkUploadS3Service.getLocalErrorFile(uuid) : bulkUploadS3Service.getLocalErrorFile(uuid, partition);
+            FileWriter fileWriter = new FileWriter(errorFile, true);
             fileWriter.append(item.toString());
             fileWriter.append(",\"");
             fileWriter.append(t.getMessage());
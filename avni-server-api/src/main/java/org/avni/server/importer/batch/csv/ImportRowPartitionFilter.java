@@ -0,0 +1,76 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.csv.writer.header.EncounterHeaders;
+import org.avni.server.importer.batch.csv.writer.header.ProgramEncounterHeaders;
+import org.avni.server.importer.batch.csv.writer.header.ProgramEnrolmentHeaders;
+import org.avni.server.importer.batch.csv.writer.header.SubjectHeaders;
+import org.avni.server.importer.batch.model.Row;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In a partitioned import every partition reads the whole file and keeps only its own rows. Rows are assigned to
+ * partitions by the subject (or enrolment) they are for, so that the rows of a subject are written in file order by one
+ * partition. Rows of types that depend on each other across rows (locations, users, group members) all go to the first
+ * partition.
+ */
+@Component
+@StepScope
+public class ImportRowPartitionFilter implements ItemProcessor<Row, Row> {
+    public static final String PARTITION = "partition";
+    public static final String PARTITION_COUNT = "partitionCount";
+
+    @Value("#{stepExecutionContext['partition']}")
+    private Integer partition;
+    @Value("#{stepExecutionContext['partitionCount']}")
+    private Integer partitionCount;
+    @Value("#{jobParameters['type']}")
+    private String type;
+
+    public static Partitioner partitioner() {
+        return gridSize -> {
+            Map<String, ExecutionContext> partitions = new HashMap<>();
+            for (int i = 0; i < gridSize; i++) {
+                ExecutionContext executionContext = new ExecutionContext();
+                executionContext.putInt(PARTITION, i);
+                executionContext.putInt(PARTITION_COUNT, gridSize);
+                partitions.put(PARTITION + i, executionContext);
+            }
+            return partitions;
+        };
+    }
+
+    @Override
+    public Row process(Row row) {
+        if (partition == null || partitionCount == null || partitionCount < 2) return row;
+        return getPartition(row) == partition ? row : null;
+    }
+
+    private int getPartition(Row row) {
+        String partitionKey = getPartitionKey(row);
+        return partitionKey == null ? 0 : Math.floorMod(partitionKey.hashCode(), partitionCount);
+    }
+
+    private String getPartitionKey(Row row) {
+        switch (type.split("---")[0]) {
+            case "Subject":
+                String id = row.get(SubjectHeaders.id);
+                return id == null || id.isEmpty() ? row.toString() : id;
+            case "ProgramEnrolment":
+                return String.valueOf(row.get(ProgramEnrolmentHeaders.subjectId));
+            case "Encounter":
+                return String.valueOf(row.get(EncounterHeaders.subjectId));
+            case "ProgramEncounter":
+                return String.valueOf(row.get(ProgramEncounterHeaders.enrolmentId));
+            default:
+                return null;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package org.avni.server.importer.batch.csv.writer;
 
 import org.avni.server.framework.security.AuthService;
 import org.avni.server.importer.batch.model.Row;
-import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,7 +15,7 @@ import java.util.Map;
 import static java.lang.String.format;
 
 @Component
-@JobScope
+@StepScope
 public class CsvFileItemWriter implements ItemWriter<Row> {
 
     private final AuthService authService;
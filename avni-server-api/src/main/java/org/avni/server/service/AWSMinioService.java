@@ -19,6 +19,10 @@ import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import static java.lang.String.format;
@@ -55,24 +59,30 @@ public class AWSMinioService extends StorageService {
     }
 
     @Override
-    public URL generateMediaDownloadUrl(String url) {
+    public Map<String, URL> generateMediaDownloadUrls(Collection<String> urls) {
         UserContext userContext = authorizeUser();
         String mediaDirectory = getOrgDirectoryName();
+        Date expiration = getExpireDate(DOWNLOAD_EXPIRY_DURATION);
 
-        MinioUri minioUri = new MinioUri(url);
-        String objectKey = minioUri.getKey();
-        Matcher matcher = mediaDirPattern.matcher(objectKey);
-        String mediaDirectoryFromUrl = null;
-        if (matcher.find()) {
-            mediaDirectoryFromUrl = matcher.group("mediaDir");
-        }
-        if (!mediaDirectory.equals(mediaDirectoryFromUrl) || !(bucketName.equals(minioUri.getBucket()))) {
-            String message = format("User '%s' not authorized to access '%s'", userContext.getUserName(), url);
-            throw new AccessDeniedException(message);
-        }
+        Map<String, URL> downloadUrls = new HashMap<>();
+        for (String url : urls) {
+            if (downloadUrls.containsKey(url)) continue;
+            MinioUri minioUri = new MinioUri(url);
+            String objectKey = minioUri.getKey();
+            Matcher matcher = mediaDirPattern.matcher(objectKey);
+            String mediaDirectoryFromUrl = null;
+            if (matcher.find()) {
+                mediaDirectoryFromUrl = matcher.group("mediaDir");
+            }
+            if (!mediaDirectory.equals(mediaDirectoryFromUrl) || !(bucketName.equals(minioUri.getBucket()))) {
+                String message = format("User '%s' not authorized to access '%s'", userContext.getUserName(), url);
+                throw new AccessDeniedException(message);
+            }
 
-        GeneratePresignedUrlRequest generatePresignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, objectKey)
-                .withMethod(HttpMethod.GET).withExpiration(getExpireDate(DOWNLOAD_EXPIRY_DURATION));
-        return s3Client.generatePresignedUrl(generatePresignedUrlRequest);
+            GeneratePresignedUrlRequest generatePresignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, objectKey)
+                    .withMethod(HttpMethod.GET).withExpiration(expiration);
+            downloadUrls.put(url, s3Client.generatePresignedUrl(generatePresignedUrlRequest));
+        }
+        return downloadUrls;
     }
 }
@@ -18,6 +18,10 @@ import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import static java.lang.String.format;
@@ -48,26 +52,30 @@ public class AWSS3Service extends StorageService {
     }
 
     @Override
-    public URL generateMediaDownloadUrl(String url) {
+    public Map<String, URL> generateMediaDownloadUrls(Collection<String> urls) {
         UserContext userContext = authorizeUser();
         String mediaDirectory = getOrgDirectoryName();
+        Date expiration = getExpireDate(DOWNLOAD_EXPIRY_DURATION);
 
-        AmazonS3URI amazonS3URI = new AmazonS3URI(url);
-        String objectKey = amazonS3URI.getKey();
-        Matcher matcher = mediaDirPattern.matcher(objectKey);
-        String mediaDirectoryFromUrl = null;
-        if (matcher.find()) {
-            mediaDirectoryFromUrl = matcher.group("mediaDir");
-        }
-        if (!mediaDirectory.equals(mediaDirectoryFromUrl) || !(bucketName.equals(amazonS3URI.getBucket()))) {
-            String message = format("User '%s' not authorized to access '%s'", userContext.getUserName(), url);
-            throw new AccessDeniedException(message);
-        }
+        Map<String, URL> downloadUrls = new HashMap<>();
+        for (String url : urls) {
+            if (downloadUrls.containsKey(url)) continue;
+            AmazonS3URI amazonS3URI = new AmazonS3URI(url);
+            String objectKey = amazonS3URI.getKey();
+            Matcher matcher = mediaDirPattern.matcher(objectKey);
+            String mediaDirectoryFromUrl = null;
+            if (matcher.find()) {
+                mediaDirectoryFromUrl = matcher.group("mediaDir");
+            }
+            if (!mediaDirectory.equals(mediaDirectoryFromUrl) || !(bucketName.equals(amazonS3URI.getBucket()))) {
+                String message = format("User '%s' not authorized to access '%s'", userContext.getUserName(), url);
+                throw new AccessDeniedException(message);
+            }
 
-        GeneratePresignedUrlRequest generatePresignedUrlRequest =
-                new GeneratePresignedUrlRequest(bucketName, objectKey)
-                        .withMethod(HttpMethod.GET)
-                        .withExpiration(getExpireDate(DOWNLOAD_EXPIRY_DURATION));
-        return s3Client.generatePresignedUrl(generatePresignedUrlRequest);
+            GeneratePresignedUrlRequest generatePresignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, objectKey)
+                    .withMethod(HttpMethod.GET).withExpiration(expiration);
+            downloadUrls.put(url, s3Client.generatePresignedUrl(generatePresignedUrlRequest));
+        }
+        return downloadUrls;
     }
 }
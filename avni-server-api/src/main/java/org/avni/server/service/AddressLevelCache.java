@@ -9,11 +9,14 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 
+/**
+ * Ids of the addresses in a catchment, cached as sorted primitive arrays as there can be tens of thousands of them in
+ * a catchment.
+ */
 @Component
 public class AddressLevelCache {
     public static final String ADDRESSES_PER_CATCHMENT = "addressesPerCatchment";
-    public static final String ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS = "addressesPerCatchmentAndMatchingAddrLevels" +
-            "";;
+    public static final String ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS = "addressesPerCatchmentAndMatchingAddrLevels";
 
     private final LocationRepository locationRepository;
 
@@ -23,12 +26,19 @@ public class AddressLevelCache {
     }
 
     @Cacheable(value = ADDRESSES_PER_CATCHMENT)
-    public List<VirtualCatchmentProjection> getAddressLevelsForCatchment(Catchment catchment) {
-        return locationRepository.getVirtualCatchmentsForCatchmentId(catchment.getId());
+    public long[] getAddressLevelsForCatchment(Catchment catchment) {
+        return getAddressLevelIds(locationRepository.getVirtualCatchmentsForCatchmentId(catchment.getId()));
     }
 
     @Cacheable(value = ADDRESSES_PER_CATCHMENT_AND_MATCHING_ADDR_LEVELS)
-    public List<VirtualCatchmentProjection> getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(Catchment catchment, List<Long> matchingAddressLevelTypeIds) {
-        return locationRepository.getVirtualCatchmentsForCatchmentIdAndLocationTypeId(catchment.getId(), matchingAddressLevelTypeIds);
+    public long[] getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(Catchment catchment, List<Long> matchingAddressLevelTypeIds) {
+        return getAddressLevelIds(locationRepository.getVirtualCatchmentsForCatchmentIdAndLocationTypeId(catchment.getId(), matchingAddressLevelTypeIds));
+    }
+
+    private static long[] getAddressLevelIds(List<VirtualCatchmentProjection> catchmentAddresses) {
+        return catchmentAddresses.stream()
+                .mapToLong(VirtualCatchmentProjection::getAddresslevel_id)
+                .sorted()
+                .toArray();
     }
 }
@@ -1,22 +1,15 @@
 package org.avni.server.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.avni.server.application.KeyType;
-import org.avni.server.application.projections.VirtualCatchmentProjection;
 import org.avni.server.dao.AddressLevelTypeRepository;
 import org.avni.server.dao.LocationRepository;
 import org.avni.server.domain.*;
-import org.avni.server.util.ObjectMapperSingleton;
 import org.avni.server.web.request.AddressLevelContract;
-import org.avni.server.web.request.webapp.SubjectTypeSetting;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class AddressLevelService {
@@ -24,40 +17,21 @@ public class AddressLevelService {
     private final AddressLevelTypeRepository addressLevelTypeRepository;
     private final OrganisationConfigService organisationConfigService;
     private final AddressLevelCache addressLevelCache;
-    private ObjectMapper objectMapper;
 
-    public List<Long> getAddressLevelsByCatchmentAndSubjectType(Catchment catchment, SubjectType subjectType) {
-        return filterByCatchmentAndSubjectType(catchment, subjectType)
-                .map(VirtualCatchmentProjection::getAddresslevel_id)
-                .collect(Collectors.toList());
+    /**
+     * Types of the addresses that subjects of the subject type are registered in, as set in the custom registration
+     * locations of the organisation. Null if they can be registered in any address.
+     */
+    public List<Long> getRegistrationAddressLevelTypeIds(SubjectType subjectType) {
+        return organisationConfigService.getOrganisationConfigSnapshot().getRegistrationAddressLevelTypeIds(subjectType.getUuid());
     }
 
-    private Stream<VirtualCatchmentProjection> filterByCatchmentAndSubjectType(Catchment catchment, SubjectType subjectType) {
-        Optional<SubjectTypeSetting> customRegistrationLocationSetting = getCustomRegistrationSetting(subjectType);
-
-        if (customRegistrationLocationSetting.isPresent() && !customRegistrationLocationSetting.get().getLocationTypeUUIDs().isEmpty()) {
-            List<Long> matchingAddressLevelTypeIds = addressLevelTypeRepository.findAllByUuidIn(
-                            customRegistrationLocationSetting.get().getLocationTypeUUIDs())
-                    .stream()
-                    .map(CHSBaseEntity::getId)
-                    .collect(Collectors.toList());
-
-            return addressLevelCache.getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(catchment, matchingAddressLevelTypeIds).stream();
+    private long[] getAddressLevelIds(Catchment catchment, SubjectType subjectType) {
+        List<Long> matchingAddressLevelTypeIds = getRegistrationAddressLevelTypeIds(subjectType);
+        if (matchingAddressLevelTypeIds != null) {
+            return addressLevelCache.getAddressLevelsForCatchmentAndMatchingAddressLevelTypeIds(catchment, matchingAddressLevelTypeIds);
         }
-
-        return addressLevelCache.getAddressLevelsForCatchment(catchment).stream();
-    }
-
-    private Optional<SubjectTypeSetting> getCustomRegistrationSetting(SubjectType subjectType) {
-        List<SubjectTypeSetting> customRegistrationLocations = objectMapper.convertValue(
-                organisationConfigService.getSettingsByKey(KeyType.customRegistrationLocations.toString()),
-                new TypeReference<List<SubjectTypeSetting>>() {
-                });
-        Optional<SubjectTypeSetting> customLocationTypes = customRegistrationLocations.stream()
-                .filter(crl -> crl.getSubjectTypeUUID()
-                        .equals(subjectType.getUuid()))
-                .findFirst();
-        return customLocationTypes;
+        return addressLevelCache.getAddressLevelsForCatchment(catchment);
     }
 
     public AddressLevelService(LocationRepository locationRepository,
@@ -68,7 +42,6 @@ public class AddressLevelService {
         this.addressLevelTypeRepository = addressLevelTypeRepository;
         this.organisationConfigService = organisationConfigService;
         this.addressLevelCache = addressLevelCache;
-        this.objectMapper = ObjectMapperSingleton.getObjectMapper();
     }
 
     public List<AddressLevelContract> getAllLocations() {
@@ -93,8 +66,12 @@ public class AddressLevelService {
                 .collect(Collectors.toList());
     }
 
-    public List<Long> getAllRegistrationAddressIdsBySubjectType(Catchment catchment, SubjectType subjectType) {
-        return getAddressLevelsByCatchmentAndSubjectType(catchment, subjectType);
+    /**
+     * Ids of the addresses of the catchment that subjects of the subject type can be registered in, sorted, so that an
+     * address can be looked up in them with {@link Arrays#binarySearch(long[], long)}.
+     */
+    public long[] getAllRegistrationAddressIdsBySubjectType(Catchment catchment, SubjectType subjectType) {
+        return getAddressLevelIds(catchment, subjectType);
     }
 
     public String getTitleLineage(AddressLevel location) {
@@ -11,6 +11,9 @@ import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.Verification;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.User;
 import org.slf4j.Logger;
@@ -19,11 +22,25 @@ import org.springframework.util.StringUtils;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseIAMService implements IAMAuthService {
+    private static final long MAX_VERIFIED_TOKENS = 10000;
+    private static final long VERIFIED_TOKEN_MAX_AGE_MINUTES = 60;
+    // Keys are cached by kid, so a key rotated in at the IDP is a cache miss and gets fetched
+    private static final Map<String, JwkProvider> jwkProviders = new ConcurrentHashMap<>();
+
     private final Logger logger = LoggerFactory.getLogger(BaseIAMService.class);
     private final UserRepository userRepository;
+    private final Cache<String, VerifiedToken> verifiedTokens = CacheBuilder.newBuilder()
+            .maximumSize(MAX_VERIFIED_TOKENS)
+            .expireAfterWrite(VERIFIED_TOKEN_MAX_AGE_MINUTES, TimeUnit.MINUTES)
+            .build();
 
     protected BaseIAMService(UserRepository userRepository) {
         this.userRepository = userRepository;
@@ -40,22 +57,43 @@ public abstract class BaseIAMService implements IAMAuthService {
         logConfiguration();
         if (StringUtils.isEmpty(token)) return null;
 
+        String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken != null) {
+            if (verifiedToken.isValid()) return userRepository.findById(verifiedToken.userId).orElse(null);
+            verifiedTokens.invalidate(tokenHash);
+        }
+
         DecodedJWT jwt = verifyAndDecodeToken(token);
         if (jwt == null) return null;
 
         String username = getValueInToken(jwt, getUsernameField());
         String userUUID = getValueInToken(jwt, getUserUuidField());
-        return Strings.isNullOrEmpty(userUUID)
+        User user = Strings.isNullOrEmpty(userUUID)
                 ? userRepository.findByUsername(username)
                 : userRepository.findByUuid(userUUID);
+        if (user != null && jwt.getExpiresAt() != null) {
+            verifiedTokens.put(tokenHash, new VerifiedToken(user.getId(), jwt.getExpiresAt()));
+        }
+        return user;
+    }
+
+    protected JwkProvider getJwkProvider() throws MalformedURLException {
+        String jwkProviderUrl = getJwkProviderUrl();
+        JwkProvider jwkProvider = jwkProviders.get(jwkProviderUrl);
+        if (jwkProvider == null) {
+            jwkProvider = new GuavaCachedJwkProvider(new UrlJwkProvider(new URL(jwkProviderUrl)));
+            JwkProvider existing = jwkProviders.putIfAbsent(jwkProviderUrl, jwkProvider);
+            if (existing != null) jwkProvider = existing;
+        }
+        return jwkProvider;
     }
 
     protected DecodedJWT verifyAndDecodeToken(String token) throws SigningKeyNotFoundException {
         Jwk jwk;
         try {
             DecodedJWT unverifiedJwt = JWT.decode(token);
-            JwkProvider provider = new GuavaCachedJwkProvider(new UrlJwkProvider(new URL(getJwkProviderUrl())));
-            jwk = provider.get(unverifiedJwt.getKeyId());
+            jwk = getJwkProvider().get(unverifiedJwt.getKeyId());
         } catch (MalformedURLException e) {
             logger.error("Check the settings for public key " + getIssuer(), e);
             throw new RuntimeException(e);
@@ -106,4 +144,22 @@ public abstract class BaseIAMService implements IAMAuthService {
     protected abstract String getIssuer();
 
     public abstract void logConfiguration();
+
+    /**
+     * A token that has passed verification, usable without verifying again until it expires. Past expiry the token is
+     * verified again, so that the leeway and the expiry error are as for a token seen for the first time.
+     */
+    private static class VerifiedToken {
+        private final Long userId;
+        private final Date expiresAt;
+
+        private VerifiedToken(Long userId, Date expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isValid() {
+            return expiresAt.after(new Date());
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.ConceptAnswerRepository;
+import org.avni.server.dao.ConceptRepository;
+import org.avni.server.domain.ConceptDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Concept dictionary of an organisation, of the concepts it can see (including those of its parent organisation).
+ * Evicted on commit of any change to a concept or a concept answer (see {@link
+ * org.avni.server.framework.hibernate.PostCommitCacheEvictors}), for all organisations as the dictionaries of child
+ * organisations have the concepts of their parent. Changes made through other server instances, or directly in the
+ * database, are seen after the expiry configured by avni.cache.conceptDictionary.ttl.seconds, or as soon as a concept
+ * missing from the dictionary is looked up (see {@link ConceptService#getConceptDictionary()}).
+ */
+@Component
+public class ConceptDictionaryCache {
+    public static final String CONCEPT_DICTIONARIES = "conceptDictionaries";
+
+    private final ConceptRepository conceptRepository;
+    private final ConceptAnswerRepository conceptAnswerRepository;
+
+    @Autowired
+    public ConceptDictionaryCache(ConceptRepository conceptRepository, ConceptAnswerRepository conceptAnswerRepository) {
+        this.conceptRepository = conceptRepository;
+        this.conceptAnswerRepository = conceptAnswerRepository;
+    }
+
+    @Cacheable(value = CONCEPT_DICTIONARIES)
+    public ConceptDictionary getDictionary(Long organisationId) {
+        return new ConceptDictionary(conceptRepository.findAll(), conceptAnswerRepository.findAllWithConcepts());
+    }
+
+    @CacheEvict(value = CONCEPT_DICTIONARIES)
+    public void evict(Long organisationId) {
+    }
+}
@@ -2,6 +2,7 @@ package org.avni.server.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import org.avni.server.application.FormElement;
 import org.avni.server.application.KeyType;
 import org.avni.server.application.KeyValues;
@@ -18,7 +19,6 @@ import org.avni.server.web.request.ConceptContract;
 import org.avni.server.web.request.ReferenceDataContract;
 import org.avni.server.web.request.application.ConceptUsageContract;
 import org.avni.server.web.request.application.FormUsageContract;
-import org.avni.server.web.response.Response;
 import org.avni.server.web.validation.ValidationException;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
@@ -31,11 +31,13 @@ import javax.validation.constraints.NotNull;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
 @Service
 public class ConceptService implements NonScopeAwareService {
+    private static final int LOCATION_LOOKUP_CHUNK_SIZE = 1000;
     private final Logger logger;
     private final ConceptRepository conceptRepository;
     private final ConceptAnswerRepository conceptAnswerRepository;
@@ -43,12 +45,14 @@ public class ConceptService implements NonScopeAwareService {
     private final FormElementRepository formElementRepository;
     private final AnswerConceptMigrationRepository answerConceptMigrationRepository;
     private final LocationRepository locationRepository;
+    private final ConceptDictionaryCache conceptDictionaryCache;
 
     @Autowired
-    public ConceptService(ConceptRepository conceptRepository, ConceptAnswerRepository conceptAnswerRepository, OrganisationRepository organisationRepository, UserService userService, FormElementRepository formElementRepository, AnswerConceptMigrationRepository answerConceptMigrationRepository, LocationRepository locationRepository) {
+    public ConceptService(ConceptRepository conceptRepository, ConceptAnswerRepository conceptAnswerRepository, OrganisationRepository organisationRepository, UserService userService, FormElementRepository formElementRepository, AnswerConceptMigrationRepository answerConceptMigrationRepository, LocationRepository locationRepository, ConceptDictionaryCache conceptDictionaryCache) {
         this.formElementRepository = formElementRepository;
         this.answerConceptMigrationRepository = answerConceptMigrationRepository;
         this.locationRepository = locationRepository;
+        this.conceptDictionaryCache = conceptDictionaryCache;
         logger = LoggerFactory.getLogger(this.getClass());
         this.conceptRepository = conceptRepository;
         this.conceptAnswerRepository = conceptAnswerRepository;
@@ -251,35 +255,48 @@ public class ConceptService implements NonScopeAwareService {
     /**
      * Important: Not to be used in any Internal API calls
      */
-    public Object getObservationValue(Map<String, String> conceptMap, Object value) {
+    public Object getObservationValue(ConceptDictionary conceptDictionary, Object value) {
+        return getObservationValue(conceptDictionary, locationRepository::findByLegacyIdOrUuid, value);
+    }
+
+    /**
+     * The keys of observations in the value are mapped to concept names through the fallback of the dictionary, the values
+     * are taken to be concepts only if they are in the dictionary.
+     *
+     * @param locationFinder finds the location of a value that is not a concept, to be able to read the observations of a
+     *                       whole page with the locations found by {@link #findLocationsOfObservationValues} at once
+     */
+    public Object getObservationValue(ConceptDictionary conceptDictionary, Function<String, AddressLevel> locationFinder, Object value) {
+        Map<String, String> conceptMap = conceptDictionary.getUuidToName();
         if (value instanceof ArrayList) {
             List<Object> elements = (List<Object>) value;
             return elements.stream().map(element -> {
                 if (element != null && element instanceof String) {
                     return conceptMap.getOrDefault(element, (String) element);
                 } else if( element != null && element instanceof HashMap) {
-                    LinkedHashMap<String, Object> observationResponse = new LinkedHashMap<>();
-                    Response.mapObservations(conceptRepository, this, observationResponse,
-                            new ObservationCollection((HashMap<String, Object>) element));
-                    return observationResponse;
+                    return mapObservations(conceptDictionary, locationFinder, new ObservationCollection((HashMap<String, Object>) element));
                 } else {
                     return conceptMap.getOrDefault(element, element.toString());
                 }
             }).toArray();
         } else if( value instanceof ObservationCollection) {
-            LinkedHashMap<String, Object> observationResponse = new LinkedHashMap<>();
-            Response.mapObservations(conceptRepository, this, observationResponse, (ObservationCollection) value);
-            return observationResponse;
+            return mapObservations(conceptDictionary, locationFinder, (ObservationCollection) value);
         } else {
             String conceptName = conceptMap.get(value);
-            return conceptName == null ? checkAndReturnLocationAddress(value) : conceptName;
+            return conceptName == null ? checkAndReturnLocationAddress(locationFinder, value) : conceptName;
         }
     }
 
-    private Object checkAndReturnLocationAddress(Object value) {
+    private LinkedHashMap<String, Object> mapObservations(ConceptDictionary conceptDictionary, Function<String, AddressLevel> locationFinder, ObservationCollection observations) {
+        LinkedHashMap<String, Object> observationResponse = new LinkedHashMap<>();
+        observations.forEach((key, value) -> observationResponse.put(conceptDictionary.getName(key), getObservationValue(conceptDictionary, locationFinder, value)));
+        return observationResponse;
+    }
+
+    private Object checkAndReturnLocationAddress(Function<String, AddressLevel> locationFinder, Object value) {
         if(value != null && value instanceof String) {
             LinkedHashMap<String, String> location = new LinkedHashMap<>();
-            AddressLevel addressLevel = locationRepository.findByLegacyIdOrUuid((String) value);
+            AddressLevel addressLevel = locationFinder.apply((String) value);
             if(addressLevel == null) {
                 return value;
             }
@@ -293,6 +310,37 @@ public class ConceptService implements NonScopeAwareService {
         }
     }
 
+    /**
+     * Finds, in a few queries, the locations that the values of the observations which are not concepts could be, keyed by
+     * both uuid and legacy id like {@link LocationRepository#findByLegacyIdOrUuid}.
+     */
+    public Map<String, AddressLevel> findLocationsOfObservationValues(Map<String, String> conceptMap, Collection<ObservationCollection> observationCollections) {
+        Set<String> values = new HashSet<>();
+        observationCollections.stream().filter(Objects::nonNull)
+                .forEach(observations -> collectLocationCandidates(conceptMap, observations, values));
+        Map<String, AddressLevel> locations = new HashMap<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(values), LOCATION_LOOKUP_CHUNK_SIZE)) {
+            List<AddressLevel> addressLevels = locationRepository.findAllByLegacyIdOrUuidIn(chunk);
+            addressLevels.stream().filter(addressLevel -> addressLevel.getLegacyId() != null)
+                    .forEach(addressLevel -> locations.put(addressLevel.getLegacyId(), addressLevel));
+            addressLevels.forEach(addressLevel -> locations.put(addressLevel.getUuid(), addressLevel));
+        }
+        return locations;
+    }
+
+    private static void collectLocationCandidates(Map<String, String> conceptMap, Map<String, Object> observations, Set<String> values) {
+        observations.values().forEach(value -> {
+            if (value instanceof ArrayList) {
+                ((List<Object>) value).stream().filter(element -> element instanceof HashMap)
+                        .forEach(element -> collectLocationCandidates(conceptMap, (HashMap<String, Object>) element, values));
+            } else if (value instanceof ObservationCollection) {
+                collectLocationCandidates(conceptMap, (ObservationCollection) value, values);
+            } else if (value instanceof String && !conceptMap.containsKey(value)) {
+                values.add((String) value);
+            }
+        });
+    }
+
     private static void putAddressLevel(Map<String, String> map, AddressLevel addressLevel) {
         map.put(addressLevel.getTypeString(), addressLevel.getTitle());
     }
@@ -315,17 +363,21 @@ public class ConceptService implements NonScopeAwareService {
         formElements.forEach(formElement -> conceptUsageContract.addForms(FormUsageContract.fromEntity(formElement)));
     }
 
-    public Map<Concept, String> readConceptsFromJsonObject(String jsonObject) {
-        Map<Concept, String> jsonMap = new HashMap<>();
+    /**
+     * @return values of the concepts in the json object (of concept names to values), by concept uuid
+     */
+    public Map<String, String> readConceptsFromJsonObject(String jsonObject) {
+        Map<String, String> jsonMap = new HashMap<>();
+        ConceptDictionary conceptDictionary = getConceptDictionary();
         try {
             Map<String, String> conceptsMap = readMap(jsonObject);
             for (Map.Entry<String, String> entry : conceptsMap.entrySet()) {
                 String conceptName = entry.getKey();
                 String value = entry.getValue();
-                Concept concept = conceptRepository.findByName(conceptName);
+                ConceptDictionary.Entry concept = conceptDictionary.findByName(conceptName);
                 if (concept == null)
                     throw new BadRequestError("Bad Request: One of the specified concept(%s) does not exist", conceptName);
-                jsonMap.put(concept, value);
+                jsonMap.put(concept.getUuid(), value);
             }
             return jsonMap;
         } catch (IOException e) {
@@ -333,6 +385,30 @@ public class ConceptService implements NonScopeAwareService {
         }
     }
 
+    /**
+     * Concepts missing from the cached dictionary are read from the database, and the dictionary evicted, so that a
+     * concept created after it was read is not taken to not exist.
+     */
+    public ConceptDictionary getConceptDictionary() {
+        Long organisationId = UserContextHolder.getUserContext().getOrganisationId();
+        return conceptDictionaryCache.getDictionary(organisationId).withFallback(new ConceptDictionary.Fallback() {
+            @Override
+            public Concept findByUuid(String uuid) {
+                return conceptRepository.findByUuid(uuid);
+            }
+
+            @Override
+            public Concept findByName(String name) {
+                return conceptRepository.findByName(name);
+            }
+
+            @Override
+            public void onMiss() {
+                conceptDictionaryCache.evict(organisationId);
+            }
+        });
+    }
+
     @Override
     public boolean isNonScopeEntityChanged(DateTime lastModifiedDateTime) {
         return conceptRepository.existsByLastModifiedDateTimeGreaterThan(lastModifiedDateTime);
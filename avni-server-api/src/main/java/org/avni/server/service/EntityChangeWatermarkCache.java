@@ -0,0 +1,51 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.sync.SyncEntityChangeRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.avni.server.dao.sync.SyncEntityName.*;
+
+/**
+ * Per organisation watermarks (latest last_modified_date_time) of metadata entities, maintained by database triggers
+ * on write (see V1_314__EntityChangeWatermark.sql). Kept only for the expiry configured by avni.sync.watermark.ttl.seconds,
+ * so changes made through other server instances are seen after at most that delay. Only entities of tables with an
+ * organisation_id have watermarks (approval_status, which is shared by all organisations, does not).
+ */
+@Component
+public class EntityChangeWatermarkCache {
+    public static final String ENTITY_CHANGE_WATERMARKS = "entityChangeWatermarks";
+
+    private static final Set<SyncEntityName> watermarkedEntities = EnumSet.of(ChecklistDetail, Rule, RuleDependency, Form,
+            FormMapping, EncounterType, Program, ProgramOutcome, Gender, IndividualRelation, IndividualRelationGenderMapping,
+            IndividualRelationshipType, Concept, ProgramConfig, Video, SubjectType, ChecklistItemDetail, FormElementGroup,
+            FormElement, ConceptAnswer, IdentifierSource, OrganisationConfig, Translation, Groups, GroupPrivileges, GroupRole,
+            ReportCard, Dashboard, DashboardSection, DashboardFilter, DashboardSectionCardMapping,
+            GroupDashboard, News, Documentation, DocumentationItem, TaskType, TaskStatus, MenuItem);
+
+    private final SyncEntityChangeRepository syncEntityChangeRepository;
+
+    @Autowired
+    public EntityChangeWatermarkCache(SyncEntityChangeRepository syncEntityChangeRepository) {
+        this.syncEntityChangeRepository = syncEntityChangeRepository;
+    }
+
+    public static boolean isWatermarked(SyncEntityName syncEntityName) {
+        return watermarkedEntities.contains(syncEntityName);
+    }
+
+    /**
+     * @param organisationId used only as the cache key, the watermarks are read for the organisation set on the connection
+     */
+    @Cacheable(value = ENTITY_CHANGE_WATERMARKS)
+    public Map<SyncEntityName, DateTime> getWatermarks(Long organisationId) {
+        return syncEntityChangeRepository.getWatermarks();
+    }
+}
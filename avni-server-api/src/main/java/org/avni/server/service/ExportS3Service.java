@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
 
 import static java.lang.String.format;
 
@@ -19,6 +20,7 @@ import static java.lang.String.format;
 public class ExportS3Service {
 
     public static final String FILE_NAME_EXTENSION = ".csv";
+    public static final String COMPRESSED_FILE_NAME_EXTENSION = ".csv.gz";
     private final S3Service s3Service;
     private static final Logger logger = LoggerFactory.getLogger(ExportS3Service.class);
 
@@ -37,8 +39,22 @@ public class ExportS3Service {
         return s3Service.uploadFile(tempSourceFile, format("%s%s", uuid, FILE_NAME_EXTENSION), "exports");
     }
 
-    public InputStream downloadFile(String fileName) {
+    public MultipartObjectUpload startCompressedUpload(String uuid) {
+        logger.info(String.format("Starting upload of %s%s to S3 in parts", uuid, COMPRESSED_FILE_NAME_EXTENSION));
+        return s3Service.startMultipartUpload(format("%s%s", uuid, COMPRESSED_FILE_NAME_EXTENSION), "exports");
+    }
+
+    public InputStream downloadFile(String fileName) throws IOException {
         S3File s3File = S3File.organisationFile(UserContextHolder.getOrganisation(), fileName, S3FileType.Export);
-        return s3Service.getFileStream(s3File);
+        InputStream inputStream = s3Service.getFileStream(s3File);
+        return isCompressed(fileName) ? new GZIPInputStream(inputStream) : inputStream;
+    }
+
+    public static String getDownloadFileName(String fileName) {
+        return isCompressed(fileName) ? fileName.replace(COMPRESSED_FILE_NAME_EXTENSION, FILE_NAME_EXTENSION) : fileName;
+    }
+
+    public static boolean isCompressed(String fileName) {
+        return fileName.endsWith(COMPRESSED_FILE_NAME_EXTENSION);
     }
 }
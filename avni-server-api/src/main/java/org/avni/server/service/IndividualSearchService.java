@@ -3,6 +3,7 @@ package org.avni.server.service;
 import org.avni.server.dao.IndividualRepository;
 import org.avni.server.dao.ProgramEnrolmentRepository;
 import org.avni.server.dao.SubjectSearchRepository;
+import org.avni.server.dao.search.SubjectSearchDocumentBackfill;
 import org.avni.server.dao.search.SubjectSearchQueryBuilder;
 import org.avni.server.domain.Program;
 import org.avni.server.web.request.EnrolmentContract;
@@ -22,17 +23,21 @@ import java.util.stream.Collectors;
 public class IndividualSearchService {
     private final SubjectSearchRepository subjectSearchRepository;
     private ProgramEnrolmentRepository programEnrolmentRepository;
+    private final SubjectSearchDocumentBackfill subjectSearchDocumentBackfill;
 
     @Autowired
-    public IndividualSearchService(SubjectSearchRepository subjectSearchRepository, IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository) {
+    public IndividualSearchService(SubjectSearchRepository subjectSearchRepository, IndividualRepository individualRepository, ProgramEnrolmentRepository programEnrolmentRepository,
+                                   SubjectSearchDocumentBackfill subjectSearchDocumentBackfill) {
         this.subjectSearchRepository = subjectSearchRepository;
         this.programEnrolmentRepository = programEnrolmentRepository;
+        this.subjectSearchDocumentBackfill = subjectSearchDocumentBackfill;
     }
 
     @Transactional
     public LinkedHashMap<String, Object> search(SubjectSearchRequest subjectSearchRequest) {
-        List<Map<String, Object>> searchResults = subjectSearchRepository.search(subjectSearchRequest, new SubjectSearchQueryBuilder());
-        BigInteger totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectSearchQueryBuilder());
+        boolean searchDocuments = subjectSearchDocumentBackfill.isComplete();
+        List<Map<String, Object>> searchResults = subjectSearchRepository.search(subjectSearchRequest, new SubjectSearchQueryBuilder().withSearchDocuments(searchDocuments));
+        BigInteger totalCount = subjectSearchRepository.getTotalCount(subjectSearchRequest, new SubjectSearchQueryBuilder().withSearchDocuments(searchDocuments));
         return constructIndividual(searchResults, totalCount);
     }
 
@@ -0,0 +1,16 @@
+package org.avni.server.service;
+
+/**
+ * An object uploaded in parts, in any order and from any thread. The object is made of the parts in the order of their
+ * part numbers, which are 1 to 10000 and need not be contiguous. Every part other than the last must be at least
+ * MIN_PART_SIZE bytes.
+ */
+public interface MultipartObjectUpload {
+    int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    void uploadPart(int partNumber, byte[] content);
+
+    String complete();
+
+    void abort();
+}
@@ -38,10 +38,12 @@ public class ObservationService {
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final FormRepository formRepository;
     private final EnhancedValidationService enhancedValidationService;
+    private final ConceptService conceptService;
 
     @Autowired
-    public ObservationService(ConceptRepository conceptRepository, IndividualRepository individualRepository, LocationRepository locationRepository, NamedParameterJdbcTemplate jdbcTemplate, FormRepository formRepository, Optional<EnhancedValidationService> enhancedValidationService) {
+    public ObservationService(ConceptRepository conceptRepository, IndividualRepository individualRepository, LocationRepository locationRepository, NamedParameterJdbcTemplate jdbcTemplate, FormRepository formRepository, Optional<EnhancedValidationService> enhancedValidationService, ConceptService conceptService) {
         this.conceptRepository = conceptRepository;
+        this.conceptService = conceptService;
         this.individualRepository = individualRepository;
         this.locationRepository = locationRepository;
         this.jdbcTemplate = jdbcTemplate;
@@ -50,18 +52,19 @@ public class ObservationService {
     }
 
     public ObservationCollection createObservations(List<ObservationRequest> observationRequests) {
+        ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
         Map<String, Object> completedObservationRequests = observationRequests
                 .stream()
                 .map(observationRequest -> {
-                    Concept concept;
+                    ConceptDictionary.Entry concept;
                     if (observationRequest.getConceptUUID() == null && observationRequest.getConceptName() != null) {
-                        concept = conceptRepository.findByName(observationRequest.getConceptName());
+                        concept = conceptDictionary.findByName(observationRequest.getConceptName());
                         if (concept != null) {
                             String conceptUUID = concept.getUuid();
                             observationRequest.setConceptUUID(conceptUUID);
                         }
                     } else {
-                        concept = conceptRepository.findByUuid(observationRequest.getConceptUUID());
+                        concept = conceptDictionary.findByUuid(observationRequest.getConceptUUID());
                     }
                     return new SimpleEntry<>(concept, observationRequest.getValue());
                 })
@@ -80,10 +83,11 @@ public class ObservationService {
     }
 
     public ObservationCollection createObservationsFromDecisions(List<Decision> decisions) {
+        ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
         Map<String, Object> observations = new HashMap<>();
         for (Decision decision : decisions) {
             String conceptName = decision.getName();
-            Concept concept = conceptRepository.findByName(conceptName);
+            ConceptDictionary.Entry concept = conceptDictionary.findByName(conceptName);
             if (concept != null) {
                 String conceptUUID = concept.getUuid();
                 String dataType = concept.getDataType();
@@ -95,12 +99,12 @@ public class ObservationService {
                         if (decisionValue instanceof Collection<?>) {
                             List<String> array = (List) decisionValue;
                             value = array.stream().map(answerConceptName -> {
-                                Concept answerConcept = conceptRepository.findByName(answerConceptName);
+                                ConceptDictionary.Entry answerConcept = conceptDictionary.findByName(answerConceptName);
                                 return answerConcept != null ? answerConcept.getUuid() : null;
                             }).filter(Objects::nonNull).toArray();
                         } else {
                             String answerConceptName = (String) decisionValue;
-                            Concept answerConcept = conceptRepository.findByName(answerConceptName);
+                            ConceptDictionary.Entry answerConcept = conceptDictionary.findByName(answerConceptName);
                             if (answerConcept != null) value = answerConcept.getUuid();
                         }
                         break;
@@ -117,6 +121,7 @@ public class ObservationService {
     }
 
     public List<ObservationContract> createObservationContractsFromKeyValueResponse(List<KeyValueResponse> keyValueResponses, WorkFlowTypeEnum workflow) {
+        ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
         List<ObservationContract> observationContracts = new ArrayList<>();
         for (KeyValueResponse keyValueResponse : keyValueResponses) {
             ObservationContract observationContract = new ObservationContract();
@@ -134,14 +139,14 @@ public class ObservationService {
                     if (keyValueResponseValue instanceof Collection<?>) {
                         List<String> array = (List) keyValueResponseValue;
                         value = array.stream().map(answerConceptName -> {
-                            Concept answerConcept = getConceptForValue(answerConceptName, workflow);
+                            ConceptDictionary.Entry answerConcept = getConceptForValue(conceptDictionary, answerConceptName, workflow);
                             if (answerConcept == null)
                                 throw new BadRequestError(String.format("Answer concept with name=%s not found", answerConceptName));
                             return answerConcept.getUuid();
                         }).toArray();
                     } else {
                         String answerConceptName = (String) keyValueResponseValue;
-                        Concept answerConcept = getConceptForValue(answerConceptName, workflow);
+                        ConceptDictionary.Entry answerConcept = getConceptForValue(conceptDictionary, answerConceptName, workflow);
                         if (answerConcept == null)
                             throw new BadRequestError(String.format("Answer concept with name=%s not found", answerConceptName));
                         value = answerConcept.getUuid();
@@ -160,11 +165,11 @@ public class ObservationService {
         return observationContracts;
     }
 
-    private Concept getConceptForValue(String conceptValue, WorkFlowTypeEnum workflow) {
+    private ConceptDictionary.Entry getConceptForValue(ConceptDictionary conceptDictionary, String conceptValue, WorkFlowTypeEnum workflow) {
         if (workflow.isSummaryWorkflow()) {
-            return conceptRepository.findByUuid(conceptValue);
+            return conceptDictionary.findByUuid(conceptValue);
         } else {
-            return conceptRepository.findByName(conceptValue);
+            return conceptDictionary.findByName(conceptValue);
         }
     }
 
@@ -186,10 +191,8 @@ public class ObservationService {
         if (storedValue == null) return null;
         if (concept.getDataType().equals(ConceptDataType.Coded.toString())) {
             String[] array = (String[]) storedValue;
-            Object[] objects = Arrays.stream(array).map(s -> {
-                Concept answerConcept = conceptRepository.findByUuid(s);
-                return answerConcept.getName();
-            }).toArray();
+            ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
+            Object[] objects = Arrays.stream(array).map(s -> conceptDictionary.findByUuid(s).getName()).toArray();
             return Arrays.asList(Arrays.copyOf(objects, objects.length, String[].class));
         }
         return storedValue;
@@ -253,14 +256,18 @@ public class ObservationService {
     }
 
     public List<ObservationContract> constructObservations(@NotNull ObservationCollection observationCollection) {
-        return observationCollection.entrySet().stream().map(this::getObservationContract).collect(Collectors.toList());
+        return constructObservations(conceptService.getConceptDictionary(), observationCollection);
+    }
+
+    private List<ObservationContract> constructObservations(ConceptDictionary conceptDictionary, ObservationCollection observationCollection) {
+        return observationCollection.entrySet().stream().map(entry -> getObservationContract(conceptDictionary, entry)).collect(Collectors.toList());
     }
 
-    private ObservationContract getObservationContract(Map.Entry<String, Object> entry) {
+    private ObservationContract getObservationContract(ConceptDictionary conceptDictionary, Map.Entry<String, Object> entry) {
         ObservationContract observationContract = new ObservationContract();
-        Concept questionConcept = conceptRepository.findByUuid(entry.getKey());
+        ConceptDictionary.Entry questionConcept = conceptDictionary.findByUuid(entry.getKey());
         String conceptDataType = questionConcept.getDataType();
-        ConceptContract conceptContract = ConceptContract.create(questionConcept);
+        ConceptContract conceptContract = ConceptContract.create(conceptDictionary, questionConcept);
         if (conceptDataType.equals(ConceptDataType.Subject.toString())) {
             Object answerValue = entry.getValue();
             List<Individual> subjects;
@@ -278,25 +285,25 @@ public class ObservationService {
         // We have such cases for Bahmni Avni integration
         if (conceptDataType.equals(ConceptDataType.Coded.toString()) && conceptContract.getAnswers().isEmpty()) {
             Object answerValue = entry.getValue();
-            List<Concept> conceptAnswers;
+            List<ConceptDictionary.Entry> conceptAnswers;
             if (answerValue instanceof Collection) {
-                conceptAnswers = ((List<String>) answerValue).stream().map(conceptRepository::findByUuid).collect(Collectors.toList());
+                conceptAnswers = ((List<String>) answerValue).stream().map(conceptDictionary::findByUuid).collect(Collectors.toList());
             } else {
-                conceptAnswers = Collections.singletonList(conceptRepository.findByUuid((String) answerValue));
+                conceptAnswers = Collections.singletonList(conceptDictionary.findByUuid((String) answerValue));
             }
-            conceptContract.setAnswers(conceptAnswers.stream().map(ConceptContract::create).collect(Collectors.toList()));
+            conceptContract.setAnswers(conceptAnswers.stream().map(answerConcept -> ConceptContract.create(conceptDictionary, answerConcept)).collect(Collectors.toList()));
         }
         observationContract.setConcept(conceptContract);
         if (ConceptDataType.isGroupQuestion(conceptDataType)) {
             if (entry.getValue() instanceof Collection) {
                 List<Object> repeatableQuestionGroup = (List<Object>) ((Collection) entry.getValue()).stream().map(value -> {
                     HashMap<String, Object> values = (HashMap<String, Object>) value;
-                    return this.constructObservations(new ObservationCollection(values));
+                    return this.constructObservations(conceptDictionary, new ObservationCollection(values));
                 }).collect(Collectors.toList());
                 observationContract.setValue(repeatableQuestionGroup);
             } else {
                 HashMap<String, Object> values = (HashMap<String, Object>) entry.getValue();
-                observationContract.setValue(this.constructObservations(new ObservationCollection(values)));
+                observationContract.setValue(this.constructObservations(conceptDictionary, new ObservationCollection(values)));
             }
         } else {
             observationContract.setValue(entry.getValue());
@@ -0,0 +1,83 @@
+package org.avni.server.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.avni.server.application.KeyType;
+import org.avni.server.dao.AddressLevelTypeRepository;
+import org.avni.server.dao.OrganisationConfigRepository;
+import org.avni.server.domain.AddressLevelType;
+import org.avni.server.domain.OrganisationConfig;
+import org.avni.server.domain.OrganisationConfigSnapshot;
+import org.avni.server.util.ObjectMapperSingleton;
+import org.avni.server.web.request.webapp.SubjectTypeSetting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Organisation config of an organisation, with the custom registration locations resolved to address level type ids.
+ * Evicted for the organisation on commit of a change to its organisation config, and for all organisations on commit of
+ * a change to an address level type (see {@link org.avni.server.framework.hibernate.PostCommitCacheEvictors}). Changes
+ * made through other server instances, or directly in the database, are seen after the expiry configured by
+ * avni.cache.ttl.seconds.
+ */
+@Component
+public class OrganisationConfigCache {
+    public static final String ORGANISATION_CONFIG_SNAPSHOTS = "organisationConfigSnapshots";
+
+    private final OrganisationConfigRepository organisationConfigRepository;
+    private final AddressLevelTypeRepository addressLevelTypeRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrganisationConfigCache(OrganisationConfigRepository organisationConfigRepository, AddressLevelTypeRepository addressLevelTypeRepository) {
+        this.organisationConfigRepository = organisationConfigRepository;
+        this.addressLevelTypeRepository = addressLevelTypeRepository;
+        this.objectMapper = ObjectMapperSingleton.getObjectMapper();
+    }
+
+    @Cacheable(value = ORGANISATION_CONFIG_SNAPSHOTS)
+    public OrganisationConfigSnapshot getSnapshot(Long organisationId) {
+        OrganisationConfig organisationConfig = organisationConfigRepository.findByOrganisationId(organisationId);
+        if (organisationConfig == null || organisationConfig.getSettings() == null) {
+            return new OrganisationConfigSnapshot();
+        }
+        Map<String, Object> settings = objectMapper.convertValue(organisationConfig.getSettings(), new TypeReference<Map<String, Object>>() {
+        });
+        return new OrganisationConfigSnapshot(settings, getRegistrationAddressLevelTypeIds(settings));
+    }
+
+    private Map<String, List<Long>> getRegistrationAddressLevelTypeIds(Map<String, Object> settings) {
+        List<SubjectTypeSetting> customRegistrationLocations = objectMapper.convertValue(
+                settings.getOrDefault(KeyType.customRegistrationLocations.toString(), Collections.EMPTY_LIST),
+                new TypeReference<List<SubjectTypeSetting>>() {
+                });
+        List<SubjectTypeSetting> subjectTypeSettings = customRegistrationLocations.stream()
+                .filter(setting -> setting.getLocationTypeUUIDs() != null && !setting.getLocationTypeUUIDs().isEmpty())
+                .collect(Collectors.toList());
+        if (subjectTypeSettings.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<String> locationTypeUUIDs = subjectTypeSettings.stream()
+                .flatMap(setting -> setting.getLocationTypeUUIDs().stream())
+                .collect(Collectors.toSet());
+        Map<String, Long> locationTypeIds = addressLevelTypeRepository.findAllByUuidIn(locationTypeUUIDs)
+                .stream()
+                .collect(Collectors.toMap(AddressLevelType::getUuid, AddressLevelType::getId));
+
+        Map<String, List<Long>> registrationAddressLevelTypeIds = new HashMap<>();
+        subjectTypeSettings.stream()
+                .filter(setting -> !registrationAddressLevelTypeIds.containsKey(setting.getSubjectTypeUUID()))
+                .forEach(setting -> registrationAddressLevelTypeIds.put(setting.getSubjectTypeUUID(), Collections.unmodifiableList(
+                        setting.getLocationTypeUUIDs().stream()
+                                .map(locationTypeIds::get)
+                                .filter(Objects::nonNull)
+                                .distinct()
+                                .collect(Collectors.toList()))));
+        return registrationAddressLevelTypeIds;
+    }
+}
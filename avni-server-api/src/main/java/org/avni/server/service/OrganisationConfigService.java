@@ -11,6 +11,7 @@ import org.avni.server.dao.application.FormMappingRepository;
 import org.avni.server.domain.JsonObject;
 import org.avni.server.domain.Organisation;
 import org.avni.server.domain.OrganisationConfig;
+import org.avni.server.domain.OrganisationConfigSnapshot;
 import org.avni.server.domain.SubjectType;
 import org.avni.server.framework.security.UserContextHolder;
 import org.avni.server.projection.ConceptProjection;
@@ -46,6 +47,7 @@ public class OrganisationConfigService implements NonScopeAwareService {
     private final ConceptRepository conceptRepository;
     private final LocationHierarchyService locationHierarchyService;
     private final FormMappingRepository formMappingRepository;
+    private final OrganisationConfigCache organisationConfigCache;
     private final ObjectMapper objectMapper;
     private final Logger logger;
 
@@ -54,12 +56,14 @@ public class OrganisationConfigService implements NonScopeAwareService {
                                      ProjectionFactory projectionFactory,
                                      ConceptRepository conceptRepository,
                                      FormMappingRepository formMappingRepository,
-                                     @Lazy LocationHierarchyService locationHierarchyService) {
+                                     @Lazy LocationHierarchyService locationHierarchyService,
+                                     OrganisationConfigCache organisationConfigCache) {
         this.organisationConfigRepository = organisationConfigRepository;
         this.projectionFactory = projectionFactory;
         this.conceptRepository = conceptRepository;
         this.locationHierarchyService = locationHierarchyService;
         this.formMappingRepository = formMappingRepository;
+        this.organisationConfigCache = organisationConfigCache;
         objectMapper = ObjectMapperSingleton.getObjectMapper();
         logger = LoggerFactory.getLogger(this.getClass());
     }
@@ -184,9 +188,14 @@ public class OrganisationConfigService implements NonScopeAwareService {
     }
 
     public Object getSettingsByKey(String key) {
-        Long organisationId = UserContextHolder.getUserContext().getOrganisationId();
-        OrganisationConfig organisationConfig = organisationConfigRepository.findByOrganisationId(organisationId);
-        return organisationConfig.getSettings().getOrDefault(key, Collections.EMPTY_LIST);
+        return getOrganisationConfigSnapshot().getSetting(key);
+    }
+
+    /**
+     * Settings of the organisation of the user, not to be changed as they are shared across requests
+     */
+    public OrganisationConfigSnapshot getOrganisationConfigSnapshot() {
+        return organisationConfigCache.getSnapshot(UserContextHolder.getUserContext().getOrganisationId());
     }
 
     public void saveCustomRegistrationLocations(List<String> locationTypeUUIDs, SubjectType subjectType) {
@@ -216,15 +225,6 @@ public class OrganisationConfigService implements NonScopeAwareService {
                 .collect(Collectors.toList());
     }
 
-    private Boolean isFeatureEnabled(String feature) {
-        Long organisationId = UserContextHolder.getUserContext().getOrganisationId();
-        OrganisationConfig organisationConfig = organisationConfigRepository.findByOrganisationId(organisationId);
-        if (organisationConfig == null) {
-            return false;
-        }
-        return organisationConfig.isFeatureEnabled(feature);
-    }
-
     public List<OrganisationConfig> findAllWithFeatureEnabled(String feature) {
         return organisationConfigRepository.findAll()
                 .stream()
@@ -233,15 +233,15 @@ public class OrganisationConfigService implements NonScopeAwareService {
     }
 
     public boolean isCommentEnabled() {
-        return isFeatureEnabled("enableComments");
+        return getOrganisationConfigSnapshot().isCommentEnabled();
     }
 
     public boolean isMessagingEnabled() {
-        return isFeatureEnabled(OrganisationConfigSettingKey.enableMessaging.name());
+        return getOrganisationConfigSnapshot().isMessagingEnabled();
     }
 
     public boolean isFailOnValidationErrorEnabled() {
-        return isFeatureEnabled(OrganisationConfigSettingKey.failOnValidationError.name());
+        return getOrganisationConfigSnapshot().isFailOnValidationErrorEnabled();
     }
 
     @Override
@@ -17,6 +17,7 @@ import org.avni.server.dao.individualRelationship.IndividualRelationRepository;
 import org.avni.server.dao.individualRelationship.IndividualRelationshipRepository;
 import org.avni.server.dao.individualRelationship.IndividualRelationshipTypeRepository;
 import org.avni.server.domain.*;
+import org.avni.server.framework.hibernate.PostCommitCacheEvictors;
 import org.avni.server.service.application.MenuItemService;
 import org.avni.server.util.ObjectMapperSingleton;
 import org.avni.server.util.S;
@@ -48,6 +49,10 @@ import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import static org.avni.server.service.ConceptDictionaryCache.CONCEPT_DICTIONARIES;
+import static org.avni.server.service.OrganisationConfigCache.ORGANISATION_CONFIG_SNAPSHOTS;
+import static org.avni.server.service.accessControl.GroupPrivilegesCache.GROUP_PRIVILEGES;
+
 @Service
 public class OrganisationService {
 
@@ -119,6 +124,7 @@ public class OrganisationService {
     private final TaskTypeService taskTypeService;
     private final TaskStatusService taskStatusService;
     private final EntityTypeRetrieverService entityTypeRetrieverService;
+    private final PostCommitCacheEvictors postCommitCacheEvictors;
     private final Logger logger;
 
     @Autowired
@@ -185,7 +191,8 @@ public class OrganisationService {
                                DocumentationService documentationService,
                                TaskTypeService taskTypeService,
                                TaskStatusService taskStatusService,
-                               EntityTypeRetrieverService entityTypeRetrieverService) {
+                               EntityTypeRetrieverService entityTypeRetrieverService,
+                               PostCommitCacheEvictors postCommitCacheEvictors) {
         this.formRepository = formRepository;
         this.addressLevelTypeRepository = addressLevelTypeRepository;
         this.locationRepository = locationRepository;
@@ -251,6 +258,7 @@ public class OrganisationService {
         this.taskTypeService = taskTypeService;
         this.taskStatusService = taskStatusService;
         this.entityTypeRetrieverService = entityTypeRetrieverService;
+        this.postCommitCacheEvictors = postCommitCacheEvictors;
         logger = LoggerFactory.getLogger(this.getClass());
     }
 
@@ -631,6 +639,8 @@ public class OrganisationService {
         Arrays.asList(metadataRepositories).forEach(this::deleteAll);
         userGroupRepository.deleteAllByGroupIsNotIn(groupRepository.findAllByName(Group.Everyone));
         groupRepository.deleteAllByNameNot(Group.Everyone);
+        // deleted in batch, without the entity events that evict the caches built from them
+        postCommitCacheEvictors.clearAfterCommit(GROUP_PRIVILEGES, ORGANISATION_CONFIG_SNAPSHOTS, CONCEPT_DICTIONARIES);
     }
 
     private void deleteAll(JpaRepository repository) {
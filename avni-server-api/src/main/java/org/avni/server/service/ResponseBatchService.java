@@ -0,0 +1,87 @@
+package org.avni.server.service;
+
+import org.avni.server.application.projections.ChildUuidProjection;
+import org.avni.server.dao.*;
+import org.avni.server.domain.*;
+import org.avni.server.web.response.ResponseBatch;
+import org.avni.server.web.response.SubjectResponseBatch;
+import org.jadira.usertype.spi.utils.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.net.URL;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reads what the api responses of a page of entities need in a few queries for the whole page, rather than a few queries
+ * for every entity of the page.
+ */
+@Service
+public class ResponseBatchService {
+    private final ConceptService conceptService;
+    private final IndividualRepository individualRepository;
+    private final LocationRepository locationRepository;
+    private final EncounterRepository encounterRepository;
+    private final ProgramEnrolmentRepository programEnrolmentRepository;
+    private final GroupSubjectRepository groupSubjectRepository;
+    private final S3Service s3Service;
+
+    @Autowired
+    public ResponseBatchService(ConceptService conceptService, IndividualRepository individualRepository,
+                                LocationRepository locationRepository, EncounterRepository encounterRepository,
+                                ProgramEnrolmentRepository programEnrolmentRepository, GroupSubjectRepository groupSubjectRepository,
+                                S3Service s3Service) {
+        this.conceptService = conceptService;
+        this.individualRepository = individualRepository;
+        this.locationRepository = locationRepository;
+        this.encounterRepository = encounterRepository;
+        this.programEnrolmentRepository = programEnrolmentRepository;
+        this.groupSubjectRepository = groupSubjectRepository;
+        this.s3Service = s3Service;
+    }
+
+    public ResponseBatch forEncounters(List<? extends AbstractEncounter> encounters) {
+        List<ObservationCollection> observations = new ArrayList<>();
+        encounters.forEach(encounter -> {
+            observations.add(encounter.getObservations());
+            observations.add(encounter.getCancelObservations());
+        });
+        return ResponseBatch.of(conceptService, observations);
+    }
+
+    public SubjectResponseBatch forSubjects(List<Individual> subjects) {
+        ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
+        List<ObservationCollection> observations = subjects.stream().map(Individual::getObservations).collect(Collectors.toList());
+        Map<String, AddressLevel> observationLocations = conceptService.findLocationsOfObservationValues(conceptDictionary.getUuidToName(), observations);
+        if (subjects.isEmpty()) {
+            return new SubjectResponseBatch(conceptService, conceptDictionary, observationLocations,
+                    Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        List<Long> subjectIds = subjects.stream().map(Individual::getId).collect(Collectors.toList());
+        individualRepository.findAllWithRelationshipsFromSelfToOthersByIdIn(subjectIds);
+        Set<Long> addressLevelIds = subjects.stream().map(Individual::getAddressLevel).filter(Objects::nonNull)
+                .map(AddressLevel::getId).collect(Collectors.toSet());
+        if (!addressLevelIds.isEmpty()) {
+            locationRepository.findAllWithVirtualCatchmentsByIdIn(addressLevelIds);
+        }
+
+        Map<Long, List<GroupSubject>> groups = groupSubjectRepository.findAllByMemberSubjectIn(subjects).stream()
+                .collect(Collectors.groupingBy(groupSubject -> groupSubject.getMemberSubject().getId()));
+        List<String> profilePictures = subjects.stream()
+                .filter(subject -> subject.getSubjectType().isAllowProfilePicture() && StringUtils.isNotEmpty(subject.getProfilePicture()))
+                .map(Individual::getProfilePicture).collect(Collectors.toList());
+        Map<String, URL> profilePictureUrls = profilePictures.isEmpty() ? Collections.emptyMap() : s3Service.generateMediaDownloadUrls(profilePictures);
+
+        return new SubjectResponseBatch(conceptService, conceptDictionary, observationLocations,
+                groupByParentId(encounterRepository.findUuidsByIndividualIdIn(subjectIds)),
+                groupByParentId(programEnrolmentRepository.findUuidsByIndividualIdIn(subjectIds)),
+                groups, profilePictureUrls);
+    }
+
+    private static Map<Long, List<String>> groupByParentId(List<ChildUuidProjection> children) {
+        return children.stream().collect(Collectors.groupingBy(ChildUuidProjection::getParentId,
+                Collectors.mapping(ChildUuidProjection::getUuid, Collectors.toList())));
+    }
+}
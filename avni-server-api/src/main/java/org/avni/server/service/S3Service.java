@@ -13,9 +13,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 public interface S3Service {
 
@@ -33,10 +31,14 @@ public interface S3Service {
 
     URL generateMediaDownloadUrl(String url);
 
+    Map<String, URL> generateMediaDownloadUrls(Collection<String> urls);
+
     ObjectInfo uploadFile(File tempSourceFile, String destFileName, String directory) throws IOException;
 
     String getS3Key(String destFileName, String directory);
 
+    MultipartObjectUpload startMultipartUpload(String destFileName, String directory);
+
     ObjectInfo uploadFile(MultipartFile source, String destFileName, String directory) throws IOException;
 
     ObjectInfo uploadZipFile(MultipartFile source, String destFileName, String directory) throws IOException;
@@ -15,8 +15,8 @@ public interface ScopeAwareService<T extends CHSEntity> {
 
     default boolean isChangedBySubjectTypeRegistrationLocationType(User user, DateTime lastModifiedDateTime, Long typeId, SubjectType subjectType, SyncEntityName syncEntityName) {
         AddressLevelService addressLevelService = ApplicationContextProvider.getContext().getBean(AddressLevelService.class);
-        List<Long> addressIds = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository().isEntityChanged(new SyncParameters(lastModifiedDateTime, DateTime.now(), typeId, null, null, addressIds, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+        List<Long> addressLevelTypeIds = addressLevelService.getRegistrationAddressLevelTypeIds(subjectType);
+        return repository().isEntityChanged(new SyncParameters(lastModifiedDateTime, DateTime.now(), typeId, null, null, addressLevelTypeIds, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
     default boolean isChangedByCatchment(User user, DateTime lastModifiedDateTime, SyncEntityName syncEntityName) {
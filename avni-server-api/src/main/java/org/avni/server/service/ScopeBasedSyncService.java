@@ -1,6 +1,7 @@
 package org.avni.server.service;
 
 import org.avni.server.dao.SyncParameters;
+import org.avni.server.dao.sync.SyncContinuationToken;
 import org.avni.server.dao.sync.SyncEntityName;
 import org.avni.server.domain.CHSEntity;
 import org.avni.server.domain.SubjectType;
@@ -23,27 +24,35 @@ public class ScopeBasedSyncService<T extends CHSEntity> {
     }
 
     public Page<T> getSyncResultsBySubjectTypeRegistrationLocation(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+        List<Long> addressLevelTypeIds = addressLevelService.getRegistrationAddressLevelTypeIds(subjectType);
+        return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevelTypeIds, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
     public Page<T> getSyncResultsBySubjectTypeRegistrationLocation(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+        List<Long> addressLevelTypeIds = addressLevelService.getRegistrationAddressLevelTypeIds(subjectType);
+        return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevelTypeIds, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
     public Page<T> getSyncResultsByCatchment(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Pageable pageable, SyncEntityName syncEntityName) {
         return repository.getSyncResults(new SyncParameters(lastModifiedDateTime, now, null, null, pageable, null, null, user.getSyncSettings(), syncEntityName, user.getCatchment()));
     }
 
-    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName, String continuationToken) {
+        return repository.getSyncResultsAsSlice(getSyncParametersBySubjectTypeRegistrationLocation(user, lastModifiedDateTime, now, typeId, pageable, subjectType, syncEntityName, continuationToken));
     }
 
-    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName) {
-        List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
-        return repository.getSyncResultsAsSlice(new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevels, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment()));
+    public SyncParameters getSyncParametersBySubjectTypeRegistrationLocation(User user, DateTime lastModifiedDateTime, DateTime now, Long typeId, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName, String continuationToken) {
+        List<Long> addressLevelTypeIds = addressLevelService.getRegistrationAddressLevelTypeIds(subjectType);
+        SyncParameters syncParameters = new SyncParameters(lastModifiedDateTime, now, typeId, null, pageable, addressLevelTypeIds, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment());
+        syncParameters.setContinuationToken(SyncContinuationToken.parse(continuationToken));
+        return syncParameters;
+    }
+
+    public Slice<T> getSyncResultsBySubjectTypeRegistrationLocationAsSlice(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, String entityTypeUuid, Pageable pageable, SubjectType subjectType, SyncEntityName syncEntityName, String continuationToken) {
+        List<Long> addressLevelTypeIds = addressLevelService.getRegistrationAddressLevelTypeIds(subjectType);
+        SyncParameters syncParameters = new SyncParameters(lastModifiedDateTime, now, null, entityTypeUuid, pageable, addressLevelTypeIds, subjectType, user.getSyncSettings(), syncEntityName, user.getCatchment());
+        syncParameters.setContinuationToken(SyncContinuationToken.parse(continuationToken));
+        return repository.getSyncResultsAsSlice(syncParameters);
     }
 
     public Slice<T> getSyncResultsByCatchmentAsSlice(OperatingIndividualScopeAwareRepository<T> repository, User user, DateTime lastModifiedDateTime, DateTime now, Pageable pageable, SyncEntityName syncEntityName) {
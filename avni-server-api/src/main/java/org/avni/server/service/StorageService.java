@@ -64,6 +64,11 @@ public abstract class StorageService implements S3Service {
         return URLConnection.guessContentTypeFromName(fileName);
     }
 
+    @Override
+    public URL generateMediaDownloadUrl(String url) {
+        return generateMediaDownloadUrls(Collections.singletonList(url)).get(url);
+    }
+
     @Override
     public URL generateMediaUploadUrl(String fileName, HttpMethod method) {
         GeneratePresignedUrlRequest generatePresignedUrlRequest = getGeneratePresignedUrlRequest(fileName, method);
@@ -126,6 +131,17 @@ public abstract class StorageService implements S3Service {
         );
     }
 
+    @Override
+    public MultipartObjectUpload startMultipartUpload(String destFileName, String directory) {
+        String objectKey = getS3Key(destFileName, directory);
+        if (isDev && !s3InDev) {
+            logger.info(format("[dev] Save file locally. '%s'", objectKey));
+            return new LocalMultipartObjectUpload(new File(format("%s/%s", System.getProperty("java.io.tmpdir"), objectKey)));
+        }
+        InitiateMultipartUploadResult initiateResult = s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, objectKey));
+        return new S3MultipartObjectUpload(objectKey, initiateResult.getUploadId());
+    }
+
     @Override
     public ObjectInfo uploadFile(MultipartFile source, String destFileName, String directory) throws IOException {
         return uploadFile(AvniFiles.convertMultiPartToFile(source, ".csv"), destFileName, directory);
@@ -448,4 +464,72 @@ public abstract class StorageService implements S3Service {
     public boolean isInternalUrl(String url) {
         return url.startsWith(this.s3Client.getUrl(this.bucketName, "").toString());
     }
+
+    private class S3MultipartObjectUpload implements MultipartObjectUpload {
+        private final String objectKey;
+        private final String uploadId;
+        private final List<PartETag> partETags = Collections.synchronizedList(new ArrayList<>());
+
+        private S3MultipartObjectUpload(String objectKey, String uploadId) {
+            this.objectKey = objectKey;
+            this.uploadId = uploadId;
+        }
+
+        @Override
+        public void uploadPart(int partNumber, byte[] content) {
+            UploadPartRequest uploadPartRequest = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(objectKey)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partNumber)
+                    .withInputStream(new ByteArrayInputStream(content))
+                    .withPartSize(content.length);
+            partETags.add(s3Client.uploadPart(uploadPartRequest).getPartETag());
+        }
+
+        @Override
+        public String complete() {
+            List<PartETag> sortedPartETags = new ArrayList<>(partETags);
+            sortedPartETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, objectKey, uploadId, sortedPartETags));
+            return objectKey;
+        }
+
+        @Override
+        public void abort() {
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, objectKey, uploadId));
+        }
+    }
+
+    private static class LocalMultipartObjectUpload implements MultipartObjectUpload {
+        private final File file;
+        private final SortedMap<Integer, byte[]> parts = Collections.synchronizedSortedMap(new TreeMap<>());
+
+        private LocalMultipartObjectUpload(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void uploadPart(int partNumber, byte[] content) {
+            parts.put(partNumber, content);
+        }
+
+        @Override
+        public String complete() {
+            file.getParentFile().mkdirs();
+            try (OutputStream outputStream = new FileOutputStream(file)) {
+                for (byte[] part : parts.values()) {
+                    outputStream.write(part);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return file.getAbsolutePath();
+        }
+
+        @Override
+        public void abort() {
+            parts.clear();
+        }
+    }
 }
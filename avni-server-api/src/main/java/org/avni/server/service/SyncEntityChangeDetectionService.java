@@ -0,0 +1,184 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.sync.SyncEntityChangeRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.web.request.EntitySyncStatusContract;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Works out which of the entities requested in sync details have changed since the client last synced them.
+ * <ul>
+ *     <li>Metadata entities whose watermark (see {@link EntityChangeWatermarkCache}) is not after the client's last sync are
+ *     reported as unchanged without querying</li>
+ *     <li>Organisation wide entities backed by a single table are checked together in one query</li>
+ *     <li>Other non scope aware entities, and all scope aware entities, are checked concurrently on a bounded pool</li>
+ * </ul>
+ * Checks that do not finish within the latency budget are reported as changed, so the client syncs them and gets
+ * empty pages at worst. They are left to finish rather than interrupted, as interrupting a thread in a JDBC call can
+ * leave its connection unusable.
+ * <p>
+ * The pooled checks run outside the transaction and session of the request, so each runs in a transaction of its own
+ * (some, like the identifier assignments, write). They are given the user of the request, which is read by the
+ * authentication outside the session of the request, with its catchment, and of which they only read the columns, rather
+ * than each reading the user again. Other entities of the request are not shared with them.
+ */
+@Service
+public class SyncEntityChangeDetectionService {
+    private static final Logger logger = LoggerFactory.getLogger(SyncEntityChangeDetectionService.class);
+
+    private final SyncEntityChangeRepository syncEntityChangeRepository;
+    private final EntityChangeWatermarkCache entityChangeWatermarkCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executorService;
+    private final long timeoutInMillis;
+
+    public SyncEntityChangeDetectionService(SyncEntityChangeRepository syncEntityChangeRepository,
+                                            EntityChangeWatermarkCache entityChangeWatermarkCache,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${avni.sync.changeDetection.threads}") int threads,
+                                            @Value("${avni.sync.changeDetection.queueSize}") int queueSize,
+                                            @Value("${avni.sync.changeDetection.timeoutMillis}") long timeoutInMillis) {
+        this.syncEntityChangeRepository = syncEntityChangeRepository;
+        this.entityChangeWatermarkCache = entityChangeWatermarkCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.timeoutInMillis = timeoutInMillis;
+        this.executorService = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    public List<EntitySyncStatusContract> getChangedEntities(List<EntitySyncStatusContract> entitySyncStatusContracts,
+                                                             Map<SyncEntityName, ScopeAwareService> scopeAwareServiceMap,
+                                                             Map<SyncEntityName, NonScopeAwareService> nonScopeAwareServiceMap) {
+        long start = System.currentTimeMillis();
+        UserContext userContext = UserContextHolder.getUserContext();
+        Map<String, Long> timeTakenPerEntity = new ConcurrentHashMap<>();
+        Map<EntitySyncStatusContract, Future<Boolean>> pendingChecks = new LinkedHashMap<>();
+        Map<SyncEntityName, DateTime> lastLoadedSince = new EnumMap<>(SyncEntityName.class);
+        Long organisationId = userContext == null ? null : userContext.getOrganisationId();
+        Map<SyncEntityName, DateTime> watermarks = organisationId == null ? null : entityChangeWatermarkCache.getWatermarks(organisationId);
+
+        for (EntitySyncStatusContract contract : entitySyncStatusContracts) {
+            if (!SyncEntityName.existsAsEnum(contract.getEntityName())) continue;
+            SyncEntityName syncEntityName = SyncEntityName.valueOf(contract.getEntityName());
+            NonScopeAwareService nonScopeAwareService = nonScopeAwareServiceMap.get(syncEntityName);
+            ScopeAwareService scopeAwareService = scopeAwareServiceMap.get(syncEntityName);
+            if (nonScopeAwareService != null && syncEntityChangeRepository.supports(syncEntityName)) {
+                if (isUnchangedAsPerWatermark(syncEntityName, contract.getLoadedSince(), watermarks)) continue;
+                lastLoadedSince.merge(syncEntityName, contract.getLoadedSince(), (a, b) -> a == null || b == null ? null : (a.isBefore(b) ? a : b));
+            } else if (nonScopeAwareService != null) {
+                pendingChecks.put(contract, submit(userContext, contract, timeTakenPerEntity, () -> nonScopeAwareService.isNonScopeEntityChanged(contract.getLoadedSince())));
+            } else if (scopeAwareService != null) {
+                pendingChecks.put(contract, submit(userContext, contract, timeTakenPerEntity, () -> scopeAwareService.isScopeEntityChanged(contract.getLoadedSince(), contract.getEntityTypeUuid())));
+            }
+        }
+
+        long metadataCheckStart = System.currentTimeMillis();
+        Set<SyncEntityName> changedMetadata = syncEntityChangeRepository.getChangedEntities(lastLoadedSince);
+        timeTakenPerEntity.put(String.format("metadata(%d)", lastLoadedSince.size()), System.currentTimeMillis() - metadataCheckStart);
+
+        long deadline = start + timeoutInMillis;
+        Set<EntitySyncStatusContract> changedEntities = new HashSet<>();
+        pendingChecks.forEach((contract, future) -> {
+            if (isChanged(contract, future, deadline)) changedEntities.add(contract);
+        });
+
+        List<EntitySyncStatusContract> result = entitySyncStatusContracts.stream()
+                .filter(contract -> changedEntities.contains(contract)
+                        || (SyncEntityName.existsAsEnum(contract.getEntityName()) && changedMetadata.contains(SyncEntityName.valueOf(contract.getEntityName()))))
+                .collect(Collectors.toList());
+        logger.debug(String.format("Time taken for change detection %d ms. Breakdown: %s", System.currentTimeMillis() - start, timeTakenPerEntity));
+        return result;
+    }
+
+    /**
+     * A missing watermark (a new organisation, a failed backfill, a write the trigger did not see) is taken as not known,
+     * rather than as unchanged, so the entity is queried.
+     */
+    private static boolean isUnchangedAsPerWatermark(SyncEntityName syncEntityName, DateTime loadedSince, Map<SyncEntityName, DateTime> watermarks) {
+        if (watermarks == null || loadedSince == null || !EntityChangeWatermarkCache.isWatermarked(syncEntityName)) return false;
+        DateTime watermark = watermarks.get(syncEntityName);
+        return watermark != null && !watermark.isAfter(loadedSince);
+    }
+
+    private boolean isChanged(EntitySyncStatusContract contract, Future<Boolean> future, long deadline) {
+        try {
+            return future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            logger.warn(String.format("Change detection for %s exceeded %d ms, reporting it as changed", contract, timeoutInMillis));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private Future<Boolean> submit(UserContext userContext, EntitySyncStatusContract contract, Map<String, Long> timeTakenPerEntity, Callable<Boolean> check) {
+        String key = contract.getEntityTypeUuid() == null ? contract.getEntityName() : String.format("%s[%s]", contract.getEntityName(), contract.getEntityTypeUuid());
+        User user = userContext == null ? null : userContext.getUser();
+        Organisation organisation = userContext == null ? null : copyOf(userContext.getOrganisation());
+        String organisationUUID = userContext == null ? null : userContext.getOrganisationUUID();
+        return executorService.submit(() -> {
+            UserContext callerContext = UserContextHolder.getUserContext();
+            UserContext checkContext = new UserContext();
+            checkContext.setOrganisation(organisation);
+            checkContext.setOrganisationUUID(organisationUUID);
+            if (user != null) checkContext.setUser(user);
+            UserContextHolder.create(checkContext);
+            long start = System.currentTimeMillis();
+            try {
+                return transactionTemplate.execute(status -> {
+                    try {
+                        return check.call();
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            } finally {
+                timeTakenPerEntity.put(key, System.currentTimeMillis() - start);
+                if (callerContext == null) UserContextHolder.clear();
+                else UserContextHolder.create(callerContext);
+            }
+        });
+    }
+
+    private static Organisation copyOf(Organisation organisation) {
+        if (organisation == null) return null;
+        Organisation copy = new Organisation(organisation.getName());
+        copy.setId(organisation.getId());
+        copy.setUuid(organisation.getUuid());
+        copy.setDbUser(organisation.getDbUser());
+        copy.setSchemaName(organisation.getSchemaName());
+        copy.setMediaDirectory(organisation.getMediaDirectory());
+        copy.setParentOrganisationId(organisation.getParentOrganisationId());
+        copy.setUsernameSuffix(organisation.getUsernameSuffix());
+        return copy;
+    }
+}
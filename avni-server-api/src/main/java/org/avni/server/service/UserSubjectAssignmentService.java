@@ -144,7 +144,7 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
         for (Map.Entry<SubjectType, List<Individual>> subjectTypeList : subjectTypeListMap.entrySet()) {
             SubjectType subjectType = subjectTypeList.getKey();
             List<Individual> listOfSubjects = subjectTypeList.getValue();
-            List<Long> addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
+            long[] addressLevels = addressLevelService.getAllRegistrationAddressIdsBySubjectType(user.getCatchment(), subjectType);
             for (Individual subject : listOfSubjects) {
                 if (!avniMetaDataRuleService.isDirectAssignmentAllowedFor(subject.getSubjectType())) {
                     throw new ValidationException("Assigment of this subject cannot be done because it is of subject type that is part of another group");
@@ -156,8 +156,8 @@ public class UserSubjectAssignmentService implements NonScopeAwareService {
         return this.saveAll(userSubjectAssignmentList);
     }
 
-    private void checkIfSubjectLiesWithinUserCatchment(boolean assignmentVoided, Individual subject, List<Long> addressLevels) throws ValidationException {
-        if(!assignmentVoided && !addressLevels.contains(subject.getAddressLevel().getId())) {
+    private void checkIfSubjectLiesWithinUserCatchment(boolean assignmentVoided, Individual subject, long[] addressLevels) throws ValidationException {
+        if(!assignmentVoided && Arrays.binarySearch(addressLevels, subject.getAddressLevel().getId()) < 0) {
             throw new ValidationException("Assigment of subject(s) cannot be done because they are outside the User's Catchment");
         }
     }
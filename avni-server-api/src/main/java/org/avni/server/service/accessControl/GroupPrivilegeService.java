@@ -30,8 +30,9 @@ public class GroupPrivilegeService implements NonScopeAwareService {
     private final FormMappingRepository formMappingRepository;
     private final GroupPrivilegeRepository groupPrivilegeRepository;
     private final UserGroupRepository userGroupRepository;
+    private final GroupPrivilegesCache groupPrivilegesCache;
 
-    public GroupPrivilegeService(GroupRepository groupRepository, PrivilegeRepository privilegeRepository, SubjectTypeRepository subjectTypeRepository, ProgramRepository programRepository, EncounterTypeRepository encounterTypeRepository, ChecklistDetailRepository checklistDetailRepository, FormMappingRepository formMappingRepository, GroupPrivilegeRepository groupPrivilegeRepository, UserGroupRepository userGroupRepository) {
+    public GroupPrivilegeService(GroupRepository groupRepository, PrivilegeRepository privilegeRepository, SubjectTypeRepository subjectTypeRepository, ProgramRepository programRepository, EncounterTypeRepository encounterTypeRepository, ChecklistDetailRepository checklistDetailRepository, FormMappingRepository formMappingRepository, GroupPrivilegeRepository groupPrivilegeRepository, UserGroupRepository userGroupRepository, GroupPrivilegesCache groupPrivilegesCache) {
         this.groupRepository = groupRepository;
         this.privilegeRepository = privilegeRepository;
         this.subjectTypeRepository = subjectTypeRepository;
@@ -41,6 +42,7 @@ public class GroupPrivilegeService implements NonScopeAwareService {
         this.formMappingRepository = formMappingRepository;
         this.groupPrivilegeRepository = groupPrivilegeRepository;
         this.userGroupRepository = userGroupRepository;
+        this.groupPrivilegesCache = groupPrivilegesCache;
     }
 
     private boolean isGroupSubjectTypePrivilege(SubjectType subjectType, Privilege privilege) {
@@ -188,12 +190,8 @@ public class GroupPrivilegeService implements NonScopeAwareService {
     }
 
     public GroupPrivileges getGroupPrivileges() {
-        if (this.userHasAllPrivileges()) {
-            return new GroupPrivileges();
-        }
-        User user = UserContextHolder.getUserContext().getUser();
-        List<GroupPrivilege> privileges = groupPrivilegeRepository.getAllAllowedPrivilegesForUser(user.getId());
-        return new GroupPrivileges(false, privileges);
+        UserContext userContext = UserContextHolder.getUserContext();
+        return groupPrivilegesCache.getGroupPrivileges(userContext.getUser().getId(), userContext.getOrganisationId());
     }
 
     public boolean userHasAllPrivileges() {
@@ -0,0 +1,47 @@
+package org.avni.server.service.accessControl;
+
+import org.avni.server.dao.GroupPrivilegeRepository;
+import org.avni.server.dao.UserGroupRepository;
+import org.avni.server.domain.accessControl.GroupPrivilege;
+import org.avni.server.domain.accessControl.GroupPrivileges;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Privileges of a user in an organisation, for checking privileges. The group privileges in it are detached once
+ * cached, only their ids and privilege types are to be used. Keyed by user and organisation, so that on commit of a
+ * change to the groups of a user only the privileges of that user are evicted, and on commit of a change to a group or
+ * a group privilege only those of its organisation (see {@link
+ * org.avni.server.framework.hibernate.PostCommitCacheEvictors}). Changes made through other server instances, or
+ * without entity events (bulk or native updates, which are to clear the cache themselves), are seen after the expiry
+ * configured by avni.cache.userContext.ttl.seconds.
+ */
+@Component
+public class GroupPrivilegesCache {
+    public static final String GROUP_PRIVILEGES = "groupPrivileges";
+
+    private final GroupPrivilegeRepository groupPrivilegeRepository;
+    private final UserGroupRepository userGroupRepository;
+
+    @Autowired
+    public GroupPrivilegesCache(GroupPrivilegeRepository groupPrivilegeRepository, UserGroupRepository userGroupRepository) {
+        this.groupPrivilegeRepository = groupPrivilegeRepository;
+        this.userGroupRepository = userGroupRepository;
+    }
+
+    /**
+     * @param organisationId used only as part of the cache key, the privileges are read for the organisation set on the
+     *                       connection, which can be other than the user's own for organisation switching users
+     */
+    @Cacheable(value = GROUP_PRIVILEGES, key = "{#p0, #p1}")
+    public GroupPrivileges getGroupPrivileges(Long userId, Long organisationId) {
+        if (userGroupRepository.existsByUserIdAndGroupHasAllPrivilegesTrueAndIsVoidedFalse(userId)) {
+            return new GroupPrivileges();
+        }
+        List<GroupPrivilege> privileges = groupPrivilegeRepository.getAllAllowedPrivilegesForUser(userId);
+        return new GroupPrivileges(false, privileges);
+    }
+}
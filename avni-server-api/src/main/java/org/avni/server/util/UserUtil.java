@@ -21,6 +21,8 @@ public class UserUtil {
     public Long getCatchmentId() {
         User user = UserContextHolder.getUser();
         Objects.requireNonNull(user, "User not available from UserContext. Check for Auth errors");
-        return user.getCatchmentId().orElse(isDev ? DEFAULT_CATCHMENT_ID_FOR_DEV : null);
+        Long catchmentId = UserContextHolder.getUserContext().getCatchmentId();
+        if (catchmentId == null) catchmentId = user.getCatchmentId().orElse(null);
+        return catchmentId == null && isDev ? DEFAULT_CATCHMENT_ID_FOR_DEV : catchmentId;
     }
 }
@@ -6,7 +6,9 @@ import org.avni.server.application.FormType;
 import org.avni.server.dao.EncounterRepository;
 import org.avni.server.dao.EncounterTypeRepository;
 import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.SyncParameters;
 import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncReferenceUuids;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.geo.Point;
@@ -48,6 +50,7 @@ public class EncounterController extends AbstractController<Encounter> implement
     private final FormMappingService formMappingService;
     private final AccessControlService accessControlService;
     private final EntityApprovalStatusService entityApprovalStatusService;
+    private final SyncResponseStreamer syncResponseStreamer;
 
     @Autowired
     public EncounterController(IndividualRepository individualRepository,
@@ -56,7 +59,7 @@ public class EncounterController extends AbstractController<Encounter> implement
                                ObservationService observationService,
                                UserService userService,
                                Bugsnag bugsnag,
-                               EncounterService encounterService, ScopeBasedSyncService<Encounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService) {
+                               EncounterService encounterService, ScopeBasedSyncService<Encounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, SyncResponseStreamer syncResponseStreamer) {
         this.individualRepository = individualRepository;
         this.encounterTypeRepository = encounterTypeRepository;
         this.encounterRepository = encounterRepository;
@@ -68,6 +71,7 @@ public class EncounterController extends AbstractController<Encounter> implement
         this.formMappingService = formMappingService;
         this.accessControlService = accessControlService;
         this.entityApprovalStatusService = entityApprovalStatusService;
+        this.syncResponseStreamer = syncResponseStreamer;
     }
 
     @GetMapping(value = "/web/encounter/{uuid}")
@@ -195,6 +199,7 @@ public class EncounterController extends AbstractController<Encounter> implement
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "encounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
         if (encounterTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
@@ -202,7 +207,29 @@ public class EncounterController extends AbstractController<Encounter> implement
         FormMapping formMapping = formMappingService.find(encounterType, FormType.Encounter);
         if (formMapping == null)
             throw new Exception(String.format("No form mapping found for encounter %s", encounterType.getName()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Encounter));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(encounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Encounter, continuationToken));
+    }
+
+    /**
+     * Same slice as {@link #getEncountersByOperatingIndividualScopeAsSlice}, written to the response as it is read
+     */
+    @RequestMapping(value = "/encounter/v2", method = RequestMethod.GET, params = "stream=true")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public ResponseEntity<?> streamEncountersByOperatingIndividualScopeAsSlice(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "encounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            Pageable pageable) throws Exception {
+        if (encounterTypeUuid.isEmpty()) return ResponseEntity.ok(wrap(new SliceImpl<>(Collections.emptyList())));
+        EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
+        if (encounterType == null) return ResponseEntity.ok(wrap(new SliceImpl<>(Collections.emptyList())));
+
+        FormMapping formMapping = formMappingService.find(encounterType, FormType.Encounter);
+        if (formMapping == null)
+            throw new Exception(String.format("No form mapping found for encounter %s", encounterType.getName()));
+        SyncParameters syncParameters = scopeBasedSyncService.getSyncParametersBySubjectTypeRegistrationLocation(userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), syncResponseStreamer.limitPageSize(pageable), formMapping.getSubjectType(), SyncEntityName.Encounter, continuationToken);
+        return syncResponseStreamer.stream(encounterRepository, syncParameters, SyncRowFormats.ENCOUNTER, "encounter");
     }
 
     @RequestMapping(value = "/encounter", method = RequestMethod.GET)
@@ -238,10 +265,15 @@ public class EncounterController extends AbstractController<Encounter> implement
 
     @Override
     public Resource<Encounter> process(Resource<Encounter> resource) {
+        return process(resource, new SyncReferenceUuids());
+    }
+
+    @Override
+    public Resource<Encounter> process(Resource<Encounter> resource, SyncReferenceUuids referenceUuids) {
         Encounter encounter = resource.getContent();
         resource.removeLinks();
-        resource.add(new Link(encounter.getEncounterType().getUuid(), "encounterTypeUUID"));
-        resource.add(new Link(encounter.getIndividual().getUuid(), "individualUUID"));
+        resource.add(new Link(referenceUuids.getUuid(encounter, "encounterType", Encounter::getEncounterType), "encounterTypeUUID"));
+        resource.add(new Link(referenceUuids.getUuid(encounter, "individual", Encounter::getIndividual), "individualUUID"));
         return resource;
     }
 
@@ -93,7 +93,7 @@ public class ExportController {
         InputStream inputStream = exportS3Service.downloadFile(fileName);
         byte[] bytes = IOUtils.toByteArray(inputStream);
         return ResponseEntity.ok()
-                .headers(getHttpHeaders(fileName))
+                .headers(getHttpHeaders(ExportS3Service.getDownloadFileName(fileName)))
                 .contentLength(bytes.length)
                 .contentType(MediaType.parseMediaType("application/octet-stream"))
                 .body(new ByteArrayResource(bytes));
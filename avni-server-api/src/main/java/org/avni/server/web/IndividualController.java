@@ -4,6 +4,7 @@ import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
 import org.avni.server.dao.*;
 import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncReferenceUuids;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.geo.Point;
@@ -149,11 +150,12 @@ public class IndividualController extends AbstractController<Individual> impleme
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "subjectTypeUuid", required = false) String subjectTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) {
         if (subjectTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         SubjectType subjectType = subjectTypeRepository.findByUuid(subjectTypeUuid);
         if (subjectType == null) return wrap(new SliceImpl<>(Collections.emptyList()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.Individual));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(individualRepository, userService.getCurrentUser(), lastModifiedDateTime, now, subjectType.getId(), pageable, subjectType, SyncEntityName.Individual, continuationToken));
     }
 
     @GetMapping(value = {"/individual", /*-->Both are Deprecated */ "/individual/search/byCatchmentAndLastModified", "/individual/search/lastModified"})
@@ -296,16 +298,24 @@ public class IndividualController extends AbstractController<Individual> impleme
 
     @Override
     public Resource<Individual> process(Resource<Individual> resource) {
+        return process(resource, new SyncReferenceUuids());
+    }
+
+    @Override
+    public Resource<Individual> process(Resource<Individual> resource, SyncReferenceUuids referenceUuids) {
         Individual individual = resource.getContent();
         resource.removeLinks();
-        if (individual.getAddressLevel() != null) {
-            resource.add(new Link(individual.getAddressLevel().getUuid(), "addressUUID"));
+        String addressUuid = referenceUuids.getUuid(individual, "addressLevel", Individual::getAddressLevel);
+        if (addressUuid != null) {
+            resource.add(new Link(addressUuid, "addressUUID"));
         }
-        if (individual.getGender() != null) {
-            resource.add(new Link(individual.getGender().getUuid(), "genderUUID"));
+        String genderUuid = referenceUuids.getUuid(individual, "gender", Individual::getGender);
+        if (genderUuid != null) {
+            resource.add(new Link(genderUuid, "genderUUID"));
         }
-        if (individual.getSubjectType() != null) {
-            resource.add(new Link(individual.getSubjectType().getUuid(), "subjectTypeUUID"));
+        String subjectTypeUuid = referenceUuids.getUuid(individual, "subjectType", Individual::getSubjectType);
+        if (subjectTypeUuid != null) {
+            resource.add(new Link(subjectTypeUuid, "subjectTypeUUID"));
         }
         return resource;
     }
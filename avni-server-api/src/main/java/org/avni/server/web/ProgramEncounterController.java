@@ -4,7 +4,9 @@ import org.avni.server.application.FormMapping;
 import org.avni.server.application.FormType;
 import org.avni.server.dao.EncounterTypeRepository;
 import org.avni.server.dao.ProgramEncounterRepository;
+import org.avni.server.dao.SyncParameters;
 import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncReferenceUuids;
 import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.service.*;
@@ -40,9 +42,10 @@ public class ProgramEncounterController implements RestControllerResourceProcess
     private final FormMappingService formMappingService;
     private final AccessControlService accessControlService;
     private final EntityApprovalStatusService entityApprovalStatusService;
+    private final SyncResponseStreamer syncResponseStreamer;
 
     @Autowired
-    public ProgramEncounterController(EncounterTypeRepository encounterTypeRepository, ProgramEncounterRepository programEncounterRepository, UserService userService, ProgramEncounterService programEncounterService, ScopeBasedSyncService<ProgramEncounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService) {
+    public ProgramEncounterController(EncounterTypeRepository encounterTypeRepository, ProgramEncounterRepository programEncounterRepository, UserService userService, ProgramEncounterService programEncounterService, ScopeBasedSyncService<ProgramEncounter> scopeBasedSyncService, FormMappingService formMappingService, AccessControlService accessControlService, EntityApprovalStatusService entityApprovalStatusService, SyncResponseStreamer syncResponseStreamer) {
         this.encounterTypeRepository = encounterTypeRepository;
         this.programEncounterRepository = programEncounterRepository;
         this.userService = userService;
@@ -51,6 +54,7 @@ public class ProgramEncounterController implements RestControllerResourceProcess
         this.formMappingService = formMappingService;
         this.accessControlService = accessControlService;
         this.entityApprovalStatusService = entityApprovalStatusService;
+        this.syncResponseStreamer = syncResponseStreamer;
     }
 
     @GetMapping(value = "/web/programEncounter/{uuid}")
@@ -113,6 +117,7 @@ public class ProgramEncounterController implements RestControllerResourceProcess
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "programEncounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
         if (encounterTypeUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
@@ -121,7 +126,29 @@ public class ProgramEncounterController implements RestControllerResourceProcess
         FormMapping formMapping = formMappingService.find(encounterType, FormType.ProgramEncounter);
         if (formMapping == null)
             throw new Exception(String.format("No form mapping found for program encounter %s", encounterType.getName()));
-        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter));
+        return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEncounterRepository, userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.ProgramEncounter, continuationToken));
+    }
+
+    /**
+     * Same slice as {@link #getProgramEncountersByOperatingIndividualScopeAsSlice}, written to the response as it is read
+     */
+    @RequestMapping(value = "/programEncounter/v2", method = RequestMethod.GET, params = "stream=true")
+    @PreAuthorize(value = "hasAnyAuthority('user')")
+    public ResponseEntity<?> streamProgramEncountersByOperatingIndividualScopeAsSlice(
+            @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
+            @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
+            @RequestParam(value = "programEncounterTypeUuid", required = false) String encounterTypeUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
+            Pageable pageable) throws Exception {
+        if (encounterTypeUuid.isEmpty()) return ResponseEntity.ok(wrap(new SliceImpl<>(Collections.emptyList())));
+        EncounterType encounterType = encounterTypeRepository.findByUuid(encounterTypeUuid);
+        if (encounterType == null) return ResponseEntity.ok(wrap(new SliceImpl<>(Collections.emptyList())));
+
+        FormMapping formMapping = formMappingService.find(encounterType, FormType.ProgramEncounter);
+        if (formMapping == null)
+            throw new Exception(String.format("No form mapping found for program encounter %s", encounterType.getName()));
+        SyncParameters syncParameters = scopeBasedSyncService.getSyncParametersBySubjectTypeRegistrationLocation(userService.getCurrentUser(), lastModifiedDateTime, now, encounterType.getId(), syncResponseStreamer.limitPageSize(pageable), formMapping.getSubjectType(), SyncEntityName.ProgramEncounter, continuationToken);
+        return syncResponseStreamer.stream(programEncounterRepository, syncParameters, SyncRowFormats.PROGRAM_ENCOUNTER, "programEncounter");
     }
 
     @RequestMapping(value = "/programEncounter", method = RequestMethod.GET)
@@ -157,10 +184,15 @@ public class ProgramEncounterController implements RestControllerResourceProcess
 
     @Override
     public Resource<ProgramEncounter> process(Resource<ProgramEncounter> resource) {
+        return process(resource, new SyncReferenceUuids());
+    }
+
+    @Override
+    public Resource<ProgramEncounter> process(Resource<ProgramEncounter> resource, SyncReferenceUuids referenceUuids) {
         ProgramEncounter programEncounter = resource.getContent();
         resource.removeLinks();
-        resource.add(new Link(programEncounter.getEncounterType().getUuid(), "encounterTypeUUID"));
-        resource.add(new Link(programEncounter.getProgramEnrolment().getUuid(), "programEnrolmentUUID"));
+        resource.add(new Link(referenceUuids.getUuid(programEncounter, "encounterType", ProgramEncounter::getEncounterType), "encounterTypeUUID"));
+        resource.add(new Link(referenceUuids.getUuid(programEncounter, "programEnrolment", ProgramEncounter::getProgramEnrolment), "programEnrolmentUUID"));
         return resource;
     }
 }
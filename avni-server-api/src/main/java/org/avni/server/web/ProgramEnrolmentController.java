@@ -5,6 +5,7 @@ import org.avni.server.application.FormType;
 import org.avni.server.dao.ProgramEnrolmentRepository;
 import org.avni.server.dao.ProgramRepository;
 import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.dao.sync.SyncReferenceUuids;
 import org.avni.server.domain.ApprovalStatus;
 import org.avni.server.domain.EntityApprovalStatus;
 import org.avni.server.domain.Program;
@@ -89,6 +90,7 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
             @RequestParam("lastModifiedDateTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime lastModifiedDateTime,
             @RequestParam("now") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) DateTime now,
             @RequestParam(value = "programUuid", required = false) String programUuid,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken,
             Pageable pageable) throws Exception {
         if (programUuid.isEmpty()) return wrap(new SliceImpl<>(Collections.emptyList()));
         else {
@@ -97,7 +99,7 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
             FormMapping formMapping = formMappingService.find(program, FormType.ProgramEnrolment);
             if (formMapping == null)
                 throw new Exception(String.format("No form mapping found for program %s", program.getName()));
-            return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Enrolment));
+            return wrap(scopeBasedSyncService.getSyncResultsBySubjectTypeRegistrationLocationAsSlice(programEnrolmentRepository, userService.getCurrentUser(), lastModifiedDateTime, now, program.getId(), pageable, formMapping.getSubjectType(), SyncEntityName.Enrolment, continuationToken));
         }
     }
 
@@ -164,12 +166,18 @@ public class ProgramEnrolmentController extends AbstractController<ProgramEnrolm
 
     @Override
     public Resource<ProgramEnrolment> process(Resource<ProgramEnrolment> resource) {
+        return process(resource, new SyncReferenceUuids());
+    }
+
+    @Override
+    public Resource<ProgramEnrolment> process(Resource<ProgramEnrolment> resource, SyncReferenceUuids referenceUuids) {
         ProgramEnrolment programEnrolment = resource.getContent();
         resource.removeLinks();
-        resource.add(new Link(programEnrolment.getProgram().getUuid(), "programUUID"));
-        resource.add(new Link(programEnrolment.getIndividual().getUuid(), "individualUUID"));
-        if (programEnrolment.getProgramOutcome() != null) {
-            resource.add(new Link(programEnrolment.getProgramOutcome().getUuid(), "programOutcomeUUID"));
+        resource.add(new Link(referenceUuids.getUuid(programEnrolment, "program", ProgramEnrolment::getProgram), "programUUID"));
+        resource.add(new Link(referenceUuids.getUuid(programEnrolment, "individual", ProgramEnrolment::getIndividual), "individualUUID"));
+        String programOutcomeUuid = referenceUuids.getUuid(programEnrolment, "programOutcome", ProgramEnrolment::getProgramOutcome);
+        if (programOutcomeUuid != null) {
+            resource.add(new Link(programOutcomeUuid, "programOutcomeUUID"));
         }
         return resource;
     }
@@ -1,5 +1,9 @@
 package org.avni.server.web;
 
+import org.avni.server.dao.sync.SyncContinuationSlice;
+import org.avni.server.dao.sync.SyncContinuationToken;
+import org.avni.server.dao.sync.SyncReferenceUuids;
+import org.avni.server.dao.sync.SyncSlice;
 import org.avni.server.web.response.slice.SlicedResources;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +21,13 @@ public interface RestControllerResourceProcessor<T> {
         return t;
     }
 
+    /**
+     * Processes an entity of a sync slice, with the uuids of the entities it refers to read along with it
+     */
+    default Resource<T> process(Resource<T> t, SyncReferenceUuids referenceUuids) {
+        return process(t);
+    }
+
     default PagedResources<Resource<T>> wrap(Page<T> page) {
         PagedResources.PageMetadata pageMetadata = new PagedResources.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages());
         List<Resource<T>> resources = new ArrayList<>();
@@ -25,9 +36,12 @@ public interface RestControllerResourceProcessor<T> {
     }
 
     default SlicedResources<Resource<T>> wrap(Slice<T> slice) {
-        SlicedResources.SliceMetadata sliceMetadata = new SlicedResources.SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext());
+        SyncContinuationToken continuationToken = slice instanceof SyncContinuationSlice ? ((SyncContinuationSlice) slice).getContinuationToken() : null;
+        SlicedResources.SliceMetadata sliceMetadata = new SlicedResources.SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext(),
+                continuationToken == null ? null : continuationToken.toString());
+        SyncReferenceUuids referenceUuids = slice instanceof SyncSlice ? ((SyncSlice<?>) slice).getReferenceUuids() : new SyncReferenceUuids();
         List<Resource<T>> resources = new ArrayList<>();
-        for (T it : slice) resources.add(this.process(new Resource<>(it)));
+        for (T it : slice) resources.add(this.process(new Resource<>(it), referenceUuids));
         return new SlicedResources<>(resources, sliceMetadata);
     }
 
@@ -22,7 +22,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.avni.server.dao.sync.SyncEntityName.*;
 
@@ -104,6 +103,7 @@ public class SyncController {
     private final UserSubjectAssignmentService userSubjectAssignmentService;
     private final ScopedEntityApprovalStatusService scopedEntityApprovalStatusService;
     private final DashboardFilterService dashboardFilterService;
+    private final SyncEntityChangeDetectionService syncEntityChangeDetectionService;
 
     @Autowired
     public SyncController(Environment environment, IndividualService individualService, EncounterService encounterService,
@@ -136,7 +136,8 @@ public class SyncController {
                           DocumentationService documentationService, DocumentationItemService documentationItemService,
                           TaskService taskService, TaskTypeService taskTypeService, TaskStatusService taskStatusService,
                           TaskUnAssigmentService taskUnAssigmentService, SubjectProgramEligibilityService subjectProgramEligibilityService, MenuItemService menuItemService, UserSubjectAssignmentService userSubjectAssignmentService,
-                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService) {
+                          ScopedEntityApprovalStatusService scopedEntityApprovalStatusService, DashboardFilterService dashboardFilterService,
+                          SyncEntityChangeDetectionService syncEntityChangeDetectionService) {
         this.environment = environment;
         this.individualService = individualService;
         this.encounterService = encounterService;
@@ -205,6 +206,7 @@ public class SyncController {
         this.userSubjectAssignmentService = userSubjectAssignmentService;
         this.scopedEntityApprovalStatusService = scopedEntityApprovalStatusService;
         this.dashboardFilterService = dashboardFilterService;
+        this.syncEntityChangeDetectionService = syncEntityChangeDetectionService;
         this.logger = LoggerFactory.getLogger(this.getClass());
     }
 
@@ -344,9 +346,9 @@ public class SyncController {
         });
         removeDisabledEntities(clientSyncStatuses, serverSyncableItems);
 
-        return clientSyncStatuses.stream()
-                .filter((entitySyncStatusContract) -> filterChangedEntities(entitySyncStatusContract, scopeAwareEAS))
-                .collect(Collectors.toList());
+        Map<SyncEntityName, NonScopeAwareService> nonScopeAwareServices = new HashMap<>(nonScopeAwareServiceMap);
+        if (scopeAwareEAS) nonScopeAwareServices.remove(EntityApprovalStatus);
+        return syncEntityChangeDetectionService.getChangedEntities(clientSyncStatuses, scopeAwareServiceMap, nonScopeAwareServices);
     }
 
     /**
@@ -385,30 +387,6 @@ public class SyncController {
                 allSyncableItems.stream().noneMatch(entitySyncStatusContract::matchesEntity));
     }
 
-    private boolean filterChangedEntities(EntitySyncStatusContract entitySyncStatusContract, boolean scopeAwareEAS) {
-        String entityName = entitySyncStatusContract.getEntityName();
-        DateTime loadedSince = entitySyncStatusContract.getLoadedSince();
-        if (scopeAwareEAS) nonScopeAwareServiceMap.remove(EntityApprovalStatus);
-
-        if (!SyncEntityName.existsAsEnum(entityName)) {
-            return false;
-        }
-
-        SyncEntityName syncEntityName = valueOf(entityName);
-        ScopeAwareService scopeAwareService = this.scopeAwareServiceMap.get(syncEntityName);
-        NonScopeAwareService nonScopeAwareService = this.nonScopeAwareServiceMap.get(syncEntityName);
-
-        if (nonScopeAwareService != null) {
-            return nonScopeAwareService.isNonScopeEntityChanged(loadedSince);
-        }
-
-        if (scopeAwareService != null) {
-            return scopeAwareService.isScopeEntityChanged(loadedSince, entitySyncStatusContract.getEntityTypeUuid());
-        }
-
-        return false;
-    }
-
     /**
      * This is a hack to fix the problem of missing data when multiple users sync at the same time.
      * During sync, it is possible that the tables being sync GETted are also being updated concurrently.
@@ -0,0 +1,82 @@
+package org.avni.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.avni.server.dao.OperatingIndividualScopeAwareRepository;
+import org.avni.server.dao.SyncParameters;
+import org.avni.server.dao.sync.SyncRowFormat;
+import org.avni.server.domain.CHSEntity;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.web.response.slice.SlicedResourcesStreamWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.persistence.Tuple;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Sync slices written to the response as their rows are read from the database, in the same format as the
+ * {@link org.avni.server.web.response.slice.SlicedResources} of the entities. The response is written after the request
+ * is handled, on another thread, so the rows are read there in a read only transaction of their own, as the user of the
+ * request (whose organisation the database connection is set to). The connection is held until the client has read the
+ * whole slice, so the size of the slices streamed is capped.
+ */
+@Component
+public class SyncResponseStreamer {
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPageSize;
+
+    @Autowired
+    public SyncResponseStreamer(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                @Value("${avni.sync.stream.maxPageSize}") int maxPageSize) {
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @return the pageable with its size capped to the largest slice streamed
+     */
+    public Pageable limitPageSize(Pageable pageable) {
+        if (pageable.getPageSize() <= maxPageSize) return pageable;
+        return PageRequest.of(pageable.getPageNumber(), maxPageSize, pageable.getSort());
+    }
+
+    public <T extends CHSEntity> ResponseEntity<StreamingResponseBody> stream(OperatingIndividualScopeAwareRepository<T> repository,
+                                                                             SyncParameters syncParameters,
+                                                                             SyncRowFormat<T> format,
+                                                                             String rel) {
+        UserContext userContext = UserContextHolder.getUserContext();
+        Pageable pageable = syncParameters.getPageable();
+        SlicedResourcesStreamWriter writer = new SlicedResourcesStreamWriter(objectMapper, format, rel);
+        StreamingResponseBody body = outputStream -> {
+            UserContextHolder.create(userContext);
+            try {
+                transactionTemplate.execute(status -> {
+                    try (Stream<Tuple> rows = repository.getSyncResultsAsTupleStream(syncParameters, format)) {
+                        writer.write(rows.iterator(), pageable.getPageSize(), pageable.getPageNumber(),
+                                syncParameters.isModificationCheckOnEntity(), outputStream);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                });
+            } finally {
+                UserContextHolder.clear();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(body);
+    }
+}
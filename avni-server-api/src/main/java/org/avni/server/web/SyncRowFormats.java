@@ -0,0 +1,57 @@
+package org.avni.server.web;
+
+import org.avni.server.dao.sync.SyncRowFormat;
+import org.avni.server.domain.AbstractEncounter;
+import org.avni.server.domain.Encounter;
+import org.avni.server.domain.EncounterType;
+import org.avni.server.domain.ProgramEncounter;
+
+/**
+ * Formats of the entities streamed by {@link SyncResponseStreamer}, with the fields, embedded entities and links of the
+ * resources of their controllers.
+ */
+public class SyncRowFormats {
+    public static final SyncRowFormat<Encounter> ENCOUNTER = encounter(Encounter.class)
+            .link("encounterTypeUUID", "encounterType")
+            .link("individualUUID", "individual");
+
+    public static final SyncRowFormat<ProgramEncounter> PROGRAM_ENCOUNTER = encounter(ProgramEncounter.class)
+            .link("encounterTypeUUID", "encounterType")
+            .link("programEnrolmentUUID", "programEnrolment");
+
+    private SyncRowFormats() {
+    }
+
+    /**
+     * The encounter type as embedded in an encounter. Its concept is not set for any encounter type (operational
+     * encounter types took its place), and is sent as null.
+     */
+    private static SyncRowFormat<EncounterType> encounterType() {
+        return SyncRowFormat.of(EncounterType.class)
+                .value("organisationId", "organisationId")
+                .value("name", "name")
+                .alwaysNull("concept")
+                .value("encounterEligibilityCheckRule", "encounterEligibilityCheckRule")
+                .json("encounterEligibilityCheckDeclarativeRule", "encounterEligibilityCheckDeclarativeRule")
+                .value("active", "active")
+                .value("immutable", "isImmutable");
+    }
+
+    private static <T extends AbstractEncounter> SyncRowFormat<T> encounter(Class<T> entityClass) {
+        return SyncRowFormat.of(entityClass)
+                .value("organisationId", "organisationId")
+                .value("name", "name")
+                .value("encounterDateTime", "encounterDateTime")
+                .value("earliestVisitDateTime", "earliestVisitDateTime")
+                .value("maxVisitDateTime", "maxVisitDateTime")
+                .value("cancelDateTime", "cancelDateTime")
+                .json("observations", "observations")
+                .json("cancelObservations", "cancelObservations")
+                .value("encounterLocation", "encounterLocation")
+                .value("cancelLocation", "cancelLocation")
+                .value("legacyId", "legacyId")
+                .embedded("encounterType", "encounterType", encounterType())
+                .present("cancelled", "cancelDateTime")
+                .present("completed", "encounterDateTime");
+    }
+}
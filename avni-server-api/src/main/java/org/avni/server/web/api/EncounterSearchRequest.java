@@ -1,6 +1,5 @@
 package org.avni.server.web.api;
 
-import org.avni.server.domain.Concept;
 import org.springframework.data.domain.Pageable;
 
 import java.util.Date;
@@ -11,10 +10,10 @@ public class EncounterSearchRequest {
     private Date now;
     private String encounterType;
     String subjectUUID;
-    private Map<Concept, String> conceptsMap;
+    private Map<String, String> conceptsMap;
     private Pageable pageable;
 
-    public EncounterSearchRequest(Date lastModifiedDateTime, Date now, String encounterType, String subjectUUID, Map<Concept, String> conceptsMap, Pageable pageable) {
+    public EncounterSearchRequest(Date lastModifiedDateTime, Date now, String encounterType, String subjectUUID, Map<String, String> conceptsMap, Pageable pageable) {
         this.lastModifiedDateTime = lastModifiedDateTime;
         this.now = now;
         this.encounterType = encounterType;
@@ -39,7 +38,7 @@ public class EncounterSearchRequest {
         return subjectUUID;
     }
 
-    public Map<Concept, String> getConceptsMap() {
+    public Map<String, String> getConceptsMap() {
         return conceptsMap;
     }
 
@@ -10,10 +10,12 @@ import org.avni.server.geo.Point;
 import org.avni.server.service.ConceptService;
 import org.avni.server.service.EncounterService;
 import org.avni.server.service.MediaObservationService;
+import org.avni.server.service.ResponseBatchService;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.web.request.api.ApiEncounterRequest;
 import org.avni.server.web.request.api.RequestUtils;
 import org.avni.server.web.response.EncounterResponse;
+import org.avni.server.web.response.ResponseBatch;
 import org.avni.server.web.response.ResponsePage;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,9 +50,10 @@ public class GeneralEncounterApiController {
     private final EncounterService encounterService;
     private final MediaObservationService mediaObservationService;
     private final AccessControlService accessControlService;
+    private final ResponseBatchService responseBatchService;
 
     @Autowired
-    public GeneralEncounterApiController(ConceptService conceptService, EncounterRepository encounterRepository, ConceptRepository conceptRepository, IndividualRepository individualRepository, EncounterTypeRepository encounterTypeRepository, EncounterService encounterService, MediaObservationService mediaObservationService, AccessControlService accessControlService) {
+    public GeneralEncounterApiController(ConceptService conceptService, EncounterRepository encounterRepository, ConceptRepository conceptRepository, IndividualRepository individualRepository, EncounterTypeRepository encounterTypeRepository, EncounterService encounterService, MediaObservationService mediaObservationService, AccessControlService accessControlService, ResponseBatchService responseBatchService) {
         this.conceptService = conceptService;
         this.encounterRepository = encounterRepository;
         this.conceptRepository = conceptRepository;
@@ -59,6 +62,7 @@ public class GeneralEncounterApiController {
         this.encounterService = encounterService;
         this.mediaObservationService = mediaObservationService;
         this.accessControlService = accessControlService;
+        this.responseBatchService = responseBatchService;
     }
 
     @RequestMapping(value = "/api/encounters", method = RequestMethod.GET)
@@ -70,15 +74,16 @@ public class GeneralEncounterApiController {
                                       @RequestParam(value = "concepts", required = false) String concepts,
                                       Pageable pageable) {
         Page<Encounter> encounters;
-        Map<Concept, String> conceptsMap = conceptService.readConceptsFromJsonObject(concepts);
+        Map<String, String> conceptsMap = conceptService.readConceptsFromJsonObject(concepts);
 
         EncounterSearchRequest encounterSearchRequest = new EncounterSearchRequest(CHSEntity.toDate(lastModifiedDateTime), CHSEntity.toDate(now), encounterType, subjectUUID, conceptsMap, pageable);
 
         encounters = encounterService.search(encounterSearchRequest);
 
+        ResponseBatch batch = responseBatchService.forEncounters(encounters.getContent());
         ArrayList<EncounterResponse> encounterResponses = new ArrayList<>();
         encounters.forEach(encounter -> {
-            encounterResponses.add(EncounterResponse.fromEncounter(encounter, conceptRepository, conceptService));
+            encounterResponses.add(EncounterResponse.fromEncounter(encounter, batch));
         });
         accessControlService.checkEncounterPrivileges(PrivilegeType.ViewVisit, encounters.getContent());
         return new ResponsePage(encounterResponses, encounters.getNumberOfElements(), encounters.getTotalPages(), encounters.getSize());
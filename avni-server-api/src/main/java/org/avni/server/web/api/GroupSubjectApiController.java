@@ -1,15 +1,15 @@
 package org.avni.server.web.api;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.dao.GroupSubjectRepository;
 import org.avni.server.domain.GroupSubject;
+import org.avni.server.domain.Individual;
 import org.avni.server.domain.accessControl.PrivilegeType;
-import org.avni.server.service.ConceptService;
-import org.avni.server.service.S3Service;
+import org.avni.server.service.ResponseBatchService;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.util.S;
 import org.avni.server.web.response.GroupSubjectResponse;
 import org.avni.server.web.response.ResponsePage;
+import org.avni.server.web.response.SubjectResponseBatch;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -24,25 +24,22 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @RestController
 public class GroupSubjectApiController {
 
     private final GroupSubjectRepository groupSubjectRepository;
-    private final ConceptRepository conceptRepository;
-    private final ConceptService conceptService;
-    private final S3Service s3Service;
     private final AccessControlService accessControlService;
+    private final ResponseBatchService responseBatchService;
 
     @Autowired
-    public GroupSubjectApiController(GroupSubjectRepository groupSubjectRepository,
-                                     ConceptRepository conceptRepository, ConceptService conceptService,
-                                     S3Service s3Service, AccessControlService accessControlService) {
+    public GroupSubjectApiController(GroupSubjectRepository groupSubjectRepository, AccessControlService accessControlService,
+                                     ResponseBatchService responseBatchService) {
         this.groupSubjectRepository = groupSubjectRepository;
-        this.conceptRepository = conceptRepository;
-        this.conceptService = conceptService;
-        this.s3Service = s3Service;
         this.accessControlService = accessControlService;
+        this.responseBatchService = responseBatchService;
     }
 
     @RequestMapping(value = "/api/groupSubjects", method = RequestMethod.GET)
@@ -63,9 +60,14 @@ public class GroupSubjectApiController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         accessControlService.checkGroupSubjectPrivileges(PrivilegeType.ViewSubject, groupSubjects.getContent());
+        Map<Long, Individual> subjects = new LinkedHashMap<>();
+        groupSubjects.forEach(groupSubject -> {
+            subjects.putIfAbsent(groupSubject.getGroupSubject().getId(), groupSubject.getGroupSubject());
+            subjects.putIfAbsent(groupSubject.getMemberSubject().getId(), groupSubject.getMemberSubject());
+        });
+        SubjectResponseBatch batch = responseBatchService.forSubjects(new ArrayList<>(subjects.values()));
         ArrayList<GroupSubjectResponse> groupSubjectResponses = new ArrayList<>();
-        groupSubjects.forEach(groupSubject -> groupSubjectResponses.add(GroupSubjectResponse.fromGroupSubject(groupSubject, conceptRepository, conceptService, s3Service)));
+        groupSubjects.forEach(groupSubject -> groupSubjectResponses.add(GroupSubjectResponse.fromGroupSubject(groupSubject, batch)));
         return new ResponsePage(groupSubjectResponses, groupSubjects.getNumberOfElements(), groupSubjects.getTotalPages(), groupSubjects.getSize());
     }
-
 }
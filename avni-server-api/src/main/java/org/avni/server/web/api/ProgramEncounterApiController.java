@@ -8,10 +8,12 @@ import org.avni.server.domain.*;
 import org.avni.server.domain.accessControl.PrivilegeType;
 import org.avni.server.service.MediaObservationService;
 import org.avni.server.service.ProgramEncounterService;
+import org.avni.server.service.ResponseBatchService;
 import org.avni.server.service.accessControl.AccessControlService;
 import org.avni.server.web.request.api.ApiProgramEncounterRequest;
 import org.avni.server.web.request.api.RequestUtils;
 import org.avni.server.web.response.EncounterResponse;
+import org.avni.server.web.response.ResponseBatch;
 import org.avni.server.web.response.ResponsePage;
 import org.joda.time.DateTime;
 import org.avni.server.service.ConceptService;
@@ -41,9 +43,10 @@ public class ProgramEncounterApiController {
     private final ProgramEncounterService programEncounterService;
     private final MediaObservationService mediaObservationService;
     private final AccessControlService accessControlService;
+    private final ResponseBatchService responseBatchService;
 
     @Autowired
-    public ProgramEncounterApiController(ProgramEncounterRepository programEncounterRepository, ConceptRepository conceptRepository, ConceptService conceptService, ProgramEnrolmentRepository programEnrolmentRepository, EncounterTypeRepository encounterTypeRepository, ProgramEncounterService programEncounterService, MediaObservationService mediaObservationService, AccessControlService accessControlService) {
+    public ProgramEncounterApiController(ProgramEncounterRepository programEncounterRepository, ConceptRepository conceptRepository, ConceptService conceptService, ProgramEnrolmentRepository programEnrolmentRepository, EncounterTypeRepository encounterTypeRepository, ProgramEncounterService programEncounterService, MediaObservationService mediaObservationService, AccessControlService accessControlService, ResponseBatchService responseBatchService) {
         this.programEncounterRepository = programEncounterRepository;
         this.conceptRepository = conceptRepository;
         this.conceptService = conceptService;
@@ -52,6 +55,7 @@ public class ProgramEncounterApiController {
         this.programEncounterService = programEncounterService;
         this.mediaObservationService = mediaObservationService;
         this.accessControlService = accessControlService;
+        this.responseBatchService = responseBatchService;
     }
 
     @RequestMapping(value = "/api/programEncounters", method = RequestMethod.GET)
@@ -64,9 +68,10 @@ public class ProgramEncounterApiController {
                                       Pageable pageable) {
         Page<ProgramEncounter> programEncounters = programEncounterRepository.search(createSearchParams(lastModifiedDateTime, now, encounterType, concepts, programEnrolmentUuid), pageable);
 
+        ResponseBatch batch = responseBatchService.forEncounters(programEncounters.getContent());
         ArrayList<EncounterResponse> programEncounterResponses = new ArrayList<>();
         programEncounters.forEach(programEncounter -> {
-            programEncounterResponses.add(EncounterResponse.fromProgramEncounter(programEncounter, conceptRepository, conceptService));
+            programEncounterResponses.add(EncounterResponse.fromProgramEncounter(programEncounter, batch));
         });
         accessControlService.checkProgramEncounterPrivileges(PrivilegeType.ViewVisit, programEncounters.getContent());
         return new ResponsePage(programEncounterResponses, programEncounters.getNumberOfElements(), programEncounters.getTotalPages(), programEncounters.getSize());
@@ -80,7 +85,7 @@ public class ProgramEncounterApiController {
         if (!S.isEmpty(encounterTypeStr)) {
             encounterType = encounterTypeRepository.findByName(encounterTypeStr);
         }
-        Map<Concept, String> conceptsMap = conceptService.readConceptsFromJsonObject(concepts);
+        Map<String, String> conceptsMap = conceptService.readConceptsFromJsonObject(concepts);
         ProgramEnrolment programEnrolment = null;
         if (!S.isEmpty(programEnrolmentUuid)) {
             programEnrolment = programEnrolmentRepository.findByUuid(programEnrolmentUuid);
@@ -12,6 +12,7 @@ import org.avni.server.web.request.api.ApiSubjectRequest;
 import org.avni.server.web.request.api.RequestUtils;
 import org.avni.server.web.response.ResponsePage;
 import org.avni.server.web.response.SubjectResponse;
+import org.avni.server.web.response.SubjectResponseBatch;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +28,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.avni.server.web.request.api.ApiSubjectRequest.*;
 
@@ -36,37 +36,35 @@ public class SubjectApiController {
     private final ConceptService conceptService;
     private final IndividualRepository individualRepository;
     private final ConceptRepository conceptRepository;
-    private final GroupSubjectRepository groupSubjectRepository;
     private final LocationService locationService;
     private final SubjectTypeRepository subjectTypeRepository;
     private final LocationRepository locationRepository;
     private final GenderRepository genderRepository;
     private final SubjectMigrationService subjectMigrationService;
     private final IndividualService individualService;
-    private final S3Service s3Service;
     private final MediaObservationService mediaObservationService;
     private final AccessControlService accessControlService;
+    private final ResponseBatchService responseBatchService;
 
     @Autowired
     public SubjectApiController(ConceptService conceptService, IndividualRepository individualRepository,
-                                ConceptRepository conceptRepository, GroupSubjectRepository groupSubjectRepository,
-                                LocationService locationService, SubjectTypeRepository subjectTypeRepository,
-                                LocationRepository locationRepository, GenderRepository genderRepository,
-                                SubjectMigrationService subjectMigrationService, IndividualService individualService,
-                                S3Service s3Service, MediaObservationService mediaObservationService, AccessControlService accessControlService) {
+                                ConceptRepository conceptRepository, LocationService locationService,
+                                SubjectTypeRepository subjectTypeRepository, LocationRepository locationRepository,
+                                GenderRepository genderRepository, SubjectMigrationService subjectMigrationService,
+                                IndividualService individualService, MediaObservationService mediaObservationService,
+                                AccessControlService accessControlService, ResponseBatchService responseBatchService) {
         this.conceptService = conceptService;
         this.individualRepository = individualRepository;
         this.conceptRepository = conceptRepository;
-        this.groupSubjectRepository = groupSubjectRepository;
         this.locationService = locationService;
         this.subjectTypeRepository = subjectTypeRepository;
         this.locationRepository = locationRepository;
         this.genderRepository = genderRepository;
         this.subjectMigrationService = subjectMigrationService;
         this.individualService = individualService;
-        this.s3Service = s3Service;
         this.mediaObservationService = mediaObservationService;
         this.accessControlService = accessControlService;
+        this.responseBatchService = responseBatchService;
     }
 
     @RequestMapping(value = "/api/subjects", method = RequestMethod.GET)
@@ -80,14 +78,14 @@ public class SubjectApiController {
         Page<Individual> subjects;
         boolean subjectTypeRequested = S.isEmpty(subjectType);
         List<Long> allLocationIds = locationService.getAllWithChildrenForUUIDs(locationUUIDs);
-        Map<Concept, String> conceptsMap = conceptService.readConceptsFromJsonObject(concepts);
+        Map<String, String> conceptsMap = conceptService.readConceptsFromJsonObject(concepts);
         subjects = subjectTypeRequested ?
                 individualRepository.findByConcepts(CHSEntity.toDate(lastModifiedDateTime), CHSEntity.toDate(now), conceptsMap, allLocationIds, pageable) :
                 individualRepository.findByConceptsAndSubjectType(CHSEntity.toDate(lastModifiedDateTime), CHSEntity.toDate(now), conceptsMap, subjectType, allLocationIds, pageable);
-        List<GroupSubject> groupsOfAllMemberSubjects = groupSubjectRepository.findAllByMemberSubjectIn(subjects.getContent());
+        SubjectResponseBatch batch = responseBatchService.forSubjects(subjects.getContent());
         ArrayList<SubjectResponse> subjectResponses = new ArrayList<>();
         subjects.forEach(subject -> {
-            subjectResponses.add(SubjectResponse.fromSubject(subject, subjectTypeRequested, conceptRepository, conceptService, findGroupAffiliation(subject, groupsOfAllMemberSubjects), s3Service));
+            subjectResponses.add(SubjectResponse.fromSubject(subject, subjectTypeRequested, batch));
         });
         accessControlService.checkSubjectPrivileges(PrivilegeType.ViewSubject, subjects.getContent());
         return new ResponsePage(subjectResponses, subjects.getNumberOfElements(), subjects.getTotalPages(), subjects.getSize());
@@ -102,8 +100,7 @@ public class SubjectApiController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 
         accessControlService.checkSubjectPrivilege(PrivilegeType.ViewSubject, subject.getSubjectType());
-        List<GroupSubject> groupsOfAllMemberSubjects = groupSubjectRepository.findAllByMemberSubjectIn(Collections.singletonList(subject));
-        return new ResponseEntity<>(SubjectResponse.fromSubject(subject, true, conceptRepository, conceptService, groupsOfAllMemberSubjects, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(subject, true, responseBatchService.forSubjects(Collections.singletonList(subject))), HttpStatus.OK);
     }
 
     @PostMapping(value = "/api/subject")
@@ -124,7 +121,7 @@ public class SubjectApiController {
         }
         mediaObservationService.processMediaObservations(subject.getObservations());
         Individual savedIndividual = individualService.save(subject);
-        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, true, conceptRepository, conceptService, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, true, responseBatchService.forSubjects(Collections.singletonList(savedIndividual))), HttpStatus.OK);
     }
 
     @PutMapping(value = "/api/subject/{id}")
@@ -163,7 +160,7 @@ public class SubjectApiController {
         Set<String> observationKeys = request.containsKey(OBSERVATIONS) ? ((Map<String, Object>) request.get(OBSERVATIONS)).keySet() : new HashSet<>();
         mediaObservationService.patchMediaObservations(subject.getObservations(), observationKeys);
         Individual savedIndividual = individualService.save(subject);
-        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, true, conceptRepository, conceptService, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(savedIndividual, true, responseBatchService.forSubjects(Collections.singletonList(savedIndividual))), HttpStatus.OK);
     }
 
     @DeleteMapping(value = "/api/subject/{id}")
@@ -175,10 +172,9 @@ public class SubjectApiController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 
         accessControlService.checkSubjectPrivilege(PrivilegeType.VoidSubject, subject);
-        List<GroupSubject> groupsOfAllMemberSubjects = groupSubjectRepository.findAllByMemberSubjectIn(Collections.singletonList(subject));
+        SubjectResponseBatch batch = responseBatchService.forSubjects(Collections.singletonList(subject));
         subject = individualService.voidSubject(subject);
-        return new ResponseEntity<>(SubjectResponse.fromSubject(subject,
-                true, conceptRepository, conceptService, groupsOfAllMemberSubjects, s3Service), HttpStatus.OK);
+        return new ResponseEntity<>(SubjectResponse.fromSubject(subject, true, batch), HttpStatus.OK);
     }
 
     private void updateSubjectDetails(Individual subject, ApiSubjectRequest request) throws ValidationException {
@@ -293,10 +289,6 @@ public class SubjectApiController {
         subject.validate();
     }
 
-    private List<GroupSubject> findGroupAffiliation(Individual subject, List<GroupSubject> groupSubjects) {
-        return groupSubjects.stream().filter(groupSubject -> groupSubject.getMemberSubject().equals(subject)).collect(Collectors.toList());
-    }
-
     private Individual getOrCreateSubject(String externalId) {
         if (StringUtils.hasLength(externalId)) {
             Individual individual = individualRepository.findByLegacyId(externalId.trim());
@@ -116,7 +116,7 @@ public class TaskApiController {
                                  @RequestParam(value = "isTerminalStatus") boolean isTerminalStatus,
                                  @RequestParam(value = "metadata") String metadataConcepts,
                                  Pageable pageable) {
-        Map<Concept, String> conceptsMap = conceptService.readConceptsFromJsonObject(metadataConcepts);
+        Map<String, String> conceptsMap = conceptService.readConceptsFromJsonObject(metadataConcepts);
         Page<Task> tasks = taskRepository.findByTaskTypeMetadataAndTaskStatus(type, isTerminalStatus, conceptsMap, pageable);
         ArrayList<ApiTaskResponse> taskResponses = new ArrayList<>();
         tasks.forEach(task -> taskResponses.add(ApiTaskResponse.fromTask(task, conceptRepository, conceptService)));
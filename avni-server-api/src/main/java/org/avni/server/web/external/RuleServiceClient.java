@@ -1,34 +1,123 @@
 package org.avni.server.web.external;
 
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.avni.server.domain.UserContext;
 import org.avni.server.framework.security.AuthenticationFilter;
 import org.avni.server.framework.security.UserContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls the node rule server over a pool of keep-alive connections. The number of calls in flight is limited, so that
+ * a slow rule server holds up at most that many request threads; callers beyond it wait up to
+ * avni.ruleServer.acquireTimeoutMillis and are then rejected. Calls time out after avni.ruleServer.readTimeoutMillis. The
+ * message converters are those of a plain RestTemplate, as before pooling, not the Jackson set up of the application.
+ * Latency of calls is logged per api at an interval.
+ */
 @Service
 public class RuleServiceClient {
     @Value("${node.server.url}")
     private String NODE_SERVER_HOST;
     private Logger logger = LoggerFactory.getLogger(RuleServiceClient.class);
 
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final Semaphore callPermits;
+    private final long acquireTimeoutMillis;
+    private final Map<String, CallStats> callStats = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RuleServiceClient(@Value("${avni.ruleServer.maxConnections}") int maxConnections,
+                             @Value("${avni.ruleServer.maxConcurrentCalls}") int maxConcurrentCalls,
+                             @Value("${avni.ruleServer.connectTimeoutMillis}") int connectTimeoutMillis,
+                             @Value("${avni.ruleServer.readTimeoutMillis}") int readTimeoutMillis,
+                             @Value("${avni.ruleServer.acquireTimeoutMillis}") long acquireTimeoutMillis) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictIdleConnections(60, TimeUnit.SECONDS)
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout(connectTimeoutMillis);
+        requestFactory.setConnectionRequestTimeout(connectTimeoutMillis);
+        requestFactory.setReadTimeout(readTimeoutMillis);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.callPermits = new Semaphore(maxConcurrentCalls);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
     public <T> String post(String api, T jsonObj) throws HttpClientErrorException {
         String uri = NODE_SERVER_HOST.concat(api);
-        RestTemplate restTemplate = new RestTemplate();
         HttpEntity<Object> entityCredentials = new HttpEntity<>(jsonObj, constructHeaders());
+        CallStats stats = callStats.computeIfAbsent(api, key -> new CallStats());
+        acquirePermit(api, stats);
+        long start = System.currentTimeMillis();
+        boolean failed = true;
         try {
-            return restTemplate.postForObject(uri, entityCredentials, String.class);
+            String response = restTemplate.postForObject(uri, entityCredentials, String.class);
+            failed = false;
+            return response;
         } catch (HttpClientErrorException e) {
             logger.info("rule " + api + " not found");
             throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "rule " + api + " not found");
+        } finally {
+            callPermits.release();
+            stats.record(System.currentTimeMillis() - start, failed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${avni.ruleServer.metricsLogIntervalMillis}", initialDelayString = "${avni.ruleServer.metricsLogIntervalMillis}")
+    public void logCallStats() {
+        callStats.forEach((api, stats) -> {
+            String summary = stats.summariseAndReset();
+            if (summary != null) logger.info(String.format("Rule server calls to %s: %s", api, summary));
+        });
+    }
+
+    private void acquirePermit(String api, CallStats stats) {
+        boolean acquired;
+        try {
+            acquired = callPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            stats.rejected.increment();
+            logger.warn(String.format("Rejecting rule server call to %s, all calls permitted are in progress", api));
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE, "rule server busy, rejected call to " + api);
         }
     }
 
@@ -48,4 +137,30 @@ public class RuleServiceClient {
             httpHeaders.add(AuthenticationFilter.AUTH_TOKEN_HEADER, authToken);
         return httpHeaders;
     }
+
+    private static class CallStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Long::max, 0);
+
+        private void record(long millis, boolean failed) {
+            calls.increment();
+            totalMillis.add(millis);
+            maxMillis.accumulate(millis);
+            if (failed) failures.increment();
+        }
+
+        private String summariseAndReset() {
+            long callCount = calls.sumThenReset();
+            long rejectedCount = rejected.sumThenReset();
+            long total = totalMillis.sumThenReset();
+            long max = maxMillis.getThenReset();
+            long failureCount = failures.sumThenReset();
+            if (callCount == 0 && rejectedCount == 0) return null;
+            return String.format("calls: %d, failed: %d, rejected: %d, average: %d ms, max: %d ms",
+                    callCount, failureCount, rejectedCount, callCount == 0 ? 0 : total / callCount, max);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import org.avni.server.application.KeyValues;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptAnswer;
 import org.avni.server.domain.ConceptDataType;
+import org.avni.server.domain.ConceptDictionary;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -53,6 +54,30 @@ public class ConceptContract extends ReferenceDataContract {
         return conceptContract;
     }
 
+    public static ConceptContract create(ConceptDictionary conceptDictionary, ConceptDictionary.Entry concept) {
+        ConceptContract conceptContract = new ConceptContract();
+        conceptContract.setUuid(concept.getUuid());
+        conceptContract.setName(concept.getName());
+        conceptContract.setDataType(concept.getDataType());
+        conceptContract.setVoided(concept.isVoided());
+        conceptContract.setActive(concept.getActive());
+        conceptContract.setKeyValues(concept.getKeyValues());
+        conceptContract.setLowAbsolute(concept.getLowAbsolute());
+        conceptContract.setLowNormal(concept.getLowNormal());
+        conceptContract.setHighAbsolute(concept.getHighAbsolute());
+        conceptContract.setHighNormal(concept.getHighNormal());
+        List<ConceptContract> answerConceptContracts = concept.getAnswers().stream()
+                .map((ConceptDictionary.Answer answer) -> {
+                    ConceptContract answerConceptContract = ConceptContract.create(conceptDictionary, conceptDictionary.findByUuid(answer.getAnswerConceptUuid()));
+                    answerConceptContract.setOrder(answer.getOrder());
+                    answerConceptContract.setAbnormal(answer.isAbnormal());
+                    answerConceptContract.setUnique(answer.isUnique());
+                    return answerConceptContract;
+                }).collect(Collectors.toList());
+        conceptContract.setAnswers(answerConceptContracts);
+        return conceptContract;
+    }
+
     public static ConceptContract createForSearchResult(Concept concept) {
         ConceptContract conceptContract = new ConceptContract();
         conceptContract.setUuid(concept.getUuid());
@@ -6,12 +6,17 @@ import org.avni.server.domain.Encounter;
 import org.avni.server.domain.ProgramEncounter;
 import org.avni.server.service.ConceptService;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 
 import static org.avni.server.web.api.CommonFieldNames.*;
 
 public class EncounterResponse extends LinkedHashMap<String, Object> {
     public static EncounterResponse fromProgramEncounter(ProgramEncounter encounter, ConceptRepository conceptRepository, ConceptService conceptService) {
+        return fromProgramEncounter(encounter, batchOf(encounter, conceptService));
+    }
+
+    public static EncounterResponse fromProgramEncounter(ProgramEncounter encounter, ResponseBatch batch) {
         EncounterResponse encounterResponse = new EncounterResponse();
         encounterResponse.put(ID, encounter.getUuid());
         encounterResponse.put("Subject ID", encounter.getProgramEnrolment().getIndividual().getUuid());
@@ -20,10 +25,10 @@ public class EncounterResponse extends LinkedHashMap<String, Object> {
         encounterResponse.put("Subject external ID", encounter.getProgramEnrolment().getIndividual().getLegacyId());
         encounterResponse.put("Enrolment external ID", encounter.getProgramEnrolment().getLegacyId());
         encounterResponse.put("Program", encounter.getProgramEnrolment().getProgram().getName());
-        return fromBaseEncounter(encounterResponse, encounter, conceptRepository, conceptService);
+        return fromBaseEncounter(encounterResponse, encounter, batch);
     }
 
-    private static EncounterResponse fromBaseEncounter(EncounterResponse encounterResponse, AbstractEncounter encounter, ConceptRepository conceptRepository, ConceptService conceptService) {
+    private static EncounterResponse fromBaseEncounter(EncounterResponse encounterResponse, AbstractEncounter encounter, ResponseBatch batch) {
         encounterResponse.put(VOIDED, encounter.isVoided());
         encounterResponse.put("External ID", encounter.getLegacyId());
         encounterResponse.put("Encounter type", encounter.getEncounterType().getName());
@@ -31,20 +36,28 @@ public class EncounterResponse extends LinkedHashMap<String, Object> {
         encounterResponse.put("Encounter date time", encounter.getEncounterDateTime());
         encounterResponse.put("Earliest scheduled date", encounter.getEarliestVisitDateTime());
         encounterResponse.put("Max scheduled date", encounter.getMaxVisitDateTime());
-        Response.putObservations(conceptRepository, conceptService, encounterResponse, new LinkedHashMap<>(), encounter.getObservations());
+        batch.putObservations(encounterResponse, new LinkedHashMap<>(), encounter.getObservations());
         Response.putIfPresent(encounterResponse, "Cancel location", encounter.getCancelLocation());
         encounterResponse.put("Cancel date time", encounter.getCancelDateTime());
-        Response.putObservations(conceptRepository, conceptService, encounterResponse, new LinkedHashMap<>(), encounter.getCancelObservations(), "cancelObservations");
+        batch.putObservations(encounterResponse, new LinkedHashMap<>(), encounter.getCancelObservations(), "cancelObservations");
         Response.putAudit(encounter, encounterResponse);
         return encounterResponse;
     }
 
     public static EncounterResponse fromEncounter(Encounter encounter, ConceptRepository conceptRepository, ConceptService conceptService) {
+        return fromEncounter(encounter, batchOf(encounter, conceptService));
+    }
+
+    public static EncounterResponse fromEncounter(Encounter encounter, ResponseBatch batch) {
         EncounterResponse encounterResponse = new EncounterResponse();
         encounterResponse.put(ID, encounter.getUuid());
         encounterResponse.put("Subject ID", encounter.getIndividual().getUuid());
         encounterResponse.put("Subject external ID", encounter.getIndividual().getLegacyId());
         encounterResponse.put("Subject type", encounter.getIndividual().getSubjectType().getName());
-        return fromBaseEncounter(encounterResponse, encounter, conceptRepository, conceptService);
+        return fromBaseEncounter(encounterResponse, encounter, batch);
+    }
+
+    private static ResponseBatch batchOf(AbstractEncounter encounter, ConceptService conceptService) {
+        return ResponseBatch.of(conceptService, Arrays.asList(encounter.getObservations(), encounter.getCancelObservations()));
     }
 }
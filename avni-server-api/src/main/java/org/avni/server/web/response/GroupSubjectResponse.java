@@ -1,18 +1,18 @@
 package org.avni.server.web.response;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.GroupSubject;
-import org.avni.server.service.ConceptService;
-import org.avni.server.service.S3Service;
 
 import java.util.LinkedHashMap;
 
 public class GroupSubjectResponse extends LinkedHashMap<String, Object> {
 
-    public static GroupSubjectResponse fromGroupSubject(GroupSubject groupSubject, ConceptRepository conceptRepository, ConceptService conceptService, S3Service s3Service) {
+    /**
+     * @param batch of the group and member subjects of the page of group subjects
+     */
+    public static GroupSubjectResponse fromGroupSubject(GroupSubject groupSubject, SubjectResponseBatch batch) {
         GroupSubjectResponse groupSubjectResponse = new GroupSubjectResponse();
-        groupSubjectResponse.put("Group subject", SubjectResponse.fromSubject(groupSubject.getGroupSubject(), true, conceptRepository, conceptService, s3Service));
-        groupSubjectResponse.put("Member subject", SubjectResponse.fromSubject(groupSubject.getMemberSubject(), true, conceptRepository, conceptService, s3Service));
+        groupSubjectResponse.put("Group subject", SubjectResponse.fromSubject(groupSubject.getGroupSubject(), true, batch));
+        groupSubjectResponse.put("Member subject", SubjectResponse.fromSubject(groupSubject.getMemberSubject(), true, batch));
         groupSubjectResponse.put("Voided", groupSubject.isVoided());
         groupSubjectResponse.put("Membership start date", groupSubject.getMembershipStartDate());
         groupSubjectResponse.put("Membership end date", groupSubject.getMembershipEndDate());
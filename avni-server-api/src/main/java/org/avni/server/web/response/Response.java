@@ -1,12 +1,11 @@
 package org.avni.server.web.response;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.CHSBaseEntity;
 import org.avni.server.domain.CHSEntity;
+import org.avni.server.domain.ConceptDictionary;
 import org.avni.server.domain.ObservationCollection;
 import org.avni.server.service.ConceptService;
-import org.avni.server.util.ObjectMapperSingleton;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,16 +22,9 @@ public class Response {
     }
 
     public static void mapObservations(ConceptRepository conceptRepository, ConceptService conceptService, Map<String, Object> observationsResponse, ObservationCollection observations) {
-        ObservationCollection obs = Optional.ofNullable(observations).orElse(new ObservationCollection());
-        String stringObservations;
-        try {
-            stringObservations = ObjectMapperSingleton.getObjectMapper().writeValueAsString(obs);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(String.format("Error while processing observation %s", obs.toString()));
-        }
-        List<Map<String, String>> conceptMaps = conceptRepository.getConceptUuidToNameMapList(stringObservations);
-        Map<String, String> conceptMap = conceptMaps.stream().collect(Collectors.toMap(s -> s.get("uuid"), s -> s.get("name")));
-        obs.forEach((key, value) -> observationsResponse.put(conceptMap.get(key), conceptService.getObservationValue(conceptMap, value)));
+        if (observations == null || observations.isEmpty()) return;
+        ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
+        observations.forEach((key, value) -> observationsResponse.put(conceptDictionary.getName(key), conceptService.getObservationValue(conceptDictionary, value)));
     }
 
     static void putObservations(ConceptRepository conceptRepository, ConceptService conceptService, Map<String, Object> parentMap, LinkedHashMap<String, Object> observationsResponse, ObservationCollection observations) {
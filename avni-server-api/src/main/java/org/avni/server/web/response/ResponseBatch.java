@@ -0,0 +1,46 @@
+package org.avni.server.web.response;
+
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.ConceptDictionary;
+import org.avni.server.domain.ObservationCollection;
+import org.avni.server.service.ConceptService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the responses of a page of entities need besides the entities, read for the whole page at once. The concept dictionary
+ * and the locations that observation values could be are read once for the page, instead of for every observation.
+ */
+public class ResponseBatch {
+    private final ConceptService conceptService;
+    private final ConceptDictionary conceptDictionary;
+    private final Map<String, AddressLevel> observationLocations;
+
+    public ResponseBatch(ConceptService conceptService, ConceptDictionary conceptDictionary, Map<String, AddressLevel> observationLocations) {
+        this.conceptService = conceptService;
+        this.conceptDictionary = conceptDictionary;
+        this.observationLocations = observationLocations;
+    }
+
+    public static ResponseBatch of(ConceptService conceptService, List<ObservationCollection> observations) {
+        ConceptDictionary conceptDictionary = conceptService.getConceptDictionary();
+        return new ResponseBatch(conceptService, conceptDictionary, conceptService.findLocationsOfObservationValues(conceptDictionary.getUuidToName(), observations));
+    }
+
+    public void putObservations(Map<String, Object> parentMap, LinkedHashMap<String, Object> observationsResponse, ObservationCollection observations, String observationsResponseKeyName) {
+        mapObservations(observationsResponse, observations);
+        parentMap.put(observationsResponseKeyName, observationsResponse);
+    }
+
+    public void putObservations(Map<String, Object> parentMap, LinkedHashMap<String, Object> observationsResponse, ObservationCollection observations) {
+        putObservations(parentMap, observationsResponse, observations, "observations");
+    }
+
+    public void mapObservations(Map<String, Object> observationsResponse, ObservationCollection observations) {
+        if (observations == null || observations.isEmpty()) return;
+        observations.forEach((key, value) -> observationsResponse.put(conceptDictionary.getName(key),
+                conceptService.getObservationValue(conceptDictionary, observationLocations::get, value)));
+    }
+}
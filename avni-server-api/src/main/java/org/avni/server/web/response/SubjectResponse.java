@@ -1,12 +1,9 @@
 package org.avni.server.web.response;
 
-import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.AddressLevel;
 import org.avni.server.domain.Catchment;
 import org.avni.server.domain.GroupSubject;
 import org.avni.server.domain.Individual;
-import org.avni.server.service.ConceptService;
-import org.avni.server.service.S3Service;
 import org.jadira.usertype.spi.utils.lang.StringUtils;
 import org.springframework.util.CollectionUtils;
 
@@ -19,8 +16,27 @@ public class SubjectResponse extends LinkedHashMap<String, Object> {
 
     public static final String LOCATION_EXTERNAL_ID_DELIMITER = " ";
 
-    public static SubjectResponse fromSubject(Individual subject, boolean includeSubjectType, ConceptRepository conceptRepository, ConceptService conceptService, S3Service s3Service) {
+    /**
+     * @param batch of the page of subjects, or of the subject alone ({@link org.avni.server.service.ResponseBatchService#forSubjects})
+     */
+    public static SubjectResponse fromSubject(Individual subject, boolean includeSubjectType, SubjectResponseBatch batch) {
         SubjectResponse subjectResponse = new SubjectResponse();
+        putSubject(subject, includeSubjectType, subjectResponse);
+
+        LinkedHashMap<String, Object> observations = new LinkedHashMap<>();
+        putNameAndProfile(subject, observations, hasProfilePicture(subject) ? batch.getProfilePictureUrl(subject) : null);
+        batch.putObservations(subjectResponse, observations, subject.getObservations());
+
+        subjectResponse.put("encounters", new ArrayList<>(batch.getEncounterUuids(subject)));
+        subjectResponse.put("enrolments", new ArrayList<>(batch.getEnrolmentUuids(subject)));
+
+        Response.putAudit(subject, subjectResponse);
+
+        subjectResponse.put("Groups", batch.getGroups(subject).stream().map(GroupSubject::getGroupSubjectUUID));
+        return subjectResponse;
+    }
+
+    private static void putSubject(Individual subject, boolean includeSubjectType, SubjectResponse subjectResponse) {
         if (includeSubjectType) subjectResponse.put("Subject type", subject.getSubjectType().getName());
         subjectResponse.put("ID", subject.getUuid());
         subjectResponse.put("External ID", subject.getLegacyId());
@@ -30,27 +46,21 @@ public class SubjectResponse extends LinkedHashMap<String, Object> {
         putLocation(subject, subjectResponse);
         putRelatives(subject, subjectResponse);
         putCatchments(subject,subjectResponse);
+    }
 
-        LinkedHashMap<String, Object> observations = new LinkedHashMap<>();
+    private static boolean hasProfilePicture(Individual subject) {
+        return subject.getSubjectType().isAllowProfilePicture() && StringUtils.isNotEmpty(subject.getProfilePicture());
+    }
+
+    private static void putNameAndProfile(Individual subject, LinkedHashMap<String, Object> observations, URL profilePictureUrl) {
         Response.putIfPresent(observations, "First name", subject.getFirstName());
         if (subject.getSubjectType().isAllowMiddleName())
             Response.putIfPresent(observations, "Middle name", subject.getMiddleName());
         Response.putIfPresent(observations, "Last name", subject.getLastName());
-        if (subject.getSubjectType().isAllowProfilePicture()
-                && StringUtils.isNotEmpty(subject.getProfilePicture())) {
-            URL url = s3Service.generateMediaDownloadUrl(subject.getProfilePicture());
-            observations.put("Profile picture", url.toString());
-        }
+        if (profilePictureUrl != null)
+            observations.put("Profile picture", profilePictureUrl.toString());
         Response.putIfPresent(observations, "Date of birth", subject.getDateOfBirth());
         if (subject.getGender() != null) observations.put("Gender", subject.getGender().getName());
-        Response.putObservations(conceptRepository, conceptService, subjectResponse, observations, subject.getObservations());
-
-        Response.putChildren(subjectResponse, "encounters", new HashSet<>(subject.getEncounters()));
-        Response.putChildren(subjectResponse, "enrolments", new HashSet<>(subject.getProgramEnrolments()));
-
-        Response.putAudit(subject, subjectResponse);
-
-        return subjectResponse;
     }
 
     private static void putRelatives(Individual subject, SubjectResponse subjectResponse) {
@@ -90,10 +100,4 @@ public class SubjectResponse extends LinkedHashMap<String, Object> {
         map.put(addressLevel.getTypeString(), addressLevel.getTitle());
         map.put(String.join(LOCATION_EXTERNAL_ID_DELIMITER, addressLevel.getTypeString(), EXTERNAL_ID), addressLevel.getLegacyId());
     }
-
-    public static SubjectResponse fromSubject(Individual subject, boolean subjectTypeRequested, ConceptRepository conceptRepository, ConceptService conceptService, List<GroupSubject> groups, S3Service s3Service) {
-        SubjectResponse subjectResponse = fromSubject(subject, subjectTypeRequested, conceptRepository, conceptService, s3Service);
-        subjectResponse.put("Groups", groups.stream().map(GroupSubject::getGroupSubjectUUID));
-        return subjectResponse;
-    }
 }
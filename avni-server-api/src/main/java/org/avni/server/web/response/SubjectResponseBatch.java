@@ -0,0 +1,50 @@
+package org.avni.server.web.response;
+
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.ConceptDictionary;
+import org.avni.server.domain.GroupSubject;
+import org.avni.server.domain.Individual;
+import org.avni.server.service.ConceptService;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ResponseBatch} of a page of subjects, with the uuids of their encounters and enrolments, the groups they are
+ * members of and the download urls of their profile pictures. Relationships and catchments of the subjects are expected
+ * to be already loaded with the subjects.
+ */
+public class SubjectResponseBatch extends ResponseBatch {
+    private final Map<Long, List<String>> encounterUuids;
+    private final Map<Long, List<String>> enrolmentUuids;
+    private final Map<Long, List<GroupSubject>> groups;
+    private final Map<String, URL> profilePictureUrls;
+
+    public SubjectResponseBatch(ConceptService conceptService, ConceptDictionary conceptDictionary, Map<String, AddressLevel> observationLocations,
+                                Map<Long, List<String>> encounterUuids, Map<Long, List<String>> enrolmentUuids,
+                                Map<Long, List<GroupSubject>> groups, Map<String, URL> profilePictureUrls) {
+        super(conceptService, conceptDictionary, observationLocations);
+        this.encounterUuids = encounterUuids;
+        this.enrolmentUuids = enrolmentUuids;
+        this.groups = groups;
+        this.profilePictureUrls = profilePictureUrls;
+    }
+
+    public List<String> getEncounterUuids(Individual subject) {
+        return encounterUuids.getOrDefault(subject.getId(), Collections.emptyList());
+    }
+
+    public List<String> getEnrolmentUuids(Individual subject) {
+        return enrolmentUuids.getOrDefault(subject.getId(), Collections.emptyList());
+    }
+
+    public List<GroupSubject> getGroups(Individual subject) {
+        return groups.getOrDefault(subject.getId(), Collections.emptyList());
+    }
+
+    public URL getProfilePictureUrl(Individual subject) {
+        return profilePictureUrls.get(subject.getProfilePicture());
+    }
+}
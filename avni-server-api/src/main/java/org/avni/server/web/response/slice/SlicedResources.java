@@ -13,6 +13,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -162,6 +163,10 @@ public class SlicedResources<T> extends Resources<T> {
         @JsonProperty //
         private boolean hasNext;
 
+        @JsonProperty //
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String continuationToken;
+
         protected SliceMetadata() {}
 
         /**
@@ -188,6 +193,16 @@ public class SlicedResources<T> extends Resources<T> {
             this.hasNext = hasNext;
         }
 
+        /**
+         * Creates a new {@link SlicedModel.SliceMetadata} with the token to request the next slice with, instead of its number.
+         *
+         * @param continuationToken null when there is no next slice or the next slice can be requested only by its number.
+         */
+        public SliceMetadata(long size, long number, boolean hasNext, @Nullable String continuationToken) {
+            this(size, number, hasNext);
+            this.continuationToken = continuationToken;
+        }
+
         /**
          * Returns the requested size of the slice.
          *
@@ -215,6 +230,16 @@ public class SlicedResources<T> extends Resources<T> {
             return hasNext;
         }
 
+        /**
+         * Returns the token to request the next slice with, if any.
+         *
+         * @return the token, null if there is none.
+         */
+        @Nullable
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
 
         /*
          * (non-Javadoc)
@@ -222,7 +247,7 @@ public class SlicedResources<T> extends Resources<T> {
          */
         @Override
         public String toString() {
-            return String.format("Metadata: { number: %d, size %d, hasNext %s }", number, size, hasNext);
+            return String.format("Metadata: { number: %d, size %d, hasNext %s, continuationToken %s }", number, size, hasNext, continuationToken);
         }
 
         /*
@@ -245,7 +270,8 @@ public class SlicedResources<T> extends Resources<T> {
             return super.equals(that) //
                     && Objects.equals(this.number, that.number) //
                     && Objects.equals(this.size, that.size)
-                    && Objects.equals(this.hasNext, that.hasNext);
+                    && Objects.equals(this.hasNext, that.hasNext)
+                    && Objects.equals(this.continuationToken, that.continuationToken);
         }
 
         /*
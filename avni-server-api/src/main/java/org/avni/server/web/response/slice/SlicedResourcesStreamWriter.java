@@ -0,0 +1,136 @@
+package org.avni.server.web.response.slice;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.avni.server.dao.sync.SyncContinuationToken;
+import org.avni.server.dao.sync.SyncRowFormat;
+import org.joda.time.DateTime;
+
+import javax.persistence.Tuple;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+
+/**
+ * Writes rows of a sync query in the format of {@link SlicedResources} of the entities, as the rows are read, instead of
+ * holding the entities and their resources of the whole slice in memory.
+ */
+public class SlicedResourcesStreamWriter {
+    private final ObjectMapper objectMapper;
+    private final SyncRowFormat<?> format;
+    private final String rel;
+
+    public SlicedResourcesStreamWriter(ObjectMapper objectMapper, SyncRowFormat<?> format, String rel) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.rel = rel;
+    }
+
+    /**
+     * @param rows                  rows of the slice, and one more when there is a next slice
+     * @param withContinuationToken whether the next slice is requested by the continuation token after the last row,
+     *                              rather than by its number
+     */
+    public void write(Iterator<Tuple> rows, long size, long number, boolean withContinuationToken, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            int count = 0;
+            Tuple last = null;
+            while (rows.hasNext() && count < size) {
+                Tuple row = rows.next();
+                if (count == 0) {
+                    generator.writeObjectFieldStart("_embedded");
+                    generator.writeArrayFieldStart(rel);
+                }
+                writeRow(row, generator);
+                last = row;
+                count++;
+            }
+            if (count > 0) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            boolean hasNext = rows.hasNext();
+            generator.writeObjectFieldStart("slice");
+            generator.writeNumberField("size", size);
+            generator.writeNumberField("number", number);
+            generator.writeBooleanField("hasNext", hasNext);
+            if (hasNext && withContinuationToken) {
+                generator.writeStringField("continuationToken", continuationTokenAfter(last).toString());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeRow(Tuple row, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeFields(format, "", row, generator);
+        if (format.getColumns().stream().anyMatch(column -> column.getType() == SyncRowFormat.ColumnType.Link)) {
+            writeLinks(row, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeFields(SyncRowFormat<?> format, String prefix, Tuple row, JsonGenerator generator) throws IOException {
+        for (SyncRowFormat.Column column : format.getColumns()) {
+            switch (column.getType()) {
+                case Link:
+                    break;
+                case Null:
+                    generator.writeNullField(column.getName());
+                    break;
+                case Embedded:
+                    writeEmbedded(column, column.getAlias(prefix), row, generator);
+                    break;
+                case Json:
+                    Object json = row.get(column.getAlias(prefix));
+                    generator.writeFieldName(column.getName());
+                    if (json == null) generator.writeNull();
+                    else generator.writeRawValue((String) json);
+                    break;
+                case Present:
+                    generator.writeBooleanField(column.getName(), row.get(column.getAlias(prefix)) != null);
+                    break;
+                default:
+                    Object value = row.get(column.getAlias(prefix));
+                    // Audit date times are dates in entities, and are sent as the date times their getters return
+                    generator.writeObjectField(column.getName(), value instanceof Date ? new DateTime(value) : value);
+            }
+        }
+    }
+
+    private void writeEmbedded(SyncRowFormat.Column column, String prefix, Tuple row, JsonGenerator generator) throws IOException {
+        SyncRowFormat<?> embeddedFormat = column.getFormat();
+        generator.writeFieldName(column.getName());
+        if (row.get(embeddedFormat.getColumn("id").getAlias(prefix)) == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeFields(embeddedFormat, prefix, row, generator);
+        generator.writeEndObject();
+    }
+
+    private void writeLinks(Tuple row, JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart("_links");
+        for (SyncRowFormat.Column column : format.getColumns()) {
+            if (column.getType() != SyncRowFormat.ColumnType.Link) continue;
+            Object uuid = row.get(column.getAlias(""));
+            if (uuid == null) continue;
+            generator.writeObjectFieldStart(column.getName());
+            generator.writeStringField("href", (String) uuid);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private SyncContinuationToken continuationTokenAfter(Tuple row) {
+        Object lastModifiedDateTime = row.get(format.getColumn("lastModifiedDateTime").getAlias(""));
+        Date date = lastModifiedDateTime instanceof DateTime ? ((DateTime) lastModifiedDateTime).toDate() : (Date) lastModifiedDateTime;
+        return new SyncContinuationToken(date, (Long) row.get(format.getColumn("id").getAlias("")));
+    }
+}
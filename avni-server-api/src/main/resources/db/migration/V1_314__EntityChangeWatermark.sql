@@ -0,0 +1,92 @@
+create table entity_change_watermark
+(
+    id                      SERIAL PRIMARY KEY,
+    organisation_id         integer                     NOT NULL references organisation (id),
+    entity_name             varchar(255)                NOT NULL,
+    last_modified_date_time timestamp(3) with time zone NOT NULL
+);
+
+alter table entity_change_watermark
+    add unique (organisation_id, entity_name);
+
+select enable_rls_on_ref_table('entity_change_watermark');
+
+create or replace function update_entity_change_watermark() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    INSERT INTO entity_change_watermark (organisation_id, entity_name, last_modified_date_time)
+    VALUES (NEW.organisation_id, TG_ARGV[0], NEW.last_modified_date_time)
+    ON CONFLICT (organisation_id, entity_name)
+        DO UPDATE SET last_modified_date_time = greatest(entity_change_watermark.last_modified_date_time,
+                                                         excluded.last_modified_date_time)
+    WHERE entity_change_watermark.last_modified_date_time < excluded.last_modified_date_time;
+    RETURN NULL;
+END
+$$;
+
+alter function update_entity_change_watermark() owner to openchs;
+
+create or replace function enable_entity_change_watermark(tablename text, entityname text) returns text
+    language plpgsql
+as
+$$
+DECLARE
+    tabl     TEXT := quote_ident(tablename);
+    triggger TEXT := quote_ident(tablename || '_entity_change_watermark');
+BEGIN
+    EXECUTE 'DROP TRIGGER IF EXISTS ' || triggger || ' ON ' || tabl;
+    EXECUTE 'CREATE TRIGGER ' || triggger || ' AFTER INSERT OR UPDATE ON ' || tabl || '
+            FOR EACH ROW WHEN (NEW.organisation_id IS NOT NULL AND NEW.last_modified_date_time IS NOT NULL)
+            EXECUTE PROCEDURE update_entity_change_watermark(' || quote_literal(entityname) || ')';
+    EXECUTE 'INSERT INTO entity_change_watermark (organisation_id, entity_name, last_modified_date_time)
+            SELECT organisation_id, ' || quote_literal(entityname) || ', max(last_modified_date_time) FROM ' || tabl || '
+            WHERE organisation_id IS NOT NULL AND last_modified_date_time IS NOT NULL
+            GROUP BY organisation_id
+            ON CONFLICT DO NOTHING';
+    RETURN 'CREATED WATERMARK TRIGGER ' || triggger;
+END
+$$;
+
+alter function enable_entity_change_watermark(text, text) owner to openchs;
+
+-- Entity names are the ones used by sync (SyncEntityName), see EntityChangeWatermarkCache
+select enable_entity_change_watermark('checklist_detail', 'ChecklistDetail'),
+       enable_entity_change_watermark('rule', 'Rule'),
+       enable_entity_change_watermark('rule_dependency', 'RuleDependency'),
+       enable_entity_change_watermark('form', 'Form'),
+       enable_entity_change_watermark('form_mapping', 'FormMapping'),
+       enable_entity_change_watermark('encounter_type', 'EncounterType'),
+       enable_entity_change_watermark('program', 'Program'),
+       enable_entity_change_watermark('program_outcome', 'ProgramOutcome'),
+       enable_entity_change_watermark('gender', 'Gender'),
+       enable_entity_change_watermark('individual_relation', 'IndividualRelation'),
+       enable_entity_change_watermark('individual_relation_gender_mapping', 'IndividualRelationGenderMapping'),
+       enable_entity_change_watermark('individual_relationship_type', 'IndividualRelationshipType'),
+       enable_entity_change_watermark('concept', 'Concept'),
+       enable_entity_change_watermark('program_organisation_config', 'ProgramConfig'),
+       enable_entity_change_watermark('video', 'Video'),
+       enable_entity_change_watermark('subject_type', 'SubjectType'),
+       enable_entity_change_watermark('checklist_item_detail', 'ChecklistItemDetail'),
+       enable_entity_change_watermark('form_element_group', 'FormElementGroup'),
+       enable_entity_change_watermark('form_element', 'FormElement'),
+       enable_entity_change_watermark('concept_answer', 'ConceptAnswer'),
+       enable_entity_change_watermark('identifier_source', 'IdentifierSource'),
+       enable_entity_change_watermark('organisation_config', 'OrganisationConfig'),
+       enable_entity_change_watermark('translation', 'Translation'),
+       enable_entity_change_watermark('groups', 'Groups'),
+       enable_entity_change_watermark('group_privilege', 'GroupPrivileges'),
+       enable_entity_change_watermark('group_role', 'GroupRole'),
+       enable_entity_change_watermark('report_card', 'ReportCard'),
+       enable_entity_change_watermark('dashboard', 'Dashboard'),
+       enable_entity_change_watermark('dashboard_section', 'DashboardSection'),
+       enable_entity_change_watermark('dashboard_filter', 'DashboardFilter'),
+       enable_entity_change_watermark('dashboard_section_card_mapping', 'DashboardSectionCardMapping'),
+       enable_entity_change_watermark('group_dashboard', 'GroupDashboard'),
+       enable_entity_change_watermark('news', 'News'),
+       enable_entity_change_watermark('documentation', 'Documentation'),
+       enable_entity_change_watermark('documentation_item', 'DocumentationItem'),
+       enable_entity_change_watermark('task_type', 'TaskType'),
+       enable_entity_change_watermark('task_status', 'TaskStatus'),
+       enable_entity_change_watermark('menu_item', 'MenuItem');
@@ -0,0 +1,97 @@
+-- Catchment to address (the addresses mapped to the catchment and all their descendants) kept as a table, in place of
+-- virtual_catchment_address_mapping_table which split the lineage of every address level on every query. The table is
+-- kept up to date by triggers on catchment_address_mapping and on the lineage (location moves) of address_level.
+drop view if exists virtual_catchment_address_mapping_table;
+drop function if exists virtual_catchment_address_mapping_table_function();
+
+create table catchment_address_closure
+(
+    id              serial primary key,
+    catchment_id    integer not null references catchment (id) on delete cascade,
+    addresslevel_id integer not null references address_level (id) on delete cascade,
+    type_id         integer
+);
+
+insert into catchment_address_closure (catchment_id, addresslevel_id, type_id)
+select distinct cam.catchment_id, al.id, al.type_id
+from address_level al
+         join unnest(string_to_array(ltree2text(al.lineage), '.')::int[]) lineage(point_id) on true
+         join catchment_address_mapping cam on cam.addresslevel_id = lineage.point_id;
+
+alter table catchment_address_closure
+    add constraint catchment_address_closure_catchment_id_addresslevel_id_unique unique (catchment_id, addresslevel_id);
+create index catchment_address_closure_addresslevel_id_idx on catchment_address_closure (addresslevel_id);
+create index catchment_address_closure_catchment_id_type_id_idx on catchment_address_closure (catchment_id, type_id);
+create index if not exists address_level_lineage_gist_idx on address_level using gist (lineage);
+
+create or replace function catchment_address_mapping_closure() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        -- an address stays in the catchment if another address it is under is mapped to the catchment
+        DELETE
+        FROM catchment_address_closure cac
+            USING address_level mapped, address_level al
+        WHERE mapped.id = OLD.addresslevel_id
+          AND al.lineage <@ mapped.lineage
+          AND cac.catchment_id = OLD.catchment_id
+          AND cac.addresslevel_id = al.id
+          AND NOT EXISTS(SELECT 1
+                         FROM catchment_address_mapping cam
+                         WHERE cam.catchment_id = OLD.catchment_id
+                           AND cam.addresslevel_id = ANY (string_to_array(ltree2text(al.lineage), '.')::int[]));
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO catchment_address_closure (catchment_id, addresslevel_id, type_id)
+        SELECT NEW.catchment_id, al.id, al.type_id
+        FROM address_level mapped
+                 JOIN address_level al ON al.lineage <@ mapped.lineage
+        WHERE mapped.id = NEW.addresslevel_id
+        ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+alter function catchment_address_mapping_closure() owner to openchs;
+
+create or replace function address_level_catchment_closure() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        DELETE FROM catchment_address_closure WHERE addresslevel_id = NEW.id;
+    END IF;
+    INSERT INTO catchment_address_closure (catchment_id, addresslevel_id, type_id)
+    SELECT DISTINCT cam.catchment_id, NEW.id, NEW.type_id
+    FROM catchment_address_mapping cam
+    WHERE cam.addresslevel_id = ANY (string_to_array(ltree2text(NEW.lineage), '.')::int[])
+    ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END
+$$;
+
+alter function address_level_catchment_closure() owner to openchs;
+
+create trigger catchment_address_mapping_closure
+    after insert or update of catchment_id, addresslevel_id or delete
+    on catchment_address_mapping
+    for each row
+execute procedure catchment_address_mapping_closure();
+
+create trigger address_level_catchment_closure_insert
+    after insert
+    on address_level
+    for each row
+    when (NEW.lineage is not null)
+execute procedure address_level_catchment_closure();
+
+create trigger address_level_catchment_closure_update
+    after update of lineage, type_id
+    on address_level
+    for each row
+    when (OLD.lineage is distinct from NEW.lineage or OLD.type_id is distinct from NEW.type_id)
+execute procedure address_level_catchment_closure();
@@ -0,0 +1,23 @@
+-- Outbox of saved entities whose message rules are to be evaluated, appended to on save and drained by
+-- MessageRuleEvaluationJob, so that saving an entity does not wait for the schedule rules to be run on the rule server.
+create table message_rule_evaluation_queue
+(
+    id                     SERIAL PRIMARY KEY,
+    organisation_id        integer                     NOT NULL references organisation (id),
+    entity_type            varchar(255)                NOT NULL,
+    entity_type_id         bigint                      NOT NULL,
+    entity_id              bigint                      NOT NULL,
+    subject_id             bigint                      NOT NULL,
+    user_id                bigint                      NOT NULL,
+    attempts               integer                     NOT NULL DEFAULT 0,
+    next_attempt_date_time timestamp(3) with time zone NOT NULL,
+    last_error             text,
+    created_date_time      timestamp(3) with time zone NOT NULL
+);
+
+create index message_rule_evaluation_queue_next_attempt_idx
+    on message_rule_evaluation_queue (organisation_id, next_attempt_date_time, id);
+create index message_rule_evaluation_queue_entity_idx
+    on message_rule_evaluation_queue (entity_id, entity_type);
+
+select enable_rls_on_tx_table('message_rule_evaluation_queue');
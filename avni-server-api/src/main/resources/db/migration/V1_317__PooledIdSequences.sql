@@ -0,0 +1,7 @@
+-- Ids of these tables are taken by the server 50 at a time (pooled-lo, see PooledSequenceId), so that their inserts
+-- can be batched. The increment must match the allocation size. Rows inserted by sql with the default nextval
+-- still get ids that do not clash, with gaps in between.
+alter sequence identifier_assignment_id_seq increment by 50;
+alter sequence encounter_id_seq increment by 50;
+alter sequence program_encounter_id_seq increment by 50;
+alter sequence address_level_id_seq increment by 50;
@@ -0,0 +1,118 @@
+-- Text search document of every subject, searched by "search all" of the subject search (SubjectSearchQueryBuilder) in
+-- place of casting the observations of every individual and enrolment to text. The document has the names and the
+-- external id of the subject (weight A) and the values of the observations of the subject and its enrolments (weight B),
+-- with the names of the coded answers rather than their uuids. It is kept up to date by triggers on individual and
+-- program_enrolment. Renaming a concept is reflected in the documents of subjects only when they are saved next.
+-- The documents of existing subjects are added after start up, in batches, by SubjectSearchDocumentBackfill.
+create table subject_search_document
+(
+    individual_id   integer primary key references individual (id) on delete cascade,
+    organisation_id integer  not null references organisation (id),
+    document        tsvector not null
+);
+
+create index subject_search_document_document_idx on subject_search_document using gin (document);
+
+select enable_rls_on_tx_table('subject_search_document');
+
+create or replace function observation_search_terms(value jsonb) returns setof text
+    language plpgsql
+    stable
+as
+$$
+BEGIN
+    CASE jsonb_typeof(value)
+        WHEN 'object' THEN
+            RETURN QUERY SELECT observation_search_terms(v) FROM jsonb_each(value) e(k, v);
+        WHEN 'array' THEN
+            RETURN QUERY SELECT observation_search_terms(v) FROM jsonb_array_elements(value) e(v);
+        WHEN 'string' THEN
+            -- coded answers by their names; other uuids (locations, subjects) are not of use in the search
+            RETURN QUERY SELECT coalesce(c.name, CASE
+                                                     WHEN s.text ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'
+                                                         THEN NULL
+                                                     ELSE s.text END)
+                         FROM (SELECT value #>> '{}' AS text) s
+                                  LEFT OUTER JOIN concept c ON c.uuid = s.text;
+        WHEN 'number' THEN
+            RETURN NEXT value #>> '{}';
+        ELSE
+            RETURN;
+        END CASE;
+END
+$$;
+
+alter function observation_search_terms(jsonb) owner to openchs;
+
+create or replace function subject_search_document(subject_id integer) returns tsvector
+    language sql
+    stable
+as
+$$
+SELECT setweight(to_tsvector('simple', concat_ws(' ', i.first_name, i.middle_name, i.last_name, i.legacy_id)), 'A') ||
+       setweight(to_tsvector('simple', concat_ws(' ',
+                                                 (SELECT string_agg(term, ' ') FROM observation_search_terms(i.observations) term),
+                                                 (SELECT string_agg(term, ' ')
+                                                  FROM program_enrolment penr,
+                                                       observation_search_terms(penr.observations) term
+                                                  WHERE penr.individual_id = i.id
+                                                    AND penr.is_voided IS FALSE))), 'B')
+FROM individual i
+WHERE i.id = subject_id
+$$;
+
+alter function subject_search_document(integer) owner to openchs;
+
+create or replace function refresh_subject_search_document(subject_id integer) returns void
+    language sql
+as
+$$
+INSERT INTO subject_search_document (individual_id, organisation_id, document)
+SELECT i.id, i.organisation_id, subject_search_document(i.id)
+FROM individual i
+WHERE i.id = subject_id
+ON CONFLICT (individual_id) DO UPDATE SET document = excluded.document;
+$$;
+
+alter function refresh_subject_search_document(integer) owner to openchs;
+
+create or replace function individual_search_document() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    PERFORM refresh_subject_search_document(NEW.id);
+    RETURN NULL;
+END
+$$;
+
+alter function individual_search_document() owner to openchs;
+
+create or replace function program_enrolment_search_document() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_subject_search_document(OLD.individual_id);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.individual_id IS DISTINCT FROM OLD.individual_id) THEN
+        PERFORM refresh_subject_search_document(NEW.individual_id);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+alter function program_enrolment_search_document() owner to openchs;
+
+create trigger individual_search_document
+    after insert or update of first_name, middle_name, last_name, legacy_id, observations
+    on individual
+    for each row
+execute procedure individual_search_document();
+
+create trigger program_enrolment_search_document
+    after insert or update of observations, is_voided, individual_id or delete
+    on program_enrolment
+    for each row
+execute procedure program_enrolment_search_document();
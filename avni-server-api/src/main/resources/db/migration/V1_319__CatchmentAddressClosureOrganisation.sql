@@ -0,0 +1,72 @@
+-- catchment_address_closure (V1_315) gets the organisation of its catchment and the row level security of catchment, so
+-- that an organisation sees only its own catchments' addresses in it. The triggers keeping it up to date run as the owner
+-- (security definer), so that a change to a catchment mapping or an address level also updates rows of catchments of
+-- other organisations under it, e.g. those of a child organisation using addresses of the parent.
+alter table catchment_address_closure
+    add column organisation_id integer references organisation (id);
+
+update catchment_address_closure cac
+set organisation_id = c.organisation_id
+from catchment c
+where c.id = cac.catchment_id;
+
+alter table catchment_address_closure
+    alter column organisation_id set not null;
+
+select enable_rls_on_ref_table('catchment_address_closure');
+
+create or replace function catchment_address_mapping_closure() returns trigger
+    language plpgsql
+    security definer
+as
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        -- an address stays in the catchment if another address it is under is mapped to the catchment
+        DELETE
+        FROM catchment_address_closure cac
+            USING address_level mapped, address_level al
+        WHERE mapped.id = OLD.addresslevel_id
+          AND al.lineage <@ mapped.lineage
+          AND cac.catchment_id = OLD.catchment_id
+          AND cac.addresslevel_id = al.id
+          AND NOT EXISTS(SELECT 1
+                         FROM catchment_address_mapping cam
+                         WHERE cam.catchment_id = OLD.catchment_id
+                           AND cam.addresslevel_id = ANY (string_to_array(ltree2text(al.lineage), '.')::int[]));
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO catchment_address_closure (catchment_id, addresslevel_id, type_id, organisation_id)
+        SELECT NEW.catchment_id, al.id, al.type_id, c.organisation_id
+        FROM address_level mapped
+                 JOIN address_level al ON al.lineage <@ mapped.lineage
+                 JOIN catchment c ON c.id = NEW.catchment_id
+        WHERE mapped.id = NEW.addresslevel_id
+        ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+alter function catchment_address_mapping_closure() owner to openchs;
+
+create or replace function address_level_catchment_closure() returns trigger
+    language plpgsql
+    security definer
+as
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        DELETE FROM catchment_address_closure WHERE addresslevel_id = NEW.id;
+    END IF;
+    INSERT INTO catchment_address_closure (catchment_id, addresslevel_id, type_id, organisation_id)
+    SELECT DISTINCT cam.catchment_id, NEW.id, NEW.type_id, c.organisation_id
+    FROM catchment_address_mapping cam
+             JOIN catchment c ON c.id = cam.catchment_id
+    WHERE cam.addresslevel_id = ANY (string_to_array(ltree2text(NEW.lineage), '.')::int[])
+    ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END
+$$;
+
+alter function address_level_catchment_closure() owner to openchs;
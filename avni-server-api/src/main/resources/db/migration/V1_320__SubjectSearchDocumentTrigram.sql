@@ -0,0 +1,33 @@
+-- The search document of a subject (V1_318) as plain text with a trigram index, in place of a text search document, so
+-- that "search all" matches the words searched anywhere in the document, like the substring search of the observations
+-- it replaced (a part of a phone number or of an id), rather than only as prefixes of words.
+-- The documents are added again after start up by SubjectSearchDocumentBackfill, "search all" searching the observations
+-- until then.
+create extension if not exists pg_trgm;
+
+drop index subject_search_document_document_idx;
+truncate subject_search_document;
+alter table subject_search_document drop column document;
+alter table subject_search_document add column document text not null;
+
+create index subject_search_document_document_idx on subject_search_document using gin (document gin_trgm_ops);
+
+drop function subject_search_document(integer);
+
+create function subject_search_document(subject_id integer) returns text
+    language sql
+    stable
+as
+$$
+SELECT concat_ws(' ', i.first_name, i.middle_name, i.last_name, i.legacy_id,
+                 (SELECT string_agg(term, ' ') FROM observation_search_terms(i.observations) term),
+                 (SELECT string_agg(term, ' ')
+                  FROM program_enrolment penr,
+                       observation_search_terms(penr.observations) term
+                  WHERE penr.individual_id = i.id
+                    AND penr.is_voided IS FALSE))
+FROM individual i
+WHERE i.id = subject_id
+$$;
+
+alter function subject_search_document(integer) owner to openchs;
@@ -0,0 +1,10 @@
+-- Evaluations that failed all their attempts are marked failed, rather than left in the queue with no attempts left, so
+-- that they are no longer claimed and are purged by MessageRuleEvaluationJob once avni.messaging.ruleEvaluation
+-- .failedRetentionDays have passed.
+alter table message_rule_evaluation_queue add column failed_date_time timestamp(3) with time zone;
+
+drop index message_rule_evaluation_queue_next_attempt_idx;
+create index message_rule_evaluation_queue_next_attempt_idx
+    on message_rule_evaluation_queue (organisation_id, next_attempt_date_time, id) where failed_date_time is null;
+create index message_rule_evaluation_queue_failed_idx
+    on message_rule_evaluation_queue (organisation_id, failed_date_time) where failed_date_time is not null;
@@ -72,6 +72,21 @@ public class GlificRestClientTest extends AbstractControllerIntegrationTest {
         assertThat(response.getSessionTemplates().size()).isEqualTo(3);
     }
 
+    @Test
+    public void shouldReuseGlificSessionUntilItExpires() throws IOException {
+        stubRequest("/api/v1/session", "{\"data\":{\"access_token\":\"SFMyNTY.token\",\"token_expiry_time\":\"2099-10-13T21:42:33.342529Z\"}}");
+        stubRequest("/api", "{\"data\":{\"sessionTemplates\":[]}}");
+        Object json = mapper.readValue(this.getClass().getResource("/ref/glific/messageTemplateRequest.json"), Object.class);
+
+        for (int i = 0; i < 3; i++) {
+            glificRestClient.callAPI(json, new ParameterizedTypeReference<GlificResponse<GlificMessageTemplateResponse>>() {
+            });
+        }
+
+        wireMockServer.verify(lessThanOrExactly(1), postRequestedFor(urlEqualTo("/api/v1/session")));
+        wireMockServer.verify(3, postRequestedFor(urlEqualTo("/api")));
+    }
+
     @Test(expected = HttpClientErrorException.class)
     public void shouldThrowRegularExceptionsForBadHttpResponseCodes() {
         wireMockServer.addStubMapping(WireMock.post("/api")
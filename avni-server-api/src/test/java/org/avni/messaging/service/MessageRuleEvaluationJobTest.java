@@ -0,0 +1,91 @@
+package org.avni.messaging.service;
+
+import com.bugsnag.Bugsnag;
+import org.avni.messaging.domain.EntityType;
+import org.avni.messaging.domain.MessageRuleEvaluation;
+import org.avni.messaging.repository.MessageRuleEvaluationQueueRepository;
+import org.avni.server.dao.externalSystem.ExternalSystemConfigRepository;
+import org.avni.server.domain.RuleExecutionException;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.service.OrganisationConfigService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class MessageRuleEvaluationJobTest {
+    @Mock
+    private MessageRuleEvaluationService messageRuleEvaluationService;
+    @Mock
+    private MessageRuleEvaluationQueueRepository messageRuleEvaluationQueueRepository;
+    @Mock
+    private OrganisationConfigService organisationConfigService;
+    @Mock
+    private AuthService authService;
+    @Mock
+    private ExternalSystemConfigRepository externalSystemConfigRepository;
+    @Mock
+    private Bugsnag bugsnag;
+
+    private MessageRuleEvaluationJob job;
+
+    @Before
+    public void setup() throws RuleExecutionException {
+        initMocks(this);
+        job = new MessageRuleEvaluationJob(messageRuleEvaluationService, messageRuleEvaluationQueueRepository, organisationConfigService,
+                authService, externalSystemConfigRepository, bugsnag, 1, 100, 10, 5, 30);
+        doThrow(new RuntimeException("rule server down")).when(messageRuleEvaluationService).evaluate(any());
+    }
+
+    @After
+    public void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    public void shouldTryAFailedEvaluationAgainLaterWhileItHasAttemptsLeft() {
+        when(messageRuleEvaluationQueueRepository.claimDue(eq(12L), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(new MessageRuleEvaluation(7L, EntityType.Encounter, 3L, 100L, 200L, 300L, 2)));
+
+        job.evaluateMessageRules(12L);
+
+        verify(messageRuleEvaluationQueueRepository).retryLater(7L, 120, "rule server down");
+        verify(messageRuleEvaluationQueueRepository, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    public void shouldMarkAnEvaluationFailedAfterItsLastAttempt() {
+        when(messageRuleEvaluationQueueRepository.claimDue(eq(12L), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(new MessageRuleEvaluation(7L, EntityType.Encounter, 3L, 100L, 200L, 300L, 5)));
+
+        job.evaluateMessageRules(12L);
+
+        verify(messageRuleEvaluationQueueRepository).markFailed(7L, "rule server down");
+        verify(messageRuleEvaluationQueueRepository, never()).retryLater(anyLong(), anyInt(), anyString());
+    }
+
+    @Test
+    public void shouldPurgeFailedEvaluationsOfTheOrganisation() {
+        when(messageRuleEvaluationQueueRepository.claimDue(eq(12L), anyInt(), anyInt())).thenReturn(Collections.emptyList());
+
+        job.evaluateMessageRules(12L);
+
+        verify(messageRuleEvaluationQueueRepository).purgeFailed(12L, 30);
+    }
+
+    @Test
+    public void shouldDoubleRetryDelayUpToTheMaximum() {
+        assertEquals(60, MessageRuleEvaluationJob.getRetryDelaySeconds(1));
+        assertEquals(120, MessageRuleEvaluationJob.getRetryDelaySeconds(2));
+        assertEquals(1920, MessageRuleEvaluationJob.getRetryDelaySeconds(6));
+        assertEquals(3600, MessageRuleEvaluationJob.getRetryDelaySeconds(7));
+        assertEquals(3600, MessageRuleEvaluationJob.getRetryDelaySeconds(40));
+    }
+}
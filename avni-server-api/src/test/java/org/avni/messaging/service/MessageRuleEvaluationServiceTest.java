@@ -0,0 +1,127 @@
+package org.avni.messaging.service;
+
+import org.avni.messaging.domain.EntityType;
+import org.avni.messaging.domain.MessageRuleEvaluation;
+import org.avni.messaging.repository.MessageRuleEvaluationQueueRepository;
+import org.avni.messaging.repository.MessageRuleRepository;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.RuleExecutionException;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.web.request.rules.response.RuleError;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class MessageRuleEvaluationServiceTest {
+    @Mock
+    private MessagingService messagingService;
+
+    @Mock
+    private MessageRuleRepository messageRuleRepository;
+
+    @Mock
+    private MessageRuleEvaluationQueueRepository messageRuleEvaluationQueueRepository;
+
+    private MessageRuleEvaluationService messageRuleEvaluationService;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        messageRuleEvaluationService = new MessageRuleEvaluationService(messagingService, messageRuleRepository, messageRuleEvaluationQueueRepository);
+        Organisation organisation = new Organisation();
+        organisation.setId(12L);
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+        when(messageRuleEvaluationQueueRepository.lock(anyLong())).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldQueueEvaluationOnSaveWithoutRunningRules() throws RuleExecutionException {
+        when(messageRuleRepository.existsByEntityTypeAndEntityTypeIdAndIsVoidedFalse(EntityType.Encounter, 3L)).thenReturn(true);
+
+        messageRuleEvaluationService.onEntitySave(100L, 3L, EntityType.Encounter, 200L, 300L);
+
+        verify(messageRuleEvaluationQueueRepository).enqueue(12L, EntityType.Encounter, 3L, 100L, 200L, 300L);
+        verify(messagingService, never()).onEntitySave(anyLong(), anyLong(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldNotQueueEvaluationWhenThereAreNoMessageRulesForTheEntityType() {
+        when(messageRuleRepository.existsByEntityTypeAndEntityTypeIdAndIsVoidedFalse(EntityType.Encounter, 3L)).thenReturn(false);
+
+        messageRuleEvaluationService.onEntitySave(100L, 3L, EntityType.Encounter, 200L, 300L);
+
+        verifyZeroInteractions(messageRuleEvaluationQueueRepository);
+    }
+
+    @Test
+    public void shouldRemovePendingEvaluationsOnDelete() {
+        messageRuleEvaluationService.onEntityDelete(100L, EntityType.Subject, 100L);
+
+        InOrder inOrder = inOrder(messageRuleEvaluationQueueRepository, messagingService);
+        inOrder.verify(messageRuleEvaluationQueueRepository).removePending(100L, EntityType.Subject);
+        inOrder.verify(messagingService).onEntityDelete(100L, EntityType.Subject, 100L);
+    }
+
+    @Test
+    public void shouldRemoveEvaluationFromQueueOnlyOnceRulesAreEvaluated() throws RuleExecutionException {
+        MessageRuleEvaluation evaluation = new MessageRuleEvaluation(7L, EntityType.ProgramEncounter, 3L, 100L, 200L, 300L, 1);
+        doThrow(new RuleExecutionException(new RuleError())).doNothing()
+                .when(messagingService).onEntitySave(100L, 3L, EntityType.ProgramEncounter, 200L, 300L);
+
+        try {
+            messageRuleEvaluationService.evaluate(evaluation);
+        } catch (RuleExecutionException ignored) {
+        }
+        verify(messageRuleEvaluationQueueRepository, never()).remove(7L);
+
+        messageRuleEvaluationService.evaluate(evaluation);
+        verify(messageRuleEvaluationQueueRepository).remove(7L);
+    }
+
+    @Test
+    public void shouldVoidMessageRequestsOfAnEntityVoidedWhileItsRulesWereEvaluated() throws RuleExecutionException {
+        MessageRuleEvaluation evaluation = new MessageRuleEvaluation(7L, EntityType.Encounter, 3L, 100L, 200L, 300L, 1);
+        when(messageRuleEvaluationQueueRepository.isEntityVoided(EntityType.Encounter, 100L)).thenReturn(true);
+
+        messageRuleEvaluationService.evaluate(evaluation);
+
+        InOrder inOrder = inOrder(messagingService, messageRuleEvaluationQueueRepository);
+        inOrder.verify(messagingService).onEntitySave(100L, 3L, EntityType.Encounter, 200L, 300L);
+        inOrder.verify(messageRuleEvaluationQueueRepository).lock(7L);
+        inOrder.verify(messagingService).onEntityDelete(100L, EntityType.Encounter, 200L);
+        inOrder.verify(messageRuleEvaluationQueueRepository).remove(7L);
+    }
+
+    @Test
+    public void shouldVoidMessageRequestsWhenTheEvaluationWasRemovedWhileRulesWereEvaluated() throws RuleExecutionException {
+        MessageRuleEvaluation evaluation = new MessageRuleEvaluation(7L, EntityType.Subject, 3L, 100L, 100L, 300L, 1);
+        when(messageRuleEvaluationQueueRepository.lock(7L)).thenReturn(false);
+
+        messageRuleEvaluationService.evaluate(evaluation);
+
+        verify(messagingService).onEntityDelete(100L, EntityType.Subject, 100L);
+    }
+
+    @Test
+    public void shouldNotVoidMessageRequestsOfAnEntityNotVoided() throws RuleExecutionException {
+        messageRuleEvaluationService.evaluate(new MessageRuleEvaluation(7L, EntityType.Encounter, 3L, 100L, 200L, 300L, 1));
+
+        verify(messagingService, never()).onEntityDelete(anyLong(), any(), anyLong());
+        verify(messageRuleEvaluationQueueRepository).remove(7L);
+    }
+}
@@ -0,0 +1,34 @@
+package org.avni.messaging.service;
+
+import org.avni.messaging.domain.MessageDeliveryStatus;
+import org.avni.messaging.domain.MessageRequest;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageSendStatsTest {
+    @Test
+    public void shouldCountMessagesNotMarkedSentAsFailed() {
+        MessageSendStats organisationStats = new MessageSendStats();
+        organisationStats.record(messageRequest(MessageDeliveryStatus.Sent), 100);
+        organisationStats.record(messageRequest(MessageDeliveryStatus.NotSentNoPhoneNumberInAvni), 20);
+        organisationStats.record(messageRequest(MessageDeliveryStatus.PartiallySent), 300);
+        MessageSendStats otherOrganisationStats = new MessageSendStats();
+        otherOrganisationStats.record(messageRequest(MessageDeliveryStatus.Sent), 60);
+
+        MessageSendStats jobStats = new MessageSendStats();
+        jobStats.add(organisationStats);
+        jobStats.add(otherOrganisationStats);
+
+        assertEquals(2, jobStats.getSent());
+        assertEquals(2, jobStats.getFailed());
+        assertEquals(120, jobStats.getAverageMillis());
+        assertEquals(300, jobStats.getMaxMillis());
+    }
+
+    private static MessageRequest messageRequest(MessageDeliveryStatus deliveryStatus) {
+        MessageRequest messageRequest = new MessageRequest();
+        messageRequest.setDeliveryStatus(deliveryStatus);
+        return messageRequest;
+    }
+}
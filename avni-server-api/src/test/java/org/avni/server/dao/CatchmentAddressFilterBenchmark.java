@@ -0,0 +1,89 @@
+package org.avni.server.dao;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Plans the sync query filter on the addresses of a catchment of 1k, 10k and 50k addresses in three ways: an in list of
+ * the address ids (inlined, as postgres takes at most 32767 bind parameters), one array parameter (= any(?)) and a join
+ * on the catchment address table, which is what the sync queries do. Only explain is run, so the time is that of
+ * parsing and planning. The heap allocated by the application to build each statement and its parameters is reported
+ * by the gc profiler: ./gradlew :avni-server-api:jmh -Pjmh.args="-prof gc". Needs a postgres database, by
+ * default the test database (set OPENCHS_DATABASE_URL to use another), and works on temporary tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatchmentAddressFilterBenchmark {
+    private static final String SUBJECTS_IN = "explain select s.id from benchmark_subject s where s.address_id in (%s)";
+    private static final String SUBJECTS_ANY = "explain select s.id from benchmark_subject s where s.address_id = any(?)";
+    private static final String SUBJECTS_JOIN = "explain select s.id from benchmark_subject s " +
+            "join benchmark_catchment_address ca on ca.addresslevel_id = s.address_id where ca.catchment_id = ?";
+
+    @Param({"1000", "10000", "50000"})
+    private int addresses;
+
+    private Connection connection;
+    private long[] addressIds;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getenv().getOrDefault("OPENCHS_DATABASE_URL", "jdbc:postgresql://localhost:5432/openchs_test");
+        connection = DriverManager.getConnection(url, "openchs", "password");
+        addressIds = LongStream.rangeClosed(1, addresses).toArray();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create temporary table benchmark_subject (id serial primary key, address_id integer not null)");
+            statement.execute("create temporary table benchmark_catchment_address (catchment_id integer not null, addresslevel_id integer not null, unique (catchment_id, addresslevel_id))");
+            statement.execute(String.format("insert into benchmark_catchment_address select 1, a from generate_series(1, %d) a", addresses));
+            statement.execute(String.format("insert into benchmark_subject (address_id) select s %% %d + 1 from generate_series(1, %d) s", addresses * 2, addresses * 10));
+            statement.execute("create index on benchmark_subject (address_id)");
+            statement.execute("analyze benchmark_subject");
+            statement.execute("analyze benchmark_catchment_address");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int inList() throws SQLException {
+        String ids = LongStream.of(addressIds).mapToObj(Long::toString).collect(Collectors.joining(","));
+        try (Statement statement = connection.createStatement()) {
+            return countPlanLines(statement.executeQuery(String.format(SUBJECTS_IN, ids)));
+        }
+    }
+
+    @Benchmark
+    public int arrayParameter() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SUBJECTS_ANY)) {
+            Long[] ids = LongStream.of(addressIds).boxed().toArray(Long[]::new);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return countPlanLines(statement.executeQuery());
+        }
+    }
+
+    @Benchmark
+    public int catchmentJoin() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SUBJECTS_JOIN)) {
+            statement.setLong(1, 1);
+            return countPlanLines(statement.executeQuery());
+        }
+    }
+
+    private static int countPlanLines(ResultSet resultSet) throws SQLException {
+        int lines = 0;
+        try (ResultSet plan = resultSet) {
+            while (plan.next()) lines++;
+        }
+        return lines;
+    }
+}
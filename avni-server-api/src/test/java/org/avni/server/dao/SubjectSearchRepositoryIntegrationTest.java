@@ -0,0 +1,98 @@
+package org.avni.server.dao;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.search.SubjectSearchQueryBuilder;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.metadata.ConceptBuilder;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txData.ObservationCollectionBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.*;
+import org.avni.server.web.request.webapp.search.PageDetails;
+import org.avni.server.web.request.webapp.search.SubjectSearchRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * "Search all" of the subject search through the search documents kept by the triggers on individual and
+ * program_enrolment.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SubjectSearchRepositoryIntegrationTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private SubjectSearchRepository subjectSearchRepository;
+    @Autowired
+    private ConceptRepository conceptRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestConceptService testConceptService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+
+    @Before
+    public void setup() {
+        testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().setUuid("subjectTypeForSearch").setName("subjectTypeForSearch").build());
+        Program program = testProgramService.addProgram(new ProgramBuilder().withName("programForSearch").build(), subjectType);
+        Concept occupation = testConceptService.createCodedConcept("Occupation", "Farmer", "Weaver");
+        Concept education = testConceptService.createCodedConcept("Education", "Graduate", "Illiterate");
+        Concept phoneNumber = conceptRepository.save(new ConceptBuilder().withName("Phone number").withDataType(ConceptDataType.Text).build());
+
+        ObservationCollection observations = new ObservationCollectionBuilder().addObservation(occupation, occupation.getAnswerConcept("Farmer"))
+                .addObservation(phoneNumber, "9876543210").build();
+        Individual subject = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType)
+                .withLocation(catchmentData.getAddressLevel1()).withFirstName("Ramesh").withObservations(observations).build());
+        testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType)
+                .withLocation(catchmentData.getAddressLevel1()).withFirstName("Suresh")
+                .withObservations(ObservationCollectionBuilder.withOneObservation(occupation, occupation.getAnswerConcept("Weaver").getUuid())).build());
+        testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity().setProgram(program).setIndividual(subject)
+                .setObservations(ObservationCollectionBuilder.withOneObservation(education, education.getAnswerConcept("Graduate").getUuid())).build());
+    }
+
+    @Test
+    public void shouldFindSubjectsByTheNamesOfTheirAnswersAndByPartsOfWords() {
+        assertEquals("Ramesh", searchAll("Farmer"));
+        assertEquals("Ramesh", searchAll("graduate"));
+        assertEquals("Ramesh", searchAll("farm"));
+        assertEquals("Ramesh", searchAll("654321"));
+        assertEquals("Ramesh", searchAll("mesh grad"));
+        assertEquals("Suresh", searchAll("weav"));
+        assertTrue(search("Weaver graduate").isEmpty());
+        assertTrue(search("Occupation").isEmpty());
+    }
+
+    private String searchAll(String searchString) {
+        List<Map<String, Object>> subjects = search(searchString);
+        assertEquals(searchString, 1, subjects.size());
+        return (String) subjects.get(0).get("firstName");
+    }
+
+    private List<Map<String, Object>> search(String searchString) {
+        SubjectSearchRequest request = new SubjectSearchRequest();
+        request.setSearchAll(searchString);
+        PageDetails pageDetails = new PageDetails();
+        pageDetails.setPageNumber(0);
+        pageDetails.setNumberOfRecordPerPage(10);
+        request.setPageElement(pageDetails);
+        return subjectSearchRepository.search(request, new SubjectSearchQueryBuilder().withSearchDocuments(true));
+    }
+}
@@ -101,6 +101,41 @@ public class SubjectSearchQueryBuilderTest {
                 .build();
     }
 
+    @Test
+    public void shouldSearchAllWordsAnywhereInTheSearchDocument() {
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withSearchDocuments(true)
+                .withSearchAll("ram  50%_off -")
+                .build();
+        assertThat(query.getParameters().get("searchAll0")).isEqualTo("%ram%");
+        assertThat(query.getParameters().get("searchAll1")).isEqualTo("%50\\%\\_off%");
+        assertThat(query.getParameters().containsKey("searchAll2")).isFalse();
+        assertThat(query.getSql()).contains("join subject_search_document ssd");
+        assertThat(query.getSql()).contains("ssd.document ilike :searchAll0 and ssd.document ilike :searchAll1");
+        assertThat(query.getSql()).contains("order by \"searchRank\" desc");
+        assertThat(query.getSql()).doesNotContain("cast(i.observations as text)");
+    }
+
+    @Test
+    public void shouldNotSearchAllWithoutWords() {
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withSearchDocuments(true)
+                .withSearchAll(" - ")
+                .build();
+        assertThat(query.getParameters().containsKey("searchAll")).isFalse();
+        assertThat(query.getSql()).doesNotContain("subject_search_document");
+    }
+
+    @Test
+    public void shouldSearchAllInObservationsUntilEverySubjectHasASearchDocument() {
+        SqlQuery query = new SubjectSearchQueryBuilder()
+                .withSearchAll("ram")
+                .build();
+        assertThat(query.getParameters().get("searchAll")).isEqualTo("%ram%");
+        assertThat(query.getSql()).contains("cast(i.observations as text) ilike :searchAll");
+        assertThat(query.getSql()).doesNotContain("subject_search_document");
+    }
+
     @Test
     public void shouldMakeQueryForCount() {
         SqlQuery query = new SubjectSearchQueryBuilder().forCount()
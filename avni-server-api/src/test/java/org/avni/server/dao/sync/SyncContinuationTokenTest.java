@@ -0,0 +1,51 @@
+package org.avni.server.dao.sync;
+
+import org.avni.server.domain.Individual;
+import org.avni.server.util.BadRequestError;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SyncContinuationTokenTest {
+    @Test
+    public void shouldReadTheTokenItWrites() {
+        Individual individual = new Individual();
+        individual.setId(42L);
+        individual.setLastModifiedDateTime(new DateTime(1650000000123L));
+
+        SyncContinuationToken token = SyncContinuationToken.parse(SyncContinuationToken.after(individual).toString());
+
+        assertEquals(1650000000123L, token.getLastModifiedDateTime().getTime());
+        assertEquals(Long.valueOf(42), token.getId());
+    }
+
+    @Test
+    public void shouldNotHaveTokenWhenThereIsNoToken() {
+        assertNull(SyncContinuationToken.parse(null));
+        assertNull(SyncContinuationToken.parse(""));
+    }
+
+    @Test(expected = BadRequestError.class)
+    public void shouldRejectInvalidToken() {
+        SyncContinuationToken.parse("1650000000123");
+    }
+
+    @Test
+    public void shouldContinueAfterTheLastEntityOnlyWhenThereIsANextSlice() {
+        Individual first = new Individual();
+        first.setId(1L);
+        first.setLastModifiedDateTime(new DateTime(1000L));
+        Individual last = new Individual();
+        last.setId(2L);
+        last.setLastModifiedDateTime(new DateTime(2000L));
+
+        assertEquals("2000_2", new SyncContinuationSlice<>(Arrays.asList(first, last), PageRequest.of(0, 2), true).getContinuationToken().toString());
+        assertNull(new SyncContinuationSlice<>(Arrays.asList(first, last), PageRequest.of(0, 2), false).getContinuationToken());
+        assertNull(new SyncContinuationSlice<Individual>(Collections.emptyList(), PageRequest.of(0, 2), false).getContinuationToken());
+    }
+}
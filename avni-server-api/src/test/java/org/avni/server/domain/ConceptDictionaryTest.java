@@ -0,0 +1,122 @@
+package org.avni.server.domain;
+
+import org.avni.server.application.KeyType;
+import org.avni.server.application.KeyValue;
+import org.avni.server.application.KeyValues;
+import org.avni.server.application.ValueType;
+import org.avni.server.domain.factory.metadata.ConceptBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConceptDictionaryTest {
+    @Test
+    public void shouldFindConceptsByUuidAndName() {
+        Concept gender = new ConceptBuilder().withId(1).withName("Gender").withUuid("gender").withDataType(ConceptDataType.Coded).build();
+        ConceptDictionary conceptDictionary = new ConceptDictionary(Collections.singletonList(gender), Collections.emptyList());
+
+        assertEquals("Gender", conceptDictionary.findByUuid("gender").getName());
+        assertEquals("gender", conceptDictionary.findByName("Gender").getUuid());
+        assertTrue(conceptDictionary.findByName("Gender").isDataType(ConceptDataType.Coded));
+        assertNull(conceptDictionary.findByName("gender"));
+        assertNull(conceptDictionary.findByUuid(null));
+        assertEquals("Gender", conceptDictionary.getUuidToName().get("gender"));
+    }
+
+    @Test
+    public void shouldFindConceptInUseByNameWhenAVoidedConceptHasTheSameName() {
+        Concept voided = new ConceptBuilder().withId(1).withName("Weight").withUuid("voided-weight").withDataType(ConceptDataType.Numeric).build();
+        voided.setVoided(true);
+        Concept weight = new ConceptBuilder().withId(2).withName("Weight").withUuid("weight").withDataType(ConceptDataType.Numeric).build();
+
+        assertEquals("weight", new ConceptDictionary(Arrays.asList(weight, voided), Collections.emptyList()).findByName("Weight").getUuid());
+        assertEquals("weight", new ConceptDictionary(Arrays.asList(voided, weight), Collections.emptyList()).findByName("Weight").getUuid());
+    }
+
+    @Test
+    public void shouldKeepAnswersOfConceptsInOrder() {
+        Concept gender = new ConceptBuilder().withId(1).withName("Gender").withUuid("gender").withDataType(ConceptDataType.Coded).build();
+        Concept male = new ConceptBuilder().withId(2).withName("Male").withUuid("male").withDataType(ConceptDataType.NA).build();
+        Concept female = new ConceptBuilder().withId(3).withName("Female").withUuid("female").withDataType(ConceptDataType.NA).build();
+        ConceptDictionary conceptDictionary = new ConceptDictionary(Arrays.asList(gender, male, female),
+                Arrays.asList(answer(gender, female, 2), answer(gender, male, 1)));
+
+        ConceptDictionary.Entry entry = conceptDictionary.findByName("Gender");
+        assertEquals(2, entry.getAnswers().size());
+        assertEquals("male", entry.getAnswers().get(0).getAnswerConceptUuid());
+        assertEquals("female", entry.getAnswers().get(1).getAnswerConceptUuid());
+        assertTrue(conceptDictionary.findByName("Male").getAnswers().isEmpty());
+    }
+
+    @Test
+    public void shouldReadConceptsMissingFromTheDictionaryThroughTheFallback() {
+        Concept gender = new ConceptBuilder().withId(1).withName("Gender").withUuid("gender").withDataType(ConceptDataType.Coded).build();
+        Concept male = new ConceptBuilder().withId(2).withName("Male").withUuid("male").withDataType(ConceptDataType.NA).build();
+        Concept weight = new ConceptBuilder().withId(3).withName("Weight").withUuid("weight").withDataType(ConceptDataType.Numeric).build();
+        gender.setConceptAnswers(new HashSet<>(Collections.singletonList(answer(gender, male, 1))));
+        TestFallback fallback = new TestFallback(gender, male);
+        ConceptDictionary conceptDictionary = new ConceptDictionary(Collections.singletonList(weight), Collections.emptyList()).withFallback(fallback);
+
+        assertEquals("weight", conceptDictionary.findByName("Weight").getUuid());
+        assertEquals(0, fallback.misses);
+        assertEquals("Gender", conceptDictionary.findByUuid("gender").getName());
+        assertEquals("male", conceptDictionary.findByName("Gender").getAnswers().get(0).getAnswerConceptUuid());
+        assertEquals(2, fallback.misses);
+        assertNull(conceptDictionary.findByUuid("height"));
+        assertNull(conceptDictionary.getUuidToName().get("male"));
+        assertEquals(2, fallback.misses);
+    }
+
+    @Test
+    public void shouldNotShareKeyValuesWithTheConcept() {
+        Concept phoneNumber = new ConceptBuilder().withId(1).withName("Phone number").withUuid("phone-number").withDataType(ConceptDataType.Text).build();
+        KeyValues keyValues = new KeyValues();
+        keyValues.add(new KeyValue(KeyType.primary_contact, ValueType.yes));
+        phoneNumber.setKeyValues(keyValues);
+        ConceptDictionary conceptDictionary = new ConceptDictionary(Collections.singletonList(phoneNumber), Collections.emptyList());
+
+        keyValues.get(0).setValue(ValueType.Single);
+        keyValues.add(new KeyValue(KeyType.contact_number, ValueType.yes));
+
+        KeyValues entryKeyValues = conceptDictionary.findByUuid("phone-number").getKeyValues();
+        assertEquals(1, entryKeyValues.size());
+        assertEquals(ValueType.yes, entryKeyValues.get(KeyType.primary_contact).getValue());
+    }
+
+    private static class TestFallback implements ConceptDictionary.Fallback {
+        private final List<Concept> concepts;
+        private int misses;
+
+        private TestFallback(Concept... concepts) {
+            this.concepts = Arrays.asList(concepts);
+        }
+
+        @Override
+        public Concept findByUuid(String uuid) {
+            return concepts.stream().filter(concept -> concept.getUuid().equals(uuid)).findFirst().orElse(null);
+        }
+
+        @Override
+        public Concept findByName(String name) {
+            return concepts.stream().filter(concept -> concept.getName().equals(name)).findFirst().orElse(null);
+        }
+
+        @Override
+        public void onMiss() {
+            misses++;
+        }
+    }
+
+    private static ConceptAnswer answer(Concept concept, Concept answerConcept, double order) {
+        ConceptAnswer conceptAnswer = new ConceptAnswer();
+        conceptAnswer.setConcept(concept);
+        conceptAnswer.setAnswerConcept(answerConcept);
+        conceptAnswer.setOrder(order);
+        return conceptAnswer;
+    }
+}
@@ -0,0 +1,105 @@
+package org.avni.server.domain.accessControl;
+
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.access.TestGroupPrivilegeBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupPrivilegesTest {
+    @Test
+    public void shouldMatchPrivilegeByTypeAndEntities() {
+        SubjectType subjectType = subjectType(1000L);
+        Program program = new Program();
+        program.setId(2000L);
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewSubject)).setSubjectType(subjectType).build(),
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewEnrolmentDetails)).setSubjectType(subjectType).setProgram(program).build());
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType(1000L), null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType(1001L), null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.EditSubject, subjectType, null, null, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewEnrolmentDetails, subjectType, program, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewEnrolmentDetails, subjectType, null, null, null));
+    }
+
+    @Test
+    public void shouldMatchEncounterTypeOrProgramEncounterType() {
+        SubjectType subjectType = subjectType(1L);
+        EncounterType encounterType = encounterType(10L);
+        EncounterType programEncounterType = encounterType(11L);
+        Program program = new Program();
+        program.setId(5L);
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewVisit)).setSubjectType(subjectType).setEncounterType(encounterType).build(),
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewVisit)).setSubjectType(subjectType).setProgram(program).setProgramEncounterType(programEncounterType).build());
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, null, encounterType, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, program, programEncounterType, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewVisit, subjectType, null, programEncounterType, null));
+    }
+
+    @Test
+    public void shouldMatchIdsByValueRatherThanByReference() {
+        Long id = Long.valueOf(3000000000L);
+        Long sameId = Long.valueOf(3000000000L);
+        assertNotSame(id, sameId);
+        SubjectType subjectType = new SubjectType();
+        subjectType.setId(id);
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewSubject)).setSubjectType(subjectType).build());
+
+        SubjectType sameSubjectType = new SubjectType();
+        sameSubjectType.setId(sameId);
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, sameSubjectType, null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType(3000000001L), null, null, null));
+    }
+
+    @Test
+    public void shouldMatchMissingAndUnsavedEntitiesOnlyWithMissingAndUnsavedEntities() {
+        SubjectType subjectType = subjectType(1L);
+        Program unsavedProgram = new Program();
+        Program savedProgram = new Program();
+        savedProgram.setId(5L);
+        GroupPrivileges groupPrivileges = new GroupPrivileges(false,
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewSubject)).setSubjectType(subjectType).build(),
+                new TestGroupPrivilegeBuilder().setPrivilege(privilege(PrivilegeType.ViewEnrolmentDetails)).setSubjectType(subjectType).setProgram(unsavedProgram).build());
+
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, null, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, savedProgram, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, subjectType, new Program(), null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewSubject, new SubjectType(), null, null, null));
+        assertTrue(groupPrivileges.hasPrivilege(PrivilegeType.ViewEnrolmentDetails, subjectType, new Program(), null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewEnrolmentDetails, subjectType, savedProgram, null, null));
+        assertFalse(groupPrivileges.hasPrivilege(PrivilegeType.ViewEnrolmentDetails, subjectType, null, null, null));
+    }
+
+    @Test
+    public void shouldHaveAllPrivilegesWhenInGroupWithAllPrivileges() {
+        assertTrue(new GroupPrivileges().hasPrivilege(PrivilegeType.ViewSubject, subjectType(1L), null, null, null));
+        assertFalse(new GroupPrivileges(false).hasPrivilege(PrivilegeType.ViewSubject, subjectType(1L), null, null, null));
+    }
+
+    private static Privilege privilege(PrivilegeType privilegeType) {
+        Privilege privilege = mock(Privilege.class);
+        when(privilege.getType()).thenReturn(privilegeType);
+        return privilege;
+    }
+
+    private static SubjectType subjectType(long id) {
+        SubjectType subjectType = new SubjectType();
+        subjectType.setId(id);
+        return subjectType;
+    }
+
+    private static EncounterType encounterType(long id) {
+        EncounterType encounterType = new EncounterType();
+        encounterType.setId(id);
+        return encounterType;
+    }
+}
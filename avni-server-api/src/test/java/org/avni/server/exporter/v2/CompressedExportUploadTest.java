@@ -0,0 +1,88 @@
+package org.avni.server.exporter.v2;
+
+import org.apache.commons.io.IOUtils;
+import org.avni.server.service.MultipartObjectUpload;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedExportUploadTest {
+    @Test
+    public void shouldUploadHeaderAndLinesAsOneGzipFile() throws IOException {
+        InMemoryUpload multipartObjectUpload = new InMemoryUpload();
+        CompressedExportUpload upload = new CompressedExportUpload(multipartObjectUpload, 0);
+
+        upload.writeHeader("Id,Name");
+        upload.write(Arrays.asList("1,Ram", "2,Shyam"));
+        upload.write(Collections.singletonList("3,Sita"));
+        upload.complete();
+
+        assertEquals("Id,Name\n1,Ram\n2,Shyam\n3,Sita\n", multipartObjectUpload.getContent());
+        assertEquals(1, multipartObjectUpload.parts.size());
+        assertEquals(3, upload.getLines());
+    }
+
+    @Test
+    public void shouldUploadPartsOfAtLeastTheMinimumSizeExceptTheLast() throws IOException {
+        InMemoryUpload multipartObjectUpload = new InMemoryUpload();
+        CompressedExportUpload upload = new CompressedExportUpload(multipartObjectUpload, 0);
+        Random random = new Random(1);
+
+        upload.writeHeader("Id,Value");
+        StringBuilder expected = new StringBuilder("Id,Value\n");
+        for (int block = 0; block < 100; block++) {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 10000; i++) {
+                String line = String.format("%d,%d", block * 10000 + i, random.nextLong());
+                lines.add(line);
+                expected.append(line).append("\n");
+            }
+            upload.write(lines);
+        }
+        upload.complete();
+
+        assertTrue(multipartObjectUpload.parts.size() > 1);
+        assertEquals(multipartObjectUpload.parts.size(), upload.getUploadedParts());
+        List<byte[]> parts = new ArrayList<>(multipartObjectUpload.parts.values());
+        for (byte[] part : parts.subList(0, parts.size() - 1)) {
+            assertTrue(part.length >= MultipartObjectUpload.MIN_PART_SIZE);
+        }
+        assertEquals(expected.toString(), multipartObjectUpload.getContent());
+    }
+
+    private static class InMemoryUpload implements MultipartObjectUpload {
+        private final SortedMap<Integer, byte[]> parts = new TreeMap<>();
+        private boolean completed;
+
+        @Override
+        public void uploadPart(int partNumber, byte[] content) {
+            parts.put(partNumber, content);
+        }
+
+        @Override
+        public String complete() {
+            completed = true;
+            return "exports/test.csv.gz";
+        }
+
+        @Override
+        public void abort() {
+            parts.clear();
+        }
+
+        private String getContent() throws IOException {
+            assertTrue(completed);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (byte[] part : parts.values()) content.write(part);
+            return IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(content.toByteArray())), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.avni.server.exporter.v2;
+
+import org.avni.server.dao.IndividualRepository;
+import org.avni.server.dao.ProgramEnrolmentRepository;
+import org.avni.server.domain.GroupSubject;
+import org.avni.server.domain.Individual;
+import org.avni.server.domain.SubjectType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class LongitudinalExportBlockLoaderTest {
+    @Mock
+    private IndividualRepository individualRepository;
+    @Mock
+    private ProgramEnrolmentRepository programEnrolmentRepository;
+    private LongitudinalExportBlockLoader blockLoader;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        blockLoader = new LongitudinalExportBlockLoader(individualRepository, programEnrolmentRepository);
+    }
+
+    @Test
+    public void shouldLoadABlockOfIndividualsWithOneQueryPerCollection() {
+        SubjectType person = subjectType(false);
+        Individual household = individual(10L, subjectType(true));
+        Individual first = individual(1L, person);
+        Individual second = individual(2L, person);
+        first.getMemberGroupSubjects().add(groupSubject(household, first));
+        second.getMemberGroupSubjects().add(groupSubject(household, second));
+
+        blockLoader.load(Arrays.asList(first, second));
+
+        verify(individualRepository).fetchEncounters(Arrays.asList(1L, 2L));
+        verify(individualRepository).fetchProgramEnrolments(Arrays.asList(1L, 2L));
+        verify(programEnrolmentRepository).fetchProgramEncounters(Arrays.asList(1L, 2L));
+        verify(individualRepository).fetchMemberGroupSubjects(Arrays.asList(1L, 2L));
+        verify(individualRepository).fetchEncounters(Collections.singletonList(10L));
+        verify(individualRepository).fetchGroupSubjects(Collections.singletonList(10L));
+        verifyNoMoreInteractions(individualRepository, programEnrolmentRepository);
+    }
+
+    @Test
+    public void shouldLoadMembersOfGroupSubjectsBeingExported() {
+        Individual household = individual(10L, subjectType(true));
+
+        blockLoader.load(Collections.singletonList(household));
+
+        verify(individualRepository).fetchGroupSubjects(Collections.singletonList(10L));
+    }
+
+    @Test
+    public void shouldNotQueryForAnEmptyBlock() {
+        blockLoader.load(Collections.emptyList());
+
+        verify(individualRepository, never()).fetchEncounters(any());
+        verifyNoMoreInteractions(individualRepository, programEnrolmentRepository);
+    }
+
+    private static SubjectType subjectType(boolean group) {
+        SubjectType subjectType = new SubjectType();
+        subjectType.setGroup(group);
+        return subjectType;
+    }
+
+    private static Individual individual(Long id, SubjectType subjectType) {
+        Individual individual = new Individual();
+        individual.setId(id);
+        individual.setSubjectType(subjectType);
+        return individual;
+    }
+
+    private static GroupSubject groupSubject(Individual group, Individual member) {
+        GroupSubject groupSubject = new GroupSubject();
+        groupSubject.setGroupSubject(group);
+        groupSubject.setMemberSubject(member);
+        return groupSubject;
+    }
+}
@@ -0,0 +1,66 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.ObservationCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the structural deep copy of observations with the java serialization copy it replaced.
+ * Run with ./gradlew :avni-server-api:jmh (allocation rates with -Pjmh.args="-prof gc").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeepCopyBenchmark {
+    @Param({"10", "50", "200"})
+    public int numberOfObservations;
+
+    private ObservationCollection observations;
+
+    @Setup
+    public void setup() {
+        observations = new ObservationCollection();
+        for (int i = 0; i < numberOfObservations; i++) {
+            String conceptUuid = String.format("4f3b4c1e-0000-0000-0000-%012d", i);
+            switch (i % 4) {
+                case 0:
+                    observations.put(conceptUuid, i * 1.5);
+                    break;
+                case 1:
+                    observations.put(conceptUuid, "free text answer " + i);
+                    break;
+                case 2:
+                    List<Object> answers = new ArrayList<>();
+                    answers.add(conceptUuid + "-a");
+                    answers.add(conceptUuid + "-b");
+                    observations.put(conceptUuid, answers);
+                    break;
+                default:
+                    Map<String, Object> group = new LinkedHashMap<>();
+                    group.put(conceptUuid + "-q1", i);
+                    group.put(conceptUuid + "-q2", "group answer");
+                    List<Object> groups = new ArrayList<>();
+                    groups.add(group);
+                    observations.put(conceptUuid, groups);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object structuralCopy() {
+        return JsonStructureCopier.copy(observations);
+    }
+
+    @Benchmark
+    public Object serializationCopy() {
+        return JsonStructureCopier.serializationCopy(observations);
+    }
+}
@@ -0,0 +1,62 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.application.KeyValue;
+import org.avni.server.application.KeyValues;
+import org.avni.server.domain.ObservationCollection;
+import org.avni.server.domain.RuledEntity;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonStructureCopierTest {
+
+    @Test
+    public void shouldCopyObservationsStructurally() {
+        ObservationCollection observations = observations();
+
+        ObservationCollection copy = (ObservationCollection) JsonStructureCopier.copy(observations);
+
+        assertThat(copy).isEqualTo(observations).isNotSameAs(observations);
+        assertThat(copy.get("group")).isNotSameAs(observations.get("group"));
+        ((List<Object>) copy.get("multi")).add("c3");
+        ((Map<String, Object>) ((List<Object>) copy.get("group")).get(0)).put("q1", 6);
+        assertThat(observations).isEqualTo(observations());
+    }
+
+    @Test
+    public void shouldCopyKeyValuesWithoutSharingValues() {
+        KeyValues keyValues = new KeyValues();
+        keyValues.add(new KeyValue("key", new ArrayList<>(Arrays.asList("a", "b"))));
+
+        KeyValues copy = (KeyValues) JsonStructureCopier.copy(keyValues);
+
+        assertThat(copy).isEqualTo(keyValues);
+        ((List<Object>) copy.get(0).getValue()).add("c");
+        assertThat((List<Object>) keyValues.get(0).getValue()).containsExactly("a", "b");
+    }
+
+    @Test
+    public void shouldCopyOtherTypesBySerialization() {
+        RuledEntity ruledEntity = new RuledEntity();
+
+        assertThat(JsonStructureCopier.copy(ruledEntity)).isNotSameAs(ruledEntity).isInstanceOf(RuledEntity.class);
+        assertThat(JsonStructureCopier.copy(null)).isNull();
+    }
+
+    static ObservationCollection observations() {
+        ObservationCollection observations = new ObservationCollection();
+        observations.put("text", "some text");
+        observations.put("numeric", 42);
+        observations.put("decimal", 4.2);
+        observations.put("date", new DateTime(2020, 1, 1, 0, 0).toString());
+        observations.put("multi", new ArrayList<>(Arrays.asList("c1", "c2")));
+        Map<String, Object> group = new LinkedHashMap<>();
+        group.put("q1", 5);
+        group.put("q2", "answer");
+        observations.put("group", new ArrayList<>(Collections.singletonList(group)));
+        return observations;
+    }
+}
@@ -0,0 +1,47 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.domain.*;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fails if the integrator no longer runs before the id generators are created (say on a Hibernate upgrade), in which
+ * case the entities would silently stay on identity ids.
+ */
+public class PooledSequenceIdIntegratorTest extends AbstractControllerIntegrationTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void shouldGiveEntitiesWithPooledSequenceIdAPooledLoSequenceGenerator() {
+        for (Class<?> entityClass : new Class<?>[]{IdentifierAssignment.class, Encounter.class, ProgramEncounter.class, AddressLevel.class}) {
+            IdentifierGenerator generator = getIdentifierGenerator(entityClass);
+            assertTrue(entityClass.getSimpleName(), generator instanceof SequenceStyleGenerator);
+            SequenceStyleGenerator sequenceStyleGenerator = (SequenceStyleGenerator) generator;
+            assertTrue(entityClass.getSimpleName(), sequenceStyleGenerator.getOptimizer() instanceof PooledLoOptimizer);
+            assertEquals(entityClass.getAnnotation(PooledSequenceId.class).allocationSize(), sequenceStyleGenerator.getOptimizer().getIncrementSize());
+            assertEquals(String.format("%s_id_seq", entityClass.getAnnotation(Table.class).name()), sequenceStyleGenerator.getDatabaseStructure().getName());
+        }
+    }
+
+    @Test
+    public void shouldLeaveOtherEntitiesOnIdentityIds() {
+        assertTrue(getIdentifierGenerator(Individual.class) instanceof IdentityGenerator);
+    }
+
+    private IdentifierGenerator getIdentifierGenerator(Class<?> entityClass) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(entityClass).getIdentifierGenerator();
+    }
+}
@@ -0,0 +1,73 @@
+package org.avni.server.framework.hibernate;
+
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.ConceptAnswer;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class PostCommitCacheEvictorTest {
+    private Cache cache;
+    private PostCommitCacheEvictor evictor;
+
+    @Before
+    public void setup() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("someCache");
+        cache = cacheManager.getCache("someCache");
+        cache.put(Arrays.asList(1L, 10L), "of user 1 in organisation 10");
+        cache.put(Arrays.asList(2L, 10L), "of user 2 in organisation 10");
+        cache.put(Arrays.asList(2L, 20L), "of user 2 in organisation 20");
+        evictor = new PostCommitCacheEvictor(cacheManager, "someCache")
+                .evictKeysOn(Concept.class, concept -> concept.getOrganisationId() == null ? null : key -> ((List<?>) key).get(1).equals(concept.getOrganisationId()))
+                .clearOn(ConceptAnswer.class);
+    }
+
+    @Test
+    public void shouldEvictOnlyTheKeysOfTheChangedEntity() {
+        evictor.onPostUpdate(updateOf(conceptOfOrganisation(10L)));
+
+        assertNull(cache.get(Arrays.asList(1L, 10L)));
+        assertNull(cache.get(Arrays.asList(2L, 10L)));
+        assertNotNull(cache.get(Arrays.asList(2L, 20L)));
+    }
+
+    @Test
+    public void shouldClearTheCacheWhenTheKeysCannotBeTold() {
+        evictor.onPostUpdate(updateOf(conceptOfOrganisation(null)));
+
+        assertNull(cache.get(Arrays.asList(2L, 20L)));
+    }
+
+    @Test
+    public void shouldClearTheCacheForEntitiesWithoutKeys() {
+        evictor.onPostUpdate(updateOf(new ConceptAnswer()));
+
+        assertNull(cache.get(Arrays.asList(1L, 10L)));
+        assertNull(cache.get(Arrays.asList(2L, 20L)));
+    }
+
+    @Test
+    public void shouldLeaveTheCacheForOtherEntities() {
+        evictor.onPostUpdate(updateOf("not an entity of the cache"));
+
+        assertNotNull(cache.get(Arrays.asList(1L, 10L)));
+    }
+
+    private static Concept conceptOfOrganisation(Long organisationId) {
+        Concept concept = new Concept();
+        concept.setOrganisationId(organisationId);
+        return concept;
+    }
+
+    private static PostUpdateEvent updateOf(Object entity) {
+        return new PostUpdateEvent(entity, 1L, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,126 @@
+package org.avni.server.framework.tomcat;
+
+import org.apache.tomcat.jdbc.pool.JdbcInterceptor;
+import org.apache.tomcat.jdbc.pool.PooledConnection;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class SetOrganisationJdbcInterceptorTest {
+    @Mock
+    private PooledConnection pooledConnection;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private JdbcInterceptor next;
+
+    private SetOrganisationJdbcInterceptor interceptor;
+
+    @Before
+    public void setup() throws SQLException {
+        initMocks(this);
+        when(pooledConnection.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.getAutoCommit()).thenReturn(true);
+        interceptor = new SetOrganisationJdbcInterceptor();
+        interceptor.setNext(next);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    public void shouldSetTheRoleOfTheOrganisationWhenItIsADifferentOne() throws SQLException {
+        borrowAs("org_a");
+        borrowAs("org_b");
+
+        verify(statement).execute("set role \"org_a\"; set application_name to \"org_a\";");
+        verify(statement).execute("set role \"org_b\"; set application_name to \"org_b\";");
+    }
+
+    @Test
+    public void shouldNotSetTheRoleAgainForTheSameOrganisation() throws SQLException {
+        borrowAs("org_a");
+        borrowAs("org_a");
+
+        verify(statement, times(1)).execute(anyString());
+    }
+
+    @Test
+    public void shouldResetTheRoleWhenThereIsNoOrganisation() throws SQLException {
+        borrowAs("org_a");
+        borrowAs(null);
+        borrowAs(null);
+
+        verify(statement, times(1)).execute("reset role; reset application_name;");
+    }
+
+    @Test
+    public void shouldSetTheRoleAgainWhenItWasSetOutsideAutoCommit() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        borrowAs("org_a");
+        borrowAs("org_a");
+
+        verify(statement, times(2)).execute("set role \"org_a\"; set application_name to \"org_a\";");
+    }
+
+    @Test
+    public void shouldSetTheRoleAgainWhenTheConnectionIsANewOne() throws SQLException {
+        Connection newConnection = mock(Connection.class);
+        Statement newStatement = mock(Statement.class);
+        when(newConnection.createStatement()).thenReturn(newStatement);
+        when(newConnection.getAutoCommit()).thenReturn(true);
+
+        borrowAs("org_a");
+        when(pooledConnection.getConnection()).thenReturn(newConnection);
+        borrowAs("org_a");
+
+        verify(newStatement).execute("set role \"org_a\"; set application_name to \"org_a\";");
+    }
+
+    @Test
+    public void shouldSetTheRoleAgainWhenItWasChangedWhileTheConnectionWasHeld() throws Throwable {
+        borrowAs("org_a");
+        interceptor.invoke(null, Connection.class.getMethod("prepareStatement", String.class), new Object[]{"reset role;"});
+        borrowAs("org_a");
+
+        verify(statement, times(2)).execute("set role \"org_a\"; set application_name to \"org_a\";");
+    }
+
+    @Test
+    public void shouldNotSetTheRoleAgainForOtherStatements() throws Throwable {
+        borrowAs("org_a");
+        interceptor.invoke(null, Connection.class.getMethod("prepareStatement", String.class), new Object[]{"select * from individual where first_name = 'reset role'"});
+        borrowAs("org_a");
+
+        verify(statement, times(1)).execute(anyString());
+    }
+
+    private void borrowAs(String dbUser) {
+        UserContext userContext = new UserContext();
+        if (dbUser != null) {
+            Organisation organisation = new Organisation();
+            organisation.setDbUser(dbUser);
+            userContext.setOrganisation(organisation);
+        }
+        UserContextHolder.create(userContext);
+        interceptor.reset(null, pooledConnection);
+    }
+}
@@ -0,0 +1,93 @@
+package org.avni.server.identifier;
+
+import org.avni.Avni;
+import org.avni.server.dao.AccountRepository;
+import org.avni.server.dao.IdentifierSourceRepository;
+import org.avni.server.dao.IdentifierUserAssignmentRepository;
+import org.avni.server.dao.UserRepository;
+import org.avni.server.domain.IdentifierSource;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.avni.server.domain.factory.TestOrganisationBuilder;
+import org.avni.server.domain.factory.UserBuilder;
+import org.avni.server.domain.identifier.IdentifierGeneratorType;
+import org.avni.server.framework.hibernate.PooledSequenceIdIntegrator;
+import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.service.builder.TestOrganisationService;
+import org.avni.server.service.builder.identifier.IdentifierSourceBuilder;
+import org.avni.server.service.builder.identifier.IdentifierUserAssignmentBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a batch of 1000 identifiers from a user's pool with {@link PrefixedUserPoolBasedIdentifierGenerator}, through
+ * Hibernate, with identity ids (pooledSequenceIds = false, a statement per identifier run when it is saved) and with
+ * pooled sequence ids (a nextval per 50 identifiers, inserted in jdbc batches of 50 at flush). Starts the server against
+ * the test database (set OPENCHS_DATABASE_URL to use another) and, like the integration tests, clears it with
+ * tear-down.sql. Run with ./gradlew :avni-server-api:jmh -Pjmh.args="IdentifierGeneratorBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IdentifierGeneratorBenchmark {
+    private static final String PREFIX = "B-";
+    private static final long IDENTIFIERS_PER_BATCH = 1000;
+
+    @Param({"false", "true"})
+    private boolean pooledSequenceIds;
+
+    private ConfigurableApplicationContext context;
+    private PrefixedUserPoolBasedIdentifierGenerator identifierGenerator;
+    private IdentifierSource identifierSource;
+    private User user;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Avni.class)
+                .properties("server.port=0", String.format("spring.jpa.properties.%s=%s", PooledSequenceIdIntegrator.ENABLED, pooledSequenceIds))
+                // needed by the test components picked up from the test classpath
+                .initializers(applicationContext -> applicationContext.getBeanFactory().registerSingleton("testRestTemplate", new TestRestTemplate()))
+                .run();
+        clearDatabase();
+        identifierGenerator = context.getBean(PrefixedUserPoolBasedIdentifierGenerator.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        user = new UserBuilder().withDefaultValuesForNewEntity().userName("benchmark@example").withAuditUser(userRepository.getDefaultSuperAdmin()).build();
+        Organisation organisation = new TestOrganisationBuilder().withMandatoryFields().withAccount(context.getBean(AccountRepository.class).getDefaultAccount()).build();
+        context.getBean(TestOrganisationService.class).createOrganisation(organisation, user);
+        user = userRepository.save(new UserBuilder(user).withAuditUser(user).build());
+        context.getBean(AuthService.class).authenticateByUserName(user.getUsername(), null);
+
+        identifierSource = context.getBean(IdentifierSourceRepository.class).save(new IdentifierSourceBuilder().addPrefix(PREFIX)
+                .setType(IdentifierGeneratorType.userPoolBasedIdentifierGenerator).setBatchGenerationSize(IDENTIFIERS_PER_BATCH).build());
+        context.getBean(IdentifierUserAssignmentRepository.class).save(new IdentifierUserAssignmentBuilder().setIdentifierSource(identifierSource)
+                .setIdentifierStart(PREFIX + "1").setIdentifierEnd(PREFIX + "999999999").setAssignedTo(user).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        UserContextHolder.clear();
+        clearDatabase();
+        context.close();
+    }
+
+    @Benchmark
+    public void generateIdentifiers() {
+        identifierGenerator.generateIdentifiers(identifierSource, user, PREFIX);
+    }
+
+    private void clearDatabase() {
+        new ResourceDatabasePopulator(new ClassPathResource("tear-down.sql")).execute(context.getBean(DataSource.class));
+    }
+}
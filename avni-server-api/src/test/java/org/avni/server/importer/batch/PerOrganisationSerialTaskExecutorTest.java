@@ -0,0 +1,67 @@
+package org.avni.server.importer.batch;
+
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PerOrganisationSerialTaskExecutorTest {
+    @Test
+    public void shouldRunTasksOfAnOrganisationInOrder() throws InterruptedException {
+        ExecutorService delegate = Executors.newFixedThreadPool(2);
+        PerOrganisationSerialTaskExecutor executor = new PerOrganisationSerialTaskExecutor(delegate::execute, 10);
+        List<Integer> ran = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            int task = i;
+            executor.execute(() -> {
+                synchronized (ran) {
+                    ran.add(task);
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, (int) ran.get(0));
+        assertEquals(1, (int) ran.get(1));
+        assertEquals(2, (int) ran.get(2));
+        delegate.shutdown();
+    }
+
+    @Test
+    public void shouldRejectTasksBeyondTheLimitOnSubmission() throws InterruptedException {
+        ExecutorService delegate = Executors.newSingleThreadExecutor();
+        PerOrganisationSerialTaskExecutor executor = new PerOrganisationSerialTaskExecutor(delegate::execute, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        Runnable task = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        };
+        executor.execute(task);
+        executor.execute(task);
+
+        try {
+            executor.execute(task);
+            fail();
+        } catch (TaskRejectedException ignored) {
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        delegate.shutdown();
+    }
+}
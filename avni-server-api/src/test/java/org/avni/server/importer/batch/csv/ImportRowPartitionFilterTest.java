@@ -0,0 +1,67 @@
+package org.avni.server.importer.batch.csv;
+
+import org.avni.server.importer.batch.model.Row;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ImportRowPartitionFilterTest {
+    private static final String[] ENCOUNTER_HEADERS = {"Id", "Subject Id", "Encounter Type"};
+
+    @Test
+    public void shouldWriteEachRowInExactlyOnePartition() {
+        List<ImportRowPartitionFilter> filters = filters("Encounter---Annual Visit", 3);
+        for (int i = 0; i < 50; i++) {
+            Row row = new Row(ENCOUNTER_HEADERS, new String[]{"e" + i, "s" + i, "Annual Visit"});
+            int acceptedBy = 0;
+            for (ImportRowPartitionFilter filter : filters) {
+                if (filter.process(row) != null) acceptedBy++;
+            }
+            assertEquals(1, acceptedBy);
+        }
+    }
+
+    @Test
+    public void shouldWriteRowsOfASubjectInTheSamePartition() {
+        List<ImportRowPartitionFilter> filters = filters("Encounter---Annual Visit", 4);
+        Row first = new Row(ENCOUNTER_HEADERS, new String[]{"e1", "s1", "Annual Visit"});
+        Row second = new Row(ENCOUNTER_HEADERS, new String[]{"e2", "s1", "Annual Visit"});
+        for (ImportRowPartitionFilter filter : filters) {
+            assertEquals(filter.process(first) == null, filter.process(second) == null);
+        }
+    }
+
+    @Test
+    public void shouldWriteLocationsInTheFirstPartitionOnly() {
+        List<ImportRowPartitionFilter> filters = filters("locations", 2);
+        Row row = new Row(new String[]{"State", "District"}, new String[]{"Karnataka", "Mysore"});
+        assertSame(row, filters.get(0).process(row));
+        assertNull(filters.get(1).process(row));
+    }
+
+    @Test
+    public void shouldNotFilterWhenNotPartitioned() {
+        ImportRowPartitionFilter filter = new ImportRowPartitionFilter();
+        ReflectionTestUtils.setField(filter, "type", "Encounter---Annual Visit");
+        Row row = new Row(ENCOUNTER_HEADERS, new String[]{"e1", "s1", "Annual Visit"});
+        assertSame(row, filter.process(row));
+    }
+
+    private static List<ImportRowPartitionFilter> filters(String type, int partitionCount) {
+        List<ImportRowPartitionFilter> filters = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            ImportRowPartitionFilter filter = new ImportRowPartitionFilter();
+            ReflectionTestUtils.setField(filter, "type", type);
+            ReflectionTestUtils.setField(filter, "partition", i);
+            ReflectionTestUtils.setField(filter, "partitionCount", partitionCount);
+            filters.add(filter);
+        }
+        return filters;
+    }
+}
@@ -6,15 +6,16 @@ import org.avni.server.application.KeyType;
 import org.avni.server.application.projections.VirtualCatchmentProjection;
 import org.avni.server.dao.AddressLevelTypeRepository;
 import org.avni.server.dao.LocationRepository;
-import org.avni.server.domain.AddressLevelType;
-import org.avni.server.domain.Catchment;
-import org.avni.server.domain.SubjectType;
+import org.avni.server.dao.OrganisationConfigRepository;
+import org.avni.server.domain.*;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -39,14 +40,9 @@ public class AddressLevelServiceTest {
         ));
 
         String orgConfig = "[{\"subjectTypeUUID\": \"first-subject-type-uuid\", \"locationTypeUUIDs\": [\"first-address-level-type-uuid\"]},{\"subjectTypeUUID\": \"second-subject-type-uuid\", \"locationTypeUUIDs\": [\"second-address-level-type-uuid\"]}]";
-        ObjectMapper objectMapper = new ObjectMapper();
-        when(organisationConfigService.getSettingsByKey(KeyType.customRegistrationLocations.toString())).thenReturn(
-                asList(objectMapper.readValue(orgConfig, Map[].class))
-        );
-        when(addressLevelTypeRepository.findAllByUuidIn(singletonList("first-address-level-type-uuid")))
-                .thenReturn(singletonList(createAddressLevelType(1L)));
-        when(addressLevelTypeRepository.findAllByUuidIn(singletonList("second-address-level-type-uuid")))
-                .thenReturn(singletonList(createAddressLevelType(2L)));
+        when(addressLevelTypeRepository.findAllByUuidIn(new HashSet<>(asList("first-address-level-type-uuid", "second-address-level-type-uuid"))))
+                .thenReturn(asList(createAddressLevelType(1L, "first-address-level-type-uuid"), createAddressLevelType(2L, "second-address-level-type-uuid")));
+        when(organisationConfigService.getOrganisationConfigSnapshot()).thenReturn(createSnapshot(orgConfig, addressLevelTypeRepository));
 
         AddressLevelCache addressLevelCache = new AddressLevelCache(locationRepository);
         AddressLevelService addressLevelService = new AddressLevelService(locationRepository, addressLevelTypeRepository, organisationConfigService, addressLevelCache);
@@ -58,18 +54,52 @@ public class AddressLevelServiceTest {
         assertThat(addressLevelService.getAllRegistrationAddressIdsBySubjectType(catchment, createSubjectType("second-subject-type-uuid"))).contains(3L, 4L);
     }
 
+    @Test
+    public void shouldSyncFromAllAddressesOfCatchmentWhenSubjectTypeHasNoRegistrationLocationTypes() throws JsonProcessingException {
+        LocationRepository locationRepository = mock(LocationRepository.class);
+        AddressLevelTypeRepository addressLevelTypeRepository = mock(AddressLevelTypeRepository.class);
+        OrganisationConfigService organisationConfigService = mock(OrganisationConfigService.class);
+
+        when(locationRepository.getVirtualCatchmentsForCatchmentId(1L)).thenReturn(asList(
+                new VirtualCatchmentProjectImplementation(1L, 7L, 1L, 1L),
+                new VirtualCatchmentProjectImplementation(2L, 3L, 1L, 2L)
+        ));
+        String orgConfig = "[{\"subjectTypeUUID\": \"first-subject-type-uuid\", \"locationTypeUUIDs\": [\"first-address-level-type-uuid\"]}]";
+        when(addressLevelTypeRepository.findAllByUuidIn(singleton("first-address-level-type-uuid")))
+                .thenReturn(singletonList(createAddressLevelType(1L, "first-address-level-type-uuid")));
+        when(organisationConfigService.getOrganisationConfigSnapshot()).thenReturn(createSnapshot(orgConfig, addressLevelTypeRepository));
+
+        AddressLevelService addressLevelService = new AddressLevelService(locationRepository, addressLevelTypeRepository, organisationConfigService, new AddressLevelCache(locationRepository));
+        Catchment catchment = new Catchment();
+        catchment.setId(1L);
+
+        assertThat(addressLevelService.getRegistrationAddressLevelTypeIds(createSubjectType("first-subject-type-uuid"))).containsExactly(1L);
+        assertThat(addressLevelService.getRegistrationAddressLevelTypeIds(createSubjectType("second-subject-type-uuid"))).isNull();
+        assertThat(addressLevelService.getAllRegistrationAddressIdsBySubjectType(catchment, createSubjectType("second-subject-type-uuid"))).containsExactly(3L, 7L);
+    }
+
     private SubjectType createSubjectType(String uuid) {
         SubjectType subjectType1 = new SubjectType();
         subjectType1.setUuid(uuid);
         return subjectType1;
     }
 
-    private AddressLevelType createAddressLevelType(long id) {
+    private AddressLevelType createAddressLevelType(long id, String uuid) {
         AddressLevelType addressLevelType = new AddressLevelType();
         addressLevelType.setId(id);
+        addressLevelType.setUuid(uuid);
         return addressLevelType;
     }
 
+    private OrganisationConfigSnapshot createSnapshot(String customRegistrationLocations, AddressLevelTypeRepository addressLevelTypeRepository) throws JsonProcessingException {
+        OrganisationConfigRepository organisationConfigRepository = mock(OrganisationConfigRepository.class);
+        OrganisationConfig organisationConfig = new OrganisationConfig();
+        organisationConfig.setSettings(new JsonObject().with(KeyType.customRegistrationLocations.toString(),
+                asList(new ObjectMapper().readValue(customRegistrationLocations, Map[].class))));
+        when(organisationConfigRepository.findByOrganisationId(1L)).thenReturn(organisationConfig);
+        return new OrganisationConfigCache(organisationConfigRepository, addressLevelTypeRepository).getSnapshot(1L);
+    }
+
     public static class VirtualCatchmentProjectImplementation implements VirtualCatchmentProjection {
         private final Long id;
         private final Long addressLevel_id;
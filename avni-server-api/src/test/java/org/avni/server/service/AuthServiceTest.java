@@ -9,11 +9,13 @@ import org.avni.server.dao.AccountAdminRepository;
 import org.avni.server.dao.OrganisationRepository;
 import org.avni.server.dao.UserRepository;
 import org.avni.server.domain.AccountAdmin;
+import org.avni.server.domain.Catchment;
 import org.avni.server.domain.Organisation;
 import org.avni.server.domain.User;
 import org.avni.server.domain.UserContext;
 import org.avni.server.domain.accessControl.AvniNoUserSessionException;
 import org.avni.server.framework.security.AuthService;
+import org.avni.server.framework.security.UserContextCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -23,6 +25,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -49,7 +53,7 @@ public class AuthServiceTest {
     public void setup() {
         initMocks(this);
 //        cognitoAuthService = new CognitoUserContextServiceImpl(organisationRepository, userRepository, "poolId", "clientId");
-        authService = new AuthService(userRepository, organisationRepository, accountAdminRepository,
+        authService = new AuthService(userRepository, new UserContextCache(accountAdminRepository, organisationRepository),
                 new IdpServiceFactory(organisationRepository, null, null, cognitoAuthService, keycloakAuthService, IdpType.cognito, null));
         String uuid = "9ecc2805-6528-47ee-8267-9368b266ad39";
         user = new User();
@@ -132,4 +136,23 @@ public class AuthServiceTest {
         assertThat(userContext.getUser(), is(equalTo(user)));
         assertThat(userContext.getOrganisation(), is(equalTo(organisation)));
     }
+
+    @Test
+    public void shouldGiveEveryContextItsOwnCopyOfTheCachedValues() throws SigningKeyNotFoundException {
+        Organisation organisation = new Organisation("org");
+        organisation.setId(1L);
+        organisation.setDbUser("org_user");
+        Catchment catchment = new Catchment();
+        catchment.setId(5L);
+        user.setCatchment(catchment);
+        when(organisationRepository.findOne(1L)).thenReturn(organisation);
+        when(cognitoAuthService.getUserFromToken("some token")).thenReturn(user);
+
+        UserContext userContext = authService.authenticateByToken("some token", null);
+
+        assertThat(userContext.getOrganisation(), is(equalTo(organisation)));
+        assertThat(userContext.getOrganisation(), is(not(sameInstance(organisation))));
+        assertThat(userContext.getOrganisation().getDbUser(), is(equalTo("org_user")));
+        assertThat(userContext.getCatchmentId(), is(equalTo(5L)));
+    }
 }
@@ -0,0 +1,144 @@
+package org.avni.server.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.Verification;
+import org.avni.server.dao.UserRepository;
+import org.avni.server.domain.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BaseIAMServiceTest {
+    private static final String ISSUER = "https://idp.example.org/realm";
+    private static final String AUDIENCE = "avni";
+    private static final String USER_UUID = "9ecc2805-6528-47ee-8267-9368b266ad39";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private JwkProvider jwkProvider;
+    @Mock
+    private Jwk jwk;
+    private KeyPair keyPair;
+    private User user;
+    private BaseIAMService iamService;
+
+    @Before
+    public void setup() throws Exception {
+        initMocks(this);
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+        when(jwkProvider.get("kid-1")).thenReturn(jwk);
+        when(jwk.getPublicKey()).thenReturn(keyPair.getPublic());
+
+        user = new User();
+        user.setId(10L);
+        user.setUuid(USER_UUID);
+        when(userRepository.findByUuid(USER_UUID)).thenReturn(user);
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        iamService = new TestIAMService(userRepository, jwkProvider);
+    }
+
+    @Test
+    public void shouldNotVerifyOrLookupByUuidAgainForATokenAlreadyVerified() throws Exception {
+        String token = token(new Date(System.currentTimeMillis() + 3600 * 1000));
+
+        assertSame(user, iamService.getUserFromToken(token));
+        assertSame(user, iamService.getUserFromToken(token));
+
+        verify(jwkProvider, times(1)).get("kid-1");
+        verify(userRepository, times(1)).findByUuid(USER_UUID);
+        verify(userRepository, times(1)).findById(10L);
+    }
+
+    @Test
+    public void shouldVerifyAgainOnceTheTokenHasExpired() throws Exception {
+        String token = token(new Date(System.currentTimeMillis() - 1000));
+
+        assertSame(user, iamService.getUserFromToken(token));
+        assertSame(user, iamService.getUserFromToken(token));
+
+        verify(jwkProvider, times(2)).get("kid-1");
+        verify(userRepository, never()).findById(10L);
+    }
+
+    @Test
+    public void shouldVerifyEachTokenSeparately() throws Exception {
+        iamService.getUserFromToken(token(new Date(System.currentTimeMillis() + 3600 * 1000)));
+        iamService.getUserFromToken(token(new Date(System.currentTimeMillis() + 7200 * 1000)));
+
+        verify(jwkProvider, times(2)).get("kid-1");
+    }
+
+    private String token(Date expiresAt) {
+        return JWT.create()
+                .withKeyId("kid-1")
+                .withIssuer(ISSUER)
+                .withAudience(AUDIENCE)
+                .withExpiresAt(expiresAt)
+                .withClaim("custom:userUUID", USER_UUID)
+                .sign(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+    }
+
+    private static class TestIAMService extends BaseIAMService {
+        private final JwkProvider jwkProvider;
+
+        TestIAMService(UserRepository userRepository, JwkProvider jwkProvider) {
+            super(userRepository);
+            this.jwkProvider = jwkProvider;
+        }
+
+        @Override
+        protected JwkProvider getJwkProvider() {
+            return jwkProvider;
+        }
+
+        @Override
+        protected String getUserUuidField() {
+            return "custom:userUUID";
+        }
+
+        @Override
+        protected String getUsernameField() {
+            return "cognito:username";
+        }
+
+        @Override
+        protected void addClaim(Verification verification) {
+        }
+
+        @Override
+        protected String getAudience() {
+            return AUDIENCE;
+        }
+
+        @Override
+        protected String getJwkProviderUrl() {
+            return ISSUER + "/certs";
+        }
+
+        @Override
+        protected String getIssuer() {
+            return ISSUER;
+        }
+
+        @Override
+        public void logConfiguration() {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.*;
+import org.avni.server.dao.application.FormElementRepository;
+import org.avni.server.domain.AddressLevel;
+import org.avni.server.domain.AddressLevelType;
+import org.avni.server.domain.Concept;
+import org.avni.server.domain.ConceptDataType;
+import org.avni.server.domain.ConceptDictionary;
+import org.avni.server.domain.ObservationCollection;
+import org.avni.server.domain.factory.metadata.ConceptBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ConceptServiceLocationValuesTest {
+    @Mock
+    private LocationRepository locationRepository;
+
+    private ConceptService conceptService;
+    private ConceptDictionary conceptDictionary;
+    private Map<String, String> conceptNames;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        conceptService = new ConceptService(mock(ConceptRepository.class), mock(ConceptAnswerRepository.class), mock(OrganisationRepository.class),
+                mock(UserService.class), mock(FormElementRepository.class), mock(AnswerConceptMigrationRepository.class), locationRepository,
+                mock(ConceptDictionaryCache.class));
+        conceptDictionary = new ConceptDictionary(Arrays.asList(concept(1, "village-concept", "Village"), concept(2, "group-concept", "Household"),
+                concept(3, "name-concept", "Name"), concept(4, "coded-concept", "Coded"), concept(5, "yes-concept", "Yes")), Collections.emptyList());
+        conceptNames = conceptDictionary.getUuidToName();
+    }
+
+    @Test
+    public void shouldLookUpOnlyValuesThatAreNotConceptsInOneQuery() {
+        ObservationCollection observations = new ObservationCollection();
+        observations.put("village-concept", "village-uuid");
+        observations.put("coded-concept", "yes-concept");
+        HashMap<String, Object> groupObservations = new HashMap<>();
+        groupObservations.put("name-concept", "Ramesh");
+        observations.put("group-concept", new ArrayList<>(Collections.singletonList(groupObservations)));
+        AddressLevel village = addressLevel("village-uuid", "V-1", "Village", "Kalamb");
+        when(locationRepository.findAllByLegacyIdOrUuidIn(anyCollection())).thenReturn(Collections.singletonList(village));
+
+        Map<String, AddressLevel> locations = conceptService.findLocationsOfObservationValues(conceptNames, Arrays.asList(observations, null));
+
+        ArgumentCaptor<Collection<String>> lookedUp = ArgumentCaptor.forClass(Collection.class);
+        verify(locationRepository).findAllByLegacyIdOrUuidIn(lookedUp.capture());
+        assertEquals(new HashSet<>(Arrays.asList("village-uuid", "Ramesh")), new HashSet<>(lookedUp.getValue()));
+        assertEquals(village, locations.get("village-uuid"));
+        assertEquals(village, locations.get("V-1"));
+    }
+
+    @Test
+    public void shouldMapValuesWithTheFoundLocations() {
+        AddressLevel village = addressLevel("village-uuid", null, "Village", "Kalamb");
+        village.setParent(addressLevel("block-uuid", null, "Block", "Ner"));
+        Map<String, AddressLevel> locations = Collections.singletonMap("village-uuid", village);
+
+        Map<String, String> address = (Map<String, String>) conceptService.getObservationValue(conceptDictionary, locations::get, "village-uuid");
+
+        assertEquals("Kalamb", address.get("Village"));
+        assertEquals("Ner", address.get("Block"));
+        assertEquals("Ramesh", conceptService.getObservationValue(conceptDictionary, locations::get, "Ramesh"));
+        assertEquals("Yes", conceptService.getObservationValue(conceptDictionary, locations::get, "yes-concept"));
+        verify(locationRepository, never()).findByLegacyIdOrUuid(anyString());
+    }
+
+    private static Concept concept(long id, String uuid, String name) {
+        return new ConceptBuilder().withId(id).withUuid(uuid).withName(name).withDataType(ConceptDataType.Text).build();
+    }
+
+    private static AddressLevel addressLevel(String uuid, String legacyId, String type, String title) {
+        AddressLevelType addressLevelType = new AddressLevelType();
+        addressLevelType.setName(type);
+        AddressLevel addressLevel = new AddressLevel();
+        addressLevel.setUuid(uuid);
+        addressLevel.setLegacyId(legacyId);
+        addressLevel.setType(addressLevelType);
+        addressLevel.setTitle(title);
+        return addressLevel;
+    }
+}
@@ -8,6 +8,7 @@ import org.avni.server.dao.application.FormRepository;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptAnswer;
 import org.avni.server.domain.ConceptDataType;
+import org.avni.server.domain.ConceptDictionary;
 import org.avni.server.domain.ObservationCollection;
 import org.avni.server.domain.factory.metadata.ConceptBuilder;
 import org.avni.server.web.external.request.export.ExportFilters;
@@ -38,6 +39,8 @@ public class ObservationServiceTest {
     private FormRepository formRepository;
     @Mock
     private EnhancedValidationService enhancedValidationService;
+    @Mock
+    private ConceptService conceptService;
 
     private ObservationService observationService;
 
@@ -46,7 +49,7 @@ public class ObservationServiceTest {
     @Before
     public void setup() {
         initMocks(this);
-        observationService = new ObservationService(conceptRepository, individualRepository, locationRepository, namedParameterJdbcTemplate, formRepository, Optional.of(enhancedValidationService));
+        observationService = new ObservationService(conceptRepository, individualRepository, locationRepository, namedParameterJdbcTemplate, formRepository, Optional.of(enhancedValidationService), conceptService);
     }
 
     @Test
@@ -66,8 +69,7 @@ public class ObservationServiceTest {
         abc.setConceptAnswers(new HashSet<>());
         abc.addAnswer(abc_efg);
 
-        when(conceptRepository.findByName("ABC")).thenReturn(abc);
-        when(conceptRepository.findByName("EFG")).thenReturn(efg);
+        when(conceptService.getConceptDictionary()).thenReturn(new ConceptDictionary(Arrays.asList(abc, efg), Collections.singletonList(abc_efg)));
 
         ObservationRequest req0 = new ObservationRequest();
         ObservationRequest req1 = new ObservationRequest();
@@ -32,7 +32,7 @@ public class OrganisationConfigServiceTest {
         JsonObject settings = new JsonObject().with(OrganisationConfigSettingKey.customRegistrationLocations.name(), true);
         organisationConfig.setSettings(settings);
         when(organisationRepository.findByOrganisationId(25l)).thenReturn(organisationConfig);
-        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationRepository, null, null, null, null);
+        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationRepository, null, null, null, null, null);
 
         Organisation organisation = new Organisation();
         organisation.setId(25l);
@@ -59,7 +59,7 @@ public class OrganisationConfigServiceTest {
         JsonObject settings = new JsonObject().with(OrganisationConfigSettingKey.enableMessaging.name(), true);
         organisationConfigWithMessagingEnabled.setSettings(settings);
         when(organisationConfigRepository.findByOrganisationId(organisationId)).thenReturn(organisationConfigWithoutMessagingEnabled).thenReturn(organisationConfigWithMessagingEnabled);
-        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationConfigRepository, null, null, null, null);
+        OrganisationConfigService organisationConfigService = new OrganisationConfigService(organisationConfigRepository, null, null, null, null, new OrganisationConfigCache(organisationConfigRepository, null));
 
         assertThat(organisationConfigService.isMessagingEnabled(), is(false));
         assertThat(organisationConfigService.isMessagingEnabled(), is(true));
@@ -0,0 +1,166 @@
+package org.avni.server.service;
+
+import org.avni.server.dao.sync.SyncEntityChangeRepository;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.Organisation;
+import org.avni.server.domain.User;
+import org.avni.server.domain.UserContext;
+import org.avni.server.framework.security.UserContextHolder;
+import org.avni.server.web.request.EntitySyncStatusContract;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class SyncEntityChangeDetectionServiceTest {
+    @Mock
+    private SyncEntityChangeRepository syncEntityChangeRepository;
+    @Mock
+    private EntityChangeWatermarkCache entityChangeWatermarkCache;
+    @Mock
+    private NonScopeAwareService ruleService;
+    @Mock
+    private NonScopeAwareService taskService;
+    @Mock
+    private ScopeAwareService individualService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SyncEntityChangeDetectionService service;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+        when(syncEntityChangeRepository.supports(SyncEntityName.Rule)).thenReturn(true);
+        service = new SyncEntityChangeDetectionService(syncEntityChangeRepository, entityChangeWatermarkCache, transactionManager, 2, 10, 500);
+    }
+
+    @After
+    public void tearDown() {
+        UserContextHolder.clear();
+        service.shutdown();
+    }
+
+    @Test
+    public void shouldCheckTableBackedEntitiesInOneQueryAndOthersThroughServices() {
+        when(syncEntityChangeRepository.getChangedEntities(anyMap())).thenReturn(EnumSet.of(SyncEntityName.Rule));
+        when(taskService.isNonScopeEntityChanged(any())).thenReturn(false);
+        when(individualService.isScopeEntityChanged(any(), eq("st-1"))).thenReturn(true);
+
+        List<EntitySyncStatusContract> changed = service.getChangedEntities(contracts(), scopeAwareServices(), nonScopeAwareServices());
+
+        assertEquals(Arrays.asList("Rule", "Individual"), entityNames(changed));
+        verify(ruleService, never()).isNonScopeEntityChanged(any());
+        verify(syncEntityChangeRepository, times(1)).getChangedEntities(anyMap());
+    }
+
+    @Test
+    public void shouldReportChecksExceedingTheBudgetAsChanged() {
+        when(syncEntityChangeRepository.getChangedEntities(anyMap())).thenReturn(EnumSet.noneOf(SyncEntityName.class));
+        when(taskService.isNonScopeEntityChanged(any())).thenReturn(false);
+        when(individualService.isScopeEntityChanged(any(), eq("st-1"))).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return false;
+        });
+
+        List<EntitySyncStatusContract> changed = service.getChangedEntities(contracts(), scopeAwareServices(), nonScopeAwareServices());
+
+        assertEquals(Collections.singletonList("Individual"), entityNames(changed));
+    }
+
+    @Test
+    public void shouldNotQueryMetadataThatHasNotChangedAsPerWatermark() {
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+        Map<SyncEntityName, DateTime> watermarks = new EnumMap<>(SyncEntityName.class);
+        watermarks.put(SyncEntityName.Rule, new DateTime().minusDays(2));
+        when(entityChangeWatermarkCache.getWatermarks(1L)).thenReturn(watermarks);
+        when(syncEntityChangeRepository.getChangedEntities(anyMap())).thenReturn(EnumSet.noneOf(SyncEntityName.class));
+        when(taskService.isNonScopeEntityChanged(any())).thenReturn(false);
+        when(individualService.isScopeEntityChanged(any(), eq("st-1"))).thenReturn(false);
+
+        List<EntitySyncStatusContract> changed = service.getChangedEntities(contracts(), scopeAwareServices(), nonScopeAwareServices());
+
+        assertEquals(Collections.emptyList(), entityNames(changed));
+        verify(syncEntityChangeRepository).getChangedEntities(Collections.emptyMap());
+    }
+
+    @Test
+    public void shouldQueryMetadataWithoutAWatermark() {
+        Organisation organisation = new Organisation();
+        organisation.setId(1L);
+        UserContext userContext = new UserContext();
+        userContext.setOrganisation(organisation);
+        UserContextHolder.create(userContext);
+        when(entityChangeWatermarkCache.getWatermarks(1L)).thenReturn(new EnumMap<>(SyncEntityName.class));
+        when(syncEntityChangeRepository.getChangedEntities(anyMap())).thenReturn(EnumSet.of(SyncEntityName.Rule));
+        when(taskService.isNonScopeEntityChanged(any())).thenReturn(false);
+        when(individualService.isScopeEntityChanged(any(), eq("st-1"))).thenReturn(false);
+
+        List<EntitySyncStatusContract> changed = service.getChangedEntities(contracts(), scopeAwareServices(), nonScopeAwareServices());
+
+        assertEquals(Collections.singletonList("Rule"), entityNames(changed));
+        verify(syncEntityChangeRepository).getChangedEntities(argThat(lastLoadedSince -> lastLoadedSince.containsKey(SyncEntityName.Rule)));
+    }
+
+    @Test
+    public void shouldRunChecksAsTheUserOfTheRequestWithoutReadingItAgain() {
+        User user = new User();
+        user.setId(1L);
+        UserContext userContext = new UserContext();
+        userContext.setUser(user);
+        UserContextHolder.create(userContext);
+        List<User> usersOfChecks = Collections.synchronizedList(new ArrayList<>());
+        when(syncEntityChangeRepository.getChangedEntities(anyMap())).thenReturn(EnumSet.noneOf(SyncEntityName.class));
+        when(taskService.isNonScopeEntityChanged(any())).thenAnswer(invocation -> usersOfChecks.add(UserContextHolder.getUserContext().getUser()));
+        when(individualService.isScopeEntityChanged(any(), eq("st-1"))).thenAnswer(invocation -> usersOfChecks.add(UserContextHolder.getUserContext().getUser()));
+
+        service.getChangedEntities(contracts(), scopeAwareServices(), nonScopeAwareServices());
+
+        assertEquals(2, usersOfChecks.size());
+        usersOfChecks.forEach(userOfCheck -> assertSame(user, userOfCheck));
+    }
+
+    private List<EntitySyncStatusContract> contracts() {
+        List<EntitySyncStatusContract> contracts = new ArrayList<>();
+        contracts.add(EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Rule));
+        contracts.add(EntitySyncStatusContract.createForEntityWithoutSubType(SyncEntityName.Task));
+        contracts.add(EntitySyncStatusContract.createForEntityWithSubType(SyncEntityName.Individual, "st-1"));
+        contracts.forEach(contract -> contract.setLoadedSince(new DateTime().minusDays(1)));
+        return contracts;
+    }
+
+    private Map<SyncEntityName, ScopeAwareService> scopeAwareServices() {
+        Map<SyncEntityName, ScopeAwareService> services = new HashMap<>();
+        services.put(SyncEntityName.Individual, individualService);
+        return services;
+    }
+
+    private Map<SyncEntityName, NonScopeAwareService> nonScopeAwareServices() {
+        Map<SyncEntityName, NonScopeAwareService> services = new HashMap<>();
+        services.put(SyncEntityName.Rule, ruleService);
+        services.put(SyncEntityName.Task, taskService);
+        return services;
+    }
+
+    private static List<String> entityNames(List<EntitySyncStatusContract> contracts) {
+        List<String> names = new ArrayList<>();
+        contracts.forEach(contract -> names.add(contract.getEntityName()));
+        return names;
+    }
+}
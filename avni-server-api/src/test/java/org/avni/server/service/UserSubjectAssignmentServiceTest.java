@@ -20,7 +20,6 @@ import org.mockito.Mock;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -85,7 +84,7 @@ public class UserSubjectAssignmentServiceTest {
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelWithinCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges(any())).thenReturn(new GroupPrivileges(false));
         when(avniMetaDataRuleService.isDirectAssignmentAllowedFor(any())).thenReturn(true);
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().mapToLong(AddressLevel::getId).sorted().toArray());
 
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
@@ -105,7 +104,7 @@ public class UserSubjectAssignmentServiceTest {
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelWithinCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges(any())).thenReturn(new GroupPrivileges(false));
         when(avniMetaDataRuleService.isDirectAssignmentAllowedFor(any())).thenReturn(true);
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().mapToLong(AddressLevel::getId).sorted().toArray());
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
     }
@@ -120,7 +119,7 @@ public class UserSubjectAssignmentServiceTest {
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelOutsideCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges(any())).thenReturn(new GroupPrivileges(false));
         when(avniMetaDataRuleService.isDirectAssignmentAllowedFor(any())).thenReturn(true);
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().mapToLong(AddressLevel::getId).sorted().toArray());
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
         verify(userSubjectAssignmentRepository, times(2)).save(userSubjectAssignmentCaptor.capture());
@@ -140,7 +139,7 @@ public class UserSubjectAssignmentServiceTest {
                 .withMember(new SubjectBuilder().setId(2).withLocation(addressLevelOutsideCatchment).withSubjectType(new SubjectTypeBuilder().setGroup(false).build()).setId(2).build()).build()));
         when(groupPrivilegeService.getGroupPrivileges(any())).thenReturn(new GroupPrivileges(false));
         when(avniMetaDataRuleService.isDirectAssignmentAllowedFor(any())).thenReturn(true);
-        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().map(AddressLevel::getId).collect(Collectors.toList()));
+        when(addressLevelService.getAllRegistrationAddressIdsBySubjectType(any(), any())).thenReturn(catchment.getAddressLevels().stream().mapToLong(AddressLevel::getId).sorted().toArray());
 
         userSubjectAssignmentService.assignSubjects(userSubjectAssignmentContract);
         verify(userSubjectAssignmentRepository, times(2)).save(userSubjectAssignmentCaptor.capture());
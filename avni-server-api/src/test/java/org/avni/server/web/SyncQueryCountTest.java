@@ -0,0 +1,166 @@
+package org.avni.server.web;
+
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.*;
+import org.avni.server.dao.sync.SyncEntityName;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.UserBuilder;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.*;
+import org.avni.server.web.response.slice.SlicedResources;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.Resource;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * A sync slice is read with one query, including the uuids of the entities it refers to, however many entities it has.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SyncQueryCountTest extends AbstractControllerIntegrationTest {
+    private static final int NUMBER_OF_SUBJECTS = 5;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private IndividualController individualController;
+    @Autowired
+    private ProgramEnrolmentController programEnrolmentController;
+    @Autowired
+    private EncounterController encounterController;
+    @Autowired
+    private ProgramEncounterController programEncounterController;
+    @Autowired
+    private IndividualRepository individualRepository;
+    @Autowired
+    private ProgramEnrolmentRepository programEnrolmentRepository;
+    @Autowired
+    private EncounterRepository encounterRepository;
+    @Autowired
+    private ProgramEncounterRepository programEncounterRepository;
+    @Autowired
+    private EncounterTypeRepository encounterTypeRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+
+    private Statistics statistics;
+    private User user;
+    private TestDataSetupService.TestCatchmentData catchmentData;
+    private SubjectType subjectType;
+    private Program program;
+    private EncounterType encounterType;
+    private EncounterType programEncounterType;
+
+    @Before
+    public void setup() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        catchmentData = testDataSetupService.setupACatchment();
+        subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().setUuid("subjectTypeForSyncQueryCount").setName("subjectTypeForSyncQueryCount").build());
+        program = testProgramService.addProgram(new ProgramBuilder().withName("programForSyncQueryCount").build(), subjectType);
+        encounterType = createEncounterType("encounterTypeForSyncQueryCount");
+        programEncounterType = createEncounterType("programEncounterTypeForSyncQueryCount");
+
+        for (int i = 0; i < NUMBER_OF_SUBJECTS; i++) {
+            Individual individual = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(catchmentData.getAddressLevel1()).build());
+            ProgramEnrolment programEnrolment = testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity().setProgram(program).setIndividual(individual).build());
+
+            Encounter encounter = new Encounter();
+            encounter.setIndividual(individual);
+            setMandatoryFields(encounter, encounterType, individual);
+            encounterRepository.save(encounter);
+
+            ProgramEncounter programEncounter = new ProgramEncounter();
+            programEncounter.setIndividual(individual);
+            programEncounter.setProgramEnrolment(programEnrolment);
+            setMandatoryFields(programEncounter, programEncounterType, individual);
+            programEncounterRepository.save(programEncounter);
+        }
+
+        user = userRepository.save(new UserBuilder(organisationData.getUser()).withCatchment(catchmentData.getCatchment()).withOperatingIndividualScope(OperatingIndividualScope.ByCatchment).build());
+        setUser(user.getUsername());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void individualSliceShouldBeReadInOneQuery() {
+        SlicedResources<Resource<Individual>> resources = readSlice(individualRepository, individualController, subjectType.getId(), SyncEntityName.Individual);
+        Resource<Individual> resource = resources.getContent().iterator().next();
+        assertEquals(subjectType.getUuid(), resource.getLink("subjectTypeUUID").getHref());
+        assertEquals(catchmentData.getAddressLevel1().getUuid(), resource.getLink("addressUUID").getHref());
+    }
+
+    @Test
+    public void programEnrolmentSliceShouldBeReadInOneQuery() {
+        SlicedResources<Resource<ProgramEnrolment>> resources = readSlice(programEnrolmentRepository, programEnrolmentController, program.getId(), SyncEntityName.Enrolment);
+        Resource<ProgramEnrolment> resource = resources.getContent().iterator().next();
+        assertEquals(program.getUuid(), resource.getLink("programUUID").getHref());
+        assertNull(resource.getLink("programOutcomeUUID"));
+    }
+
+    @Test
+    public void encounterSliceShouldBeReadInOneQuery() {
+        SlicedResources<Resource<Encounter>> resources = readSlice(encounterRepository, encounterController, encounterType.getId(), SyncEntityName.Encounter);
+        Resource<Encounter> resource = resources.getContent().iterator().next();
+        assertEquals(encounterType.getUuid(), resource.getLink("encounterTypeUUID").getHref());
+    }
+
+    @Test
+    public void programEncounterSliceShouldBeReadInOneQuery() {
+        SlicedResources<Resource<ProgramEncounter>> resources = readSlice(programEncounterRepository, programEncounterController, programEncounterType.getId(), SyncEntityName.ProgramEncounter);
+        Resource<ProgramEncounter> resource = resources.getContent().iterator().next();
+        assertEquals(programEncounterType.getUuid(), resource.getLink("encounterTypeUUID").getHref());
+    }
+
+    private <T extends CHSEntity> SlicedResources<Resource<T>> readSlice(OperatingIndividualScopeAwareRepository<T> repository, RestControllerResourceProcessor<T> resourceProcessor, Long typeId, SyncEntityName syncEntityName) {
+        SyncParameters syncParameters = new SyncParameters(DateTime.now().minusDays(1), DateTime.now(), typeId, null, PageRequest.of(0, 100),
+                null, subjectType, user.getSyncSettings(), syncEntityName, catchmentData.getCatchment());
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        Slice<T> slice = repository.getSyncResultsAsSlice(syncParameters);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        SlicedResources<Resource<T>> resources = resourceProcessor.wrap(slice);
+        assertEquals(NUMBER_OF_SUBJECTS, resources.getContent().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        return resources;
+    }
+
+    private EncounterType createEncounterType(String name) {
+        EncounterType encounterType = new EncounterTypeBuilder().withName(name).build();
+        encounterType.setUuid(UUID.randomUUID().toString());
+        return encounterTypeRepository.save(encounterType);
+    }
+
+    private void setMandatoryFields(AbstractEncounter encounter, EncounterType encounterType, Individual individual) {
+        encounter.setUuid(UUID.randomUUID().toString());
+        encounter.setEncounterType(encounterType);
+        encounter.setEncounterDateTime(DateTime.now());
+        encounter.setObservations(new ObservationCollection());
+        encounter.setAddressId(individual.getAddressLevel().getId());
+    }
+}
@@ -0,0 +1,159 @@
+package org.avni.server.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.avni.server.application.Form;
+import org.avni.server.application.FormType;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.EncounterRepository;
+import org.avni.server.dao.EncounterTypeRepository;
+import org.avni.server.dao.ProgramEncounterRepository;
+import org.avni.server.dao.application.FormMappingRepository;
+import org.avni.server.dao.application.FormRepository;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.UserBuilder;
+import org.avni.server.domain.factory.metadata.FormMappingBuilder;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.metadata.TestFormBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.*;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A sync slice streamed with stream=true is the same as the slice of the entities, through the real tuple query (with
+ * observations read by jsonb_text) run on the thread writing the response, in its read only transaction as the user of
+ * the request.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SyncResponseStreamerTest extends AbstractControllerIntegrationTest {
+    private static final int NUMBER_OF_SUBJECTS = 5;
+    private static final int SLICE_SIZE = 2;
+
+    @Autowired
+    private EncounterRepository encounterRepository;
+    @Autowired
+    private ProgramEncounterRepository programEncounterRepository;
+    @Autowired
+    private EncounterTypeRepository encounterTypeRepository;
+    @Autowired
+    private FormRepository formRepository;
+    @Autowired
+    private FormMappingRepository formMappingRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+
+    private EncounterType encounterType;
+    private EncounterType programEncounterType;
+
+    @Before
+    public void setup() {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().setUuid("subjectTypeForSyncStream").setName("subjectTypeForSyncStream").build());
+        Program program = testProgramService.addProgram(new ProgramBuilder().withName("programForSyncStream").build(), subjectType);
+        encounterType = createEncounterType("encounterTypeForSyncStream", FormType.Encounter, subjectType, null);
+        programEncounterType = createEncounterType("programEncounterTypeForSyncStream", FormType.ProgramEncounter, subjectType, program);
+
+        for (int i = 0; i < NUMBER_OF_SUBJECTS; i++) {
+            Individual individual = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType).withLocation(catchmentData.getAddressLevel1()).build());
+            ProgramEnrolment programEnrolment = testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity().setProgram(program).setIndividual(individual).build());
+
+            Encounter encounter = new Encounter();
+            encounter.setIndividual(individual);
+            setFields(encounter, encounterType, individual, i);
+            encounterRepository.save(encounter);
+
+            ProgramEncounter programEncounter = new ProgramEncounter();
+            programEncounter.setIndividual(individual);
+            programEncounter.setProgramEnrolment(programEnrolment);
+            setFields(programEncounter, programEncounterType, individual, i);
+            programEncounterRepository.save(programEncounter);
+        }
+
+        User user = userRepository.save(new UserBuilder(organisationData.getUser()).withCatchment(catchmentData.getCatchment()).withOperatingIndividualScope(OperatingIndividualScope.ByCatchment).build());
+        setUser(user.getUsername());
+    }
+
+    @Test
+    public void streamedEncounterSlicesShouldBeTheSameAsEntitySlices() throws IOException {
+        assertSameSlices("/encounter/v2", "encounterTypeUuid", encounterType, "encounter");
+    }
+
+    @Test
+    public void streamedProgramEncounterSlicesShouldBeTheSameAsEntitySlices() throws IOException {
+        assertSameSlices("/programEncounter/v2", "programEncounterTypeUuid", programEncounterType, "programEncounter");
+    }
+
+    private void assertSameSlices(String path, String typeParameter, EncounterType type, String rel) throws IOException {
+        String url = String.format("%s?lastModifiedDateTime=%s&now=%s&%s=%s&size=%d", path, DateTime.now(DateTimeZone.UTC).minusDays(1),
+                DateTime.now(DateTimeZone.UTC).plusMinutes(1), typeParameter, type.getUuid(), SLICE_SIZE);
+        int entities = 0;
+        String next = url + "&page=0";
+        while (next != null) {
+            JsonNode slice = get(next);
+            assertEquals(slice, get(next + "&stream=true"));
+
+            JsonNode embedded = slice.path("_embedded").path(rel);
+            for (JsonNode entity : embedded) {
+                assertEquals(type.getUuid(), entity.get("encounterType").get("uuid").asText());
+                assertTrue(entity.get("observations").size() > 0);
+            }
+            entities += embedded.size();
+            JsonNode metadata = slice.get("slice");
+            if (!metadata.get("hasNext").asBoolean()) next = null;
+            else if (metadata.has("continuationToken")) next = url + "&continuationToken=" + metadata.get("continuationToken").asText();
+            else next = String.format("%s&page=%d", url, metadata.get("number").asInt() + 1);
+        }
+        assertEquals(NUMBER_OF_SUBJECTS, entities);
+    }
+
+    private JsonNode get(String url) throws IOException {
+        ResponseEntity<String> response = template.getForEntity(url, String.class);
+        assertTrue(response.getBody(), response.getStatusCode().is2xxSuccessful());
+        return mapper.readTree(response.getBody());
+    }
+
+    private EncounterType createEncounterType(String name, FormType formType, SubjectType subjectType, Program program) {
+        EncounterType encounterType = new EncounterTypeBuilder().withName(name).build();
+        encounterType.setUuid(UUID.randomUUID().toString());
+        encounterTypeRepository.save(encounterType);
+        Form form = formRepository.save(new TestFormBuilder().withDefaultFieldsForNewEntity().withFormType(formType).build());
+        formMappingRepository.save(new FormMappingBuilder().withForm(form).withSubjectType(subjectType).withProgram(program).withEncounterType(encounterType).build());
+        return encounterType;
+    }
+
+    private void setFields(AbstractEncounter encounter, EncounterType encounterType, Individual individual, int number) {
+        encounter.setUuid(UUID.randomUUID().toString());
+        encounter.setEncounterType(encounterType);
+        encounter.setName(String.format("%s %d", encounterType.getName(), number));
+        encounter.setEncounterDateTime(DateTime.now());
+        encounter.setEarliestVisitDateTime(DateTime.now().minusDays(1));
+        ObservationCollection observations = new ObservationCollection();
+        observations.put(UUID.randomUUID().toString(), String.format("value %d", number));
+        observations.put(UUID.randomUUID().toString(), number);
+        encounter.setObservations(observations);
+        encounter.setAddressId(individual.getAddressLevel().getId());
+    }
+}
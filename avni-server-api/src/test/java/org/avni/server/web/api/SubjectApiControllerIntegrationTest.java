@@ -0,0 +1,131 @@
+package org.avni.server.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.avni.server.common.AbstractControllerIntegrationTest;
+import org.avni.server.dao.ConceptRepository;
+import org.avni.server.dao.EncounterRepository;
+import org.avni.server.dao.EncounterTypeRepository;
+import org.avni.server.dao.GroupRoleRepository;
+import org.avni.server.domain.*;
+import org.avni.server.domain.factory.metadata.ConceptBuilder;
+import org.avni.server.domain.factory.metadata.ProgramBuilder;
+import org.avni.server.domain.factory.txData.ObservationCollectionBuilder;
+import org.avni.server.domain.factory.txn.ProgramEnrolmentBuilder;
+import org.avni.server.domain.factory.txn.SubjectBuilder;
+import org.avni.server.domain.factory.txn.TestGroupRoleBuilder;
+import org.avni.server.domain.factory.txn.TestGroupSubjectBuilder;
+import org.avni.server.domain.metadata.SubjectTypeBuilder;
+import org.avni.server.service.builder.*;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The response of a subject read on its own, which is also the response after a subject is saved, is the same as its
+ * response in a page of subjects.
+ */
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/tear-down.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class SubjectApiControllerIntegrationTest extends AbstractControllerIntegrationTest {
+    private static final int NUMBER_OF_MEMBERS = 3;
+
+    @Autowired
+    private ConceptRepository conceptRepository;
+    @Autowired
+    private EncounterRepository encounterRepository;
+    @Autowired
+    private EncounterTypeRepository encounterTypeRepository;
+    @Autowired
+    private GroupRoleRepository groupRoleRepository;
+    @Autowired
+    private TestDataSetupService testDataSetupService;
+    @Autowired
+    private TestSubjectTypeService testSubjectTypeService;
+    @Autowired
+    private TestProgramService testProgramService;
+    @Autowired
+    private TestConceptService testConceptService;
+    @Autowired
+    private TestSubjectService testSubjectService;
+    @Autowired
+    private TestProgramEnrolmentService testProgramEnrolmentService;
+    @Autowired
+    private TestGroupSubjectService testGroupSubjectService;
+
+    @Before
+    public void setup() throws ValidationException {
+        TestDataSetupService.TestOrganisationData organisationData = testDataSetupService.setupOrganisation();
+        TestDataSetupService.TestCatchmentData catchmentData = testDataSetupService.setupACatchment();
+        SubjectType groupSubjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().setUuid("groupSubjectTypeForApi").setName("groupSubjectTypeForApi").setGroup(true).build());
+        SubjectType subjectType = testSubjectTypeService.createWithDefaults(new SubjectTypeBuilder().setMandatoryFieldsForNewEntity().setUuid("subjectTypeForApi").setName("subjectTypeForApi").build());
+        GroupRole groupRole = groupRoleRepository.save(new TestGroupRoleBuilder().withMandatoryFieldsForNewEntity().withGroupSubjectType(groupSubjectType).withMemberSubjectType(subjectType).build());
+        Program program = testProgramService.addProgram(new ProgramBuilder().withName("programForApi").build(), subjectType);
+        EncounterType encounterType = new EncounterTypeBuilder().withName("encounterTypeForApi").build();
+        encounterType.setUuid(UUID.randomUUID().toString());
+        encounterTypeRepository.save(encounterType);
+        Concept codedConcept = testConceptService.createCodedConcept("codedConceptForApi", "answer 1", "answer 2");
+        Concept answerConcept = codedConcept.getConceptAnswers().iterator().next().getAnswerConcept();
+        Concept textConcept = conceptRepository.save(new ConceptBuilder().withName("textConceptForApi").withDataType(ConceptDataType.Text).build());
+
+        Individual group = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(groupSubjectType).withLocation(catchmentData.getAddressLevel1()).build());
+        for (int i = 0; i < NUMBER_OF_MEMBERS; i++) {
+            ObservationCollection observations = new ObservationCollectionBuilder().addObservation(codedConcept, answerConcept)
+                    .addObservation(textConcept, String.format("text %d", i)).build();
+            Individual subject = testSubjectService.save(new SubjectBuilder().withMandatoryFieldsForNewEntity().withSubjectType(subjectType)
+                    .withLocation(catchmentData.getAddressLevel1()).withFirstName(String.format("member %d", i)).withObservations(observations).build());
+            testProgramEnrolmentService.save(new ProgramEnrolmentBuilder().withMandatoryFieldsForNewEntity().setProgram(program).setIndividual(subject).build());
+
+            Encounter encounter = new Encounter();
+            encounter.setUuid(UUID.randomUUID().toString());
+            encounter.setIndividual(subject);
+            encounter.setEncounterType(encounterType);
+            encounter.setEncounterDateTime(DateTime.now());
+            encounter.setObservations(new ObservationCollection());
+            encounter.setAddressId(subject.getAddressLevel().getId());
+            encounterRepository.save(encounter);
+
+            if (i == 0) {
+                testGroupSubjectService.save(new TestGroupSubjectBuilder().withGroupRole(groupRole).withMember(subject).withGroup(group).build());
+            }
+        }
+        setUser(organisationData.getUser().getUsername());
+    }
+
+    @Test
+    public void subjectShouldBeTheSameReadOnItsOwnAsInAPage() throws IOException {
+        JsonNode page = get(String.format("/api/subjects?lastModifiedDateTime=%s&now=%s&size=%d", DateTime.now(DateTimeZone.UTC).minusDays(1),
+                DateTime.now(DateTimeZone.UTC).plusMinutes(1), NUMBER_OF_MEMBERS + 1));
+        JsonNode subjects = page.get("content");
+        assertEquals(NUMBER_OF_MEMBERS + 1, subjects.size());
+
+        int membersInGroups = 0;
+        for (JsonNode subject : subjects) {
+            assertEquals(subject, get(String.format("/api/subject/%s", subject.get("ID").asText())));
+            if (subject.get("Groups").size() > 0) membersInGroups++;
+            if (subject.get("Subject type").asText().equals("subjectTypeForApi")) {
+                assertEquals(1, subject.get("encounters").size());
+                assertEquals(1, subject.get("enrolments").size());
+                JsonNode observations = subject.get("observations");
+                assertTrue(observations.get("codedConceptForApi").asText().startsWith("answer"));
+                assertTrue(observations.get("textConceptForApi").asText().startsWith("text"));
+            }
+        }
+        assertEquals(1, membersInGroups);
+    }
+
+    private JsonNode get(String url) throws IOException {
+        ResponseEntity<String> response = template.getForEntity(url, String.class);
+        assertTrue(response.getBody(), response.getStatusCode().is2xxSuccessful());
+        return mapper.readTree(response.getBody());
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.avni.server.dao.ConceptRepository;
 import org.avni.server.domain.Concept;
 import org.avni.server.domain.ConceptAnswer;
+import org.avni.server.domain.ConceptDictionary;
 import org.avni.server.domain.ObservationCollection;
 import org.avni.server.service.ConceptService;
 
@@ -14,7 +15,7 @@ import java.util.*;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
-import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -77,21 +78,51 @@ public class ResponseUnitTest {
         answers.add(conceptAnswer);
         questionConcept.setConceptAnswers(answers);
         observations.put(questionConceptUuid, answerConceptUuid);
-        List<Map<String, String>> conceptMapList = new ArrayList<>();
-        Map<String, String> conceptMap1 = new HashMap<>();
-        conceptMap1.put("name",questionConceptName);
-        conceptMap1.put("uuid",questionConceptUuid);
-        Map<String, String> conceptMap2 = new HashMap<>();
-        conceptMap2.put("name",answerValue);
-        conceptMap2.put("uuid",answerConceptUuid);
-        conceptMapList.add(conceptMap1);
-        conceptMapList.add(conceptMap2);
-        when(conceptRepository.getConceptUuidToNameMapList(anyString())).thenReturn(conceptMapList);
-        when(conceptService.getObservationValue(anyMap(), anyString())).thenReturn(answerValue);
+        questionConcept.setUuid(questionConceptUuid);
+        when(conceptService.getConceptDictionary()).thenReturn(new ConceptDictionary(Arrays.asList(questionConcept, answerConcept), Collections.emptyList()));
+        when(conceptService.getObservationValue(any(ConceptDictionary.class), anyString())).thenReturn(answerValue);
         Response.putObservations(conceptRepository, conceptService, parentMap, observationsResponse, observations);
         LinkedHashMap<String, Object> result = (LinkedHashMap<String, Object>) parentMap.get("observations");
 
         assertThat(result.get("First Name"), is("Test"));
         assertThat(result.get(questionConceptName), is(answerValue));
     }
+
+    @Test()
+    public void shouldMapKeysOfConceptsMissingFromTheDictionaryThroughItsFallback() {
+        Concept height = new Concept();
+        height.setUuid("height");
+        height.setName("Height");
+        Concept weight = new Concept();
+        weight.setUuid("weight");
+        weight.setName("Weight");
+        ConceptDictionary conceptDictionary = new ConceptDictionary(Collections.emptyList(), Collections.emptyList()).withFallback(new ConceptDictionary.Fallback() {
+            @Override
+            public Concept findByUuid(String uuid) {
+                return Arrays.asList(height, weight).stream().filter(concept -> concept.getUuid().equals(uuid)).findFirst().orElse(null);
+            }
+
+            @Override
+            public Concept findByName(String name) {
+                return null;
+            }
+
+            @Override
+            public void onMiss() {
+            }
+        });
+        ObservationCollection observations = new ObservationCollection();
+        observations.put("height", 150);
+        observations.put("weight", 50);
+        when(conceptService.getConceptDictionary()).thenReturn(conceptDictionary);
+        when(conceptService.getObservationValue(any(ConceptDictionary.class), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        LinkedHashMap<String, Object> parentMap = new LinkedHashMap<>();
+
+        Response.putObservations(conceptRepository, conceptService, parentMap, new LinkedHashMap<>(), observations);
+        LinkedHashMap<String, Object> result = (LinkedHashMap<String, Object>) parentMap.get("observations");
+
+        assertThat(result.size(), is(2));
+        assertThat(result.get("Height"), is(150));
+        assertThat(result.get("Weight"), is(50));
+    }
 }
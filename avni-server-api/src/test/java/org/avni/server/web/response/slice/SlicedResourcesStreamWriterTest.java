@@ -0,0 +1,117 @@
+package org.avni.server.web.response.slice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+import org.avni.server.dao.sync.SyncRowFormat;
+import org.avni.server.domain.Encounter;
+import org.avni.server.domain.EncounterType;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import javax.persistence.Tuple;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SlicedResourcesStreamWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JodaModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SyncRowFormat<Encounter> format = new SyncRowFormat<>(Encounter.class)
+            .value("id", "id")
+            .value("lastModifiedDateTime", "lastModifiedDateTime")
+            .json("observations", "observations")
+            .present("completed", "encounterDateTime")
+            .link("encounterTypeUUID", "encounterType");
+
+    @Test
+    public void shouldWriteRowsInTheFormatOfSlicedResources() throws IOException {
+        JsonNode response = write(Arrays.asList(row(1L, 1000L, "{\"a\": 1}", new Date(), "et-1"), row(2L, 2000L, null, null, null)), false);
+
+        JsonNode encounters = response.get("_embedded").get("encounter");
+        assertEquals(2, encounters.size());
+        assertEquals(1, encounters.get(0).get("id").asLong());
+        assertEquals(1000L, new DateTime(encounters.get(0).get("lastModifiedDateTime").asText()).getMillis());
+        assertEquals(1, encounters.get(0).get("observations").get("a").asInt());
+        assertTrue(encounters.get(0).get("completed").asBoolean());
+        assertEquals("et-1", encounters.get(0).get("_links").get("encounterTypeUUID").get("href").asText());
+        assertTrue(encounters.get(1).get("observations").isNull());
+        assertFalse(encounters.get(1).get("completed").asBoolean());
+        assertFalse(encounters.get(1).get("_links").has("encounterTypeUUID"));
+        assertFalse(response.get("slice").get("hasNext").asBoolean());
+        assertFalse(response.get("slice").has("continuationToken"));
+    }
+
+    @Test
+    public void shouldWriteContinuationTokenAfterLastRowWhenThereIsAnExtraRow() throws IOException {
+        JsonNode response = write(Arrays.asList(row(1L, 1000L, "{}", null, "et-1"), row(2L, 2000L, "{}", null, "et-1"), row(3L, 3000L, "{}", null, "et-1")), true);
+
+        assertEquals(2, response.get("_embedded").get("encounter").size());
+        assertTrue(response.get("slice").get("hasNext").asBoolean());
+        assertEquals("2000_2", response.get("slice").get("continuationToken").asText());
+    }
+
+    @Test
+    public void shouldNotWriteEmbeddedWhenThereAreNoRows() throws IOException {
+        JsonNode response = write(new ArrayList<>(), true);
+
+        assertFalse(response.has("_embedded"));
+        assertEquals(2, response.get("slice").get("size").asInt());
+        assertFalse(response.get("slice").get("hasNext").asBoolean());
+    }
+
+    @Test
+    public void shouldWriteEmbeddedEntityFromItsColumnsOrNullWhenThereIsNone() throws IOException {
+        SyncRowFormat<Encounter> formatWithEmbedded = new SyncRowFormat<>(Encounter.class)
+                .value("id", "id")
+                .value("lastModifiedDateTime", "lastModifiedDateTime")
+                .embedded("encounterType", "encounterType", new SyncRowFormat<>(EncounterType.class)
+                        .value("id", "id")
+                        .value("name", "name")
+                        .alwaysNull("concept"));
+        Tuple withEncounterType = mock(Tuple.class);
+        when(withEncounterType.get("c0")).thenReturn(1L);
+        when(withEncounterType.get("c1")).thenReturn(new Date(1000L));
+        when(withEncounterType.get("c2_c0")).thenReturn(5L);
+        when(withEncounterType.get("c2_c1")).thenReturn("Visit");
+        Tuple withoutEncounterType = mock(Tuple.class);
+        when(withoutEncounterType.get("c0")).thenReturn(2L);
+        when(withoutEncounterType.get("c1")).thenReturn(new Date(2000L));
+
+        JsonNode encounters = write(formatWithEmbedded, Arrays.asList(withEncounterType, withoutEncounterType), false).get("_embedded").get("encounter");
+
+        JsonNode encounterType = encounters.get(0).get("encounterType");
+        assertEquals(5, encounterType.get("id").asLong());
+        assertEquals("Visit", encounterType.get("name").asText());
+        assertTrue(encounterType.has("concept"));
+        assertTrue(encounterType.get("concept").isNull());
+        assertTrue(encounters.get(1).get("encounterType").isNull());
+    }
+
+    private JsonNode write(List<Tuple> rows, boolean withContinuationToken) throws IOException {
+        return write(format, rows, withContinuationToken);
+    }
+
+    private JsonNode write(SyncRowFormat<Encounter> format, List<Tuple> rows, boolean withContinuationToken) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new SlicedResourcesStreamWriter(objectMapper, format, "encounter").write(rows.iterator(), 2, 0, withContinuationToken, outputStream);
+        return objectMapper.readTree(outputStream.toByteArray());
+    }
+
+    private Tuple row(Long id, Long lastModifiedMillis, String observations, Date encounterDateTime, String encounterTypeUuid) {
+        Tuple tuple = mock(Tuple.class);
+        Object[] values = {id, new Date(lastModifiedMillis), observations, encounterDateTime, encounterTypeUuid};
+        for (int i = 0; i < values.length; i++) {
+            when(tuple.get(format.getColumns().get(i).getAlias(""))).thenReturn(values[i]);
+        }
+        return tuple;
+    }
+}
@@ -41,6 +41,7 @@ DELETE FROM operational_subject_type where 1 = 1;
 DELETE FROM subject_type where 1 = 1;
 delete from group_role where 1 = 1;
 DELETE FROM groups where 1 = 1;
+DELETE FROM entity_change_watermark where organisation_id <> 1;
 DELETE FROM organisation where id <> 1;
 DELETE FROM audit where 1 = 1;
 